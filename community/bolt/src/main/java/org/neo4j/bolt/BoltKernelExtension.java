@@ -24,6 +24,7 @@ import io.netty.handler.ssl.SslContext;
 import io.netty.util.internal.logging.InternalLoggerFactory;
 
 import java.time.Clock;
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.function.BiFunction;
@@ -43,6 +44,7 @@ import org.neo4j.bolt.v1.runtime.BoltFactoryImpl;
 import org.neo4j.bolt.v1.runtime.BoltWorker;
 import org.neo4j.bolt.v1.runtime.MonitoredWorkerFactory;
 import org.neo4j.bolt.v1.runtime.WorkerFactory;
+import org.neo4j.bolt.v1.runtime.concurrent.PooledWorkerFactory;
 import org.neo4j.bolt.v1.runtime.concurrent.ThreadedWorkerFactory;
 import org.neo4j.bolt.v1.transport.BoltProtocolV1;
 import org.neo4j.configuration.Description;
@@ -72,7 +74,13 @@ import org.neo4j.scheduler.JobScheduler;
 import org.neo4j.udc.UsageData;
 
 import static java.lang.String.format;
+import static org.neo4j.kernel.configuration.Settings.BOOLEAN;
+import static org.neo4j.kernel.configuration.Settings.DURATION;
+import static org.neo4j.kernel.configuration.Settings.FALSE;
+import static org.neo4j.kernel.configuration.Settings.INTEGER;
 import static org.neo4j.kernel.configuration.Settings.STRING;
+import static org.neo4j.kernel.configuration.Settings.buildSetting;
+import static org.neo4j.kernel.configuration.Settings.min;
 import static org.neo4j.kernel.configuration.Settings.setting;
 import static org.neo4j.kernel.configuration.ssl.LegacySslPolicyConfig.LEGACY_POLICY_NAME;
 import static org.neo4j.scheduler.JobScheduler.Groups.boltNetworkIO;
@@ -87,6 +95,30 @@ public class BoltKernelExtension extends KernelExtensionFactory<BoltKernelExtens
     {
         @Description( "SSL policy to use" )
         public static Setting<String> ssl_policy = setting( "bolt.ssl_policy", STRING, LEGACY_POLICY_NAME );
+
+        @Description( "Maximum number of threads executing the requests of Bolt sessions. When set to 0, every Bolt " +
+                      "session gets a dedicated thread. Otherwise sessions share a pool of at most this many " +
+                      "threads, and are only bound to one while they have queued requests or an open transaction." )
+        public static Setting<Integer> thread_pool_max_size =
+                buildSetting( "bolt.thread_pool_max_size", INTEGER, "0" ).constraint( min( 0 ) ).build();
+
+        @Description( "Longest time a result stream that the client pulls in batches waits for the client to pull " +
+                      "more records. The stream holds on to its thread and transaction while it waits, so a stream " +
+                      "that waits for longer fails, rolling back an auto-commit transaction, and the next request " +
+                      "of the client gets the failure." )
+        public static Setting<Duration> result_stream_idle_timeout =
+                setting( "bolt.result_stream_idle_timeout", DURATION, "60s" );
+
+        @Description( "Use the native epoll transport for Bolt connections, which is only available on Linux. " +
+                      "Falls back to the default NIO transport when the native transport is not available." )
+        public static Setting<Boolean> native_transport_enabled =
+                setting( "bolt.native_transport_enabled", BOOLEAN, FALSE );
+
+        @Description( "Number of acceptors bound to the port of every Bolt connector, using SO_REUSEPORT to have " +
+                      "the operating system spread new connections over them. Only used by the native transport. A port " +
+                      "that is already bound by another process is still reported as in use." )
+        public static Setting<Integer> acceptors =
+                buildSetting( "bolt.acceptors", INTEGER, "1" ).constraint( min( 1 ) ).build();
     }
 
     public interface Dependencies
@@ -183,13 +215,15 @@ public class BoltKernelExtension extends KernelExtensionFactory<BoltKernelExtens
                     }
 
                     final Map<Long, BiFunction<Channel, Boolean, BoltProtocol>> versions =
-                            newVersions( logService, workerFactory );
+                            newVersions( logService, workerFactory, config );
                     return new SocketTransport( listenAddress, sslCtx, requireEncryption, logService.getInternalLogProvider(), versions );
                 } ) );
 
         if ( connectors.size() > 0 && !config.get( GraphDatabaseSettings.disconnected ) )
         {
-            life.add( new NettyServer( scheduler.threadFactory( boltNetworkIO ), connectors, connectionRegister ) );
+            life.add( new NettyServer( scheduler.threadFactory( boltNetworkIO ), connectors, connectionRegister,
+                    config.get( Settings.native_transport_enabled ), config.get( Settings.acceptors ),
+                    logService.getInternalLog( NettyServer.class ) ) );
             log.info( "Bolt Server extension loaded." );
             for ( ProtocolInitializer connector : connectors.values() )
             {
@@ -203,8 +237,12 @@ public class BoltKernelExtension extends KernelExtensionFactory<BoltKernelExtens
     protected WorkerFactory createWorkerFactory( BoltFactory boltFactory, JobScheduler scheduler,
             Dependencies dependencies, LogService logService, Clock clock )
     {
-        WorkerFactory threadedWorkerFactory = new ThreadedWorkerFactory( boltFactory, scheduler, logService, clock );
-        return new MonitoredWorkerFactory( dependencies.monitors(), threadedWorkerFactory, clock );
+        int maxThreads = dependencies.config().get( Settings.thread_pool_max_size );
+        WorkerFactory workerFactory = maxThreads == 0
+                ? new ThreadedWorkerFactory( boltFactory, scheduler, logService, clock )
+                : new PooledWorkerFactory( boltFactory, scheduler, logService, clock, dependencies.monitors(),
+                        maxThreads );
+        return new MonitoredWorkerFactory( dependencies.monitors(), workerFactory, clock );
     }
 
     private SslContext createSslContext( SslPolicyLoader sslPolicyFactory, Config config )
@@ -226,19 +264,23 @@ public class BoltKernelExtension extends KernelExtensionFactory<BoltKernelExtens
     }
 
     private Map<Long, BiFunction<Channel, Boolean, BoltProtocol>> newVersions(
-            LogService logging, WorkerFactory workerFactory )
+            LogService logging, WorkerFactory workerFactory, Config config )
     {
+        Duration resultStreamIdleTimeout = config.get( Settings.result_stream_idle_timeout );
         Map<Long, BiFunction<Channel, Boolean, BoltProtocol>> availableVersions = new HashMap<>();
-        availableVersions.put(
-                (long) BoltProtocolV1.VERSION,
-                ( channel, isEncrypted ) ->
-                {
-                    BoltConnectionDescriptor descriptor = new BoltConnectionDescriptor(
-                            channel.remoteAddress(), channel.localAddress() );
-                    BoltWorker worker = workerFactory.newWorker( descriptor, channel::close );
-                    return new BoltProtocolV1( worker, channel, logging );
-                }
-        );
+        for ( int version : new int[]{BoltProtocolV1.VERSION, BoltProtocolV1.VERSION_2} )
+        {
+            availableVersions.put(
+                    (long) version,
+                    ( channel, isEncrypted ) ->
+                    {
+                        BoltConnectionDescriptor descriptor = new BoltConnectionDescriptor(
+                                channel.remoteAddress(), channel.localAddress() );
+                        BoltWorker worker = workerFactory.newWorker( descriptor, channel::close );
+                        return new BoltProtocolV1( worker, channel, logging, resultStreamIdleTimeout, version );
+                    }
+            );
+        }
         return availableVersions;
     }
 
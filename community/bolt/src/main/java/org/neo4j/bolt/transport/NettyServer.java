@@ -25,11 +25,18 @@ import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.EventLoopGroup;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollChannelOption;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollServerSocketChannel;
 import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.ServerSocketChannel;
 import io.netty.channel.socket.nio.NioServerSocketChannel;
 
+import java.io.IOException;
 import java.net.BindException;
 import java.net.InetSocketAddress;
+import java.net.ServerSocket;
 import java.util.Map;
 import java.util.concurrent.ThreadFactory;
 
@@ -38,10 +45,16 @@ import org.neo4j.helpers.PortBindException;
 import org.neo4j.kernel.configuration.BoltConnector;
 import org.neo4j.kernel.configuration.ConnectorPortRegister;
 import org.neo4j.kernel.lifecycle.LifecycleAdapter;
+import org.neo4j.logging.Log;
+import org.neo4j.logging.NullLog;
 
 /**
  * Simple wrapper around Netty boss and selector threads, which allows multiple ports and protocols to be handled
  * by the same set of common worker threads.
+ * <p>
+ * On Linux, the native epoll transport can be used instead of NIO. It also allows every port to be bound by several
+ * acceptors using {@code SO_REUSEPORT}, which has the kernel spread new connections over several boss threads rather
+ * than queue them all up for a single one.
  */
 public class NettyServer extends LifecycleAdapter
 {
@@ -53,6 +66,9 @@ public class NettyServer extends LifecycleAdapter
     private final Map<BoltConnector, ProtocolInitializer> bootstrappersMap;
     private final ThreadFactory tf;
     private final ConnectorPortRegister connectionRegister;
+    private final boolean nativeTransport;
+    private final int acceptors;
+    private final Log log;
     private EventLoopGroup bossGroup;
     private EventLoopGroup selectorGroup;
 
@@ -72,26 +88,52 @@ public class NettyServer extends LifecycleAdapter
      */
     public NettyServer( ThreadFactory tf, Map<BoltConnector, ProtocolInitializer> initializersMap,
             ConnectorPortRegister connectorRegister )
+    {
+        this( tf, initializersMap, connectorRegister, false, 1, NullLog.getInstance() );
+    }
+
+    /**
+     * @param tf used to create IO threads to listen and handle network events
+     * @param initializersMap  function per bolt connector map to bootstrap configured protocols
+     * @param connectorRegister register to keep local address information on all configured connectors
+     * @param nativeTransport whether to use the native epoll transport, falls back to NIO when it is not available
+     * @param acceptors number of acceptors to bind every port with, only used by the native transport
+     * @param log used to report falling back to NIO
+     */
+    public NettyServer( ThreadFactory tf, Map<BoltConnector, ProtocolInitializer> initializersMap,
+            ConnectorPortRegister connectorRegister, boolean nativeTransport, int acceptors, Log log )
     {
         this.bootstrappersMap = initializersMap;
         this.tf = tf;
         this.connectionRegister = connectorRegister;
+        this.nativeTransport = nativeTransport;
+        this.acceptors = Math.max( 1, acceptors );
+        this.log = log;
     }
 
     @Override
     public void start() throws Throwable
     {
-        // The boss thread accepts new incoming connections and chooses a worker thread to be responsible for the
+        boolean useEpoll = nativeTransport && Epoll.isAvailable();
+        if ( nativeTransport && !useEpoll )
+        {
+            log.warn( "Native transport is not available, falling back to NIO.", Epoll.unavailabilityCause() );
+        }
+        int acceptorsPerPort = useEpoll ? acceptors : 1;
+        Class<? extends ServerSocketChannel> channelClass =
+                useEpoll ? EpollServerSocketChannel.class : NioServerSocketChannel.class;
+
+        // The boss threads accept new incoming connections and choose a worker thread to be responsible for the
         // IO of the new connection. We expect new connections to be (comparatively) rare, so we allocate a single
-        // thread for this.
+        // thread for this, unless several acceptors are bound to every port.
         // TODO: In fact, dedicating a whole thread to sit and spin in #select for new connections may be a waste of
         // time, we could have the same event loop groups for both handling new connections and for handling events
         // on existing connections
-        bossGroup = new NioEventLoopGroup( 1, tf );
+        bossGroup = newEventLoopGroup( useEpoll, acceptorsPerPort );
 
         // These threads handle live channels. Each thread has a set of channels it is responsible for, and it will
         // continuously run a #select() loop to react to new events on these channels.
-        selectorGroup = new NioEventLoopGroup( NUM_SELECTOR_THREADS, tf );
+        selectorGroup = newEventLoopGroup( useEpoll, NUM_SELECTOR_THREADS );
 
         // Bootstrap the various ports and protocols we want to handle
 
@@ -101,12 +143,25 @@ public class NettyServer extends LifecycleAdapter
             {
                 ProtocolInitializer protocolInitializer = bootstrapEntry.getValue();
                 BoltConnector boltConnector = bootstrapEntry.getKey();
-                ChannelFuture channelFuture =
+                ServerBootstrap bootstrap =
                         new ServerBootstrap().option( ChannelOption.ALLOCATOR, PooledByteBufAllocator.DEFAULT )
-                                .group( bossGroup, selectorGroup ).channel( NioServerSocketChannel.class )
-                                .childHandler( protocolInitializer.channelInitializer() )
-                                .bind( protocolInitializer.address().socketAddress() ).sync();
+                                .group( bossGroup, selectorGroup ).channel( channelClass )
+                                .childHandler( protocolInitializer.channelInitializer() );
+                InetSocketAddress address = protocolInitializer.address().socketAddress();
+                if ( acceptorsPerPort > 1 )
+                {
+                    // SO_REUSEPORT would also let us share the port with anyone else binding it that way, say a
+                    // second instance configured with the same port, so make sure nobody holds the port first
+                    ensurePortIsFree( address );
+                    bootstrap.option( EpollChannelOption.SO_REUSEPORT, true );
+                }
+                ChannelFuture channelFuture = bootstrap.bind( address ).sync();
                 InetSocketAddress localAddress = (InetSocketAddress) channelFuture.channel().localAddress();
+                for ( int i = 1; i < acceptorsPerPort; i++ )
+                {
+                    // bind to the port actually bound, in case an ephemeral port was asked for
+                    bootstrap.bind( localAddress ).sync();
+                }
                 connectionRegister.register( boltConnector.key(), localAddress );
             }
             catch ( Throwable e )
@@ -130,4 +185,23 @@ public class NettyServer extends LifecycleAdapter
         bossGroup.shutdownGracefully();
         selectorGroup.shutdownGracefully();
     }
+
+    private static void ensurePortIsFree( InetSocketAddress address ) throws IOException
+    {
+        if ( address.getPort() == 0 )
+        {
+            // an ephemeral port is picked among the free ones
+            return;
+        }
+        try ( ServerSocket socket = new ServerSocket() )
+        {
+            // throws BindException if the port is bound, with or without SO_REUSEPORT
+            socket.bind( address );
+        }
+    }
+
+    private EventLoopGroup newEventLoopGroup( boolean useEpoll, int threads )
+    {
+        return useEpoll ? new EpollEventLoopGroup( threads, tf ) : new NioEventLoopGroup( threads, tf );
+    }
 }
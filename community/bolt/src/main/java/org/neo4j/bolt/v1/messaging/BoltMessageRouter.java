@@ -20,7 +20,9 @@
 package org.neo4j.bolt.v1.messaging;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.neo4j.bolt.v1.runtime.BoltWorker;
 import org.neo4j.bolt.v1.runtime.Neo4jError;
@@ -28,6 +30,11 @@ import org.neo4j.bolt.v1.runtime.spi.BoltResult;
 import org.neo4j.logging.Log;
 import org.neo4j.values.AnyValue;
 import org.neo4j.values.result.QueryResult;
+import org.neo4j.values.storable.Values;
+import org.neo4j.values.virtual.MapValue;
+import org.neo4j.values.virtual.VirtualValues;
+
+import static java.util.Collections.singletonMap;
 
 /**
  * This class is responsible for routing incoming request messages to a worker
@@ -41,23 +48,57 @@ public class BoltMessageRouter implements BoltRequestMessageHandler<RuntimeExcep
     private final MessageProcessingHandler runHandler;
     private final MessageProcessingHandler resultHandler;
     private final MessageProcessingHandler defaultHandler;
+    private final AtomicReference<Neo4jError> unreportedFailure = new AtomicReference<>();
+    private final long resultStreamIdleTimeoutMillis;
+    // replaced by the IO thread when a stream is ended, jobs capture the instance their request was registered with
+    private volatile ResultDemand resultDemand;
 
+    private final Log log;
+    private final BoltResponseMessageHandler<IOException> output;
+    private final Runnable onEachCompletedRequest;
     private BoltWorker worker;
 
     public BoltMessageRouter( Log log, BoltWorker worker, BoltResponseMessageHandler<IOException> output,
-            Runnable onEachCompletedRequest )
+            Runnable onEachCompletedRequest, Duration resultStreamIdleTimeout )
     {
-        this.initHandler = new InitHandler( output, onEachCompletedRequest, worker, log );
-        this.runHandler = new RunHandler( output, onEachCompletedRequest, worker, log );
-        this.resultHandler = new ResultHandler( output, onEachCompletedRequest, worker, log );
-        this.defaultHandler = new MessageProcessingHandler( output, onEachCompletedRequest, worker, log );
+        this.initHandler = new InitHandler( output, onEachCompletedRequest, worker, log, unreportedFailure );
+        this.runHandler = new RunHandler( output, onEachCompletedRequest, worker, log, unreportedFailure );
+        this.resultHandler = new ResultHandler( output, onEachCompletedRequest, worker, log, unreportedFailure );
+        this.defaultHandler = new MessageProcessingHandler( output, onEachCompletedRequest, worker, log,
+                unreportedFailure );
+        this.resultStreamIdleTimeoutMillis = resultStreamIdleTimeout.toMillis();
+        this.resultDemand = new ResultDemand( resultStreamIdleTimeoutMillis );
 
+        this.log = log;
+        this.output = output;
+        this.onEachCompletedRequest = onEachCompletedRequest;
         this.worker = worker;
     }
 
+    /**
+     * Stops a result stream that is waiting for the client to pull more records, since that will never happen.
+     */
+    public void close()
+    {
+        resultDemand.cancel();
+    }
+
+    /**
+     * Ends a result stream that is waiting for the client to pull more records, since the client moved on to another
+     * request. The worker discards the rest of the result and then processes the request.
+     */
+    private void endResultStream()
+    {
+        if ( resultDemand.end() )
+        {
+            resultDemand = new ResultDemand( resultStreamIdleTimeoutMillis );
+        }
+    }
+
     @Override
     public void onInit( String userAgent, Map<String,Object> authToken ) throws RuntimeException
     {
+        endResultStream();
         // TODO: make the client transmit the version for now it is hardcoded to -1 to ensure current behaviour
         worker.enqueue( session -> session.init( userAgent, authToken, initHandler ) );
     }
@@ -65,12 +106,14 @@ public class BoltMessageRouter implements BoltRequestMessageHandler<RuntimeExcep
     @Override
     public void onAckFailure() throws RuntimeException
     {
+        endResultStream();
         worker.enqueue( session -> session.ackFailure( defaultHandler ) );
     }
 
     @Override
     public void onReset() throws RuntimeException
     {
+        resultDemand.cancel();
         worker.interrupt();
         worker.enqueue( session -> session.reset( defaultHandler ) );
     }
@@ -78,41 +121,104 @@ public class BoltMessageRouter implements BoltRequestMessageHandler<RuntimeExcep
     @Override
     public void onRun( String statement, Map<String,Object> params )
     {
+        endResultStream();
         worker.enqueue( session -> session.run( statement, params, runHandler ) );
     }
 
+    @Override
+    public void onPrepare( String statement )
+    {
+        endResultStream();
+        worker.enqueue( session -> session.prepare( statement, defaultHandler ) );
+    }
+
+    @Override
+    public void onExecute( long statementId, Map<String,Object> params )
+    {
+        endResultStream();
+        worker.enqueue( session -> session.execute( statementId, params, runHandler ) );
+    }
+
     @Override
     public void onExternalError( Neo4jError error )
     {
+        endResultStream();
         worker.enqueue( session -> session.externalError( error, defaultHandler ) );
     }
 
     @Override
     public void onDiscardAll()
     {
-        worker.enqueue( session -> session.discardAll( resultHandler ) );
+        ResultDemand demand = resultDemand;
+        ResultDemand.Request request = demand.consumeAll( false );
+        if ( request == null )
+        {
+            worker.enqueue( session -> session.discardAll( resultHandler ) );
+        }
+        else
+        {
+            worker.enqueue( session ->
+            {
+                if ( demand.needsProcessing( request ) )
+                {
+                    session.discardAll( resultHandler );
+                }
+            } );
+        }
     }
 
     @Override
     public void onPullAll()
     {
-        worker.enqueue( session -> session.pullAll( resultHandler ) );
+        ResultDemand demand = resultDemand;
+        ResultDemand.Request request = demand.consumeAll( true );
+        if ( request == null )
+        {
+            worker.enqueue( session -> session.pullAll( resultHandler ) );
+        }
+        else
+        {
+            worker.enqueue( session ->
+            {
+                if ( demand.needsProcessing( request ) )
+                {
+                    session.pullAll( resultHandler );
+                }
+            } );
+        }
+    }
+
+    @Override
+    public void onPull( long n )
+    {
+        ResultDemand demand = resultDemand;
+        ResultDemand.Request request = demand.pull( n );
+        worker.enqueue( session ->
+        {
+            if ( demand.needsProcessing( request ) )
+            {
+                session.pullAll( new BatchedResultHandler( output, onEachCompletedRequest, worker, log,
+                        unreportedFailure, demand, request ) );
+            }
+        } );
     }
 
     private static class InitHandler extends MessageProcessingHandler
     {
-        InitHandler( BoltResponseMessageHandler<IOException> handler, Runnable onCompleted, BoltWorker worker, Log log )
+        InitHandler( BoltResponseMessageHandler<IOException> handler, Runnable onCompleted, BoltWorker worker, Log log,
+                AtomicReference<Neo4jError> unreportedFailure )
         {
-            super( handler, onCompleted, worker, log );
+            super( handler, onCompleted, worker, log, unreportedFailure );
         }
 
     }
 
     private static class RunHandler extends MessageProcessingHandler
     {
-        RunHandler( BoltResponseMessageHandler<IOException> handler, Runnable onCompleted, BoltWorker worker, Log log )
+        RunHandler( BoltResponseMessageHandler<IOException> handler, Runnable onCompleted, BoltWorker worker, Log log,
+                AtomicReference<Neo4jError> unreportedFailure )
         {
-            super( handler, onCompleted, worker, log );
+            super( handler, onCompleted, worker, log, unreportedFailure );
         }
 
     }
@@ -120,9 +226,9 @@ public class BoltMessageRouter implements BoltRequestMessageHandler<RuntimeExcep
     private static class ResultHandler extends MessageProcessingHandler
     {
         ResultHandler( BoltResponseMessageHandler<IOException> handler, Runnable onCompleted, BoltWorker worker,
-                Log log )
+                Log log, AtomicReference<Neo4jError> unreportedFailure )
         {
-            super( handler, onCompleted, worker, log );
+            super( handler, onCompleted, worker, log, unreportedFailure );
         }
 
         @Override
@@ -149,4 +255,86 @@ public class BoltMessageRouter implements BoltRequestMessageHandler<RuntimeExcep
         }
 
     }
+
+    /**
+     * Streams records in batches, for {@code PULL} requests. Once the records asked for have been sent, the stream
+     * waits for the client to ask for more, see {@link ResultDemand}.
+     */
+    private static class BatchedResultHandler extends MessageProcessingHandler
+    {
+        private static final MapValue HAS_MORE = VirtualValues.map( singletonMap( "has_more", Values.TRUE ) );
+
+        private final ResultDemand demand;
+        private final ResultDemand.Request request;
+        private boolean streamed;
+
+        BatchedResultHandler( BoltResponseMessageHandler<IOException> handler, Runnable onCompleted, BoltWorker worker,
+                Log log, AtomicReference<Neo4jError> unreportedFailure, ResultDemand demand,
+                ResultDemand.Request request )
+        {
+            super( handler, onCompleted, worker, log, unreportedFailure );
+            this.demand = demand;
+            this.request = request;
+        }
+
+        @Override
+        public void onRecords( final BoltResult result, final boolean pull ) throws Exception
+        {
+            streamed = true;
+            demand.streamStarted( request );
+            result.accept( new BoltResult.Visitor()
+            {
+                @Override
+                public void visit( QueryResult.Record record ) throws Exception
+                {
+                    ResultDemand.Request current;
+                    while ( (current = demand.takeRecord()) == null )
+                    {
+                        // there are more records than the current request asked for
+                        demand.answerCurrent();
+                        onIntermediateSuccess( HAS_MORE );
+                        demand.awaitNextRequest();
+                    }
+                    if ( current.pull() )
+                    {
+                        handler.onRecord( record );
+                    }
+                }
+
+                @Override
+                public void addMetadata( String key, AnyValue value )
+                {
+                    metadata.put( key, value );
+                }
+            } );
+        }
+
+        @Override
+        public void onFinish()
+        {
+            try
+            {
+                if ( !streamed || demand.hasUnansweredRequest() )
+                {
+                    super.onFinish();
+                }
+                else if ( demand.hasTimedOut() )
+                {
+                    deferFailure();
+                }
+                // else every request has been answered already, the failure of a cancelled stream is not reported
+            }
+            finally
+            {
+                if ( streamed )
+                {
+                    demand.streamFinished();
+                }
+                else
+                {
+                    demand.processedWithoutStream( request );
+                }
+            }
+        }
+    }
 }
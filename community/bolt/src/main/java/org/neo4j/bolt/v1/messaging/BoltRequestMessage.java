@@ -24,16 +24,19 @@ import static java.lang.String.format;
 /**
  * Enumeration representing all defined Bolt request messages.
  * Also contains the signature byte with which the message is
- * encoded on the wire.
+ * encoded on the wire, and the version of the protocol that introduced the message.
  */
 public enum BoltRequestMessage
 {
-    INIT( 0x01 ),
-    ACK_FAILURE( 0x0E ),
-    RESET( 0x0F ),
-    RUN( 0x10 ),
-    DISCARD_ALL( 0x2F ),
-    PULL_ALL( 0x3F );
+    INIT( 0x01, 1 ),
+    ACK_FAILURE( 0x0E, 1 ),
+    RESET( 0x0F, 1 ),
+    RUN( 0x10, 1 ),
+    PREPARE( 0x11, 2 ),
+    EXECUTE( 0x12, 2 ),
+    DISCARD_ALL( 0x2F, 1 ),
+    PULL( 0x3E, 2 ),
+    PULL_ALL( 0x3F, 1 );
 
     private static BoltRequestMessage[] valuesBySignature = new BoltRequestMessage[0x40];
     static
@@ -62,10 +65,12 @@ public enum BoltRequestMessage
     }
 
     private final byte signature;
+    private final int sinceVersion;
 
-    BoltRequestMessage( int signature )
+    BoltRequestMessage( int signature, int sinceVersion )
     {
         this.signature = (byte) signature;
+        this.sinceVersion = sinceVersion;
     }
 
     public byte signature()
@@ -73,4 +78,12 @@ public enum BoltRequestMessage
         return signature;
     }
 
+    /**
+     * @return {@code true} if the message is part of the given version of the protocol.
+     */
+    public boolean isSupportedBy( int protocolVersion )
+    {
+        return sinceVersion <= protocolVersion;
+    }
+
 }
@@ -39,10 +39,25 @@ public interface BoltRequestMessageHandler<E extends Exception>
 
     void onRun( String statement, Map<String,Object> params ) throws E;
 
+    /**
+     * Prepare a statement, the response carries the id to {@link #onExecute(long, Map) execute} it by.
+     */
+    void onPrepare( String statement ) throws E;
+
+    /**
+     * Run a prepared statement, with the same responses as {@link #onRun(String, Map)}.
+     */
+    void onExecute( long statementId, Map<String,Object> params ) throws E;
+
     void onDiscardAll() throws E;
 
     void onPullAll() throws E;
 
+    /**
+     * Pull at most {@code n} records of the current result, the remaining records are kept for subsequent pulls.
+     */
+    void onPull( long n ) throws E;
+
     void onExternalError( Neo4jError error ) throws E;
 
 }
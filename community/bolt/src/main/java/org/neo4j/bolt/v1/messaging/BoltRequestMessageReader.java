@@ -25,6 +25,7 @@ import java.util.Optional;
 
 import org.neo4j.bolt.v1.packstream.PackStream;
 import org.neo4j.bolt.v1.runtime.Neo4jError;
+import org.neo4j.bolt.v1.transport.BoltProtocolV1;
 import org.neo4j.kernel.api.exceptions.Status;
 
 /**
@@ -33,10 +34,20 @@ import org.neo4j.kernel.api.exceptions.Status;
 public class BoltRequestMessageReader
 {
     private final Neo4jPack.Unpacker unpacker;
+    private final int protocolVersion;
 
     public BoltRequestMessageReader( Neo4jPack.Unpacker unpacker )
+    {
+        this( unpacker, BoltProtocolV1.VERSION );
+    }
+
+    /**
+     * @param protocolVersion negotiated version of the protocol, messages introduced by later versions are refused.
+     */
+    public BoltRequestMessageReader( Neo4jPack.Unpacker unpacker, int protocolVersion )
     {
         this.unpacker = unpacker;
+        this.protocolVersion = protocolVersion;
     }
 
     public boolean hasNext() throws IOException
@@ -57,6 +68,11 @@ public class BoltRequestMessageReader
             unpacker.unpackStructHeader();
             final int signature = (int) unpacker.unpackStructSignature();
             BoltRequestMessage message = BoltRequestMessage.withSignature( signature );
+            if ( !message.isSupportedBy( protocolVersion ) )
+            {
+                throw new BoltIOException( Status.Request.Invalid, "Message 0x" + Integer.toHexString( signature ) +
+                        " is not supported by version " + protocolVersion + " of the protocol." );
+            }
             try
             {
                 switch ( message )
@@ -85,12 +101,37 @@ public class BoltRequestMessageReader
                         handler.onRun( statement, params );
                     }
                     break;
+                case PREPARE:
+                    handler.onPrepare( unpacker.unpackString() );
+                    break;
+                case EXECUTE:
+                    long statementId = unpacker.unpackLong();
+                    Map<String,Object> executeParams = unpacker.unpackToRawMap();
+                    Optional<Neo4jError> executeError = unpacker.consumeError();
+                    if ( executeError.isPresent() )
+                    {
+                        handler.onExternalError( executeError.get() );
+                    }
+                    else
+                    {
+                        handler.onExecute( statementId, executeParams );
+                    }
+                    break;
                 case DISCARD_ALL:
                     handler.onDiscardAll();
                     break;
                 case PULL_ALL:
                     handler.onPullAll();
                     break;
+                case PULL:
+                    long n = unpacker.unpackLong();
+                    if ( n <= 0 )
+                    {
+                        throw new BoltIOException( Status.Request.Invalid,
+                                "Expected a positive number of records to pull, but got " + n + "." );
+                    }
+                    handler.onPull( n );
+                    break;
                 default:
                     throw new BoltIOException( Status.Request.Invalid,
                             "Message 0x" + Integer.toHexString( signature ) + " is not supported." );
@@ -22,6 +22,7 @@ package org.neo4j.bolt.v1.messaging;
 import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.neo4j.bolt.v1.packstream.PackOutputClosedException;
 import org.neo4j.bolt.v1.runtime.BoltResponseHandler;
@@ -43,15 +44,27 @@ class MessageProcessingHandler implements BoltResponseHandler
 
     private Neo4jError error;
     private final Runnable onFinish;
+    private final AtomicReference<Neo4jError> unreportedFailure;
     private boolean ignored;
 
     MessageProcessingHandler( BoltResponseMessageHandler<IOException> handler, Runnable onFinish, BoltWorker worker,
             Log logger )
+    {
+        this( handler, onFinish, worker, logger, new AtomicReference<>() );
+    }
+
+    /**
+     * @param unreportedFailure shared by the handlers of a connection, holds a failure that could not be reported
+     * when it happened, since the requests it concerns had all been answered, see {@link #deferFailure()}.
+     */
+    MessageProcessingHandler( BoltResponseMessageHandler<IOException> handler, Runnable onFinish, BoltWorker worker,
+            Log logger, AtomicReference<Neo4jError> unreportedFailure )
     {
         this.handler = handler;
         this.onFinish = onFinish;
         this.worker = worker;
         this.log = logger;
+        this.unreportedFailure = unreportedFailure;
     }
 
     @Override
@@ -87,7 +100,13 @@ class MessageProcessingHandler implements BoltResponseHandler
     {
         try
         {
-            if ( ignored )
+            // the session left the failed state if this request was not ignored
+            Neo4jError unreported = unreportedFailure.getAndSet( null );
+            if ( ignored && unreported != null )
+            {
+                publishError( handler, unreported );
+            }
+            else if ( ignored )
             {
                 handler.onIgnored();
             }
@@ -112,6 +131,35 @@ class MessageProcessingHandler implements BoltResponseHandler
         }
     }
 
+    /**
+     * Answers a request before this handler finishes, for when a single result stream serves several requests.
+     */
+    void onIntermediateSuccess( MapValue metadata ) throws IOException
+    {
+        try
+        {
+            handler.onSuccess( metadata );
+        }
+        finally
+        {
+            onFinish.run();
+        }
+    }
+
+    /**
+     * Keeps the failure this handler has been marked with, instead of reporting it, for when every request it
+     * concerns has been answered already. The failure is reported by the handler of the next request, in place of
+     * the response that tells the request was ignored because of the failure.
+     */
+    void deferFailure()
+    {
+        if ( error != null )
+        {
+            unreportedFailure.set( error );
+        }
+        clearState();
+    }
+
     MapValue getMetadata()
     {
         return VirtualValues.map( metadata );
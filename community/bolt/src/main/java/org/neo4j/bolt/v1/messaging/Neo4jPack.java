@@ -379,19 +379,28 @@ public class Neo4jPack
         @Override
         public void beginUTF8( int size ) throws IOException
         {
-            throw new UnsupportedOperationException( "pack stream cannot handle UTF8 values" );
+            packStringHeader( size );
         }
 
         @Override
         public void copyUTF8( long fromAddress, int length ) throws IOException
         {
-            throw new UnsupportedOperationException( "pack stream cannot handle UTF8 values" );
+            // the data is already UTF-8 encoded, so it is copied as is rather than being decoded into a String first
+            packRawBytes( fromAddress, length );
         }
 
         @Override
         public void endUTF8() throws IOException
         {
-            throw new UnsupportedOperationException( "pack stream cannot handle UTF8 values" );
+            //Do nothing
+        }
+
+        @Override
+        public void writeUTF8( byte[] bytes, int offset, int length ) throws IOException
+        {
+            // the string is already UTF-8 encoded, e.g. as read from the store, so it does not need to be encoded again
+            packStringHeader( length );
+            packRawBytes( bytes, offset, length );
         }
 
         @Override
@@ -530,7 +539,7 @@ public class Neo4jPack
                     list.add( unpack() );
                 }
             }
-            return VirtualValues.list( list.toArray( new AnyValue[list.size()] ) );
+            return VirtualValues.compactList( list.toArray( new AnyValue[list.size()] ) );
         }
 
         public MapValue unpackMap() throws IOException
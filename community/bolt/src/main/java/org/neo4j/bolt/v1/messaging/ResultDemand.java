@@ -0,0 +1,295 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.bolt.v1.messaging;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.TimeUnit;
+
+import org.neo4j.kernel.api.exceptions.Status;
+
+/**
+ * Keeps track of the result requests, {@code PULL}, {@code PULL_ALL} and {@code DISCARD_ALL}, that are served by a
+ * result stream which is pulled in batches.
+ * <p>
+ * A stream that has served the records asked for pauses, keeping its worker thread, until the client asks for more.
+ * A stream that is paused for longer than the idle timeout fails, see {@link #awaitNextRequest()}, so that idle
+ * clients cannot hold on to worker threads and transactions indefinitely.
+ * Since the worker is busy streaming, requests for more records are handed to the stream straight from the IO thread
+ * rather than through the job queue of the worker. Every request still gets a job queued in order, which does nothing
+ * if the stream has already answered the request, and otherwise processes it as usual. The latter happens for
+ * requests that the stream did not get to, because it ran out of records or was not started in the first place.
+ * <p>
+ * Requests are answered in the order they were received: all but the last one served by a stream get an
+ * intermediate response once the next record shows there is more to come, the last one gets the response of the
+ * stream itself.
+ * <p>
+ * Any other request, e.g. {@code RUN}, {@link #end() ends} the stream. The stream still serves the requests received
+ * before, and then discards its remaining records without answering, so that the worker can move on to the job of
+ * the ending request. Requests received after that are tracked by a new instance.
+ */
+class ResultDemand
+{
+    static final class Request
+    {
+        private final boolean pull;
+        private long remaining;
+        private boolean answered;
+
+        private Request( long n, boolean pull )
+        {
+            this.remaining = n;
+            this.pull = pull;
+        }
+
+        boolean pull()
+        {
+            return pull;
+        }
+    }
+
+    // consumes the records that remain once a stream has been ended and all of its requests have been answered
+    private static final Request DISCARD_REMAINING = new Request( Long.MAX_VALUE, false );
+
+    private final Deque<Request> requests = new ArrayDeque<>();
+    private final long idleTimeoutMillis;
+    private boolean open;
+    private boolean ended;
+    private boolean cancelled;
+    private boolean timedOut;
+
+    /**
+     * @param idleTimeoutMillis longest time a stream waits for the client to ask for more records.
+     */
+    ResultDemand( long idleTimeoutMillis )
+    {
+        this.idleTimeoutMillis = idleTimeoutMillis;
+    }
+
+    /**
+     * Registers a {@code PULL} of {@code n} records. The request either joins the open stream, or opens one that the
+     * job of this request starts.
+     */
+    synchronized Request pull( long n )
+    {
+        Request request = new Request( n, true );
+        open = true;
+        requests.addLast( request );
+        notifyAll();
+        return request;
+    }
+
+    /**
+     * Registers a {@code PULL_ALL}, or {@code DISCARD_ALL} if {@code pull} is {@code false}, with the open stream.
+     *
+     * @return the request, or {@code null} if no stream is open and the request should be processed as usual.
+     */
+    synchronized Request consumeAll( boolean pull )
+    {
+        if ( !open )
+        {
+            return null;
+        }
+        Request request = new Request( Long.MAX_VALUE, pull );
+        requests.addLast( request );
+        notifyAll();
+        return request;
+    }
+
+    /**
+     * @return {@code true} if the job of the given request needs to process it, i.e. it has not been answered by a
+     * stream.
+     */
+    synchronized boolean needsProcessing( Request request )
+    {
+        return !request.answered;
+    }
+
+    /**
+     * Called by the worker when the result stream is about to be consumed on behalf of the given request.
+     */
+    synchronized void streamStarted( Request request )
+    {
+        open = true;
+        if ( !requests.contains( request ) )
+        {
+            // the request was released by an earlier stream, which means it was received before any open requests
+            requests.addFirst( request );
+        }
+    }
+
+    /**
+     * Takes one record of the demand of the current request.
+     *
+     * @return the request the next record is produced for, or {@code null} if the current request has been served
+     * and needs to be answered before streaming can continue.
+     */
+    synchronized Request takeRecord()
+    {
+        Request current = requests.peekFirst();
+        if ( current == null )
+        {
+            // the stream has been ended and all of its requests have been answered
+            return DISCARD_REMAINING;
+        }
+        if ( current.remaining == 0 )
+        {
+            return null;
+        }
+        current.remaining--;
+        return current;
+    }
+
+    /**
+     * Marks the served current request as answered, the caller is responsible for sending the intermediate response.
+     */
+    synchronized void answerCurrent()
+    {
+        requests.removeFirst().answered = true;
+    }
+
+    /**
+     * Waits until the client has asked for more records, or sent another request which ends the stream.
+     *
+     * @throws BoltIOException if streaming was cancelled, e.g. by a reset, while waiting, or if the client did not
+     * send another request within the idle timeout. The failure of a timed out stream is to be reported to the next
+     * request of the client, see {@link #hasTimedOut()}.
+     */
+    synchronized void awaitNextRequest() throws BoltIOException
+    {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos( idleTimeoutMillis );
+        try
+        {
+            while ( requests.isEmpty() && !ended && !cancelled && !timedOut )
+            {
+                long remainingMillis = TimeUnit.NANOSECONDS.toMillis( deadline - System.nanoTime() );
+                if ( remainingMillis <= 0 )
+                {
+                    timedOut = true;
+                }
+                else
+                {
+                    wait( remainingMillis );
+                }
+            }
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+            cancelled = true;
+        }
+        if ( cancelled )
+        {
+            throw new BoltIOException( Status.Transaction.Terminated,
+                    "Result streaming was stopped while waiting for the client to pull more records." );
+        }
+        if ( timedOut )
+        {
+            throw new BoltIOException( Status.Transaction.TransactionTimedOut, String.format(
+                    "Result streaming was stopped since the client did not pull more records within %d ms.",
+                    idleTimeoutMillis ) );
+        }
+    }
+
+    /**
+     * @return {@code true} if the stream failed because the client did not ask for more records in time. All of its
+     * requests have been answered by then, so its failure is reported to the next request instead.
+     */
+    synchronized boolean hasTimedOut()
+    {
+        return timedOut;
+    }
+
+    /**
+     * @return {@code true} if a request is waiting for the response of the stream, which is not the case when the
+     * stream was cancelled while waiting for more requests.
+     */
+    synchronized boolean hasUnansweredRequest()
+    {
+        return !requests.isEmpty();
+    }
+
+    /**
+     * Called by the worker once the stream has been fully consumed, or failed, and the response of the stream has
+     * answered the current request. Requests that the stream did not get to are released to be processed by their
+     * own jobs.
+     */
+    synchronized void streamFinished()
+    {
+        Request current = requests.pollFirst();
+        if ( current != null )
+        {
+            current.answered = true;
+        }
+        close();
+    }
+
+    /**
+     * Called by the worker when a request has been processed without consuming the result stream, e.g. because
+     * there was no result. If the request opened the stream, the stream is closed and the requests that joined it
+     * are released to be processed by their own jobs.
+     */
+    synchronized void processedWithoutStream( Request request )
+    {
+        if ( requests.remove( request ) )
+        {
+            close();
+        }
+    }
+
+    private void close()
+    {
+        requests.clear();
+        open = false;
+        ended = false;
+        cancelled = false;
+        timedOut = false;
+    }
+
+    /**
+     * Ends the open stream because a request other than a result request was received, called from the IO thread.
+     * Result requests received after this must be registered with a new instance.
+     *
+     * @return {@code true} if a stream was open and has been ended, otherwise {@code false} and this instance can
+     * still be used.
+     */
+    synchronized boolean end()
+    {
+        if ( open )
+        {
+            ended = true;
+            notifyAll();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Stops a stream waiting for more requests, called on reset and when the connection is closed.
+     */
+    synchronized void cancel()
+    {
+        if ( open )
+        {
+            cancelled = true;
+            notifyAll();
+        }
+    }
+}
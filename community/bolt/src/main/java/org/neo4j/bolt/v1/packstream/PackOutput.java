@@ -22,6 +22,8 @@ package org.neo4j.bolt.v1.packstream;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 
+import org.neo4j.unsafe.impl.internal.dragons.UnsafeUtil;
+
 /**
  * This is where {@link PackStream} writes its output to.
  */
@@ -39,6 +41,16 @@ public interface PackOutput
     /** Produce binary data */
     PackOutput writeBytes( byte[] data, int offset, int amountToWrite ) throws IOException;
 
+    /** Produce binary data that resides in off-heap memory, e.g. UTF-8 encoded strings read straight from a store */
+    default PackOutput writeBytes( long address, int amountToWrite ) throws IOException
+    {
+        for ( int i = 0; i < amountToWrite; i++ )
+        {
+            writeByte( UnsafeUtil.getByte( address + i ) );
+        }
+        return this;
+    }
+
     /** Produce a 4-byte signed integer */
     PackOutput writeShort( short value ) throws IOException;
 
@@ -334,6 +334,24 @@ public class PackStream
             }
         }
 
+        /**
+         * Writes already encoded bytes, e.g. UTF-8 string data following a {@link #packStringHeader(int) header},
+         * straight from off-heap memory into the output.
+         */
+        protected void packRawBytes( long address, int length ) throws IOException
+        {
+            out.writeBytes( address, length );
+        }
+
+        /**
+         * Writes already encoded bytes, e.g. UTF-8 string data following a {@link #packStringHeader(int) header},
+         * as is into the output.
+         */
+        protected void packRawBytes( byte[] bytes, int offset, int length ) throws IOException
+        {
+            out.writeBytes( bytes, offset, length );
+        }
+
         protected void packBytesHeader( int size ) throws IOException
         {
             if ( size <= Byte.MAX_VALUE )
@@ -350,7 +368,7 @@ public class PackStream
             }
         }
 
-        private void packStringHeader( int size ) throws IOException
+        protected void packStringHeader( int size ) throws IOException
         {
             if ( size < 0x10 )
             {
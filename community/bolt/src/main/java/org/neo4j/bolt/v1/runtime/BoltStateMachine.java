@@ -29,6 +29,7 @@ import org.neo4j.bolt.security.auth.AuthenticationException;
 import org.neo4j.bolt.security.auth.AuthenticationResult;
 import org.neo4j.bolt.v1.runtime.spi.BoltResult;
 import org.neo4j.function.ThrowingConsumer;
+import org.neo4j.function.ThrowingSupplier;
 import org.neo4j.graphdb.security.AuthProviderFailedException;
 import org.neo4j.graphdb.security.AuthProviderTimeoutException;
 import org.neo4j.graphdb.security.AuthorizationExpiredException;
@@ -47,7 +48,7 @@ import static org.neo4j.values.storable.Values.stringArray;
  * Central to this are the five active states -- CONNECTED, READY, STREAMING,
  * FAILED and INTERRUPTED -- as well as the transitions between them which
  * correspond to the Bolt protocol request messages INIT, ACK_FAILURE, RESET,
- * RUN, DISCARD_ALL and PULL_ALL. Of particular note is RESET which exhibits
+ * RUN, PREPARE, EXECUTE, DISCARD_ALL and PULL_ALL. Of particular note is RESET which exhibits
  * dual behaviour in both marking the current query for termination and clearing
  * down the current connection state.
  * <p>
@@ -203,6 +204,42 @@ public class BoltStateMachine implements AutoCloseable, ManagedBoltStateMachine
         }
     }
 
+    /**
+     * Prepare a statement, yielding an id by which it can be {@link #execute(long, Map, BoltResponseHandler)
+     * executed} any number of times on this connection.
+     */
+    public void prepare( String statement, BoltResponseHandler handler ) throws BoltConnectionFatality
+    {
+        before( handler );
+        try
+        {
+            state = state.prepare( this, statement );
+        }
+        finally
+        {
+            after();
+        }
+    }
+
+    /**
+     * Run a prepared statement, just like {@link #run(String, Map, BoltResponseHandler)} runs a statement.
+     */
+    public void execute( long statementId, Map<String,Object> params, BoltResponseHandler handler )
+            throws BoltConnectionFatality
+    {
+        long start = clock.millis();
+        before( handler );
+        try
+        {
+            state = state.execute( this, statementId, params );
+            handler.onMetadata( "result_available_after", Values.longValue( clock.millis() - start ) );
+        }
+        finally
+        {
+            after();
+        }
+    }
+
     /**
      * Discard all the remaining entries in the current result stream. This has the same semantic behavior as
      * {@link #pullAll(BoltResponseHandler)}, but without actually retrieving the stream.
@@ -392,11 +429,46 @@ public class BoltStateMachine implements AutoCloseable, ManagedBoltStateMachine
                     @Override
                     public State run( BoltStateMachine machine, String statement,
                             Map<String,Object> params ) throws BoltConnectionFatality
+                    {
+                        return startStatement( machine, () -> machine.ctx.statementProcessor.run( statement, params ) );
+                    }
+
+                    @Override
+                    public State prepare( BoltStateMachine machine, String statement ) throws BoltConnectionFatality
                     {
                         try
                         {
-                            StatementMetadata statementMetadata =
-                                    machine.ctx.statementProcessor.run( statement, params );
+                            long statementId = machine.ctx.statementProcessor.prepare( statement );
+                            machine.ctx.onMetadata( "statement_id", Values.longValue( statementId ) );
+                            return READY;
+                        }
+                        catch ( AuthorizationExpiredException e )
+                        {
+                            fail( machine, Neo4jError.fatalFrom( e ) );
+                            throw new BoltConnectionAuthFatality( e.getMessage() );
+                        }
+                        catch ( Throwable e )
+                        {
+                            fail( machine, Neo4jError.from( e ) );
+                            return FAILED;
+                        }
+                    }
+
+                    @Override
+                    public State execute( BoltStateMachine machine, long statementId,
+                            Map<String,Object> params ) throws BoltConnectionFatality
+                    {
+                        return startStatement( machine,
+                                () -> machine.ctx.statementProcessor.execute( statementId, params ) );
+                    }
+
+                    private State startStatement( BoltStateMachine machine,
+                            ThrowingSupplier<StatementMetadata,KernelException> statement )
+                            throws BoltConnectionFatality
+                    {
+                        try
+                        {
+                            StatementMetadata statementMetadata = statement.get();
                             machine.ctx.onMetadata( "fields", stringArray( statementMetadata.fieldNames() ) );
                             return STREAMING;
                         }
@@ -524,6 +596,20 @@ public class BoltStateMachine implements AutoCloseable, ManagedBoltStateMachine
                         return FAILED;
                     }
 
+                    @Override
+                    public State prepare( BoltStateMachine machine, String statement )
+                    {
+                        machine.ctx.markIgnored();
+                        return FAILED;
+                    }
+
+                    @Override
+                    public State execute( BoltStateMachine machine, long statementId, Map<String,Object> params )
+                    {
+                        machine.ctx.markIgnored();
+                        return FAILED;
+                    }
+
                     @Override
                     public State pullAll( BoltStateMachine machine )
                     {
@@ -579,6 +665,21 @@ public class BoltStateMachine implements AutoCloseable, ManagedBoltStateMachine
                         return INTERRUPTED;
                     }
 
+                    @Override
+                    public State prepare( BoltStateMachine machine, String statement ) throws BoltConnectionFatality
+                    {
+                        machine.ctx.markIgnored();
+                        return INTERRUPTED;
+                    }
+
+                    @Override
+                    public State execute( BoltStateMachine machine, long statementId, Map<String,Object> params )
+                            throws BoltConnectionFatality
+                    {
+                        machine.ctx.markIgnored();
+                        return INTERRUPTED;
+                    }
+
                     @Override
                     public State pullAll( BoltStateMachine machine ) throws BoltConnectionFatality
                     {
@@ -633,6 +734,21 @@ public class BoltStateMachine implements AutoCloseable, ManagedBoltStateMachine
             throw new BoltProtocolBreachFatality( msg );
         }
 
+        public State prepare( BoltStateMachine machine, String statement ) throws BoltConnectionFatality
+        {
+            String msg = "PREPARE cannot be handled by a session in the " + name() + " state.";
+            fail( machine, Neo4jError.fatalFrom( Status.Request.Invalid, msg ) );
+            throw new BoltProtocolBreachFatality( msg );
+        }
+
+        public State execute( BoltStateMachine machine, long statementId, Map<String,Object> params )
+                throws BoltConnectionFatality
+        {
+            String msg = "EXECUTE cannot be handled by a session in the " + name() + " state.";
+            fail( machine, Neo4jError.fatalFrom( Status.Request.Invalid, msg ) );
+            throw new BoltProtocolBreachFatality( msg );
+        }
+
         public State discardAll( BoltStateMachine machine ) throws BoltConnectionFatality
         {
             String msg = "DISCARD_ALL cannot be handled by a session in the " + name() + " state.";
@@ -808,6 +924,18 @@ public class BoltStateMachine implements AutoCloseable, ManagedBoltStateMachine
             throw new UnsupportedOperationException( "Unable to run any statements." );
         }
 
+        @Override
+        public long prepare( String statement ) throws KernelException
+        {
+            throw new UnsupportedOperationException( "Unable to prepare any statements." );
+        }
+
+        @Override
+        public StatementMetadata execute( long statementId, Map<String,Object> params ) throws KernelException
+        {
+            throw new UnsupportedOperationException( "Unable to run any statements." );
+        }
+
         @Override
         public void streamResult( ThrowingConsumer<BoltResult,Exception> resultConsumer ) throws Exception
         {
@@ -30,6 +30,18 @@ public interface StatementProcessor
 {
     StatementMetadata run( String statement, Map<String, Object> params ) throws KernelException;
 
+    /**
+     * Prepare a statement for repeated execution through {@link #execute(long, Map)}.
+     *
+     * @return the id of the prepared statement, which is valid for as long as the connection is.
+     */
+    long prepare( String statement ) throws KernelException;
+
+    /**
+     * Run a statement prepared by {@link #prepare(String)}, as {@link #run(String, Map)} would.
+     */
+    StatementMetadata execute( long statementId, Map<String, Object> params ) throws KernelException;
+
     void streamResult( ThrowingConsumer<BoltResult, Exception> resultConsumer ) throws Exception;
 
     void reset() throws TransactionFailureException;
@@ -27,6 +27,8 @@ import org.neo4j.bolt.security.auth.AuthenticationResult;
 import org.neo4j.bolt.v1.runtime.bookmarking.Bookmark;
 import org.neo4j.bolt.v1.runtime.spi.BoltResult;
 import org.neo4j.bolt.v1.runtime.spi.BookmarkResult;
+import org.neo4j.collection.primitive.Primitive;
+import org.neo4j.collection.primitive.PrimitiveLongObjectMap;
 import org.neo4j.cypher.InvalidSemanticsException;
 import org.neo4j.function.ThrowingAction;
 import org.neo4j.function.ThrowingConsumer;
@@ -36,6 +38,7 @@ import org.neo4j.kernel.api.exceptions.Status;
 import org.neo4j.kernel.api.exceptions.TransactionFailureException;
 import org.neo4j.kernel.api.security.SecurityContext;
 import org.neo4j.kernel.impl.query.QueryExecutionKernelException;
+import org.neo4j.unsafe.impl.internal.dragons.FeatureToggles;
 
 import static org.neo4j.function.ThrowingAction.noop;
 
@@ -44,6 +47,8 @@ public class TransactionStateMachine implements StatementProcessor
     private static final Pattern BEGIN = Pattern.compile("(?i)^\\s*BEGIN\\s*;?\\s*$");
     private static final Pattern COMMIT = Pattern.compile("(?i)^\\s*COMMIT\\s*;?\\s*$");
     private static final Pattern ROLLBACK = Pattern.compile("(?i)^\\s*ROLLBACK\\s*;?\\s*$");
+    private static final int MAX_PREPARED_STATEMENTS = FeatureToggles.getInteger( TransactionStateMachine.class,
+            "maxPreparedStatements", 1000 );
 
     final SPI spi;
     final MutableTransactionState ctx;
@@ -72,6 +77,67 @@ public class TransactionStateMachine implements StatementProcessor
     public StatementMetadata run( String statement, Map<String, Object> params ) throws KernelException
     {
         before();
+        try
+        {
+            PreparedStatement prepared;
+            if ( statement.isEmpty() && ctx.lastStatement != null )
+            {
+                prepared = ctx.lastStatement;
+            }
+            else
+            {
+                prepared = prepareStatement( spi, statement );
+            }
+            return run( prepared, params );
+        }
+        finally
+        {
+            after();
+        }
+    }
+
+    @Override
+    public long prepare( String statement ) throws KernelException
+    {
+        if ( ctx.preparedStatements.size() >= MAX_PREPARED_STATEMENTS )
+        {
+            throw new PreparedStatementException( "Unable to prepare more than %d statements per connection.",
+                    MAX_PREPARED_STATEMENTS );
+        }
+        before();
+        try
+        {
+            long statementId = ctx.nextStatementId++;
+            ctx.preparedStatements.put( statementId, prepareStatement( spi, statement ) );
+            return statementId;
+        }
+        finally
+        {
+            after();
+        }
+    }
+
+    @Override
+    public StatementMetadata execute( long statementId, Map<String,Object> params ) throws KernelException
+    {
+        PreparedStatement prepared = ctx.preparedStatements.get( statementId );
+        if ( prepared == null )
+        {
+            throw new PreparedStatementException( "There is no prepared statement with id %d.", statementId );
+        }
+        before();
+        try
+        {
+            return run( prepared, params );
+        }
+        finally
+        {
+            after();
+        }
+    }
+
+    private StatementMetadata run( PreparedStatement statement, Map<String,Object> params ) throws KernelException
+    {
         try
         {
             state = state.run( ctx, spi, statement, params );
@@ -83,10 +149,6 @@ public class TransactionStateMachine implements StatementProcessor
             state = State.AUTO_COMMIT;
             throw ex;
         }
-        finally
-        {
-            after();
-        }
     }
 
     @Override
@@ -152,11 +214,13 @@ public class TransactionStateMachine implements StatementProcessor
         AUTO_COMMIT
                 {
                     @Override
-                    State run( MutableTransactionState ctx, SPI spi, String statement,
+                    State run( MutableTransactionState ctx, SPI spi, PreparedStatement statement,
                                Map<String, Object> params ) throws KernelException
 
                     {
-                        if ( BEGIN.matcher( statement ).matches() )
+                        switch ( statement.kind )
+                        {
+                        case BEGIN:
                         {
                             ctx.currentTransaction = spi.beginTransaction( ctx.securityContext );
 
@@ -173,43 +237,32 @@ public class TransactionStateMachine implements StatementProcessor
 
                             return EXPLICIT_TRANSACTION;
                         }
-                        else if ( COMMIT.matcher( statement ).matches() )
-                        {
+                        case COMMIT:
                             throw new QueryExecutionKernelException(
                                     new InvalidSemanticsException( "No current transaction to commit." ) );
-                        }
-                        else if ( ROLLBACK.matcher( statement ).matches() )
-                        {
+                        case ROLLBACK:
                             throw new QueryExecutionKernelException(
                                     new InvalidSemanticsException( "No current transaction to rollback." ) );
+                        case PERIODIC_COMMIT:
+                        {
+                            ctx.lastStatement = statement;
+                            BoltResultHandle resultHandle =
+                                    executeQuery( ctx, spi, statement.text, params, noop() );
+                            ctx.currentResultHandle = resultHandle;
+                            ctx.currentResult = resultHandle.start();
+                            ctx.currentTransaction = null; // Periodic commit will change the current transaction, so
+                            // we can't trust this to point to the actual current transaction;
+                            return AUTO_COMMIT;
                         }
-                        else
+                        default:
                         {
-                            if ( statement.isEmpty() )
-                            {
-                                statement = ctx.lastStatement;
-                            }
-                            else
-                            {
-                                ctx.lastStatement = statement;
-                            }
-                            if ( spi.isPeriodicCommit( statement ) )
-                            {
-                                BoltResultHandle resultHandle = executeQuery( ctx, spi, statement, params, noop() );
-                                ctx.currentResultHandle = resultHandle;
-                                ctx.currentResult = resultHandle.start();
-                                ctx.currentTransaction = null; // Periodic commit will change the current transaction, so
-                                // we can't trust this to point to the actual current transaction;
-                                return AUTO_COMMIT;
-                            }
-                            else
-                            {
-                                ctx.currentTransaction = spi.beginTransaction( ctx.securityContext );
-                                BoltResultHandle resultHandle = execute( ctx, spi, statement, params );
-                                ctx.currentResultHandle = resultHandle;
-                                ctx.currentResult = resultHandle.start();
-                                return AUTO_COMMIT;
-                            }
+                            ctx.lastStatement = statement;
+                            ctx.currentTransaction = spi.beginTransaction( ctx.securityContext );
+                            BoltResultHandle resultHandle = execute( ctx, spi, statement.text, params );
+                            ctx.currentResultHandle = resultHandle;
+                            ctx.currentResult = resultHandle.start();
+                            return AUTO_COMMIT;
+                        }
                         }
                     }
 
@@ -232,7 +285,24 @@ public class TransactionStateMachine implements StatementProcessor
                                        ThrowingConsumer<BoltResult, Exception> resultConsumer ) throws Exception
                     {
                         assert ctx.currentResult != null;
-                        resultConsumer.accept( ctx.currentResult );
+                        try
+                        {
+                            resultConsumer.accept( ctx.currentResult );
+                        }
+                        catch ( Exception e )
+                        {
+                            // e.g. a stream that was idle for too long, the transaction can never commit so don't
+                            // leave it open until the next reset
+                            try
+                            {
+                                terminateQueryAndRollbackTransaction( ctx );
+                            }
+                            catch ( Exception rollbackFailure )
+                            {
+                                e.addSuppressed( rollbackFailure );
+                            }
+                            throw e;
+                        }
                         ctx.currentResult.close();
                         closeTransaction( ctx, true );
                     }
@@ -240,15 +310,15 @@ public class TransactionStateMachine implements StatementProcessor
         EXPLICIT_TRANSACTION
                 {
                     @Override
-                    State run( MutableTransactionState ctx, SPI spi, String statement, Map<String, Object> params )
-                            throws KernelException
+                    State run( MutableTransactionState ctx, SPI spi, PreparedStatement statement,
+                               Map<String, Object> params ) throws KernelException
                     {
-                        if ( BEGIN.matcher( statement ).matches() )
+                        switch ( statement.kind )
                         {
+                        case BEGIN:
                             throw new QueryExecutionKernelException(
                                     new InvalidSemanticsException( "Nested transactions are not supported." ) );
-                        }
-                        else if ( COMMIT.matcher( statement ).matches() )
+                        case COMMIT:
                         {
                             closeTransaction( ctx, true );
                             long txId = spi.newestEncounteredTxId();
@@ -257,34 +327,20 @@ public class TransactionStateMachine implements StatementProcessor
 
                             return AUTO_COMMIT;
                         }
-                        else if ( ROLLBACK.matcher( statement ).matches() )
-                        {
+                        case ROLLBACK:
                             closeTransaction( ctx, false );
                             ctx.currentResult = BoltResult.EMPTY;
                             return AUTO_COMMIT;
-                        }
-                        else
-                        {
-                            if ( statement.isEmpty() )
-                            {
-                                statement = ctx.lastStatement;
-                            }
-                            else
-                            {
-                                ctx.lastStatement = statement;
-                            }
-                            if ( spi.isPeriodicCommit( statement ) )
-                            {
-                                throw new QueryExecutionKernelException( new InvalidSemanticsException(
-                                        "Executing queries that use periodic commit in an " +
-                                                "open transaction is not possible." ) );
-                            }
-                            else
-                            {
-                                ctx.currentResultHandle = execute( ctx, spi, statement, params );
-                                ctx.currentResult = ctx.currentResultHandle.start();
-                                return EXPLICIT_TRANSACTION;
-                            }
+                        case PERIODIC_COMMIT:
+                            ctx.lastStatement = statement;
+                            throw new QueryExecutionKernelException( new InvalidSemanticsException(
+                                    "Executing queries that use periodic commit in an " +
+                                            "open transaction is not possible." ) );
+                        default:
+                            ctx.lastStatement = statement;
+                            ctx.currentResultHandle = execute( ctx, spi, statement.text, params );
+                            ctx.currentResult = ctx.currentResultHandle.start();
+                            return EXPLICIT_TRANSACTION;
                         }
                     }
 
@@ -314,9 +370,15 @@ public class TransactionStateMachine implements StatementProcessor
 
         abstract State run( MutableTransactionState ctx,
                             SPI spi,
-                            String statement,
+                            PreparedStatement statement,
                             Map<String, Object> params ) throws KernelException;
 
+        State run( MutableTransactionState ctx, SPI spi, String statement, Map<String,Object> params )
+                throws KernelException
+        {
+            return run( ctx, spi, prepareStatement( spi, statement ), params );
+        }
+
         abstract void streamResult( MutableTransactionState ctx,
                                     ThrowingConsumer<BoltResult, Exception> resultConsumer ) throws Exception;
 
@@ -369,6 +431,27 @@ public class TransactionStateMachine implements StatementProcessor
         }
     }
 
+    private static PreparedStatement prepareStatement( SPI spi, String statement )
+    {
+        if ( BEGIN.matcher( statement ).matches() )
+        {
+            return new PreparedStatement( statement, PreparedStatement.Kind.BEGIN );
+        }
+        else if ( COMMIT.matcher( statement ).matches() )
+        {
+            return new PreparedStatement( statement, PreparedStatement.Kind.COMMIT );
+        }
+        else if ( ROLLBACK.matcher( statement ).matches() )
+        {
+            return new PreparedStatement( statement, PreparedStatement.Kind.ROLLBACK );
+        }
+        else if ( spi.isPeriodicCommit( statement ) )
+        {
+            return new PreparedStatement( statement, PreparedStatement.Kind.PERIODIC_COMMIT );
+        }
+        return new PreparedStatement( statement, PreparedStatement.Kind.QUERY );
+    }
+
     private static BoltResultHandle executeQuery( MutableTransactionState ctx, SPI spi, String statement,
                                                   Map<String,Object> params, ThrowingAction<KernelException> onFail )
             throws QueryExecutionKernelException
@@ -387,6 +470,29 @@ public class TransactionStateMachine implements StatementProcessor
         void terminate();
     }
 
+    /**
+     * A statement that has been classified as transaction control or query once, so that running it again does not
+     * need to match it against the transaction control statements nor ask the query engine whether it uses periodic
+     * commit. Executing it still goes through the query engine as for any other query: the engine pre-parses the
+     * text and looks up, caches and invalidates the plan keyed on it, so preparing does not save any planning work.
+     */
+    static final class PreparedStatement
+    {
+        enum Kind
+        {
+            BEGIN, COMMIT, ROLLBACK, PERIODIC_COMMIT, QUERY
+        }
+
+        final String text;
+        final Kind kind;
+
+        PreparedStatement( String text, Kind kind )
+        {
+            this.text = text;
+            this.kind = kind;
+        }
+    }
+
     static class MutableTransactionState
     {
         /** The current session security context to be used for starting transactions */
@@ -396,7 +502,12 @@ public class TransactionStateMachine implements StatementProcessor
         KernelTransaction currentTransaction;
 
         /** Last Cypher statement executed */
-        String lastStatement = "";
+        PreparedStatement lastStatement;
+
+        /** Statements prepared on this connection, by statement id */
+        final PrimitiveLongObjectMap<PreparedStatement> preparedStatements = Primitive.longObjectMap();
+
+        long nextStatementId;
 
         /** The current pending result, if present */
         BoltResult currentResult;
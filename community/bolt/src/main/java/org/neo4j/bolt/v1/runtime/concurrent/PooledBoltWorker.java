@@ -0,0 +1,215 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.bolt.v1.runtime.concurrent;
+
+import java.time.Clock;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+import org.neo4j.bolt.v1.runtime.BoltConnectionAuthFatality;
+import org.neo4j.bolt.v1.runtime.BoltConnectionFatality;
+import org.neo4j.bolt.v1.runtime.BoltProtocolBreachFatality;
+import org.neo4j.bolt.v1.runtime.BoltStateMachine;
+import org.neo4j.bolt.v1.runtime.BoltWorker;
+import org.neo4j.bolt.v1.runtime.Job;
+import org.neo4j.kernel.impl.logging.LogService;
+import org.neo4j.logging.Log;
+
+/**
+ * Executes incoming Bolt requests for a given connection on threads shared with other connections.
+ * <p>
+ * The worker asks to be scheduled whenever a request is queued while it is not scheduled already. Once running it
+ * executes requests until its queue is empty and the session has no open transaction, and then gives up its thread.
+ * At most one thread runs a worker at any time, so requests of a session are still executed one at a time, in order.
+ */
+class PooledBoltWorker implements Runnable, BoltWorker
+{
+    private static final int workQueueSize = Integer.getInteger( "org.neo4j.bolt.workQueueSize", 100 );
+
+    private final BlockingQueue<Job> jobQueue = new ArrayBlockingQueue<>( workQueueSize );
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private final BoltStateMachine machine;
+    private final Consumer<PooledBoltWorker> scheduler;
+    private final Clock clock;
+    private final PooledWorkerFactory.Monitor monitor;
+    private final Log log;
+    private final Log userLog;
+
+    private volatile boolean keepRunning = true;
+    private volatile long scheduledAt;
+    private boolean closed;
+
+    PooledBoltWorker( BoltStateMachine machine, Consumer<PooledBoltWorker> scheduler, LogService logging, Clock clock,
+            PooledWorkerFactory.Monitor monitor )
+    {
+        this.machine = machine;
+        this.scheduler = scheduler;
+        this.clock = clock;
+        this.monitor = monitor;
+        this.log = logging.getInternalLog( getClass() );
+        this.userLog = logging.getUserLog( getClass() );
+    }
+
+    /**
+     * Accept a command to be executed at some point in the future. This will get queued and executed as soon as
+     * a thread is available.
+     *
+     * @param job an operation to be performed on the session
+     */
+    @Override
+    public void enqueue( Job job )
+    {
+        try
+        {
+            jobQueue.put( job );
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException( "Worker interrupted while queueing request, the session may have been " +
+                                        "forcibly closed, or the database may be shutting down." );
+        }
+        schedule();
+    }
+
+    @Override
+    public void run()
+    {
+        long boundAt = clock.millis();
+        monitor.sessionBound( boundAt - scheduledAt );
+        try
+        {
+            do
+            {
+                executeQueuedJobs();
+            }
+            while ( keepRunning && !release() );
+        }
+        catch ( BoltConnectionAuthFatality e )
+        {
+            // this is logged in the SecurityLog
+            keepRunning = false;
+        }
+        catch ( BoltProtocolBreachFatality e )
+        {
+            keepRunning = false;
+            log.error( "Bolt protocol breach in session '" + machine.key() + "'", e );
+        }
+        catch ( Throwable t )
+        {
+            keepRunning = false;
+            userLog.error( "Worker for session '" + machine.key() + "' crashed.", t );
+        }
+        finally
+        {
+            if ( !keepRunning )
+            {
+                // this worker stays scheduled, so it is never run again
+                closeStateMachine();
+            }
+            monitor.sessionReleased( clock.millis() - boundAt );
+        }
+    }
+
+    private void executeQueuedJobs() throws BoltConnectionFatality, InterruptedException
+    {
+        while ( keepRunning )
+        {
+            Job job = jobQueue.poll();
+            if ( job == null )
+            {
+                if ( !machine.statementProcessor().hasTransaction() )
+                {
+                    return;
+                }
+                // keep the thread while the transaction is open, it might hold locks other sessions are waiting for
+                job = jobQueue.poll( 10, TimeUnit.SECONDS );
+            }
+            if ( job != null )
+            {
+                job.perform( machine );
+            }
+        }
+    }
+
+    /**
+     * Gives up the thread, unless a job was queued after the queue was last found empty.
+     *
+     * @return {@code true} if the worker is no longer scheduled.
+     */
+    private boolean release()
+    {
+        scheduled.set( false );
+        return jobQueue.isEmpty() || !scheduled.compareAndSet( false, true );
+    }
+
+    private void schedule()
+    {
+        if ( scheduled.compareAndSet( false, true ) )
+        {
+            scheduledAt = clock.millis();
+            scheduler.accept( this );
+        }
+    }
+
+    @Override
+    public void interrupt()
+    {
+        machine.interrupt();
+    }
+
+    @Override
+    public void halt()
+    {
+        try
+        {
+            // Notify the state machine that it should terminate.
+            // We can't close it here because this method can be called from a different thread.
+            // State machine will be closed when this worker next runs.
+            machine.terminate();
+        }
+        finally
+        {
+            keepRunning = false;
+            schedule();
+        }
+    }
+
+    private void closeStateMachine()
+    {
+        if ( closed )
+        {
+            return;
+        }
+        closed = true;
+        try
+        {
+            // Attempt to close the state machine, as an effort to release locks and other resources
+            machine.close();
+        }
+        catch ( Throwable t )
+        {
+            log.error( "Unable to close Bolt session '" + machine.key() + "'", t );
+        }
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.bolt.v1.runtime.concurrent;
+
+import java.time.Clock;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.neo4j.bolt.v1.runtime.BoltConnectionDescriptor;
+import org.neo4j.bolt.v1.runtime.BoltFactory;
+import org.neo4j.bolt.v1.runtime.BoltStateMachine;
+import org.neo4j.bolt.v1.runtime.BoltWorker;
+import org.neo4j.bolt.v1.runtime.WorkerFactory;
+import org.neo4j.kernel.impl.logging.LogService;
+import org.neo4j.kernel.monitoring.Monitors;
+import org.neo4j.scheduler.JobScheduler;
+
+import static org.neo4j.scheduler.JobScheduler.Groups.sessionWorker;
+
+/**
+ * A {@link WorkerFactory} implementation that multiplexes sessions onto a bounded number of threads, as opposed to
+ * {@link ThreadedWorkerFactory} which dedicates a thread to every session.
+ *
+ * A session is only bound to a thread while it has queued requests, or while it has an open explicit transaction.
+ * The latter keeps the thread sharing from introducing deadlocks between the transactions of different sessions,
+ * since a session holding locks can always make progress. Sessions with queued requests wait for a free thread in
+ * the order they became runnable.
+ */
+public class PooledWorkerFactory implements WorkerFactory
+{
+    private final BoltFactory connector;
+    private final JobScheduler scheduler;
+    private final LogService logging;
+    private final Clock clock;
+    private final Monitor monitor;
+    private final int maxThreads;
+
+    private final Queue<PooledBoltWorker> runnableWorkers = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger activeThreads = new AtomicInteger();
+
+    public PooledWorkerFactory( BoltFactory connector, JobScheduler scheduler, LogService logging, Clock clock,
+            Monitors monitors, int maxThreads )
+    {
+        this.connector = connector;
+        this.scheduler = scheduler;
+        this.logging = logging;
+        this.clock = clock;
+        this.monitor = monitors.newMonitor( Monitor.class );
+        this.maxThreads = maxThreads;
+    }
+
+    @Override
+    public BoltWorker newWorker( BoltConnectionDescriptor connectionDescriptor, Runnable onClose )
+    {
+        BoltStateMachine machine = connector.newMachine( connectionDescriptor, onClose, clock );
+        return new PooledBoltWorker( machine, this::schedule, logging, clock, monitor );
+    }
+
+    private void schedule( PooledBoltWorker worker )
+    {
+        runnableWorkers.add( worker );
+        if ( tryAcquireThread() )
+        {
+            scheduler.schedule( sessionWorker, this::runWorkers );
+        }
+    }
+
+    private void runWorkers()
+    {
+        do
+        {
+            PooledBoltWorker worker;
+            while ( (worker = runnableWorkers.poll()) != null )
+            {
+                worker.run();
+            }
+            activeThreads.decrementAndGet();
+            // a worker may have become runnable after the queue was found empty, but before the thread was released
+        }
+        while ( !runnableWorkers.isEmpty() && tryAcquireThread() );
+    }
+
+    private boolean tryAcquireThread()
+    {
+        int threads;
+        do
+        {
+            threads = activeThreads.get();
+            if ( threads >= maxThreads )
+            {
+                return false;
+            }
+        }
+        while ( !activeThreads.compareAndSet( threads, threads + 1 ) );
+        return true;
+    }
+
+    /**
+     * Tracks how sessions are bound to the shared threads, which allows telling the time requests spend waiting
+     * for a thread from the time they spend being processed.
+     */
+    public interface Monitor
+    {
+        /**
+         * Called when a session with queued requests gets bound to a thread.
+         * @param waitTime time the session waited for a free thread, in milliseconds
+         */
+        void sessionBound( long waitTime );
+
+        /**
+         * Called when a session releases its thread, because it has no more queued requests and no open transaction.
+         * @param boundTime time the session was bound to the thread, in milliseconds
+         */
+        void sessionReleased( long boundTime );
+    }
+}
@@ -41,8 +41,8 @@ import static org.neo4j.scheduler.JobScheduler.Groups.sessionWorker;
  * at the expense of creating, potentially, many threads. However, this approach is much less complex than using
  * a thread pool, and is the preferred approach of several highly scalable relational databases.
  *
- * If we find ourselves with tens of thousands of concurrent sessions per neo4j instance, we may want to introduce an
- * alternate strategy.
+ * If we find ourselves with tens of thousands of concurrent sessions per neo4j instance, {@link PooledWorkerFactory}
+ * offers an alternate strategy.
  */
 public class ThreadedWorkerFactory implements WorkerFactory
 {
@@ -24,6 +24,7 @@ import io.netty.channel.Channel;
 import io.netty.channel.ChannelHandlerContext;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.neo4j.bolt.transport.BoltProtocol;
@@ -38,31 +39,49 @@ import org.neo4j.logging.Log;
  * Implements version one of the Bolt Protocol when transported over a socket. This means this class will handle a
  * simple message framing protocol and forward messages to the messaging protocol implementation, version 1.
  * <p/>
- * Versions of the framing protocol are lock-step with the messaging protocol versioning.
+ * Versions of the framing protocol are lock-step with the messaging protocol versioning. Version two uses the same
+ * framing and messages, and adds the {@code PREPARE}, {@code EXECUTE} and {@code PULL} requests to them, so it is
+ * implemented here as well. Clients that only negotiate version one never get to send those.
  */
 public class BoltProtocolV1 implements BoltProtocol
 {
     public static final int VERSION = 1;
+    public static final int VERSION_2 = 2;
 
     private static final int DEFAULT_OUTPUT_BUFFER_SIZE = 8192;
 
     private final ChunkedOutput chunkedOutput;
     private final BoltResponseMessageWriter packer;
+    private final BoltMessageRouter router;
     private final BoltV1Dechunker dechunker;
 
     private final BoltWorker worker;
 
     private final AtomicInteger inFlight = new AtomicInteger( 0 );
+    private volatile boolean handlingInput;
 
     private final Log log;
+    private final int version;
 
-    public BoltProtocolV1( BoltWorker worker, Channel outputChannel, LogService logging )
+    public BoltProtocolV1( BoltWorker worker, Channel outputChannel, LogService logging,
+            Duration resultStreamIdleTimeout )
     {
+        this( worker, outputChannel, logging, resultStreamIdleTimeout, VERSION );
+    }
+
+    /**
+     * @param version negotiated version of the protocol, either {@link #VERSION} or {@link #VERSION_2}.
+     */
+    public BoltProtocolV1( BoltWorker worker, Channel outputChannel, LogService logging,
+            Duration resultStreamIdleTimeout, int version )
+    {
+        this.version = version;
         this.chunkedOutput = new ChunkedOutput( outputChannel, DEFAULT_OUTPUT_BUFFER_SIZE );
         this.packer = new BoltResponseMessageWriter( new Neo4jPack.Packer( chunkedOutput ), chunkedOutput );
         this.worker = worker;
         this.log = logging.getInternalLog( getClass() );
-        this.dechunker = createDechunker( packer, worker, log );
+        this.router = new BoltMessageRouter( log, worker, packer, this::onMessageDone, resultStreamIdleTimeout );
+        this.dechunker = new BoltV1Dechunker( router, this::onMessageStarted, version );
     }
 
     /**
@@ -74,6 +93,7 @@ public class BoltProtocolV1 implements BoltProtocol
     @Override
     public void handle( ChannelHandlerContext channelContext, ByteBuf data ) throws IOException
     {
+        handlingInput = true;
         try
         {
             dechunker.handle( data );
@@ -82,37 +102,43 @@ public class BoltProtocolV1 implements BoltProtocol
         {
             log.error( "Failed to handle incoming Bolt message. Connection will be closed.", t );
             worker.halt();
+            return;
         }
         finally
         {
             data.release();
+            handlingInput = false;
+        }
+        // The worker does not flush responses while the packet is handled, since more messages may follow in it.
+        // Flush them here if the worker is done with all of those messages already.
+        if ( inFlight.get() == 0 && !dechunker.isInMiddleOfAMessage() )
+        {
+            flushResponses();
         }
     }
 
     @Override
     public int version()
     {
-        return VERSION;
+        return version;
     }
 
     @Override
     public synchronized void close()
     {
         dechunker.close();
+        router.close();
         worker.halt();
         chunkedOutput.close();
     }
 
-    private BoltV1Dechunker createDechunker( BoltResponseMessageWriter responseHandler, BoltWorker boltWorker, Log log )
-    {
-        BoltMessageRouter bridge = new BoltMessageRouter( log, boltWorker, responseHandler, this::onMessageDone );
-        return new BoltV1Dechunker( bridge, this::onMessageStarted );
-    }
-
     /*
      * Ths methods below are used to track in-flight messages (messages the client has sent us that are waiting
      * to be processed). We use this information to determine when to explicitly flush our output buffers - if there
      * are no more pending messages when a message is done processing, we should flush the buffers for the session.
+     * Messages pipelined in a single packet get their responses flushed together, once the last of them is done,
+     * rather than one by one as the worker happens to catch up with the IO thread. Responses that do not fit in the
+     * output buffer are written as it fills up regardless.
      */
     private void onMessageStarted()
     {
@@ -128,17 +154,23 @@ public class BoltProtocolV1 implements BoltProtocol
         // If this is the last in-flight message, and we're not in the middle of reading another message over the wire
         // If we are in the middle of a message, we assume there's no need for us to flush partial outbound buffers,
         // we simply wait for more stuff to do to fill the buffers up in order to use network buffers maximally.
-        if ( inFlight.decrementAndGet() == 0 && !dechunker.isInMiddleOfAMessage() )
+        // The same goes for when the IO thread is handling a packet, it flushes once it is done with it if needed.
+        if ( inFlight.decrementAndGet() == 0 && !handlingInput && !dechunker.isInMiddleOfAMessage() )
+        {
+            flushResponses();
+        }
+    }
+
+    private void flushResponses()
+    {
+        try
+        {
+            // Then flush outbound buffers
+            packer.flush();
+        }
+        catch ( IOException e )
         {
-            try
-            {
-                // Then flush outbound buffers
-                packer.flush();
-            }
-            catch ( IOException e )
-            {
-                throw new RuntimeException( e );
-            }
+            throw new RuntimeException( e );
         }
     }
 }
@@ -46,11 +46,17 @@ public class BoltV1Dechunker
     private int chunkSize;
 
     public BoltV1Dechunker( BoltRequestMessageHandler<RuntimeException> messageHandler, Runnable onMessageStarted )
+    {
+        this( messageHandler, onMessageStarted, BoltProtocolV1.VERSION );
+    }
+
+    public BoltV1Dechunker( BoltRequestMessageHandler<RuntimeException> messageHandler, Runnable onMessageStarted,
+            int protocolVersion )
     {
         this.onMessage = messageHandler;
         this.onMessageStarted = onMessageStarted;
         this.input = new ChunkedInput();
-        this.unpacker = new BoltRequestMessageReader( new Neo4jPack.Unpacker( input ) );
+        this.unpacker = new BoltRequestMessageReader( new Neo4jPack.Unpacker( input ), protocolVersion );
     }
 
     /** Check if we are currently "in the middle of" a message, eg. we've gotten parts of it, but are waiting for more. */
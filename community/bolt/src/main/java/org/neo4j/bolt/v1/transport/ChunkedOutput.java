@@ -21,8 +21,10 @@ package org.neo4j.bolt.v1.transport;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.nio.ByteBuffer;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -30,8 +32,10 @@ import org.neo4j.bolt.v1.messaging.BoltResponseMessageBoundaryHook;
 import org.neo4j.bolt.v1.packstream.PackOutput;
 import org.neo4j.bolt.v1.packstream.PackOutputClosedException;
 import org.neo4j.bolt.v1.packstream.PackStream;
+import org.neo4j.unsafe.impl.internal.dragons.UnsafeUtil;
 
 import static java.lang.Math.max;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
 /**
  * A target output for {@link PackStream} which breaks the data into a continuous stream of chunks before pushing them into a netty
@@ -41,6 +45,7 @@ public class ChunkedOutput implements PackOutput, BoltResponseMessageBoundaryHoo
 {
     public static final int CHUNK_HEADER_SIZE = 2;
     public static final int MESSAGE_BOUNDARY = 0;
+    private static final long WRITE_POLL_INTERVAL_MILLIS = 100;
 
     private final int bufferSize;
     private final int maxChunkSize;
@@ -49,6 +54,8 @@ public class ChunkedOutput implements PackOutput, BoltResponseMessageBoundaryHoo
     private ByteBuf buffer;
     private Channel channel;
     private int currentChunkHeaderOffset;
+    /** A write to a channel that was not writable, to be awaited once the monitor of this output is released. */
+    private volatile ChannelFuture pendingWrite;
 
     /** Are currently in the middle of writing a chunk? */
     private boolean chunkOpen;
@@ -62,9 +69,21 @@ public class ChunkedOutput implements PackOutput, BoltResponseMessageBoundaryHoo
     }
 
     //Flush can be called from a separate thread, we therefor need to synchronize
-    //on everything that touches the buffer
+    //on everything that touches the buffer. Writes are awaited after leaving the synchronized blocks though, so that
+    //the event loop is never kept from flushing or closing this output by a thread waiting for the client.
     @Override
-    public synchronized PackOutput flush() throws IOException
+    public PackOutput flush() throws IOException
+    {
+        synchronized ( this )
+        {
+            flushBuffer();
+        }
+        awaitPendingWrite();
+        return this;
+    }
+
+    //must be called from within a synchronized block
+    private void flushBuffer()
     {
         if ( buffer != null && buffer.readableBytes() > 0 )
         {
@@ -74,50 +93,79 @@ public class ChunkedOutput implements PackOutput, BoltResponseMessageBoundaryHoo
             ByteBuf out = this.buffer;
             this.buffer = null;
 
-            channel.writeAndFlush( out, channel.voidPromise() );
+            if ( channel.isWritable() || !channel.isActive() )
+            {
+                channel.writeAndFlush( out, channel.voidPromise() );
+            }
+            else
+            {
+                // The client does not keep up with what we send, so hold off producing more output until what has
+                // been sent so far is written. This bounds what is buffered for the channel by its write buffer
+                // water marks, and pauses the production of results for slow clients.
+                pendingWrite = channel.writeAndFlush( out, channel.newPromise() );
+            }
 
             newBuffer();
         }
-        return this;
     }
 
     @Override
-    public synchronized PackOutput writeByte( byte value ) throws IOException
+    public PackOutput writeByte( byte value ) throws IOException
     {
-        ensure(1);
-        buffer.writeByte( value );
+        synchronized ( this )
+        {
+            ensure( 1 );
+            buffer.writeByte( value );
+        }
+        awaitPendingWrite();
         return this;
     }
 
     @Override
-    public synchronized PackOutput writeShort( short value ) throws IOException
+    public PackOutput writeShort( short value ) throws IOException
     {
-        ensure(2);
-        buffer.writeShort( value );
+        synchronized ( this )
+        {
+            ensure( 2 );
+            buffer.writeShort( value );
+        }
+        awaitPendingWrite();
         return this;
     }
 
     @Override
-    public synchronized PackOutput writeInt( int value ) throws IOException
+    public PackOutput writeInt( int value ) throws IOException
     {
-        ensure(4);
-        buffer.writeInt( value );
+        synchronized ( this )
+        {
+            ensure( 4 );
+            buffer.writeInt( value );
+        }
+        awaitPendingWrite();
         return this;
     }
 
     @Override
-    public synchronized PackOutput writeLong( long value ) throws IOException
+    public PackOutput writeLong( long value ) throws IOException
     {
-        ensure(8);
-        buffer.writeLong( value );
+        synchronized ( this )
+        {
+            ensure( 8 );
+            buffer.writeLong( value );
+        }
+        awaitPendingWrite();
         return this;
     }
 
     @Override
-    public synchronized PackOutput writeDouble( double value ) throws IOException
+    public PackOutput writeDouble( double value ) throws IOException
     {
-        ensure(8);
-        buffer.writeDouble( value );
+        synchronized ( this )
+        {
+            ensure( 8 );
+            buffer.writeDouble( value );
+        }
+        awaitPendingWrite();
         return this;
     }
 
@@ -131,17 +179,18 @@ public class ChunkedOutput implements PackOutput, BoltResponseMessageBoundaryHoo
         // See the comment in #newBuffer for an approach that would allow that
         while ( data.remaining() > 0 )
         {
-            // Ensure there is an open chunk, and that it has at least one byte of space left
-            ensure( 1 );
-
             int oldLimit = data.limit();
             synchronized ( this )
             {
+                // Ensure there is an open chunk, and that it has at least one byte of space left
+                ensure( 1 );
+
                 data.limit( data.position() + Math.min( buffer.writableBytes(), data.remaining() ) );
 
                 buffer.writeBytes( data );
             }
             data.limit( oldLimit );
+            awaitPendingWrite();
         }
         return this;
     }
@@ -154,7 +203,92 @@ public class ChunkedOutput implements PackOutput, BoltResponseMessageBoundaryHoo
             throw new IOException( "Asked to write " + length + " bytes, but there is only " +
                                    ( data.length - offset ) + " bytes available in data provided." );
         }
-        return writeBytes( ByteBuffer.wrap( data, offset, length ) );
+        // copy straight from the array, without wrapping it in a ByteBuffer first
+        while ( length > 0 )
+        {
+            synchronized ( this )
+            {
+                // Ensure there is an open chunk, and that it has at least one byte of space left
+                ensure( 1 );
+
+                int toWrite = Math.min( buffer.writableBytes(), length );
+                buffer.writeBytes( data, offset, toWrite );
+                offset += toWrite;
+                length -= toWrite;
+            }
+            awaitPendingWrite();
+        }
+        return this;
+    }
+
+    @Override
+    public PackOutput writeBytes( long address, int length ) throws IOException
+    {
+        while ( length > 0 )
+        {
+            synchronized ( this )
+            {
+                // Ensure there is an open chunk, and that it has at least one byte of space left
+                ensure( 1 );
+
+                int toWrite = Math.min( buffer.writableBytes(), length );
+                int writerIndex = buffer.writerIndex();
+                if ( buffer.hasMemoryAddress() )
+                {
+                    // pooled direct buffers, as used by the server, are filled without going through the heap
+                    UnsafeUtil.copyMemory( address, buffer.memoryAddress() + writerIndex, toWrite );
+                }
+                else
+                {
+                    for ( int i = 0; i < toWrite; i++ )
+                    {
+                        buffer.setByte( writerIndex + i, UnsafeUtil.getByte( address + i ) );
+                    }
+                }
+                buffer.writerIndex( writerIndex + toWrite );
+                address += toWrite;
+                length -= toWrite;
+            }
+            awaitPendingWrite();
+        }
+        return this;
+    }
+
+    //must be called outside of synchronized blocks
+    private void awaitPendingWrite() throws IOException
+    {
+        if ( pendingWrite == null )
+        {
+            return;
+        }
+        if ( channel.eventLoop().inEventLoop() )
+        {
+            // the write can only complete once the event loop is free again, leave it to the next writing thread
+            return;
+        }
+        ChannelFuture write;
+        synchronized ( this )
+        {
+            write = pendingWrite;
+            pendingWrite = null;
+        }
+        if ( write == null )
+        {
+            return;
+        }
+        try
+        {
+            // the channel being closed completes the write as well, poll in case that goes unnoticed
+            while ( !write.await( WRITE_POLL_INTERVAL_MILLIS, MILLISECONDS ) && channel.isActive() )
+            {
+                // keep waiting
+            }
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException( "Interrupted while waiting for the client to receive output" );
+        }
     }
 
     //must be called from within a synchronized block
@@ -166,19 +300,16 @@ public class ChunkedOutput implements PackOutput, BoltResponseMessageBoundaryHoo
             throw new PackOutputClosedException( "Unable to write to the closed output channel" );
         }
         int toWriteSize = chunkOpen ? size : size + CHUNK_HEADER_SIZE;
-        synchronized ( this )
+        if ( buffer.writableBytes() < toWriteSize )
         {
-            if ( buffer.writableBytes() < toWriteSize )
-            {
-                flush();
-            }
+            flushBuffer();
+        }
 
-            if ( !chunkOpen )
-            {
-                currentChunkHeaderOffset = buffer.writerIndex();
-                buffer.writerIndex( buffer.writerIndex() + CHUNK_HEADER_SIZE );
-                chunkOpen = true;
-            }
+        if ( !chunkOpen )
+        {
+            currentChunkHeaderOffset = buffer.writerIndex();
+            buffer.writerIndex( buffer.writerIndex() + CHUNK_HEADER_SIZE );
+            chunkOpen = true;
         }
     }
 
@@ -211,15 +342,12 @@ public class ChunkedOutput implements PackOutput, BoltResponseMessageBoundaryHoo
         {
             try
             {
-                flush();
-            }
-            catch ( IOException e )
-            {
-                //
+                flushBuffer();
             }
             finally
             {
                 closed.set( true );
+                pendingWrite = null;
                 buffer.release();
                 buffer = null;
             }
@@ -227,20 +355,24 @@ public class ChunkedOutput implements PackOutput, BoltResponseMessageBoundaryHoo
     }
 
     @Override
-    public synchronized void onMessageComplete() throws IOException
+    public void onMessageComplete() throws IOException
     {
-        closeChunkIfOpen();
-
-        // Ensure there's space to write the message boundary
-        if ( buffer.writableBytes() < CHUNK_HEADER_SIZE )
+        synchronized ( this )
         {
-            flush();
-        }
+            closeChunkIfOpen();
+
+            // Ensure there's space to write the message boundary
+            if ( buffer.writableBytes() < CHUNK_HEADER_SIZE )
+            {
+                flushBuffer();
+            }
 
-        // Write message boundary
-        buffer.writeShort( MESSAGE_BOUNDARY );
+            // Write message boundary
+            buffer.writeShort( MESSAGE_BOUNDARY );
 
-        // Mark us as not currently in a chunk
-        chunkOpen = false;
+            // Mark us as not currently in a chunk
+            chunkOpen = false;
+        }
+        awaitPendingWrite();
     }
 }
@@ -0,0 +1,383 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.bolt.v1.messaging;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.neo4j.bolt.v1.messaging.message.FailureMessage;
+import org.neo4j.bolt.v1.messaging.message.RecordMessage;
+import org.neo4j.bolt.v1.messaging.message.ResponseMessage;
+import org.neo4j.bolt.v1.messaging.message.SuccessMessage;
+import org.neo4j.bolt.v1.runtime.BoltConnectionFatality;
+import org.neo4j.bolt.v1.runtime.BoltResponseHandler;
+import org.neo4j.bolt.v1.runtime.BoltStateMachine;
+import org.neo4j.bolt.v1.runtime.BoltWorker;
+import org.neo4j.bolt.v1.runtime.Job;
+import org.neo4j.bolt.v1.runtime.Neo4jError;
+import org.neo4j.bolt.v1.runtime.spi.BoltResult;
+import org.neo4j.kernel.api.exceptions.Status;
+import org.neo4j.logging.NullLog;
+import org.neo4j.values.result.QueryResult;
+import org.neo4j.values.storable.Values;
+import org.neo4j.values.virtual.MapValue;
+import org.neo4j.values.virtual.VirtualValues;
+
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.singletonMap;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyMapOf;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.neo4j.bolt.v1.runtime.spi.Records.record;
+
+public class BoltMessageRouterTest
+{
+    private final ExecutorService workerThread = Executors.newSingleThreadExecutor();
+    private final BoltResponseMessageRecorder responses = new BoltResponseMessageRecorder();
+    private final Semaphore completedRequests = new Semaphore( 0 );
+    private final BoltStateMachine machine = mock( BoltStateMachine.class );
+    private final CountDownLatch streamFailed = new CountDownLatch( 1 );
+
+    @After
+    public void stopWorker()
+    {
+        workerThread.shutdownNow();
+    }
+
+    @Test
+    public void shouldStreamResultInBatches() throws Throwable
+    {
+        // given
+        streamRecordsOnPull( 5 );
+        BoltMessageRouter router = newRouter();
+
+        // when
+        router.onPull( 2 );
+        awaitResponses( 1 );
+
+        // then
+        assertResponses( 3 );
+        assertThat( responses.asList().get( 2 ), equalTo( hasMore() ) );
+
+        // when
+        router.onPull( 2 );
+        awaitResponses( 1 );
+
+        // then
+        assertResponses( 6 );
+        assertThat( responses.asList().get( 5 ), equalTo( hasMore() ) );
+
+        // when
+        router.onPull( 2 );
+        awaitResponses( 1 );
+
+        // then
+        assertResponses( 8 );
+        assertThat( responses.asList().get( 6 ), instanceOf( RecordMessage.class ) );
+        assertThat( responses.asList().get( 7 ), equalTo( new SuccessMessage( VirtualValues.EMPTY_MAP ) ) );
+        verify( machine, times( 1 ) ).pullAll( any() );
+    }
+
+    @Test
+    public void shouldDiscardRemainderOfBatchedResult() throws Throwable
+    {
+        // given
+        streamRecordsOnPull( 5 );
+        BoltMessageRouter router = newRouter();
+        router.onPull( 1 );
+        awaitResponses( 1 );
+
+        // when
+        router.onDiscardAll();
+        awaitResponses( 1 );
+
+        // then
+        assertResponses( 3 );
+        assertThat( responses.asList().get( 1 ), equalTo( hasMore() ) );
+        assertThat( responses.asList().get( 2 ), instanceOf( SuccessMessage.class ) );
+        verify( machine, times( 1 ) ).pullAll( any() );
+        verify( machine, times( 0 ) ).discardAll( any() );
+    }
+
+    @Test
+    public void shouldStopWaitingForPullOnReset() throws Throwable
+    {
+        // given
+        streamRecordsOnPull( 5 );
+        succeedOnReset();
+        BoltMessageRouter router = newRouter();
+        router.onPull( 1 );
+        awaitResponses( 1 );
+
+        // when
+        router.onReset();
+        awaitResponses( 1 );
+
+        // then the stopped stream does not answer, all requests have been answered already
+        assertResponses( 3 );
+        assertThat( responses.asList().get( 1 ), equalTo( hasMore() ) );
+        assertThat( responses.asList().get( 2 ), equalTo( new SuccessMessage( VirtualValues.EMPTY_MAP ) ) );
+        verify( machine, times( 1 ) ).reset( any() );
+    }
+
+    @Test
+    public void shouldFailIdleStreamAndReportFailureToNextRequest() throws Throwable
+    {
+        // given
+        streamRecordsOnPull( 5 );
+        BoltMessageRouter router = newRouter( Duration.ofMillis( 10 ) );
+        router.onPull( 1 );
+        awaitResponses( 1 );
+
+        // when
+        assertTrue( streamFailed.await( 1, TimeUnit.MINUTES ) );
+        router.onPull( 1 );
+        awaitResponses( 1 );
+
+        // then the stream does not wait for the pull, which gets the failure rather than being ignored
+        assertResponses( 3 );
+        assertThat( responses.asList().get( 1 ), equalTo( hasMore() ) );
+        assertThat( responses.asList().get( 2 ), instanceOf( FailureMessage.class ) );
+        assertThat( ((FailureMessage) responses.asList().get( 2 )).status(),
+                equalTo( Status.Transaction.TransactionTimedOut ) );
+    }
+
+    @Test
+    public void shouldDiscardRemainderOfBatchedResultOnRun() throws Throwable
+    {
+        // given
+        streamRecordsOnPull( 5 );
+        succeedOnRun();
+        BoltMessageRouter router = newRouter();
+        router.onPull( 1 );
+        awaitResponses( 1 );
+
+        // when
+        router.onRun( "RETURN 1", emptyMap() );
+        awaitResponses( 1 );
+
+        // then the ended stream does not answer, the run is answered right after the batch
+        assertResponses( 3 );
+        assertThat( responses.asList().get( 1 ), equalTo( hasMore() ) );
+        assertThat( responses.asList().get( 2 ), equalTo( new SuccessMessage( VirtualValues.EMPTY_MAP ) ) );
+        verify( machine, times( 1 ) ).run( anyString(), anyMapOf( String.class, Object.class ), any() );
+
+        // when
+        router.onPull( 10 );
+        awaitResponses( 1 );
+
+        // then the pull starts a new stream
+        assertResponses( 9 );
+        assertThat( responses.asList().get( 3 ), instanceOf( RecordMessage.class ) );
+        assertThat( responses.asList().get( 8 ), equalTo( new SuccessMessage( VirtualValues.EMPTY_MAP ) ) );
+        verify( machine, times( 2 ) ).pullAll( any() );
+    }
+
+    @Test
+    public void shouldServeEarlierBatchesBeforeEndingStreamOnRun() throws Throwable
+    {
+        // given
+        streamRecordsOnPull( 5 );
+        succeedOnRun();
+        BoltMessageRouter router = newRouter();
+
+        // when
+        router.onPull( 1 );
+        router.onPull( 1 );
+        router.onRun( "RETURN 1", emptyMap() );
+        awaitResponses( 3 );
+
+        // then
+        assertResponses( 5 );
+        assertThat( responses.asList().get( 0 ), instanceOf( RecordMessage.class ) );
+        assertThat( responses.asList().get( 1 ), equalTo( hasMore() ) );
+        assertThat( responses.asList().get( 2 ), instanceOf( RecordMessage.class ) );
+        assertThat( responses.asList().get( 3 ), equalTo( hasMore() ) );
+        assertThat( responses.asList().get( 4 ), equalTo( new SuccessMessage( VirtualValues.EMPTY_MAP ) ) );
+    }
+
+    private BoltMessageRouter newRouter()
+    {
+        return newRouter( Duration.ofMinutes( 1 ) );
+    }
+
+    private BoltMessageRouter newRouter( Duration resultStreamIdleTimeout )
+    {
+        return new BoltMessageRouter( NullLog.getInstance(), new WorkerThread(), new RecordingOutput(),
+                completedRequests::release, resultStreamIdleTimeout );
+    }
+
+    private void streamRecordsOnPull( int recordCount ) throws BoltConnectionFatality
+    {
+        BoltResult result = new BoltResult()
+        {
+            @Override
+            public String[] fieldNames()
+            {
+                return new String[]{"n"};
+            }
+
+            @Override
+            public void accept( Visitor visitor ) throws Exception
+            {
+                for ( int i = 0; i < recordCount; i++ )
+                {
+                    visitor.visit( record( Values.intValue( i ) ) );
+                }
+            }
+
+            @Override
+            public void close()
+            {
+            }
+        };
+        doAnswer( invocation ->
+        {
+            BoltResponseHandler handler = invocation.getArgumentAt( 0, BoltResponseHandler.class );
+            try
+            {
+                if ( streamFailed.getCount() == 0 )
+                {
+                    // the session is in the failed state
+                    handler.markIgnored();
+                }
+                else
+                {
+                    handler.onRecords( result, true );
+                }
+            }
+            catch ( Exception e )
+            {
+                handler.markFailed( Neo4jError.from( e ) );
+                streamFailed.countDown();
+            }
+            finally
+            {
+                handler.onFinish();
+            }
+            return null;
+        } ).when( machine ).pullAll( any() );
+    }
+
+    private void succeedOnRun() throws BoltConnectionFatality
+    {
+        doAnswer( invocation ->
+        {
+            invocation.getArgumentAt( 2, BoltResponseHandler.class ).onFinish();
+            return null;
+        } ).when( machine ).run( anyString(), anyMapOf( String.class, Object.class ), any() );
+    }
+
+    private void succeedOnReset() throws BoltConnectionFatality
+    {
+        doAnswer( invocation ->
+        {
+            invocation.getArgumentAt( 0, BoltResponseHandler.class ).onFinish();
+            return null;
+        } ).when( machine ).reset( any() );
+    }
+
+    private void awaitResponses( int count ) throws InterruptedException
+    {
+        assertTrue( completedRequests.tryAcquire( count, 1, TimeUnit.MINUTES ) );
+    }
+
+    private void assertResponses( int count )
+    {
+        assertThat( responses.asList().toString(), responses.asList().size(), equalTo( count ) );
+    }
+
+    private static SuccessMessage hasMore()
+    {
+        return new SuccessMessage( VirtualValues.map( singletonMap( "has_more", Values.TRUE ) ) );
+    }
+
+    private class RecordingOutput implements BoltResponseMessageHandler<IOException>
+    {
+        @Override
+        public void onSuccess( MapValue metadata )
+        {
+            responses.onSuccess( metadata );
+        }
+
+        @Override
+        public void onRecord( QueryResult.Record item )
+        {
+            responses.onRecord( item );
+        }
+
+        @Override
+        public void onIgnored()
+        {
+            responses.onIgnored();
+        }
+
+        @Override
+        public void onFailure( Status status, String message )
+        {
+            responses.onFailure( status, message );
+        }
+    }
+
+    private class WorkerThread implements BoltWorker
+    {
+        @Override
+        public void enqueue( Job job )
+        {
+            workerThread.execute( () ->
+            {
+                try
+                {
+                    job.perform( machine );
+                }
+                catch ( BoltConnectionFatality e )
+                {
+                    throw new RuntimeException( e );
+                }
+            } );
+        }
+
+        @Override
+        public void interrupt()
+        {
+        }
+
+        @Override
+        public void halt()
+        {
+        }
+    }
+}
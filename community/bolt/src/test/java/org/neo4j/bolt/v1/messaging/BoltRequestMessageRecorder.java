@@ -26,8 +26,11 @@ import org.neo4j.bolt.v1.runtime.Neo4jError;
 
 import static org.neo4j.bolt.v1.messaging.message.AckFailureMessage.ackFailure;
 import static org.neo4j.bolt.v1.messaging.message.DiscardAllMessage.discardAll;
+import static org.neo4j.bolt.v1.messaging.message.ExecuteMessage.execute;
 import static org.neo4j.bolt.v1.messaging.message.InitMessage.init;
+import static org.neo4j.bolt.v1.messaging.message.PrepareMessage.prepare;
 import static org.neo4j.bolt.v1.messaging.message.PullAllMessage.pullAll;
+import static org.neo4j.bolt.v1.messaging.message.PullMessage.pull;
 import static org.neo4j.bolt.v1.messaging.message.ResetMessage.reset;
 import static org.neo4j.bolt.v1.messaging.message.RunMessage.run;
 
@@ -57,6 +60,18 @@ public class BoltRequestMessageRecorder extends MessageRecorder<RequestMessage>
         messages.add( run( statement, params ) );
     }
 
+    @Override
+    public void onPrepare( String statement )
+    {
+        messages.add( prepare( statement ) );
+    }
+
+    @Override
+    public void onExecute( long statementId, Map<String, Object> params )
+    {
+        messages.add( execute( statementId, params ) );
+    }
+
     @Override
     public void onDiscardAll()
     {
@@ -69,6 +84,12 @@ public class BoltRequestMessageRecorder extends MessageRecorder<RequestMessage>
         messages.add( pullAll() );
     }
 
+    @Override
+    public void onPull( long n )
+    {
+        messages.add( pull( n ) );
+    }
+
     @Override
     public void onExternalError( Neo4jError error ) throws RuntimeException
     {
@@ -31,6 +31,7 @@ import org.neo4j.bolt.v1.messaging.message.RequestMessage;
 import org.neo4j.bolt.v1.messaging.message.RunMessage;
 import org.neo4j.bolt.v1.packstream.BufferedChannelInput;
 import org.neo4j.bolt.v1.packstream.BufferedChannelOutput;
+import org.neo4j.bolt.v1.transport.BoltProtocolV1;
 import org.neo4j.kernel.impl.util.HexPrinter;
 import org.neo4j.values.AnyValue;
 import org.neo4j.values.virtual.EdgeValue;
@@ -43,8 +44,11 @@ import static org.hamcrest.Matchers.equalTo;
 import static org.neo4j.bolt.v1.messaging.BoltResponseMessageWriter.NO_BOUNDARY_HOOK;
 import static org.neo4j.bolt.v1.messaging.message.AckFailureMessage.ackFailure;
 import static org.neo4j.bolt.v1.messaging.message.DiscardAllMessage.discardAll;
+import static org.neo4j.bolt.v1.messaging.message.ExecuteMessage.execute;
 import static org.neo4j.bolt.v1.messaging.message.InitMessage.init;
+import static org.neo4j.bolt.v1.messaging.message.PrepareMessage.prepare;
 import static org.neo4j.bolt.v1.messaging.message.PullAllMessage.pullAll;
+import static org.neo4j.bolt.v1.messaging.message.PullMessage.pull;
 import static org.neo4j.bolt.v1.messaging.message.ResetMessage.reset;
 import static org.neo4j.bolt.v1.messaging.message.RunMessage.run;
 import static org.neo4j.bolt.v1.messaging.util.MessageMatchers.serialize;
@@ -73,6 +77,33 @@ public class BoltRequestMessageTest
         assertSerializes( pullAll() );
     }
 
+    @Test
+    public void shouldHandleMessagesIntroducedByVersion2() throws Throwable
+    {
+        assertSerializes( pull( 1000 ), BoltProtocolV1.VERSION_2 );
+        assertSerializes( prepare( "MATCH (n) WHERE n.name = {name} RETURN n" ), BoltProtocolV1.VERSION_2 );
+        assertSerializes( execute( 42, map( "name", "Bob" ) ), BoltProtocolV1.VERSION_2 );
+    }
+
+    @Test
+    public void shouldRefuseMessagesIntroducedByVersion2InVersion1() throws Throwable
+    {
+        // Given
+        RecordingByteChannel channel = new RecordingByteChannel();
+        BoltRequestMessageReader reader = new BoltRequestMessageReader(
+                new Neo4jPack.Unpacker( new BufferedChannelInput( 16 ).reset( channel ) ), BoltProtocolV1.VERSION );
+        new BoltRequestMessageWriter( new Neo4jPack.Packer( new BufferedChannelOutput( channel ) ), NO_BOUNDARY_HOOK )
+                .write( pull( 1000 ) ).flush();
+        channel.eof();
+
+        // Expect
+        exception.expect( BoltIOException.class );
+        exception.expectMessage( "not supported by version 1 of the protocol" );
+
+        // When
+        reader.read( new BoltRequestMessageRecorder() );
+    }
+
     @Test
     public void shouldHandleParameterizedStatements() throws Throwable
     {
@@ -121,14 +152,24 @@ public class BoltRequestMessageTest
 
     private void assertSerializes( RequestMessage msg ) throws IOException
     {
-        assertThat( serializeAndDeserialize( msg ), equalTo( msg ) );
+        assertSerializes( msg, BoltProtocolV1.VERSION );
+    }
+
+    private void assertSerializes( RequestMessage msg, int protocolVersion ) throws IOException
+    {
+        assertThat( serializeAndDeserialize( msg, protocolVersion ), equalTo( msg ) );
     }
 
     private <T extends RequestMessage> T serializeAndDeserialize( T msg ) throws IOException
+    {
+        return serializeAndDeserialize( msg, BoltProtocolV1.VERSION );
+    }
+
+    private <T extends RequestMessage> T serializeAndDeserialize( T msg, int protocolVersion ) throws IOException
     {
         RecordingByteChannel channel = new RecordingByteChannel();
         BoltRequestMessageReader reader = new BoltRequestMessageReader(
-                new Neo4jPack.Unpacker( new BufferedChannelInput( 16 ).reset( channel ) ) );
+                new Neo4jPack.Unpacker( new BufferedChannelInput( 16 ).reset( channel ) ), protocolVersion );
         BoltRequestMessageWriter writer = new BoltRequestMessageWriter(
                 new Neo4jPack.Packer( new BufferedChannelOutput( channel ) ), NO_BOUNDARY_HOOK );
 
@@ -28,7 +28,10 @@ import org.neo4j.values.AnyValues;
 
 import static org.neo4j.bolt.v1.messaging.BoltRequestMessage.ACK_FAILURE;
 import static org.neo4j.bolt.v1.messaging.BoltRequestMessage.DISCARD_ALL;
+import static org.neo4j.bolt.v1.messaging.BoltRequestMessage.EXECUTE;
 import static org.neo4j.bolt.v1.messaging.BoltRequestMessage.INIT;
+import static org.neo4j.bolt.v1.messaging.BoltRequestMessage.PREPARE;
+import static org.neo4j.bolt.v1.messaging.BoltRequestMessage.PULL;
 import static org.neo4j.bolt.v1.messaging.BoltRequestMessage.PULL_ALL;
 import static org.neo4j.bolt.v1.messaging.BoltRequestMessage.RESET;
 import static org.neo4j.bolt.v1.messaging.BoltRequestMessage.RUN;
@@ -85,6 +88,23 @@ public class BoltRequestMessageWriter implements BoltRequestMessageHandler<IOExc
         onMessageComplete.onMessageComplete();
     }
 
+    @Override
+    public void onPrepare( String statement ) throws IOException
+    {
+        packer.packStructHeader( 1, PREPARE.signature() );
+        packer.pack( statement );
+        onMessageComplete.onMessageComplete();
+    }
+
+    @Override
+    public void onExecute( long statementId, Map<String,Object> params ) throws IOException
+    {
+        packer.packStructHeader( 2, EXECUTE.signature() );
+        packer.pack( statementId );
+        packer.packRawMap( AnyValues.asMapValue( params ) );
+        onMessageComplete.onMessageComplete();
+    }
+
     @Override
     public void onDiscardAll()
             throws IOException
@@ -101,6 +121,15 @@ public class BoltRequestMessageWriter implements BoltRequestMessageHandler<IOExc
         onMessageComplete.onMessageComplete();
     }
 
+    @Override
+    public void onPull( long n )
+            throws IOException
+    {
+        packer.packStructHeader( 1, PULL.signature() );
+        packer.pack( n );
+        onMessageComplete.onMessageComplete();
+    }
+
     public void flush() throws IOException
     {
         packer.flush();
@@ -24,6 +24,7 @@ import org.junit.Test;
 import org.junit.rules.ExpectedException;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -33,6 +34,7 @@ import org.neo4j.bolt.v1.packstream.PackedInputArray;
 import org.neo4j.bolt.v1.packstream.PackedOutputArray;
 import org.neo4j.bolt.v1.runtime.Neo4jError;
 import org.neo4j.kernel.api.exceptions.Status;
+import org.neo4j.unsafe.impl.internal.dragons.UnsafeUtil;
 import org.neo4j.values.AnyValue;
 import org.neo4j.values.AnyValues;
 import org.neo4j.values.storable.TextArray;
@@ -46,12 +48,14 @@ import org.neo4j.values.virtual.VirtualValues;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertArrayEquals;
 import static org.neo4j.bolt.v1.messaging.example.Edges.ALICE_KNOWS_BOB;
 import static org.neo4j.bolt.v1.messaging.example.Nodes.ALICE;
 import static org.neo4j.bolt.v1.messaging.example.Paths.ALL_PATHS;
 import static org.neo4j.values.storable.Values.charValue;
 import static org.neo4j.values.storable.Values.longValue;
 import static org.neo4j.values.storable.Values.stringValue;
+import static org.neo4j.values.storable.Values.utf8Value;
 
 public class Neo4jPackTest
 {
@@ -73,6 +77,23 @@ public class Neo4jPackTest
         return unpacker.unpack();
     }
 
+    @Test
+    public void shouldPackUTF8EncodedStringValueAsIs() throws IOException
+    {
+        // Given
+        String string = "Hello, världen!";
+        PackedOutputArray utf8Output = new PackedOutputArray();
+        PackedOutputArray stringOutput = new PackedOutputArray();
+
+        // When
+        utf8Value( string.getBytes( StandardCharsets.UTF_8 ) ).writeTo( new Neo4jPack.Packer( utf8Output ) );
+        stringValue( string ).writeTo( new Neo4jPack.Packer( stringOutput ) );
+
+        // Then
+        assertArrayEquals( stringOutput.bytes(), utf8Output.bytes() );
+        assertThat( unpacked( utf8Output.bytes() ), equalTo( stringValue( string ) ) );
+    }
+
     @SuppressWarnings( "unchecked" )
     @Test
     public void shouldBeAbleToPackAndUnpackListStream() throws IOException
@@ -98,6 +119,36 @@ public class Neo4jPackTest
         assertThat( unpackedList, equalTo( AnyValues.asListValue( expected ) ) );
     }
 
+    @Test
+    public void shouldPackUTF8StraightFromOffHeapMemory() throws IOException
+    {
+        // Given
+        byte[] utf8 = "Hello, världen!".getBytes( StandardCharsets.UTF_8 );
+        long address = UnsafeUtil.allocateMemory( utf8.length );
+        try
+        {
+            for ( int i = 0; i < utf8.length; i++ )
+            {
+                UnsafeUtil.putByte( address + i, utf8[i] );
+            }
+            PackedOutputArray output = new PackedOutputArray();
+            Neo4jPack.Packer packer = new Neo4jPack.Packer( output );
+
+            // When
+            packer.beginUTF8( utf8.length );
+            packer.copyUTF8( address, 5 );
+            packer.copyUTF8( address + 5, utf8.length - 5 );
+            packer.endUTF8();
+
+            // Then
+            assertThat( unpacked( output.bytes() ), equalTo( stringValue( "Hello, världen!" ) ) );
+        }
+        finally
+        {
+            UnsafeUtil.free( address );
+        }
+    }
+
     @SuppressWarnings( "unchecked" )
     @Test
     public void shouldBeAbleToPackAndUnpackMapStream() throws IOException
@@ -0,0 +1,204 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.bolt.v1.messaging;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.channel.embedded.EmbeddedChannel;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.neo4j.bolt.v1.transport.ChunkedOutput;
+import org.neo4j.unsafe.impl.internal.dragons.UnsafeUtil;
+import org.neo4j.values.AnyValue;
+import org.neo4j.values.AnyValueWriter;
+import org.neo4j.values.result.QueryResult;
+import org.neo4j.values.virtual.VirtualValues;
+
+import static org.neo4j.values.storable.Values.doubleValue;
+import static org.neo4j.values.storable.Values.longValue;
+import static org.neo4j.values.storable.Values.stringValue;
+import static org.neo4j.values.storable.Values.utf8Value;
+
+/**
+ * <b>Manual benchmark, not a test.</b> It has no test methods, is not run as part of the build and is meant to be
+ * started by hand through its {@link #main(String[]) main method}, preferably with {@code -verbose:gc} or a profiler
+ * attached to also see the allocation rate of the packing path.
+ * <p>
+ * Measures how many records per second can be packed into pooled Netty buffers, for rows with many fields of mixed
+ * types. Strings are present in all the forms the packer handles: as {@link String}s, as UTF-8 encoded byte arrays
+ * and as UTF-8 encoded off-heap memory, the last one being written through
+ * {@link AnyValueWriter#beginUTF8(int) beginUTF8}/{@link AnyValueWriter#copyUTF8(long, int) copyUTF8} and
+ * {@link org.neo4j.bolt.v1.packstream.PackOutput#writeBytes(long, int) writeBytes(address, length)}.
+ * <p>
+ * Arguments, all optional: number of fields per record, number of records per round, number of rounds.
+ */
+public final class WideRecordPackingBenchmark
+{
+    private static final int OUTPUT_BUFFER_SIZE = 8192;
+
+    private WideRecordPackingBenchmark()
+    {
+    }
+
+    public static void main( String[] args ) throws IOException
+    {
+        int fieldCount = args.length > 0 ? Integer.parseInt( args[0] ) : 64;
+        int recordCount = args.length > 1 ? Integer.parseInt( args[1] ) : 1_000_000;
+        int rounds = args.length > 2 ? Integer.parseInt( args[2] ) : 10;
+
+        EmbeddedChannel channel = new EmbeddedChannel();
+        channel.config().setAllocator( PooledByteBufAllocator.DEFAULT );
+        ChunkedOutput output = new ChunkedOutput( channel, OUTPUT_BUFFER_SIZE );
+        BoltResponseMessageWriter writer = new BoltResponseMessageWriter( new Neo4jPack.Packer( output ), output );
+        List<OffHeapString> offHeapStrings = new ArrayList<>();
+        QueryResult.Record record = wideRecord( fieldCount, offHeapStrings );
+
+        try
+        {
+            for ( int round = 0; round < rounds; round++ )
+            {
+                long bytes = 0;
+                long start = System.nanoTime();
+                for ( int i = 0; i < recordCount; i++ )
+                {
+                    writer.onRecord( record );
+                    bytes += releaseWritten( channel );
+                }
+                output.flush();
+                bytes += releaseWritten( channel );
+                long elapsed = System.nanoTime() - start;
+
+                System.out.printf( "round %d: %,d records/s, %,d MB/s (%d fields per record)%n", round,
+                        recordCount * TimeUnit.SECONDS.toNanos( 1 ) / elapsed,
+                        bytes * TimeUnit.SECONDS.toNanos( 1 ) / elapsed / (1024 * 1024), fieldCount );
+            }
+        }
+        finally
+        {
+            output.close();
+            releaseWritten( channel );
+            channel.finishAndReleaseAll();
+            offHeapStrings.forEach( OffHeapString::free );
+        }
+    }
+
+    private static QueryResult.Record wideRecord( int fieldCount, List<OffHeapString> offHeapStrings )
+    {
+        AnyValue[] fields = new AnyValue[fieldCount];
+        for ( int i = 0; i < fieldCount; i++ )
+        {
+            switch ( i % 6 )
+            {
+            case 0:
+                fields[i] = longValue( i * 1_000_003L );
+                break;
+            case 1:
+                fields[i] = doubleValue( i / 3.0 );
+                break;
+            case 2:
+                fields[i] = stringValue( "a string property value of field " + i );
+                break;
+            case 3:
+                fields[i] = utf8Value( utf8( "an encoded string property välue of field " + i ) );
+                break;
+            case 4:
+                OffHeapString offHeapString = new OffHeapString( utf8( "an off-heap string property välue " + i ) );
+                offHeapStrings.add( offHeapString );
+                fields[i] = offHeapString;
+                break;
+            default:
+                Map<String,AnyValue> map = new HashMap<>();
+                map.put( "id", longValue( i ) );
+                map.put( "name", stringValue( "field" + i ) );
+                fields[i] = VirtualValues.map( map );
+            }
+        }
+        return () -> fields;
+    }
+
+    private static byte[] utf8( String string )
+    {
+        return string.getBytes( StandardCharsets.UTF_8 );
+    }
+
+    private static long releaseWritten( EmbeddedChannel channel )
+    {
+        long bytes = 0;
+        ByteBuf written;
+        while ( (written = channel.readOutbound()) != null )
+        {
+            bytes += written.readableBytes();
+            written.release();
+        }
+        return bytes;
+    }
+
+    /**
+     * UTF-8 encoded string in off-heap memory, like string data read straight from a page, which is written by
+     * copying from its address.
+     */
+    private static class OffHeapString extends AnyValue
+    {
+        private final long address;
+        private final int length;
+
+        OffHeapString( byte[] utf8 )
+        {
+            this.length = utf8.length;
+            this.address = UnsafeUtil.allocateMemory( length );
+            for ( int i = 0; i < length; i++ )
+            {
+                UnsafeUtil.putByte( address + i, utf8[i] );
+            }
+        }
+
+        @Override
+        protected boolean eq( Object other )
+        {
+            return this == other;
+        }
+
+        @Override
+        protected int computeHash()
+        {
+            return Long.hashCode( address );
+        }
+
+        @Override
+        public <E extends Exception> void writeTo( AnyValueWriter<E> writer ) throws E
+        {
+            writer.beginUTF8( length );
+            writer.copyUTF8( address, length );
+            writer.endUTF8();
+        }
+
+        void free()
+        {
+            UnsafeUtil.free( address );
+        }
+    }
+}
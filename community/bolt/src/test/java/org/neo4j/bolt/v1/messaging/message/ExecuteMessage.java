@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.bolt.v1.messaging.message;
+
+import java.util.Map;
+
+import org.neo4j.bolt.v1.messaging.BoltRequestMessageHandler;
+
+import static java.util.Collections.emptyMap;
+
+public class ExecuteMessage implements RequestMessage
+{
+    /**
+     * Factory method for obtaining EXECUTE messages.
+     */
+    public static ExecuteMessage execute( long statementId, Map<String,Object> parameters )
+    {
+        return new ExecuteMessage( statementId, parameters );
+    }
+
+    /**
+     * Factory method for obtaining EXECUTE messages with no parameters.
+     */
+    public static ExecuteMessage execute( long statementId )
+    {
+        return execute( statementId, emptyMap() );
+    }
+
+    private final long statementId;
+    private final Map<String,Object> params;
+
+    private ExecuteMessage( long statementId, Map<String,Object> params )
+    {
+        this.statementId = statementId;
+        this.params = params;
+    }
+
+    public long statementId()
+    {
+        return statementId;
+    }
+
+    public Map<String,Object> params()
+    {
+        return params;
+    }
+
+    @Override
+    public <E extends Exception> void dispatch( BoltRequestMessageHandler<E> consumer ) throws E
+    {
+        consumer.onExecute( statementId, params );
+    }
+
+    @Override
+    public boolean equals( Object o )
+    {
+        if ( this == o )
+        {
+            return true;
+        }
+        if ( o == null || getClass() != o.getClass() )
+        {
+            return false;
+        }
+
+        ExecuteMessage that = (ExecuteMessage) o;
+
+        return statementId == that.statementId && params.equals( that.params );
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return 31 * Long.hashCode( statementId ) + params.hashCode();
+    }
+
+    @Override
+    public String toString()
+    {
+        return "ExecuteMessage{" +
+                "statementId=" + statementId +
+                ", params=" + params +
+                '}';
+    }
+}
@@ -48,6 +48,7 @@ import org.neo4j.bolt.v1.messaging.message.ResponseMessage;
 import org.neo4j.bolt.v1.messaging.message.SuccessMessage;
 import org.neo4j.bolt.v1.packstream.BufferedChannelInput;
 import org.neo4j.bolt.v1.packstream.BufferedChannelOutput;
+import org.neo4j.bolt.v1.transport.BoltProtocolV1;
 import org.neo4j.bolt.v1.transport.integration.TestNotification;
 import org.neo4j.graphdb.Node;
 import org.neo4j.graphdb.Notification;
@@ -374,7 +375,8 @@ public class MessageMatchers
     private static BoltRequestMessageReader requestReader( byte[] bytes )
     {
         return new BoltRequestMessageReader(
-                new Neo4jPack.Unpacker( new BufferedChannelInput( 128 ).reset( new ArrayByteChannel( bytes ) ) ) );
+                new Neo4jPack.Unpacker( new BufferedChannelInput( 128 ).reset( new ArrayByteChannel( bytes ) ) ),
+                BoltProtocolV1.VERSION_2 );
     }
 
     private static BoltResponseMessageReader responseReader( byte[] bytes )
@@ -25,6 +25,7 @@ import org.junit.Test;
 import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.time.Clock;
+import java.time.Duration;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -121,7 +122,7 @@ public class ResetFuzzTest
             public void onSuccess( MapValue metadata ) throws IOException
             {
             }
-        }, Runnables.EMPTY_RUNNABLE );
+        }, Runnables.EMPTY_RUNNABLE, Duration.ofMinutes( 1 ) );
 
         // Test random combinations of messages within a small budget of testing time.
         long deadline = System.currentTimeMillis() + 2 * 1000;
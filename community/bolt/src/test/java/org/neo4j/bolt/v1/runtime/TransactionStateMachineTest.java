@@ -25,16 +25,25 @@ import org.junit.Test;
 import java.util.Collections;
 import java.util.Map;
 
+import org.neo4j.bolt.v1.runtime.spi.BoltResult;
+import org.neo4j.kernel.api.KernelTransaction;
+import org.neo4j.kernel.api.exceptions.Status;
 import org.neo4j.kernel.impl.query.QueryExecutionKernelException;
 import org.neo4j.time.FakeClock;
 
 import static java.util.Arrays.asList;
 import static java.util.Collections.emptyMap;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 import static org.neo4j.bolt.security.auth.AuthenticationResult.AUTH_DISABLED;
 import static org.neo4j.helpers.collection.MapUtil.map;
 
@@ -206,4 +215,77 @@ public class TransactionStateMachineTest
         stateMachine.run( "BEGIN", params );
         verify( stateMachineSPI ).awaitUpToDate( 67 );
     }
+
+    @Test
+    public void shouldExecutePreparedStatementWithoutPreparingItAgain() throws Exception
+    {
+        // given
+        TransactionStateMachine.BoltResultHandle resultHandle = mock( TransactionStateMachine.BoltResultHandle.class );
+        when( resultHandle.start() ).thenReturn( BoltResult.EMPTY );
+        when( stateMachineSPI.executeQuery( any(), any(), anyString(), any(), any() ) ).thenReturn( resultHandle );
+        long statementId = stateMachine.prepare( "MATCH (n) RETURN n" );
+
+        // when
+        for ( int i = 0; i < 3; i++ )
+        {
+            stateMachine.execute( statementId, map( "i", i ) );
+            stateMachine.streamResult( result -> {} );
+        }
+
+        // then
+        verify( stateMachineSPI, times( 1 ) ).isPeriodicCommit( "MATCH (n) RETURN n" );
+        verify( stateMachineSPI, times( 3 ) ).executeQuery( any(), any(), eq( "MATCH (n) RETURN n" ), any(), any() );
+    }
+
+    @Test
+    public void shouldRollBackAutoCommitTransactionWhenStreamingFails() throws Exception
+    {
+        // given
+        KernelTransaction transaction = mock( KernelTransaction.class );
+        when( transaction.isOpen() ).thenReturn( true );
+        when( stateMachineSPI.beginTransaction( any() ) ).thenReturn( transaction );
+        TransactionStateMachine.BoltResultHandle resultHandle = mock( TransactionStateMachine.BoltResultHandle.class );
+        when( resultHandle.start() ).thenReturn( BoltResult.EMPTY );
+        when( stateMachineSPI.executeQuery( any(), any(), anyString(), any(), any() ) ).thenReturn( resultHandle );
+        stateMachine.run( "MATCH (n) RETURN n", emptyMap() );
+        Exception failure = new Exception( "idle for too long" );
+
+        try
+        {
+            // when
+            stateMachine.streamResult( result ->
+            {
+                throw failure;
+            } );
+            fail( "should have thrown" );
+        }
+        catch ( Exception e )
+        {
+            // then
+            assertEquals( failure, e );
+        }
+        verify( resultHandle ).terminate();
+        verify( transaction ).failure();
+        verify( transaction ).close();
+        verify( transaction, never() ).success();
+    }
+
+    @Test
+    public void shouldFailToExecuteUnknownPreparedStatement() throws Exception
+    {
+        // given
+        long statementId = stateMachine.prepare( "MATCH (n) RETURN n" );
+
+        try
+        {
+            // when
+            stateMachine.execute( statementId + 1, emptyMap() );
+            fail( "should have thrown" );
+        }
+        catch ( PreparedStatementException e )
+        {
+            // then
+            assertEquals( Status.Request.Invalid, e.status() );
+        }
+    }
 }
@@ -0,0 +1,194 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.bolt.v1.runtime.concurrent;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.neo4j.bolt.v1.runtime.BoltFactory;
+import org.neo4j.bolt.v1.runtime.BoltStateMachine;
+import org.neo4j.bolt.v1.runtime.BoltWorker;
+import org.neo4j.bolt.v1.runtime.StatementProcessor;
+import org.neo4j.kernel.impl.logging.NullLogService;
+import org.neo4j.kernel.monitoring.Monitors;
+import org.neo4j.scheduler.JobScheduler;
+import org.neo4j.time.Clocks;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.neo4j.scheduler.JobScheduler.Groups.sessionWorker;
+
+public class PooledWorkerFactoryTest
+{
+    private final List<Runnable> scheduledJobs = new ArrayList<>();
+    private final StatementProcessor statementProcessor = mock( StatementProcessor.class );
+    private JobScheduler scheduler;
+
+    @Before
+    public void setup()
+    {
+        scheduler = mock( JobScheduler.class );
+        doAnswer( invocation ->
+        {
+            scheduledJobs.add( invocation.getArgumentAt( 1, Runnable.class ) );
+            return null;
+        } ).when( scheduler ).schedule( any(), any( Runnable.class ) );
+    }
+
+    @Test
+    public void shouldScheduleWorkerOnlyWhileItHasQueuedJobs() throws Throwable
+    {
+        // given
+        BoltStateMachine machine = newMachine();
+        PooledWorkerFactory factory = newFactory( 4, machine );
+        BoltWorker worker = factory.newWorker( null, null );
+
+        // when
+        worker.enqueue( s -> s.run( "RETURN 1", null, null ) );
+        worker.enqueue( s -> s.run( "RETURN 2", null, null ) );
+
+        // then
+        assertEquals( 1, scheduledJobs.size() );
+
+        // when
+        runScheduledJobs();
+
+        // then
+        verify( machine ).run( "RETURN 1", null, null );
+        verify( machine ).run( "RETURN 2", null, null );
+
+        // when
+        worker.enqueue( s -> s.run( "RETURN 3", null, null ) );
+
+        // then
+        assertEquals( 1, scheduledJobs.size() );
+        runScheduledJobs();
+        verify( machine ).run( "RETURN 3", null, null );
+    }
+
+    @Test
+    public void shouldNotUseMoreThreadsThanConfigured() throws Throwable
+    {
+        // given
+        BoltStateMachine machine = newMachine();
+        PooledWorkerFactory factory = newFactory( 1, machine );
+        BoltWorker worker1 = factory.newWorker( null, null );
+        BoltWorker worker2 = factory.newWorker( null, null );
+
+        // when
+        worker1.enqueue( s -> s.run( "RETURN 1", null, null ) );
+        worker2.enqueue( s -> s.run( "RETURN 2", null, null ) );
+
+        // then
+        assertEquals( 1, scheduledJobs.size() );
+
+        // when
+        runScheduledJobs();
+
+        // then
+        verify( machine ).run( "RETURN 1", null, null );
+        verify( machine ).run( "RETURN 2", null, null );
+    }
+
+    @Test
+    public void shouldKeepThreadWhileTransactionIsOpen() throws Throwable
+    {
+        // given
+        BoltStateMachine machine = newMachine();
+        when( statementProcessor.hasTransaction() ).thenReturn( true, false );
+        PooledWorkerFactory factory = newFactory( 4, machine );
+        BoltWorker worker = factory.newWorker( null, null );
+        worker.enqueue( s -> s.run( "BEGIN", null, null ) );
+
+        // when
+        Thread client = new Thread( () ->
+        {
+            sleepQuietly();
+            worker.enqueue( s -> s.run( "COMMIT", null, null ) );
+        } );
+        client.start();
+        runScheduledJobs();
+        client.join();
+
+        // then
+        verify( machine ).run( "BEGIN", null, null );
+        verify( machine ).run( "COMMIT", null, null );
+        assertEquals( 0, scheduledJobs.size() );
+    }
+
+    @Test
+    public void shouldCloseStateMachineWhenHalted() throws Throwable
+    {
+        // given
+        BoltStateMachine machine = newMachine();
+        PooledWorkerFactory factory = newFactory( 4, machine );
+        BoltWorker worker = factory.newWorker( null, null );
+
+        // when
+        worker.halt();
+        runScheduledJobs();
+
+        // then
+        verify( machine ).terminate();
+        verify( machine ).close();
+    }
+
+    private PooledWorkerFactory newFactory( int maxThreads, BoltStateMachine machine )
+    {
+        BoltFactory boltFactory = mock( BoltFactory.class );
+        when( boltFactory.newMachine( any(), any(), any() ) ).thenReturn( machine );
+        return new PooledWorkerFactory( boltFactory, scheduler, NullLogService.getInstance(), Clocks.systemClock(),
+                new Monitors(), maxThreads );
+    }
+
+    private BoltStateMachine newMachine()
+    {
+        BoltStateMachine machine = mock( BoltStateMachine.class );
+        when( machine.key() ).thenReturn( "test-session" );
+        when( machine.statementProcessor() ).thenReturn( statementProcessor );
+        return machine;
+    }
+
+    private void runScheduledJobs()
+    {
+        List<Runnable> jobs = new ArrayList<>( scheduledJobs );
+        scheduledJobs.clear();
+        jobs.forEach( Runnable::run );
+    }
+
+    private static void sleepQuietly()
+    {
+        try
+        {
+            Thread.sleep( 100 );
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -21,14 +21,18 @@ package org.neo4j.bolt.v1.transport;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.Unpooled;
+import io.netty.buffer.UnpooledByteBufAllocator;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelHandlerContext;
 import org.junit.Test;
 import org.mockito.stubbing.Answer;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.util.Objects;
 
+import org.neo4j.bolt.v1.runtime.BoltResponseHandler;
 import org.neo4j.bolt.v1.runtime.BoltStateMachine;
 import org.neo4j.bolt.v1.runtime.BoltWorker;
 import org.neo4j.bolt.v1.runtime.SynchronousBoltWorker;
@@ -38,14 +42,19 @@ import org.neo4j.logging.AssertableLogProvider;
 import org.neo4j.logging.NullLogProvider;
 
 import static org.hamcrest.Matchers.equalTo;
+import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyInt;
 import static org.mockito.Mockito.RETURNS_MOCKS;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
+import static org.neo4j.bolt.v1.messaging.message.ResetMessage.reset;
+import static org.neo4j.bolt.v1.transport.integration.TransportTestUtil.chunk;
 import static org.neo4j.logging.AssertableLogProvider.inLog;
 
 public class BoltProtocolV1Test
@@ -58,7 +67,7 @@ public class BoltProtocolV1Test
 
         BoltStateMachine machine = mock( BoltStateMachine.class );
         BoltProtocolV1 protocol = new BoltProtocolV1( new SynchronousBoltWorker( machine ),
-                outputChannel, NullLogService.getInstance() );
+                outputChannel, NullLogService.getInstance(), Duration.ofMinutes( 1 ) );
         verify( outputChannel ).alloc();
 
         // And given inbound data that'll explode when the protocol tries to interpret it
@@ -88,7 +97,7 @@ public class BoltProtocolV1Test
         BoltStateMachine machine = mock( BoltStateMachine.class );
 
         BoltProtocolV1 protocol = new BoltProtocolV1( new SynchronousBoltWorker( machine ),
-                outputChannel, NullLogService.getInstance() );
+                outputChannel, NullLogService.getInstance(), Duration.ofMinutes( 1 ) );
         protocol.close();
 
         verify( machine ).close();
@@ -104,7 +113,8 @@ public class BoltProtocolV1Test
         AssertableLogProvider assertableLogProvider = new AssertableLogProvider();
         SimpleLogService logService = new SimpleLogService( NullLogProvider.getInstance(), assertableLogProvider );
 
-        BoltProtocolV1 protocol = new BoltProtocolV1( mock( BoltWorker.class ), newChannelMock(), logService );
+        BoltProtocolV1 protocol = new BoltProtocolV1( mock( BoltWorker.class ), newChannelMock(), logService,
+                Duration.ofMinutes( 1 ) );
 
         protocol.handle( mock( ChannelHandlerContext.class ), data );
 
@@ -114,6 +124,32 @@ public class BoltProtocolV1Test
                         equalTo( error ) ) );
     }
 
+    @Test
+    public void shouldFlushResponsesToPipelinedMessagesOnce() throws Throwable
+    {
+        // Given
+        Channel outputChannel = mock( Channel.class );
+        when( outputChannel.alloc() ).thenReturn( UnpooledByteBufAllocator.DEFAULT );
+
+        BoltStateMachine machine = mock( BoltStateMachine.class );
+        doAnswer( invocation ->
+        {
+            invocation.getArgumentAt( 0, BoltResponseHandler.class ).onFinish();
+            return null;
+        } ).when( machine ).reset( any() );
+
+        BoltProtocolV1 protocol = new BoltProtocolV1( new SynchronousBoltWorker( machine ),
+                outputChannel, NullLogService.getInstance(), Duration.ofMinutes( 1 ) );
+
+        // When
+        protocol.handle( mock( ChannelHandlerContext.class ),
+                Unpooled.wrappedBuffer( chunk( reset(), reset(), reset() ) ) );
+
+        // Then
+        verify( machine, times( 3 ) ).reset( any() );
+        verify( outputChannel, times( 1 ) ).writeAndFlush( any(), any() );
+    }
+
     private static ByteBuf newThrowingByteBuf( RuntimeException exceptionToThrow )
     {
         Objects.requireNonNull( exceptionToThrow );
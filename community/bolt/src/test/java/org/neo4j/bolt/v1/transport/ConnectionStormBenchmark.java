@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.bolt.v1.transport;
+
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.socket.SocketChannel;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.neo4j.bolt.transport.NettyServer;
+import org.neo4j.helpers.HostnamePort;
+import org.neo4j.helpers.ListenSocketAddress;
+import org.neo4j.helpers.NamedThreadFactory;
+import org.neo4j.kernel.configuration.BoltConnector;
+import org.neo4j.kernel.configuration.ConnectorPortRegister;
+import org.neo4j.logging.FormattedLog;
+
+import static org.neo4j.helpers.collection.MapUtil.genericMap;
+
+/**
+ * <b>Manual benchmark, not a test.</b> Run it by hand through its {@link #main(String[]) main method}; the build
+ * never runs it, since it binds a local port and takes a while.
+ * <p>
+ * Opens a storm of short lived connections to a {@link NettyServer}, like clients reconnecting all at once after a
+ * load balancer failover, and reports how long it takes for new connections to be served. The server answers every
+ * new connection with a single byte, which clients wait for before closing the connection again.
+ * <p>
+ * Arguments, all optional: transport, {@code nio} or {@code native}, number of acceptors, number of client threads,
+ * number of connections per client thread.
+ */
+public final class ConnectionStormBenchmark
+{
+    private ConnectionStormBenchmark()
+    {
+    }
+
+    public static void main( String[] args ) throws Throwable
+    {
+        boolean nativeTransport = args.length > 0 && "native".equals( args[0] );
+        int acceptors = args.length > 1 ? Integer.parseInt( args[1] ) : 1;
+        int clients = args.length > 2 ? Integer.parseInt( args[2] ) : 64;
+        int connectionsPerClient = args.length > 3 ? Integer.parseInt( args[3] ) : 500;
+
+        BoltConnector connector = new BoltConnector( "storm" );
+        ConnectorPortRegister portRegister = new ConnectorPortRegister();
+        NettyServer server = new NettyServer( new NamedThreadFactory( "storm-io" ),
+                genericMap( connector, answeringProtocol( new ListenSocketAddress( "localhost", 0 ) ) ), portRegister,
+                nativeTransport, acceptors, FormattedLog.toOutputStream( System.out ) );
+        server.start();
+        ExecutorService clientThreads = Executors.newFixedThreadPool( clients );
+        try
+        {
+            HostnamePort bound = portRegister.getLocalAddress( connector.key() );
+            InetSocketAddress address = new InetSocketAddress( bound.getHost(), bound.getPort() );
+
+            long start = System.nanoTime();
+            List<Future<long[]>> results = new ArrayList<>();
+            for ( int i = 0; i < clients; i++ )
+            {
+                results.add( clientThreads.submit( () -> connectRepeatedly( address, connectionsPerClient ) ) );
+            }
+            long[] latencies = new long[clients * connectionsPerClient];
+            for ( int i = 0; i < clients; i++ )
+            {
+                System.arraycopy( results.get( i ).get(), 0, latencies, i * connectionsPerClient,
+                        connectionsPerClient );
+            }
+            long elapsed = System.nanoTime() - start;
+
+            Arrays.sort( latencies );
+            System.out.printf( "%s transport, %d acceptors: %,d connections/s, latency p50 %,d us, p99 %,d us, " +
+                               "max %,d us%n", nativeTransport ? "native" : "nio", acceptors,
+                    latencies.length * TimeUnit.SECONDS.toNanos( 1 ) / elapsed,
+                    micros( latencies[latencies.length / 2] ), micros( latencies[latencies.length * 99 / 100] ),
+                    micros( latencies[latencies.length - 1] ) );
+        }
+        finally
+        {
+            clientThreads.shutdownNow();
+            server.stop();
+        }
+    }
+
+    private static long[] connectRepeatedly( InetSocketAddress address, int connections ) throws IOException
+    {
+        long[] latencies = new long[connections];
+        for ( int i = 0; i < connections; i++ )
+        {
+            long start = System.nanoTime();
+            try ( Socket socket = new Socket() )
+            {
+                // reset rather than close connections, to not run out of ports because of lingering connections
+                socket.setSoLinger( true, 0 );
+                socket.connect( address );
+                if ( socket.getInputStream().read() == -1 )
+                {
+                    throw new IOException( "Connection closed before it was served" );
+                }
+            }
+            latencies[i] = System.nanoTime() - start;
+        }
+        return latencies;
+    }
+
+    private static long micros( long nanos )
+    {
+        return TimeUnit.NANOSECONDS.toMicros( nanos );
+    }
+
+    private static NettyServer.ProtocolInitializer answeringProtocol( ListenSocketAddress address )
+    {
+        return new NettyServer.ProtocolInitializer()
+        {
+            @Override
+            public ChannelInitializer<SocketChannel> channelInitializer()
+            {
+                return new ChannelInitializer<SocketChannel>()
+                {
+                    @Override
+                    public void initChannel( SocketChannel ch ) throws Exception
+                    {
+                        ch.pipeline().addLast( new ChannelInboundHandlerAdapter()
+                        {
+                            @Override
+                            public void channelActive( ChannelHandlerContext ctx ) throws Exception
+                            {
+                                ctx.writeAndFlush( Unpooled.wrappedBuffer( new byte[]{1} ) );
+                                super.channelActive( ctx );
+                            }
+                        } );
+                    }
+                };
+            }
+
+            @Override
+            public ListenSocketAddress address()
+            {
+                return address;
+            }
+        };
+    }
+}
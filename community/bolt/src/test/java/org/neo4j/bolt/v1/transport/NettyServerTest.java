@@ -26,16 +26,20 @@ import org.junit.Test;
 import org.junit.rules.ExpectedException;
 
 import java.net.InetSocketAddress;
+import java.net.Socket;
 import java.nio.channels.ServerSocketChannel;
 import java.util.Map;
 
 import org.neo4j.bolt.transport.NettyServer;
+import org.neo4j.helpers.HostnamePort;
 import org.neo4j.helpers.ListenSocketAddress;
 import org.neo4j.helpers.NamedThreadFactory;
 import org.neo4j.helpers.PortBindException;
 import org.neo4j.kernel.configuration.BoltConnector;
 import org.neo4j.kernel.configuration.ConnectorPortRegister;
+import org.neo4j.logging.NullLog;
 
+import static org.junit.Assert.assertTrue;
 import static org.neo4j.helpers.collection.MapUtil.genericMap;
 
 public class NettyServerTest
@@ -65,6 +69,66 @@ public class NettyServerTest
         }
     }
 
+    @Test
+    public void shouldAcceptConnectionsWithSeveralAcceptorsOnNativeTransportOrFallBackToNio() throws Throwable
+    {
+        // Given
+        BoltConnector connector = new BoltConnector( "test" );
+        ConnectorPortRegister portRegister = new ConnectorPortRegister();
+        NettyServer server = new NettyServer( new NamedThreadFactory( "mythreads" ),
+                genericMap( connector, protocolOnAddress( new ListenSocketAddress( "localhost", 0 ) ) ),
+                portRegister, true, 4, NullLog.getInstance() );
+
+        // When
+        server.start();
+        try
+        {
+            HostnamePort address = portRegister.getLocalAddress( connector.key() );
+
+            // Then
+            for ( int i = 0; i < 8; i++ )
+            {
+                try ( Socket socket = new Socket( address.getHost(), address.getPort() ) )
+                {
+                    assertTrue( socket.isConnected() );
+                }
+            }
+        }
+        finally
+        {
+            server.stop();
+        }
+    }
+
+    @Test
+    public void shouldNotShareThePortOfAnotherServerWhenBindingSeveralAcceptors() throws Throwable
+    {
+        // Given a server bound with several acceptors, which may use SO_REUSEPORT
+        BoltConnector connector = new BoltConnector( "test" );
+        ConnectorPortRegister portRegister = new ConnectorPortRegister();
+        NettyServer server = new NettyServer( new NamedThreadFactory( "mythreads" ),
+                genericMap( connector, protocolOnAddress( new ListenSocketAddress( "localhost", 0 ) ) ),
+                portRegister, true, 4, NullLog.getInstance() );
+        server.start();
+        try
+        {
+            int port = portRegister.getLocalAddress( connector.key() ).getPort();
+
+            // Expect
+            exception.expect( PortBindException.class );
+            exception.expectMessage( "Address localhost:" + port + " is already in use" );
+
+            // When another server binds the same port the same way
+            new NettyServer( new NamedThreadFactory( "otherthreads" ),
+                    genericMap( connector, protocolOnAddress( new ListenSocketAddress( "localhost", port ) ) ),
+                    new ConnectorPortRegister(), true, 4, NullLog.getInstance() ).start();
+        }
+        finally
+        {
+            server.stop();
+        }
+    }
+
     private NettyServer.ProtocolInitializer protocolOnAddress( final ListenSocketAddress address )
     {
         return new NettyServer.ProtocolInitializer()
@@ -23,6 +23,7 @@ import io.netty.buffer.ByteBuf;
 import io.netty.buffer.UnpooledByteBufAllocator;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelPromise;
+import io.netty.channel.EventLoop;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -32,18 +33,21 @@ import java.nio.ByteBuffer;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.neo4j.bolt.v1.transport.ChunkedOutput;
 import org.neo4j.kernel.impl.util.HexPrinter;
+import org.neo4j.unsafe.impl.internal.dragons.UnsafeUtil;
 
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.fail;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -166,6 +170,36 @@ public class ChunkedOutputTest
                 equalTo( "00 0E 00 00 00 00 00 00    00 00 00 00 00 00 00 00    00 02 00 00 00 00" ) );
     }
 
+    @Test
+    public void shouldChunkOffHeapDataWhoseSizeIsGreaterThanOutputBufferCapacity() throws IOException
+    {
+        setupWriteAndFlush();
+
+        // Given
+        long address = UnsafeUtil.allocateMemory( 16 );
+        try
+        {
+            for ( int i = 0; i < 16; i++ )
+            {
+                UnsafeUtil.putByte( address + i, (byte) i );
+            }
+
+            // When
+            out.writeBytes( address, 16 );
+            out.onMessageComplete();
+            out.flush();
+        }
+        finally
+        {
+            UnsafeUtil.free( address );
+        }
+
+        // Then
+        assertThat( writtenData.limit(), equalTo( 22 ) );
+        assertThat( HexPrinter.hex( writtenData, 0, 22 ),
+                equalTo( "00 0E 00 01 02 03 04 05    06 07 08 09 0A 0B 0C 0D    00 02 0E 0F 00 00" ) );
+    }
+
     @Test
     public void shouldNotThrowIfOutOfSyncFlush() throws Throwable
     {
@@ -237,6 +271,46 @@ public class ChunkedOutputTest
         assertThat( HexPrinter.hex( writtenData, 0, 8 ), equalTo( "00 02 00 01 00 02 00 02" ) );
     }
 
+    @Test
+    public void shouldNotHoldMonitorWhileAwaitingWriteToSlowClient() throws Throwable
+    {
+        // given a client that does not keep up with the output
+        ChannelPromise write = mock( ChannelPromise.class );
+        CountDownLatch awaitingWrite = new CountDownLatch( 1 );
+        AtomicBoolean written = new AtomicBoolean();
+        when( ch.eventLoop() ).thenReturn( mock( EventLoop.class ) );
+        when( ch.isActive() ).thenReturn( true );
+        when( ch.newPromise() ).thenReturn( write );
+        when( ch.writeAndFlush( any(), any( ChannelPromise.class ) ) ).thenReturn( write );
+        when( write.await( anyLong(), any( TimeUnit.class ) ) ).thenAnswer( invocation ->
+        {
+            awaitingWrite.countDown();
+            return written.get();
+        } );
+        ExecutorService writer = Executors.newSingleThreadExecutor();
+        try
+        {
+            Future<?> flush = writer.submit( () ->
+            {
+                out.writeLong( 1 );
+                out.flush();
+                return null;
+            } );
+            awaitingWrite.await();
+
+            // when the connection is closed while the writer waits
+            out.close();
+            written.set( true );
+
+            // then
+            flush.get( 1, TimeUnit.MINUTES );
+        }
+        finally
+        {
+            writer.shutdown();
+        }
+    }
+
     @Test
     public void shouldNotBeAbleToWriteAfterClose() throws Throwable
     {
@@ -26,6 +26,7 @@ import io.netty.channel.ChannelHandlerContext;
 import org.junit.Test;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.util.Arrays;
 
 import org.neo4j.bolt.v1.messaging.BoltRequestMessageWriter;
@@ -116,7 +117,8 @@ public class FragmentedMessageDeliveryTest
         ChannelHandlerContext ctx = mock( ChannelHandlerContext.class );
         when(ctx.channel()).thenReturn( ch );
 
-        BoltProtocolV1 protocol = new BoltProtocolV1( new SynchronousBoltWorker( machine ), ch, NullLogService.getInstance() );
+        BoltProtocolV1 protocol = new BoltProtocolV1( new SynchronousBoltWorker( machine ), ch,
+                NullLogService.getInstance(), Duration.ofMinutes( 1 ) );
 
         // When data arrives split up according to the current permutation
         for ( ByteBuf fragment : fragments )
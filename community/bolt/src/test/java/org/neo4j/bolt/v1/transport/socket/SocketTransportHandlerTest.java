@@ -25,6 +25,7 @@ import io.netty.channel.Channel;
 import io.netty.channel.ChannelHandlerContext;
 import org.junit.Test;
 
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.function.BiFunction;
@@ -197,7 +198,7 @@ public class SocketTransportHandlerTest
         Map<Long,BiFunction<Channel,Boolean,BoltProtocol>> availableVersions = new HashMap<>();
         availableVersions.put( (long) BoltProtocolV1.VERSION,
                 ( channel, isSecure ) -> new BoltProtocolV1( new SynchronousBoltWorker( machine ), channel,
-                        NullLogService.getInstance() )
+                        NullLogService.getInstance(), Duration.ofMinutes( 1 ) )
         );
 
         return new ProtocolChooser( availableVersions, false, true );
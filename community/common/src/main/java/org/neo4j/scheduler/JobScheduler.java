@@ -109,6 +109,11 @@ public interface JobScheduler extends Lifecycle
         public static final Group indexSamplingController = new Group( "IndexSamplingController" );
         public static final Group indexSampling = new Group( "IndexSampling" );
 
+        /**
+         * Searches of the partitions of partitioned indexes, made in parallel for a single query.
+         */
+        public static final Group indexPartitionQuery = new Group( "IndexPartitionQuery" );
+
         /**
          * Rotates internal diagnostic logs
          */
@@ -25,15 +25,23 @@ import org.neo4j.cypher.internal.compatibility.v3_3.runtime.pipes.QueryState
 import org.neo4j.values.AnyValue
 import org.neo4j.values.virtual.VirtualValues
 
-import scala.collection.JavaConverters._
 import scala.collection.Map
 
 case class LiteralMap(data: Map[String, Expression]) extends Expression with GraphElementPropertyFunctions {
 
-  def apply(ctx: ExecutionContext)(implicit state: QueryState): AnyValue =
-    VirtualValues.map(data.map {
-      case (k, e) => (k, e(ctx))
-    }.asJava)
+  // the keys are the same for every row, so they are shared by all the maps created
+  private val keys: Array[String] = data.keys.toArray
+  private val expressions: Array[Expression] = keys.map(data)
+
+  def apply(ctx: ExecutionContext)(implicit state: QueryState): AnyValue = {
+    val values = new Array[AnyValue](expressions.length)
+    var i = 0
+    while (i < expressions.length) {
+      values(i) = expressions(i)(ctx)
+      i += 1
+    }
+    VirtualValues.map(keys, values)
+  }
 
   def rewrite(f: (Expression) => Expression) = f(LiteralMap(data.rewrite(f)))
 
@@ -19,6 +19,7 @@
  */
 package org.neo4j.cypher.internal.compatibility.v3_3.runtime.pipes
 
+import org.neo4j.collection.primitive.Primitive
 import org.neo4j.cypher.internal.compatibility.v3_3.runtime.commands.expressions.Expression
 import org.neo4j.cypher.internal.compatibility.v3_3.runtime.planDescription.Id
 import org.neo4j.cypher.internal.compatibility.v3_3.runtime.{ExecutionContext, MapExecutionContext}
@@ -48,15 +49,24 @@ case class DistinctPipe(source: Pipe, expressions: Map[String, Expression])
      * in a set.
      */
     var seen = mutable.Set[AnyValue]()
+    // integral values, and pairs of them, are kept unboxed
+    val seenLongKeys = Primitive.longSet()
 
     result.filter { ctx =>
-      val values = VirtualValues.list(keyNames.map(ctx): _*)
+      keyNames.size match {
+        case 1 if LongKeys.isLongKey(ctx(keyNames.head)) =>
+          seenLongKeys.add(LongKeys.longKey(ctx(keyNames.head)))
+        case 2 if LongKeys.isLongKey(ctx(keyNames.head), ctx(keyNames.last)) =>
+          seenLongKeys.add(LongKeys.longKey(ctx(keyNames.head), ctx(keyNames.last)))
+        case _ =>
+          val values = VirtualValues.list(keyNames.map(ctx): _*)
 
-      if (seen.contains(values)) {
-        false
-      } else {
-        seen += values
-        true
+          if (seen.contains(values)) {
+            false
+          } else {
+            seen += values
+            true
+          }
       }
     }
   }
@@ -19,6 +19,7 @@
  */
 package org.neo4j.cypher.internal.compatibility.v3_3.runtime.pipes
 
+import org.neo4j.collection.primitive.{Primitive, PrimitiveLongObjectMap}
 import org.neo4j.cypher.internal.compatibility.v3_3.runtime.ExecutionContext
 import org.neo4j.cypher.internal.compatibility.v3_3.runtime.commands.expressions.AggregationExpression
 import org.neo4j.cypher.internal.compatibility.v3_3.runtime.pipes.aggregation.AggregationFunction
@@ -41,6 +42,8 @@ case class EagerAggregationPipe(source: Pipe, keyExpressions: Set[String], aggre
     implicit val s = state
 
     val result = MutableMap[AnyValue, Seq[AggregationFunction]]()
+    // groups of one or two integral key values, with their key as it is in result
+    val longKeyedResult: PrimitiveLongObjectMap[(AnyValue, Seq[AggregationFunction])] = Primitive.longObjectMap()
     val keyNames = keyExpressions.toList
     val aggregationNames: IndexedSeq[String] = aggregations.keys.toIndexedSeq
     val keyNamesSize = keyNames.size
@@ -88,24 +91,52 @@ case class EagerAggregationPipe(source: Pipe, keyExpressions: Set[String], aggre
       ExecutionContext(newMap)
     }
 
+    def createAggregationFunctions(): Seq[AggregationFunction] =
+      aggregations.map(_._2.createAggregationFunction).toIndexedSeq
+
+    def longKeyedFunctions(longKey: Long, groupValues: => AnyValue): Seq[AggregationFunction] = {
+      val group = longKeyedResult.get(longKey)
+      if (group != null) {
+        group._2
+      } else {
+        val functions = createAggregationFunctions()
+        longKeyedResult.put(longKey, (groupValues, functions))
+        functions
+      }
+    }
+
     input.foreach(ctx => {
-      val groupValues = keyNamesSize match {
-        case 1 => ctx(keyNames.head)
-        case 2 => VirtualValues.list(ctx(keyNames.head), ctx(keyNames.last))
-        case 3 =>  VirtualValues.list(ctx(keyNames.head), ctx(keyNames.tail.head), ctx(keyNames.last))
-        case _ => VirtualValues.list(keyNames.map(k => ctx(k)):_*)
+      val functions = keyNamesSize match {
+        case 1 if LongKeys.isLongKey(ctx(keyNames.head)) =>
+          longKeyedFunctions(LongKeys.longKey(ctx(keyNames.head)), ctx(keyNames.head))
+        case 2 if LongKeys.isLongKey(ctx(keyNames.head), ctx(keyNames.last)) =>
+          longKeyedFunctions(LongKeys.longKey(ctx(keyNames.head), ctx(keyNames.last)),
+                             VirtualValues.list(ctx(keyNames.head), ctx(keyNames.last)))
+        case _ =>
+          val groupValues = keyNamesSize match {
+            case 1 => ctx(keyNames.head)
+            case 2 => VirtualValues.list(ctx(keyNames.head), ctx(keyNames.last))
+            case 3 =>  VirtualValues.list(ctx(keyNames.head), ctx(keyNames.tail.head), ctx(keyNames.last))
+            case _ => VirtualValues.list(keyNames.map(k => ctx(k)):_*)
+          }
+          result.getOrElseUpdate(groupValues, createAggregationFunctions())
       }
-      val functions = result.getOrElseUpdate(groupValues, {
-        val aggregateFunctions: Seq[AggregationFunction] = aggregations.map(_._2.createAggregationFunction).toIndexedSeq
-        aggregateFunctions
-      })
       functions.foreach(func => func(ctx)(state))
     })
 
-    if (result.isEmpty && keyNames.isEmpty) {
+    if (result.isEmpty && longKeyedResult.isEmpty && keyNames.isEmpty) {
       createEmptyResult(state.params)
     } else {
-      result.map {
+      val longKeys = longKeyedResult.iterator()
+      val longKeyedResults = new Iterator[ExecutionContext] {
+        override def hasNext: Boolean = longKeys.hasNext
+
+        override def next(): ExecutionContext = {
+          val (key, aggregator) = longKeyedResult.get(longKeys.next())
+          createResults(key, aggregator)
+        }
+      }
+      longKeyedResults ++ result.map {
         case (key, aggregator) => createResults(key, aggregator)
       }.toIterator
     }
@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compatibility.v3_3.runtime.pipes
+
+import org.neo4j.values.AnyValue
+import org.neo4j.values.storable.{Value, ValueKeys}
+
+/*
+ * Grouping and join keys that are integral numbers, or pairs of them, can be kept in primitive long collections
+ * instead of boxed in hash maps of AnyValue. Equal values always get the same key and are either all encodable or
+ * none of them is, so a pipe may keep the encodable keys in a primitive collection and the rest in a regular one.
+ */
+object LongKeys {
+
+  def isLongKey(value: AnyValue): Boolean = value match {
+    case v: Value => ValueKeys.isLongKey(v)
+    case _ => false
+  }
+
+  def longKey(value: AnyValue): Long = ValueKeys.longKey(value.asInstanceOf[Value])
+
+  def isLongKey(first: AnyValue, second: AnyValue): Boolean = (first, second) match {
+    case (v1: Value, v2: Value) => ValueKeys.isLongKey(Array(v1, v2))
+    case _ => false
+  }
+
+  def longKey(first: AnyValue, second: AnyValue): Long =
+    ValueKeys.longKey(Array(first.asInstanceOf[Value], second.asInstanceOf[Value]))
+}
@@ -19,6 +19,7 @@
  */
 package org.neo4j.cypher.internal.compatibility.v3_3.runtime.pipes
 
+import org.neo4j.collection.primitive.{Primitive, PrimitiveLongObjectMap}
 import org.neo4j.cypher.internal.compatibility.v3_3.runtime.ExecutionContext
 import org.neo4j.cypher.internal.compatibility.v3_3.runtime.commands.expressions.Expression
 import org.neo4j.cypher.internal.compatibility.v3_3.runtime.planDescription.Id
@@ -50,7 +51,7 @@ case class ValueHashJoinPipe(lhsExpression: Expression, rhsExpression: Expressio
                       joinKey = rhsExpression(context) if joinKey != Values.NO_VALUE}
       yield {
 
-        val seq = table.getOrElse(joinKey, mutable.MutableList.empty)
+        val seq = table.get(joinKey)
         seq.map(context.mergeWith)
       }
 
@@ -58,14 +59,45 @@ case class ValueHashJoinPipe(lhsExpression: Expression, rhsExpression: Expressio
   }
 
   private def buildProbeTable(input: Iterator[ExecutionContext])(implicit state: QueryState) = {
-    val table = new mutable.HashMap[AnyValue, mutable.MutableList[ExecutionContext]]
+    val table = new ProbeTable
 
     for (context <- input;
          joinKey = lhsExpression(context) if joinKey != null) {
-      val seq = table.getOrElseUpdate(joinKey, mutable.MutableList.empty)
-      seq += context
+      table.add(joinKey, context)
     }
 
     table
   }
+
+  /*
+   * Integral join keys, the common case of joining on ids and counts, are kept in a primitive map so they are
+   * neither boxed nor hashed as values. All other keys go in a regular hash map.
+   */
+  private class ProbeTable {
+    private val longKeyed: PrimitiveLongObjectMap[mutable.MutableList[ExecutionContext]] = Primitive.longObjectMap()
+    private val valueKeyed = new mutable.HashMap[AnyValue, mutable.MutableList[ExecutionContext]]
+
+    def add(joinKey: AnyValue, context: ExecutionContext): Unit = {
+      if (LongKeys.isLongKey(joinKey)) {
+        val key = LongKeys.longKey(joinKey)
+        var seq = longKeyed.get(key)
+        if (seq == null) {
+          seq = mutable.MutableList.empty
+          longKeyed.put(key, seq)
+        }
+        seq += context
+      } else {
+        valueKeyed.getOrElseUpdate(joinKey, mutable.MutableList.empty) += context
+      }
+    }
+
+    def get(joinKey: AnyValue): mutable.MutableList[ExecutionContext] = {
+      val seq =
+        if (LongKeys.isLongKey(joinKey)) longKeyed.get(LongKeys.longKey(joinKey))
+        else valueKeyed.getOrElse(joinKey, null)
+      if (seq == null) mutable.MutableList.empty else seq
+    }
+
+    def isEmpty: Boolean = longKeyed.isEmpty && valueKeyed.isEmpty
+  }
 }
@@ -38,5 +38,5 @@ class CollectFunction(value:Expression) extends AggregationFunction {
     }
   }
 
-  def result(implicit state: QueryState): AnyValue = VirtualValues.list(collection.toArray:_*)
+  def result(implicit state: QueryState): AnyValue = VirtualValues.compactList(collection.toArray:_*)
 }
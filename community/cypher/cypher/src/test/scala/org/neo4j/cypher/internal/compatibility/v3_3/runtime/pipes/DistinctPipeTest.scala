@@ -64,6 +64,37 @@ class DistinctPipeTest extends CypherFunSuite {
     result.toList should beEquivalentTo(List(Map("x" -> 1)))
   }
 
+  test("integral numbers and equal floats are not distinct") {
+    //GIVEN
+    val pipe = createDistinctPipe(List(Map("x" -> 1), Map("x" -> 1.0), Map("x" -> 1L), Map("x" -> 1.5), Map("x" -> "1")))
+
+    //WHEN
+    val result = pipe.createResults(QueryStateHelper.empty)
+
+    //THEN
+    result.toList should beEquivalentTo(List(Map("x" -> 1), Map("x" -> 1.5), Map("x" -> "1")))
+  }
+
+  test("pairs of integral numbers and equal floats are not distinct") {
+    //GIVEN
+    val expressions = Map("x" -> Variable("x"), "y" -> Variable("y"))
+    val pipe = createDistinctPipe(List(
+      Map("x" -> 1, "y" -> 2),
+      Map("x" -> 1.0, "y" -> 2L),
+      Map("x" -> 2, "y" -> 1),
+      Map("x" -> 1, "y" -> Long.MaxValue),
+      Map("x" -> 1L, "y" -> Long.MaxValue)), expressions)
+
+    //WHEN
+    val result = pipe.createResults(QueryStateHelper.empty)
+
+    //THEN
+    result.toList should beEquivalentTo(List(
+      Map("x" -> 1, "y" -> 2),
+      Map("x" -> 2, "y" -> 1),
+      Map("x" -> 1, "y" -> Long.MaxValue)))
+  }
+
   test("distinct deals with maps containing java arrays") {
     //GIVEN
     val pipe = createDistinctPipe(List(
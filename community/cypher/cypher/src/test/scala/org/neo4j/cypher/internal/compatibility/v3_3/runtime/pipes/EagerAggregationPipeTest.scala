@@ -25,7 +25,7 @@ import org.neo4j.cypher.internal.frontend.v3_3.symbols._
 import org.neo4j.cypher.internal.frontend.v3_3.test_helpers.CypherFunSuite
 import org.neo4j.values.AnyValue
 import org.neo4j.values.storable.Values
-import org.neo4j.values.storable.Values.{intValue, longValue, stringValue}
+import org.neo4j.values.storable.Values.{doubleValue, intValue, longValue, stringValue}
 import org.neo4j.values.virtual.VirtualValues
 
 class EagerAggregationPipeTest extends CypherFunSuite {
@@ -88,6 +88,49 @@ class EagerAggregationPipeTest extends CypherFunSuite {
     )
   }
 
+  test("should group integral numbers together with equal floats") {
+    val source = new FakePipe(List(
+      Map[String, Any]("a" -> 1),
+      Map[String, Any]("a" -> 1.0),
+      Map[String, Any]("a" -> 1.5),
+      Map[String, Any]("a" -> 2L),
+      Map[String, Any]("a" -> "2")), createSymbolTableFor("a"))
+
+    val grouping = createReturnItemsFor("a")
+    val aggregation = Map("count(*)" -> CountStar())
+    val aggregationPipe = EagerAggregationPipe(source, grouping, aggregation)()
+
+    val results = getResults(aggregationPipe)
+    results should have size 4
+    results should contain allOf(
+      Map[String, AnyValue]("a" -> intValue(1), "count(*)" -> longValue(2)),
+      Map[String, AnyValue]("a" -> doubleValue(1.5), "count(*)" -> longValue(1)),
+      Map[String, AnyValue]("a" -> longValue(2), "count(*)" -> longValue(1)),
+      Map[String, AnyValue]("a" -> stringValue("2"), "count(*)" -> longValue(1))
+    )
+  }
+
+  test("should group pairs of integral numbers together with equal floats") {
+    def source = new FakePipe(List(
+      Map[String, Any]("a" -> 1, "b" -> 2),
+      Map[String, Any]("a" -> 1.0, "b" -> 2L),
+      Map[String, Any]("a" -> 2, "b" -> 1),
+      Map[String, Any]("a" -> 1, "b" -> Long.MaxValue),
+      Map[String, Any]("a" -> 1L, "b" -> Long.MaxValue)), createSymbolTableFor("a"), createSymbolTableFor("b"))
+
+    val grouping = createReturnItemsFor("a", "b")
+    val aggregation = Map("count(*)" -> CountStar())
+    def aggregationPipe = EagerAggregationPipe(source, grouping, aggregation)()
+
+    val results = getResults(aggregationPipe)
+    results should have size 3
+    results should contain allOf(
+      Map[String, AnyValue]("a" -> intValue(1), "b" -> intValue(2), "count(*)" -> longValue(2)),
+      Map[String, AnyValue]("a" -> intValue(2), "b" -> intValue(1), "count(*)" -> longValue(1)),
+      Map[String, AnyValue]("a" -> intValue(1), "b" -> longValue(Long.MaxValue), "count(*)" -> longValue(2))
+    )
+  }
+
   test("should handle grouping on null") {
     val source = new FakePipe(List(
       Map[String, Any]("name" -> "Apa"),
@@ -29,7 +29,7 @@ import org.neo4j.cypher.internal.compiler.v3_3.test_helpers.TestableIterator
 import org.neo4j.cypher.internal.frontend.v3_3.symbols._
 import org.neo4j.cypher.internal.frontend.v3_3.test_helpers.CypherFunSuite
 import org.neo4j.values.AnyValue
-import org.neo4j.values.storable.Values.{doubleArray, intArray, intValue}
+import org.neo4j.values.storable.Values.{doubleArray, doubleValue, intArray, intValue, longValue, stringValue}
 
 class ValueHashJoinPipeTest extends CypherFunSuite {
 
@@ -161,6 +161,28 @@ class ValueHashJoinPipeTest extends CypherFunSuite {
     lhsIterator.fetched should equal(0)
   }
 
+  test("should join integral numbers with equal floats") {
+    // given
+    val queryState = QueryStateHelper.empty
+
+    val left = newMockedPipe(SymbolTable(Map("a" -> CTNumber)))
+    when(left.createResults(queryState)).thenReturn(rows("a", intValue(1), doubleValue(2.5), stringValue("3")))
+
+    val right = newMockedPipe(SymbolTable(Map("b" -> CTNumber)))
+    when(right.createResults(queryState)).thenReturn(
+      rows("b", doubleValue(1.0), longValue(1), doubleValue(2.5), intValue(3), stringValue("3")))
+
+    // when
+    val result = ValueHashJoinPipe(Variable("a"), Variable("b"), left, right)().createResults(queryState)
+
+    // then
+    result.toList should equal(List(
+      Map("a" -> intValue(1), "b" -> doubleValue(1.0)),
+      Map("a" -> intValue(1), "b" -> longValue(1)),
+      Map("a" -> doubleValue(2.5), "b" -> doubleValue(2.5)),
+      Map("a" -> stringValue("3"), "b" -> stringValue("3"))))
+  }
+
   test("should support joining on arrays") {
     // given
     val ints = intArray(Array(1, 2, 3))
@@ -538,6 +538,12 @@ class SeekCursor<KEY,VALUE> implements RawCursor<Hit<KEY,VALUE>,IOException>, Hi
                         prevSiblingId = readPrevSibling();
                         prevSiblingGeneration = readPointerGenerationOnSuccess( prevSiblingId );
                     }
+                    else if ( !seekForward && pos > 0 && !KeySearch.isHit( searchResult ) )
+                    {
+                        // No key equal to the one searched for, so the search positioned on the closest key
+                        // after it. Seeking backwards the closest key before it is where to continue from.
+                        pos--;
+                    }
                 }
 
                 // Next result
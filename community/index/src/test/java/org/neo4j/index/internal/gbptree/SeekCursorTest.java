@@ -220,6 +220,77 @@ public class SeekCursorTest
         }
     }
 
+    @Test
+    public void mustFindEntriesWithinRangeStartingBetweenKeysBackwards() throws Exception
+    {
+        // GIVEN
+        // [ 0 2 4 ... ]
+        for ( int i = 0; i < maxKeyCount; i++ )
+        {
+            append( i * 2 );
+        }
+        int fromInclusive = maxKeyCount * 2 - 3;
+        int toExclusive = 0;
+
+        // WHEN
+        long expectedKey = fromInclusive - 1;
+        try ( SeekCursor<MutableLong,MutableLong> cursor = seekCursor( fromInclusive, toExclusive ) )
+        {
+            // THEN
+            while ( cursor.next() )
+            {
+                assertKeyAndValue( cursor, expectedKey );
+                expectedKey -= 2;
+            }
+        }
+        assertEquals( toExclusive, expectedKey );
+    }
+
+    @Test
+    public void mustFindEntriesWithinRangeStartingBetweenKeysBackwardsWithConcurrentChanges() throws Exception
+    {
+        // GIVEN
+        // [ 0 2 4 ... ]
+        for ( int i = 0; i < maxKeyCount - 1; i++ )
+        {
+            insert( i * 2 );
+        }
+        long fromInclusive = maxKeyCount * 2 - 5;
+        long toExclusive = 0;
+
+        // WHEN
+        PageAwareByteArrayCursor seekCursor = cursor.duplicate();
+        seekCursor.next();
+        try ( SeekCursor<MutableLong,MutableLong> cursor = seekCursor( fromInclusive, toExclusive, seekCursor ) )
+        {
+            // THEN
+            long expectedKey = fromInclusive - 1;
+            int middle = maxKeyCount / 2;
+            for ( int readKeys = 0; readKeys < middle; readKeys++ )
+            {
+                assertTrue( cursor.next() );
+                assertKeyAndValue( cursor, expectedKey );
+                expectedKey -= 2;
+            }
+
+            // Seeker pauses and writer removes most recently returned key and inserts a key in front of the seeker,
+            // both between existing keys
+            long lastReturnedKey = expectedKey + 2;
+            remove( lastReturnedKey );
+            insert( expectedKey + 1 );
+            seekCursor.forceRetry();
+
+            assertTrue( cursor.next() );
+            assertKeyAndValue( cursor, expectedKey + 1 );
+            while ( cursor.next() )
+            {
+                assertKeyAndValue( cursor, expectedKey );
+                expectedKey -= 2;
+            }
+            assertEquals( toExclusive, expectedKey );
+        }
+    }
+
     @Test
     public void mustFindEntriesSpanningTwoLeaves() throws Exception
     {
@@ -0,0 +1,957 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.fs.StoreChannel;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.PageEvictionCallback;
+import org.neo4j.io.pagecache.PageSwapper;
+import org.neo4j.unsafe.impl.internal.dragons.UnsafeUtil;
+
+/**
+ * A PageSwapper that stores the pages of a file compressed, in variable length extents.
+ * <p>
+ * The file starts with a header of two slots, each holding a magic number, the format version, the file page size,
+ * the region size and the sequence number of the last forced extent, protected by a checksum. Files that don't start
+ * with a valid header, like files written by other page swappers, are refused rather than migrated. The slots are
+ * written alternately, so that a torn header write always leaves the other one intact.
+ * <p>
+ * The rest of the file is divided into regions of a fixed size, each a sequence of extents that are appended from the
+ * start of the region, a header followed by the page data, compressed unless compression didn't make it any smaller:
+ * <pre>
+ * [filePageId:8][sequence:8][length:4][flags:1][dataCrc32:4][headerCrc32:4][data:length]
+ * </pre>
+ * Pages are never overwritten in place. A written page is appended as a new extent with the next sequence number, and
+ * an in-memory page translation table maps each file page id to the extent with the highest sequence number for that
+ * page. The table is rebuilt when the swapper is created, by following the extent headers of each region. Only the
+ * data of extents written after the last {@link #force() force} is read and checksummed, since only those can be torn.
+ * A torn extent ends its region, and its header is cleared, so that it can't be mistaken for a forced extent later on.
+ * <p>
+ * A region whose extents have all been superseded is reused once the writes that superseded them have been forced.
+ * Regions are reclaimed incrementally when the swapper is forced and the file is more than twice the size of its live
+ * data: the live extents of a few regions at a time, preferably those at the end of the file, are appended anew, and
+ * free regions at the end of the file are truncated away. Compaction only needs the same shared access as page reads
+ * and writes. A page read that races with the compaction of its region notices it, and reads the page again.
+ * <p>
+ * Page faults decompress the page into the cache page, so the page cache itself always holds uncompressed pages.
+ */
+public class CompressingPageSwapper implements PageSwapper
+{
+    static final long MAGIC = 0x4E656F436D705067L; // "NeoCmpPg"
+    static final int FORMAT_VERSION = 1;
+    static final int FILE_HEADER_SIZE = 64;
+    static final int EXTENT_HEADER_SIZE = 29;
+    private static final int HEADER_SLOT_SIZE = 32;
+    private static final int EXTENT_HEADER_CHECKSUM_OFFSET = 25;
+    private static final byte FLAG_COMPRESSED = 1;
+    private static final long NO_EXTENT = -1;
+    private static final int NO_REGION = -1;
+    private static final int MIN_REGION_SIZE = 1024 * 1024;
+    private static final long MIN_COMPACTION_FILE_SIZE = 1024 * 1024;
+    private static final int MAX_REGIONS_COMPACTED_PER_FORCE = 8;
+
+    private static final ThreadLocal<Deflater> deflaters =
+            ThreadLocal.withInitial( () -> new Deflater( Deflater.BEST_SPEED ) );
+    private static final ThreadLocal<Inflater> inflaters = ThreadLocal.withInitial( Inflater::new );
+    private static final ThreadLocal<ByteBuffer> proxyCache = new ThreadLocal<>();
+
+    private final FileSystemAbstraction fs;
+    private final File file;
+    private final int filePageSize;
+    private final int regionSize;
+    private volatile PageEvictionCallback onEviction;
+    private final ThreadLocal<byte[]> pageBuffers;
+    private final ThreadLocal<byte[]> extentBuffers;
+
+    /**
+     * Page reads, writes and forces, including compaction, share this lock, while truncation, which replaces the file
+     * contents and the translation table, holds it exclusively.
+     */
+    private final ReadWriteLock fileLock = new ReentrantReadWriteLock();
+    /**
+     * Serializes appending extents, so that the extents of a region are always written in order, and a sequence
+     * number is only handed out once all extents with lower ones have been written. Only the writing is serialized,
+     * pages are compressed before taking it.
+     */
+    private final Object appendLock = new Object();
+    /**
+     * Serializes forces, which write the file header and compact regions.
+     */
+    private final Object forceLock = new Object();
+
+    // Guarded by forceLock.
+    private long forcedSequence;
+    private int nextHeaderSlot;
+
+    // Guarded by synchronized(this).
+    private StoreChannel channel;
+    private boolean closed;
+    private long[] extentOffsets = new long[0];
+    private int[] extentLengths = new int[0];
+    private long lastPageId = PageCursor.UNBOUND_PAGE_ID;
+    private long liveBytes;
+    private long lastSequence;
+    private int regionCount;
+    private long[] regionLiveBytes = new long[0];
+    private long[] regionEnds = new long[0];
+    private int[] regionGenerations = new int[0];
+    /** Regions without live extents, that can be appended to. */
+    private final BitSet freeRegions = new BitSet();
+    /** Regions without live extents, that can be reused once the writes that superseded their extents are forced. */
+    private final BitSet releasedRegions = new BitSet();
+    private int appendRegion = NO_REGION;
+    private long appendPosition;
+
+    public CompressingPageSwapper( File file, FileSystemAbstraction fs, int filePageSize, PageEvictionCallback onEviction )
+            throws IOException
+    {
+        this.fs = fs;
+        this.file = file;
+        this.filePageSize = filePageSize;
+        this.onEviction = onEviction;
+        this.pageBuffers = ThreadLocal.withInitial( () -> new byte[filePageSize] );
+        this.extentBuffers = ThreadLocal.withInitial( () -> new byte[EXTENT_HEADER_SIZE + filePageSize] );
+        this.channel = fs.open( file, "rw" );
+        try
+        {
+            this.regionSize = openFileHeader();
+            loadTranslationTable();
+        }
+        catch ( IOException | RuntimeException e )
+        {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Writes the header of a new file, or validates the header of an existing one.
+     *
+     * @return the region size of the file.
+     * @throws IOException if the file is not a compressed page file of a supported format version and page size.
+     */
+    private int openFileHeader() throws IOException
+    {
+        long size = channel.size();
+        if ( size == 0 )
+        {
+            int newRegionSize = Math.max( MIN_REGION_SIZE, EXTENT_HEADER_SIZE + filePageSize );
+            writeHeaderSlot( 0, newRegionSize, 0 );
+            writeHeaderSlot( 1, newRegionSize, 0 );
+            nextHeaderSlot = 0;
+            return newRegionSize;
+        }
+
+        ByteBuffer header = null;
+        int headerSlot = 0;
+        boolean recognized = false;
+        for ( int slot = 0; slot < 2; slot++ )
+        {
+            long position = (long) slot * HEADER_SLOT_SIZE;
+            if ( position + HEADER_SLOT_SIZE > size )
+            {
+                break;
+            }
+            ByteBuffer buffer = ByteBuffer.allocate( HEADER_SLOT_SIZE );
+            readFully( channel, buffer, position );
+            if ( buffer.getLong( 0 ) != MAGIC )
+            {
+                continue;
+            }
+            recognized = true;
+            CRC32 crc = new CRC32();
+            crc.update( buffer.array(), 0, HEADER_SLOT_SIZE - Integer.BYTES );
+            if ( (int) crc.getValue() == buffer.getInt( HEADER_SLOT_SIZE - Integer.BYTES ) &&
+                 (header == null || buffer.getLong( 20 ) > header.getLong( 20 )) )
+            {
+                header = buffer;
+                headerSlot = slot;
+            }
+        }
+        if ( header == null )
+        {
+            throw new IOException( recognized
+                    ? "Cannot open " + file + ", the header of the compressed page file is corrupt"
+                    : "Cannot open " + file + ", it is not a compressed page file. It was probably written by " +
+                      "another page swapper, and existing files are not migrated to the compressed format" );
+        }
+        int formatVersion = header.getInt( 8 );
+        if ( formatVersion != FORMAT_VERSION )
+        {
+            throw new IOException( "Cannot open " + file + ", compressed page file format version " + formatVersion +
+                                   " is not supported, expected version " + FORMAT_VERSION );
+        }
+        int storedPageSize = header.getInt( 12 );
+        if ( storedPageSize != filePageSize )
+        {
+            throw new IOException( "Cannot open " + file + " with a page size of " + filePageSize +
+                                   ", since it was written with a page size of " + storedPageSize );
+        }
+        int storedRegionSize = header.getInt( 16 );
+        if ( storedRegionSize < EXTENT_HEADER_SIZE + filePageSize )
+        {
+            throw new IOException( "Cannot open " + file + ", the header of the compressed page file is corrupt" );
+        }
+        forcedSequence = header.getLong( 20 );
+        nextHeaderSlot = 1 - headerSlot;
+        return storedRegionSize;
+    }
+
+    private void writeHeaderSlot( int slot, int regionSize, long forcedSequence ) throws IOException
+    {
+        ByteBuffer buffer = ByteBuffer.allocate( HEADER_SLOT_SIZE );
+        buffer.putLong( MAGIC ).putInt( FORMAT_VERSION ).putInt( filePageSize ).putInt( regionSize )
+                .putLong( forcedSequence );
+        CRC32 crc = new CRC32();
+        crc.update( buffer.array(), 0, buffer.position() );
+        buffer.putInt( (int) crc.getValue() );
+        buffer.flip();
+        writeAt( buffer, (long) slot * HEADER_SLOT_SIZE );
+    }
+
+    private void loadTranslationTable() throws IOException
+    {
+        long size = channel.size();
+        regionCount = (int) Math.max( 0, (size - FILE_HEADER_SIZE + regionSize - 1) / regionSize );
+        ensureRegionCapacity( regionCount );
+        long[] sequences = new long[0];
+        byte[] extent = new byte[EXTENT_HEADER_SIZE + filePageSize];
+        ByteBuffer header = ByteBuffer.wrap( extent, 0, EXTENT_HEADER_SIZE ).slice();
+        CRC32 crc = new CRC32();
+        for ( int region = 0; region < regionCount; region++ )
+        {
+            long position = regionStart( region );
+            long end = Math.min( position + regionSize, size );
+            while ( position + EXTENT_HEADER_SIZE <= end )
+            {
+                header.clear();
+                readFully( channel, header, position );
+                long filePageId = header.getLong( 0 );
+                long sequence = header.getLong( 8 );
+                int length = header.getInt( 16 );
+                if ( filePageId < 0 || sequence <= 0 || length <= 0 || length > filePageSize ||
+                     position + EXTENT_HEADER_SIZE + length > end || !hasValidHeaderChecksum( extent, crc ) )
+                {
+                    // The header is garbage, or the extent is cut short, so this is where the last write to the
+                    // region ended
+                    break;
+                }
+                lastSequence = Math.max( lastSequence, sequence );
+                if ( sequence > forcedSequence )
+                {
+                    // Written after the last force, so the data may be torn
+                    readFully( channel, ByteBuffer.wrap( extent, EXTENT_HEADER_SIZE, length ),
+                            position + EXTENT_HEADER_SIZE );
+                    crc.reset();
+                    crc.update( extent, EXTENT_HEADER_SIZE, length );
+                    if ( (int) crc.getValue() != header.getInt( 21 ) )
+                    {
+                        // Clear the header, or the extent would be taken as intact once a later force has covered
+                        // its sequence number
+                        writeAt( ByteBuffer.allocate( EXTENT_HEADER_SIZE ), position );
+                        break;
+                    }
+                }
+                int index = Math.toIntExact( filePageId );
+                if ( index >= sequences.length )
+                {
+                    sequences = Arrays.copyOf( sequences, Math.max( index + 1, sequences.length * 2 ) );
+                }
+                if ( sequence > sequences[index] )
+                {
+                    sequences[index] = sequence;
+                    recordExtent( filePageId, position, (header.get( 20 ) & FLAG_COMPRESSED) != 0 ? length : -length );
+                }
+                position += EXTENT_HEADER_SIZE + length;
+            }
+            regionEnds[region] = position;
+        }
+
+        // Regions without live extents are reused after the first force, since the extents that superseded theirs
+        // may not have been forced yet
+        releasedRegions.clear();
+        for ( int region = 0; region < regionCount; region++ )
+        {
+            if ( regionLiveBytes[region] == 0 )
+            {
+                releasedRegions.set( region );
+            }
+        }
+    }
+
+    @Override
+    public long read( long filePageId, long bufferAddress, int bufferSize ) throws IOException
+    {
+        fileLock.readLock().lock();
+        try
+        {
+            byte[] extent = extentBuffers.get();
+            long offset;
+            int length;
+            int generation;
+            do
+            {
+                synchronized ( this )
+                {
+                    offset = filePageId < extentOffsets.length ? extentOffsets[(int) filePageId] : NO_EXTENT;
+                    length = offset == NO_EXTENT ? 0 : extentLengths[(int) filePageId];
+                    generation = offset == NO_EXTENT ? 0 : regionGenerations[regionOf( offset )];
+                }
+                if ( offset == NO_EXTENT )
+                {
+                    UnsafeUtil.setMemory( bufferAddress, bufferSize, (byte) 0 );
+                    return filePageId <= getLastPageId() ? filePageSize : 0;
+                }
+
+                try
+                {
+                    readAt( ByteBuffer.wrap( extent, 0, Math.abs( length ) ), offset + EXTENT_HEADER_SIZE );
+                }
+                catch ( IOException e )
+                {
+                    if ( isCurrentExtent( filePageId, offset, generation ) )
+                    {
+                        throw e;
+                    }
+                }
+                // If the region of the extent has been compacted and reused since we looked it up, we read it again
+            }
+            while ( !isCurrentExtent( filePageId, offset, generation ) );
+
+            int storedLength = Math.abs( length );
+            byte[] page = pageBuffers.get();
+            int pageLength = length > 0 ? inflate( extent, storedLength, page ) : storedLength;
+            ByteBuffer target = proxy( bufferAddress, bufferSize );
+            target.put( length > 0 ? page : extent, 0, Math.min( pageLength, bufferSize ) );
+            if ( pageLength < bufferSize )
+            {
+                UnsafeUtil.setMemory( bufferAddress + pageLength, bufferSize - pageLength, (byte) 0 );
+            }
+            return filePageSize;
+        }
+        finally
+        {
+            fileLock.readLock().unlock();
+        }
+    }
+
+    private synchronized boolean isCurrentExtent( long filePageId, long offset, int generation )
+    {
+        return filePageId < extentOffsets.length && extentOffsets[(int) filePageId] == offset &&
+               regionGenerations[regionOf( offset )] == generation;
+    }
+
+    @Override
+    public long read( long startFilePageId, long[] bufferAddresses, int bufferSize, int arrayOffset, int length )
+            throws IOException
+    {
+        long bytesRead = 0;
+        for ( int i = 0; i < length; i++ )
+        {
+            bytesRead += read( startFilePageId + i, bufferAddresses[arrayOffset + i], bufferSize );
+        }
+        return bytesRead;
+    }
+
+    @Override
+    public long write( long filePageId, long bufferAddress ) throws IOException
+    {
+        byte[] page = pageBuffers.get();
+        proxy( bufferAddress, filePageSize ).get( page, 0, filePageSize );
+
+        byte[] extent = extentBuffers.get();
+        Deflater deflater = deflaters.get();
+        deflater.reset();
+        deflater.setInput( page, 0, filePageSize );
+        deflater.finish();
+        int length = deflater.deflate( extent, EXTENT_HEADER_SIZE, filePageSize );
+        boolean compressed = deflater.finished() && length < filePageSize;
+        if ( !compressed )
+        {
+            System.arraycopy( page, 0, extent, EXTENT_HEADER_SIZE, filePageSize );
+            length = filePageSize;
+        }
+        CRC32 crc = new CRC32();
+        crc.update( extent, EXTENT_HEADER_SIZE, length );
+
+        fileLock.readLock().lock();
+        try
+        {
+            appendExtent( filePageId, extent, length, compressed ? FLAG_COMPRESSED : 0, (int) crc.getValue(),
+                    NO_EXTENT );
+            return filePageSize;
+        }
+        finally
+        {
+            fileLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public long write( long startFilePageId, long[] bufferAddresses, int arrayOffset, int length ) throws IOException
+    {
+        long bytesWritten = 0;
+        for ( int i = 0; i < length; i++ )
+        {
+            bytesWritten += write( startFilePageId + i, bufferAddresses[arrayOffset + i] );
+        }
+        return bytesWritten;
+    }
+
+    /**
+     * Appends the page data in the given extent buffer as a new extent, with the next sequence number.
+     *
+     * @param expectedOffset when not {@link #NO_EXTENT}, the extent is only appended if the translation table entry
+     * of the page still points to this offset, which is how compaction moves extents without overtaking writes.
+     */
+    private void appendExtent( long filePageId, byte[] extent, int length, byte flags, int dataChecksum,
+            long expectedOffset ) throws IOException
+    {
+        synchronized ( appendLock )
+        {
+            long offset;
+            long sequence;
+            synchronized ( this )
+            {
+                if ( expectedOffset != NO_EXTENT && (filePageId >= extentOffsets.length ||
+                                                     extentOffsets[(int) filePageId] != expectedOffset) )
+                {
+                    return;
+                }
+                offset = allocate( EXTENT_HEADER_SIZE + length );
+                sequence = ++lastSequence;
+            }
+            ByteBuffer.wrap( extent, 0, EXTENT_HEADER_SIZE )
+                    .putLong( filePageId )
+                    .putLong( sequence )
+                    .putInt( length )
+                    .put( flags )
+                    .putInt( dataChecksum )
+                    .putInt( headerChecksum( extent, new CRC32() ) );
+            writeAt( ByteBuffer.wrap( extent, 0, EXTENT_HEADER_SIZE + length ), offset );
+            synchronized ( this )
+            {
+                recordExtent( filePageId, offset, (flags & FLAG_COMPRESSED) != 0 ? length : -length );
+            }
+        }
+    }
+
+    /**
+     * Reserves space for an extent in the region that is appended to, moving on to the first free region, or a new
+     * region at the end of the file, when it doesn't fit.
+     */
+    private long allocate( int extentSize )
+    {
+        if ( appendRegion == NO_REGION || appendPosition + extentSize > regionStart( appendRegion ) + regionSize )
+        {
+            sealAppendRegion();
+            int region = freeRegions.nextSetBit( 0 );
+            if ( region == -1 )
+            {
+                region = regionCount++;
+                ensureRegionCapacity( regionCount );
+            }
+            else
+            {
+                freeRegions.clear( region );
+            }
+            appendRegion = region;
+            appendPosition = regionStart( region );
+        }
+        long offset = appendPosition;
+        appendPosition += extentSize;
+        regionEnds[appendRegion] = appendPosition;
+        return offset;
+    }
+
+    private void sealAppendRegion()
+    {
+        if ( appendRegion != NO_REGION )
+        {
+            if ( regionLiveBytes[appendRegion] == 0 )
+            {
+                releasedRegions.set( appendRegion );
+            }
+            appendRegion = NO_REGION;
+        }
+    }
+
+    /**
+     * Points the translation table entry of the given page to the given extent, and releases the region of the extent
+     * it pointed to before, if that was the last live extent in it.
+     *
+     * @param length length of the stored page data, negative if the data is stored uncompressed.
+     */
+    private void recordExtent( long filePageId, long offset, int length )
+    {
+        int index = Math.toIntExact( filePageId );
+        if ( index >= extentOffsets.length )
+        {
+            int newLength = Math.max( index + 1, extentOffsets.length * 2 );
+            int oldLength = extentOffsets.length;
+            extentOffsets = Arrays.copyOf( extentOffsets, newLength );
+            extentLengths = Arrays.copyOf( extentLengths, newLength );
+            Arrays.fill( extentOffsets, oldLength, newLength, NO_EXTENT );
+        }
+        long previous = extentOffsets[index];
+        if ( previous != NO_EXTENT )
+        {
+            int previousRegion = regionOf( previous );
+            long previousSize = EXTENT_HEADER_SIZE + Math.abs( extentLengths[index] );
+            liveBytes -= previousSize;
+            regionLiveBytes[previousRegion] -= previousSize;
+            if ( regionLiveBytes[previousRegion] == 0 && previousRegion != appendRegion )
+            {
+                releasedRegions.set( previousRegion );
+            }
+        }
+        extentOffsets[index] = offset;
+        extentLengths[index] = length;
+        liveBytes += EXTENT_HEADER_SIZE + Math.abs( length );
+        regionLiveBytes[regionOf( offset )] += EXTENT_HEADER_SIZE + Math.abs( length );
+        lastPageId = Math.max( lastPageId, filePageId );
+    }
+
+    private void ensureRegionCapacity( int count )
+    {
+        if ( count > regionLiveBytes.length )
+        {
+            int newLength = Math.max( count, regionLiveBytes.length * 2 );
+            regionLiveBytes = Arrays.copyOf( regionLiveBytes, newLength );
+            regionEnds = Arrays.copyOf( regionEnds, newLength );
+            regionGenerations = Arrays.copyOf( regionGenerations, newLength );
+        }
+    }
+
+    private long regionStart( int region )
+    {
+        return FILE_HEADER_SIZE + (long) region * regionSize;
+    }
+
+    private int regionOf( long offset )
+    {
+        return (int) ((offset - FILE_HEADER_SIZE) / regionSize);
+    }
+
+    private static int headerChecksum( byte[] extent, CRC32 crc )
+    {
+        crc.reset();
+        crc.update( extent, 0, EXTENT_HEADER_CHECKSUM_OFFSET );
+        return (int) crc.getValue();
+    }
+
+    private static boolean hasValidHeaderChecksum( byte[] extent, CRC32 crc )
+    {
+        return ByteBuffer.wrap( extent ).getInt( EXTENT_HEADER_CHECKSUM_OFFSET ) == headerChecksum( extent, crc );
+    }
+
+    private int inflate( byte[] source, int length, byte[] target ) throws IOException
+    {
+        Inflater inflater = inflaters.get();
+        inflater.reset();
+        inflater.setInput( source, 0, length );
+        try
+        {
+            return inflater.inflate( target, 0, filePageSize );
+        }
+        catch ( DataFormatException e )
+        {
+            throw new IOException( "Corrupt compressed page in " + file, e );
+        }
+    }
+
+    @Override
+    public void evicted( long filePageId )
+    {
+        PageEvictionCallback callback = this.onEviction;
+        if ( callback != null )
+        {
+            callback.onEvict( filePageId );
+        }
+    }
+
+    @Override
+    public File file()
+    {
+        return file;
+    }
+
+    @Override
+    public synchronized void close() throws IOException
+    {
+        closed = true;
+        try
+        {
+            channel.close();
+        }
+        finally
+        {
+            onEviction = null;
+        }
+    }
+
+    @Override
+    public synchronized void closeAndDelete() throws IOException
+    {
+        close();
+        fs.deleteFile( file );
+    }
+
+    @Override
+    public void force() throws IOException
+    {
+        synchronized ( forceLock )
+        {
+            fileLock.readLock().lock();
+            try
+            {
+                forceAndReuseReleasedRegions();
+                if ( compact() )
+                {
+                    // Force the moved extents, so that the regions they were moved from can be reused or trimmed
+                    forceAndReuseReleasedRegions();
+                }
+            }
+            finally
+            {
+                fileLock.readLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Forces the file, records the sequence number of the last forced extent in the file header, and makes the
+     * regions that were released before the force free for reuse. Free regions at the end of the file are trimmed.
+     */
+    private void forceAndReuseReleasedRegions() throws IOException
+    {
+        long sequence;
+        BitSet released;
+        synchronized ( appendLock )
+        {
+            synchronized ( this )
+            {
+                sequence = lastSequence;
+                released = (BitSet) releasedRegions.clone();
+            }
+        }
+        channel().force( false );
+        if ( sequence > forcedSequence )
+        {
+            writeHeaderSlot( nextHeaderSlot, regionSize, sequence );
+            nextHeaderSlot = 1 - nextHeaderSlot;
+            forcedSequence = sequence;
+        }
+
+        synchronized ( appendLock )
+        {
+            long trimmedSize = -1;
+            synchronized ( this )
+            {
+                for ( int region = released.nextSetBit( 0 ); region >= 0; region = released.nextSetBit( region + 1 ) )
+                {
+                    releasedRegions.clear( region );
+                    freeRegions.set( region );
+                    // Tells reads that looked up an extent in this region before it was released to look again
+                    regionGenerations[region]++;
+                }
+                int count = regionCount;
+                while ( count > 0 && freeRegions.get( count - 1 ) )
+                {
+                    freeRegions.clear( --count );
+                }
+                if ( count < regionCount )
+                {
+                    regionCount = count;
+                    trimmedSize = regionStart( count );
+                }
+            }
+            if ( trimmedSize != -1 )
+            {
+                channel().truncate( trimmedSize );
+            }
+        }
+    }
+
+    /**
+     * Moves the live extents out of a few regions, when the file has grown to more than twice the size of its live
+     * data. The regions are released once their last live extent has been moved.
+     *
+     * @return {@code true} if any region was compacted.
+     */
+    private boolean compact() throws IOException
+    {
+        int compacted = 0;
+        while ( compacted < MAX_REGIONS_COMPACTED_PER_FORCE )
+        {
+            int region;
+            synchronized ( appendLock )
+            {
+                synchronized ( this )
+                {
+                    long fileSize = (long) regionCount * regionSize;
+                    if ( fileSize <= MIN_COMPACTION_FILE_SIZE || fileSize <= liveBytes * 2 )
+                    {
+                        break;
+                    }
+                    region = selectRegionToCompact();
+                    if ( region == NO_REGION )
+                    {
+                        break;
+                    }
+                    if ( region == appendRegion )
+                    {
+                        sealAppendRegion();
+                    }
+                }
+            }
+            compactRegion( region );
+            compacted++;
+        }
+        return compacted > 0;
+    }
+
+    /**
+     * Picks the last region in use if there is a free region in front of it, so that the file can be trimmed, or
+     * otherwise the region with the least live data, if less than half of it is live.
+     */
+    private int selectRegionToCompact()
+    {
+        int lastInUse = regionCount - 1;
+        while ( lastInUse >= 0 && (freeRegions.get( lastInUse ) || releasedRegions.get( lastInUse )) )
+        {
+            lastInUse--;
+        }
+        int firstFree = freeRegions.nextSetBit( 0 );
+        if ( firstFree != -1 && firstFree < lastInUse )
+        {
+            return lastInUse;
+        }
+        int sparsest = NO_REGION;
+        for ( int region = 0; region < regionCount; region++ )
+        {
+            if ( region != appendRegion && !freeRegions.get( region ) && !releasedRegions.get( region ) &&
+                 regionLiveBytes[region] * 2 < regionSize &&
+                 (sparsest == NO_REGION || regionLiveBytes[region] < regionLiveBytes[sparsest]) )
+            {
+                sparsest = region;
+            }
+        }
+        return sparsest;
+    }
+
+    /**
+     * Appends the live extents of the given region anew. Extents of pages that are written concurrently are left
+     * behind, since the concurrent write supersedes them anyway.
+     */
+    private void compactRegion( int region ) throws IOException
+    {
+        long end;
+        synchronized ( this )
+        {
+            end = regionEnds[region];
+        }
+        byte[] extent = extentBuffers.get();
+        ByteBuffer header = ByteBuffer.wrap( extent, 0, EXTENT_HEADER_SIZE ).slice();
+        CRC32 crc = new CRC32();
+        long position = regionStart( region );
+        while ( position + EXTENT_HEADER_SIZE <= end )
+        {
+            header.clear();
+            readAt( header, position );
+            long filePageId = header.getLong( 0 );
+            int length = header.getInt( 16 );
+            if ( filePageId < 0 || length <= 0 || length > filePageSize || !hasValidHeaderChecksum( extent, crc ) )
+            {
+                // A write that failed half way, which was never recorded in the translation table
+                break;
+            }
+            boolean live;
+            synchronized ( this )
+            {
+                live = filePageId < extentOffsets.length && extentOffsets[(int) filePageId] == position;
+            }
+            if ( live )
+            {
+                byte flags = header.get( 20 );
+                int dataChecksum = header.getInt( 21 );
+                readAt( ByteBuffer.wrap( extent, EXTENT_HEADER_SIZE, length ).slice(), position + EXTENT_HEADER_SIZE );
+                appendExtent( filePageId, extent, length, flags, dataChecksum, position );
+            }
+            position += EXTENT_HEADER_SIZE + length;
+        }
+    }
+
+    @Override
+    public synchronized long getLastPageId()
+    {
+        return lastPageId;
+    }
+
+    @Override
+    public void truncate() throws IOException
+    {
+        fileLock.writeLock().lock();
+        try
+        {
+            synchronized ( this )
+            {
+                channel.truncate( FILE_HEADER_SIZE );
+                extentOffsets = new long[0];
+                extentLengths = new int[0];
+                lastPageId = PageCursor.UNBOUND_PAGE_ID;
+                liveBytes = 0;
+                regionCount = 0;
+                regionLiveBytes = new long[0];
+                regionEnds = new long[0];
+                regionGenerations = new int[0];
+                freeRegions.clear();
+                releasedRegions.clear();
+                appendRegion = NO_REGION;
+            }
+        }
+        finally
+        {
+            fileLock.writeLock().unlock();
+        }
+    }
+
+    private void readAt( ByteBuffer buffer, long position ) throws IOException
+    {
+        try
+        {
+            readFully( channel(), buffer, position );
+        }
+        catch ( ClosedChannelException e )
+        {
+            // The channel was closed by an interrupt of some thread, so we reopen it and try again.
+            tryReopen( e );
+            boolean interrupted = Thread.interrupted();
+            buffer.rewind();
+            readFully( channel(), buffer, position );
+            if ( interrupted )
+            {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void writeAt( ByteBuffer buffer, long position ) throws IOException
+    {
+        try
+        {
+            channel().writeAll( buffer, position );
+        }
+        catch ( ClosedChannelException e )
+        {
+            tryReopen( e );
+            boolean interrupted = Thread.interrupted();
+            buffer.rewind();
+            channel().writeAll( buffer, position );
+            if ( interrupted )
+            {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+    private synchronized void tryReopen( ClosedChannelException closedException ) throws ClosedChannelException
+    {
+        if ( closed )
+        {
+            throw closedException;
+        }
+        if ( !channel.isOpen() )
+        {
+            try
+            {
+                channel = fs.open( file, "rw" );
+            }
+            catch ( IOException e )
+            {
+                closedException.addSuppressed( e );
+                throw closedException;
+            }
+        }
+    }
+
+    private synchronized StoreChannel channel() throws IOException
+    {
+        if ( closed )
+        {
+            throw new ClosedChannelException();
+        }
+        return channel;
+    }
+
+    private static void readFully( StoreChannel channel, ByteBuffer buffer, long position ) throws IOException
+    {
+        while ( buffer.hasRemaining() )
+        {
+            int read = channel.read( buffer, position );
+            if ( read == -1 )
+            {
+                throw new IOException( "Unexpected end of file at position " + position );
+            }
+            position += read;
+        }
+    }
+
+    private static ByteBuffer proxy( long address, int length ) throws IOException
+    {
+        ByteBuffer buffer = proxyCache.get();
+        if ( buffer == null )
+        {
+            try
+            {
+                buffer = UnsafeUtil.newDirectByteBuffer( address, length );
+            }
+            catch ( Exception e )
+            {
+                throw new IOException( e );
+            }
+            proxyCache.set( buffer );
+        }
+        else
+        {
+            UnsafeUtil.initDirectByteBuffer( buffer, address, length );
+        }
+        return buffer;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "CompressingPageSwapper{filePageSize=" + filePageSize + ", file=" + file + '}';
+    }
+}
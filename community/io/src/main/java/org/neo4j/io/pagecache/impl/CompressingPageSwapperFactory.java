@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.NoSuchFileException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.neo4j.io.pagecache.PageEvictionCallback;
+import org.neo4j.io.pagecache.PageSwapper;
+import org.neo4j.unsafe.impl.internal.dragons.FeatureToggles;
+
+/**
+ * A factory for CompressingPageSwapper instances, selected with the "compressing" swapper implementation name.
+ * <p>
+ * Only the files whose names are listed in the {@code org.neo4j.io.pagecache.impl.CompressingPageSwapperFactory.files}
+ * feature toggle, by default the property and string stores, are compressed. Pages of those stores are mostly
+ * sparsely used records and short strings, which compress well, while pages of the fixed size record stores, which
+ * are read much more often, are mapped by regular SingleFilePageSwapper instances.
+ *
+ * @see org.neo4j.io.pagecache.impl.CompressingPageSwapper
+ */
+public class CompressingPageSwapperFactory extends SingleFilePageSwapperFactory
+{
+    private static final Set<String> compressedFileNames = new HashSet<>( Arrays.asList( FeatureToggles.getString(
+            CompressingPageSwapperFactory.class, "files",
+            "neostore.propertystore.db,neostore.propertystore.db.strings" ).split( "," ) ) );
+
+    @Override
+    public PageSwapper createPageSwapper(
+            File file,
+            int filePageSize,
+            PageEvictionCallback onEviction,
+            boolean createIfNotExist ) throws IOException
+    {
+        if ( !compressedFileNames.contains( file.getName() ) )
+        {
+            return super.createPageSwapper( file, filePageSize, onEviction, createIfNotExist );
+        }
+        if ( !getFileSystemAbstraction().fileExists( file ) )
+        {
+            if ( createIfNotExist )
+            {
+                getFileSystemAbstraction().create( file ).close();
+            }
+            else
+            {
+                throw new NoSuchFileException( file.getPath(), null, "Cannot map non-existing file" );
+            }
+        }
+        return new CompressingPageSwapper( file, getFileSystemAbstraction(), filePageSize, onEviction );
+    }
+
+    @Override
+    public String implementationName()
+    {
+        return "compressing";
+    }
+}
@@ -0,0 +1,482 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.neo4j.graphdb.mockfs.EphemeralFileSystemAbstraction;
+import org.neo4j.io.fs.StoreChannel;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.PageSwapper;
+import org.neo4j.unsafe.impl.internal.dragons.UnsafeUtil;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.neo4j.io.pagecache.PageSwapperTest.NO_CALLBACK;
+
+public class CompressingPageSwapperTest
+{
+    private static final int PAGE_SIZE = 8192;
+
+    private EphemeralFileSystemAbstraction fs;
+    private File file;
+    private long page;
+
+    @Before
+    public void setUp() throws IOException
+    {
+        fs = new EphemeralFileSystemAbstraction();
+        file = new File( "store" ).getCanonicalFile();
+        fs.create( file ).close();
+        page = UnsafeUtil.allocateMemory( PAGE_SIZE );
+    }
+
+    @After
+    public void tearDown() throws IOException
+    {
+        UnsafeUtil.free( page );
+        fs.close();
+    }
+
+    @Test
+    public void mustReadBackWrittenPages() throws Exception
+    {
+        // given
+        PageSwapper swapper = createSwapper();
+
+        // when
+        for ( int pageId = 0; pageId < 10; pageId++ )
+        {
+            fill( pageId );
+            assertEquals( PAGE_SIZE, swapper.write( pageId, page ) );
+        }
+
+        // then
+        assertEquals( 9, swapper.getLastPageId() );
+        for ( int pageId = 0; pageId < 10; pageId++ )
+        {
+            assertEquals( PAGE_SIZE, swapper.read( pageId, page, PAGE_SIZE ) );
+            assertFilled( pageId );
+        }
+        swapper.close();
+    }
+
+    @Test
+    public void mustStoreCompressiblePagesInLessSpaceThanThePageSize() throws Exception
+    {
+        // given
+        PageSwapper swapper = createSwapper();
+
+        // when
+        fill( 1 );
+        swapper.write( 0, page );
+        swapper.force();
+
+        // then
+        assertTrue( fs.getFileSize( file ) < PAGE_SIZE );
+        swapper.close();
+    }
+
+    @Test
+    public void mustStoreIncompressiblePagesUncompressed() throws Exception
+    {
+        // given
+        PageSwapper swapper = createSwapper();
+        long state = 42;
+        for ( int i = 0; i < PAGE_SIZE; i += Long.BYTES )
+        {
+            state = state * 6364136223846793005L + 1442695040888963407L;
+            UnsafeUtil.putLong( page + i, state );
+        }
+        byte[] expected = new byte[PAGE_SIZE];
+        copyPage( expected );
+
+        // when
+        swapper.write( 0, page );
+        UnsafeUtil.setMemory( page, PAGE_SIZE, (byte) 0 );
+        swapper.read( 0, page, PAGE_SIZE );
+
+        // then
+        byte[] actual = new byte[PAGE_SIZE];
+        copyPage( actual );
+        assertEquals( ByteBuffer.wrap( expected ), ByteBuffer.wrap( actual ) );
+        assertEquals( CompressingPageSwapper.FILE_HEADER_SIZE + CompressingPageSwapper.EXTENT_HEADER_SIZE + PAGE_SIZE,
+                fs.getFileSize( file ) );
+        swapper.close();
+    }
+
+    @Test
+    public void readingUnwrittenPagesMustZeroFillTheBuffer() throws Exception
+    {
+        // given
+        PageSwapper swapper = createSwapper();
+        fill( 1 );
+        swapper.write( 2, page );
+
+        // when
+        fill( 3 );
+        long bytesRead = swapper.read( 1, page, PAGE_SIZE );
+
+        // then
+        assertEquals( PAGE_SIZE, bytesRead );
+        assertFilled( 0 );
+        fill( 3 );
+        assertEquals( 0, swapper.read( 3, page, PAGE_SIZE ) );
+        assertFilled( 0 );
+        swapper.close();
+    }
+
+    @Test
+    public void mustReadLatestVersionOfPageAfterReopening() throws Exception
+    {
+        // given
+        PageSwapper swapper = createSwapper();
+        fill( 1 );
+        swapper.write( 0, page );
+        fill( 2 );
+        swapper.write( 1, page );
+        fill( 3 );
+        swapper.write( 0, page );
+        swapper.force();
+        swapper.close();
+
+        // when
+        swapper = createSwapper();
+
+        // then
+        assertEquals( 1, swapper.getLastPageId() );
+        swapper.read( 0, page, PAGE_SIZE );
+        assertFilled( 3 );
+        swapper.read( 1, page, PAGE_SIZE );
+        assertFilled( 2 );
+        swapper.close();
+    }
+
+    @Test
+    public void mustIgnoreTornWriteAtEndOfFile() throws Exception
+    {
+        // given
+        PageSwapper swapper = createSwapper();
+        fill( 1 );
+        swapper.write( 0, page );
+        fill( 2 );
+        swapper.write( 0, page );
+        swapper.close();
+        long size = fs.getFileSize( file );
+        try ( StoreChannel channel = fs.open( file, "rw" ) )
+        {
+            channel.truncate( size - 1 );
+        }
+
+        // when
+        swapper = createSwapper();
+
+        // then
+        swapper.read( 0, page, PAGE_SIZE );
+        assertFilled( 1 );
+        swapper.close();
+        assertEquals( size - 1, fs.getFileSize( file ) );
+    }
+
+    @Test
+    public void mustNotTrustTornExtentOnceLaterWritesHaveBeenForced() throws Exception
+    {
+        // given
+        PageSwapper swapper = createSwapper();
+        fill( 1 );
+        swapper.write( 0, page );
+        swapper.force();
+        fill( 2 );
+        swapper.write( 0, page );
+        swapper.close();
+        long size = fs.getFileSize( file );
+        try ( StoreChannel channel = fs.open( file, "rw" ) )
+        {
+            channel.writeAll( ByteBuffer.wrap( new byte[]{-1, -1, -1, -1} ), size - 4 );
+        }
+
+        // when
+        swapper = createSwapper();
+        fill( 3 );
+        swapper.write( 1, page );
+        swapper.force();
+        swapper.close();
+        swapper = createSwapper();
+
+        // then
+        swapper.read( 0, page, PAGE_SIZE );
+        assertFilled( 1 );
+        swapper.read( 1, page, PAGE_SIZE );
+        assertFilled( 3 );
+        swapper.close();
+    }
+
+    @Test
+    public void mustRefuseToOpenFileWithoutCompressedPageFileHeader() throws Exception
+    {
+        // given
+        byte[] plainPage = new byte[PAGE_SIZE];
+        Arrays.fill( plainPage, (byte) 7 );
+        try ( StoreChannel channel = fs.open( file, "rw" ) )
+        {
+            channel.writeAll( ByteBuffer.wrap( plainPage ) );
+        }
+
+        // when
+        try
+        {
+            createSwapper();
+            fail( "Should have refused to open a file written by another page swapper" );
+        }
+        catch ( IOException e )
+        {
+            // then
+            assertThat( e.getMessage(), containsString( "not a compressed page file" ) );
+        }
+        assertEquals( PAGE_SIZE, fs.getFileSize( file ) );
+    }
+
+    @Test
+    public void mustRefuseToOpenFileWrittenWithAnotherPageSize() throws Exception
+    {
+        // given
+        PageSwapper swapper = createSwapper();
+        fill( 1 );
+        swapper.write( 0, page );
+        swapper.force();
+        swapper.close();
+
+        // when
+        try
+        {
+            new CompressingPageSwapper( file, fs, PAGE_SIZE / 2, NO_CALLBACK );
+            fail( "Should have refused to open the file with another page size" );
+        }
+        catch ( IOException e )
+        {
+            // then
+            assertThat( e.getMessage(), containsString( "page size" ) );
+        }
+    }
+
+    @Test
+    public void mustReadPagesWrittenConcurrentlyAfterReopening() throws Exception
+    {
+        // given
+        PageSwapper swapper = createSwapper();
+        int threads = 4;
+        int pagesPerThread = 50;
+        ExecutorService executor = Executors.newFixedThreadPool( threads );
+        try
+        {
+            List<Future<?>> writers = new ArrayList<>();
+            for ( int t = 0; t < threads; t++ )
+            {
+                int thread = t;
+                writers.add( executor.submit( () ->
+                {
+                    long threadPage = UnsafeUtil.allocateMemory( PAGE_SIZE );
+                    try
+                    {
+                        for ( int i = 0; i < pagesPerThread; i++ )
+                        {
+                            int pageId = i * threads + thread;
+                            for ( int j = 0; j < PAGE_SIZE; j += Integer.BYTES )
+                            {
+                                UnsafeUtil.putInt( threadPage + j, pageId );
+                            }
+                            swapper.write( pageId, threadPage );
+                        }
+                    }
+                    finally
+                    {
+                        UnsafeUtil.free( threadPage );
+                    }
+                    return null;
+                } ) );
+            }
+            for ( Future<?> writer : writers )
+            {
+                writer.get();
+            }
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+        swapper.force();
+        swapper.close();
+
+        // when
+        PageSwapper reopened = createSwapper();
+
+        // then
+        assertEquals( threads * pagesPerThread - 1, reopened.getLastPageId() );
+        for ( int pageId = 0; pageId < threads * pagesPerThread; pageId++ )
+        {
+            reopened.read( pageId, page, PAGE_SIZE );
+            assertFilled( pageId );
+        }
+        reopened.close();
+    }
+
+    @Test
+    public void mustCompactFileWhenMostExtentsAreSuperseded() throws Exception
+    {
+        // given
+        PageSwapper swapper = createSwapper();
+        for ( int round = 0; round < 20; round++ )
+        {
+            for ( int pageId = 0; pageId < 100; pageId++ )
+            {
+                fillRandomly( pageId, round );
+                swapper.write( pageId, page );
+            }
+        }
+        long sizeBeforeForce = fs.getFileSize( file );
+
+        // when
+        swapper.force();
+
+        // then
+        assertTrue( fs.getFileSize( file ) < sizeBeforeForce / 2 );
+        for ( int pageId = 0; pageId < 100; pageId++ )
+        {
+            swapper.read( pageId, page, PAGE_SIZE );
+            byte[] actual = new byte[PAGE_SIZE];
+            copyPage( actual );
+            fillRandomly( pageId, 19 );
+            byte[] expected = new byte[PAGE_SIZE];
+            copyPage( expected );
+            assertEquals( ByteBuffer.wrap( expected ), ByteBuffer.wrap( actual ) );
+        }
+        swapper.close();
+    }
+
+    @Test
+    public void mustReadCompactedPagesAfterReopening() throws Exception
+    {
+        // given
+        PageSwapper swapper = createSwapper();
+        for ( int round = 0; round < 20; round++ )
+        {
+            for ( int pageId = 0; pageId < 100; pageId++ )
+            {
+                fillRandomly( pageId, round );
+                swapper.write( pageId, page );
+            }
+        }
+        swapper.force();
+        fill( 1 );
+        swapper.write( 100, page );
+        swapper.close();
+
+        // when
+        swapper = createSwapper();
+
+        // then
+        assertEquals( 100, swapper.getLastPageId() );
+        for ( int pageId = 0; pageId < 100; pageId++ )
+        {
+            swapper.read( pageId, page, PAGE_SIZE );
+            byte[] actual = new byte[PAGE_SIZE];
+            copyPage( actual );
+            fillRandomly( pageId, 19 );
+            byte[] expected = new byte[PAGE_SIZE];
+            copyPage( expected );
+            assertEquals( ByteBuffer.wrap( expected ), ByteBuffer.wrap( actual ) );
+        }
+        swapper.read( 100, page, PAGE_SIZE );
+        assertFilled( 1 );
+        swapper.close();
+    }
+
+    @Test
+    public void truncateMustRemoveAllPages() throws Exception
+    {
+        // given
+        PageSwapper swapper = createSwapper();
+        fill( 1 );
+        swapper.write( 0, page );
+
+        // when
+        swapper.truncate();
+
+        // then
+        assertEquals( PageCursor.UNBOUND_PAGE_ID, swapper.getLastPageId() );
+        assertEquals( 0, swapper.read( 0, page, PAGE_SIZE ) );
+        swapper.close();
+    }
+
+    private PageSwapper createSwapper() throws IOException
+    {
+        return new CompressingPageSwapper( file, fs, PAGE_SIZE, NO_CALLBACK );
+    }
+
+    private void fill( int value )
+    {
+        for ( int i = 0; i < PAGE_SIZE; i += Integer.BYTES )
+        {
+            UnsafeUtil.putInt( page + i, value );
+        }
+    }
+
+    private void fillRandomly( int pageId, int round )
+    {
+        // Mostly incompressible content, so the file grows quickly
+        long state = pageId * 31L + round;
+        for ( int i = 0; i < PAGE_SIZE; i += Long.BYTES )
+        {
+            state = state * 6364136223846793005L + 1442695040888963407L;
+            UnsafeUtil.putLong( page + i, state );
+        }
+    }
+
+    private void assertFilled( int value )
+    {
+        for ( int i = 0; i < PAGE_SIZE; i += Integer.BYTES )
+        {
+            assertEquals( value, UnsafeUtil.getInt( page + i ) );
+        }
+    }
+
+    private void copyPage( byte[] target )
+    {
+        for ( int i = 0; i < PAGE_SIZE; i++ )
+        {
+            target[i] = UnsafeUtil.getByte( page + i );
+        }
+    }
+}
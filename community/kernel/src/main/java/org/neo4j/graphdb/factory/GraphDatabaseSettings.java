@@ -643,6 +643,23 @@ public class GraphDatabaseSettings implements LoadableConfig
     public static final Setting<Boolean> archive_failed_index = setting(
             "unsupported.dbms.index.archive_failed", BOOLEAN, FALSE );
 
+    @Description( "Longest time that committing transactions may leave the refresh of the searchers of a non-unique " +
+            "Lucene schema index to others. With the default of zero every committing transaction refreshes the " +
+            "index searchers. A larger value lets commits skip the refresh, which is then done by the first commit " +
+            "after the window has passed, or by the next index read, since reads always see every committed change. " +
+            "Unique indexes are always refreshed on commit." )
+    @Internal
+    public static final Setting<Duration> lucene_index_refresh_staleness = setting(
+            "unsupported.dbms.index.lucene.refresh_staleness", DURATION, "0s" );
+
+    @Description( "Number of threads searching the partitions of partitioned Lucene schema indexes in parallel. " +
+            "The threads are shared by all queries; partition searches of queries that find them all busy wait in " +
+            "line for one to become available." )
+    @Internal
+    public static final Setting<Integer> lucene_index_partition_query_threads = buildSetting(
+            "unsupported.dbms.index.lucene.partition_query_threads", INTEGER,
+            String.valueOf( Runtime.getRuntime().availableProcessors() ) ).constraint( min( 1 ) ).build();
+
     // Needed to validate config, accessed via reflection
     @SuppressWarnings( "unused" )
     public static final BoltConnectorValidator boltValidator = new BoltConnectorValidator();
@@ -117,6 +117,12 @@ public interface ReadOperations
      */
     PrimitiveLongIterator nodesGetForLabel( int labelId );
 
+    /**
+     * @param relationshipTypeId the id of the relationship type that returned relationships are guaranteed to have
+     * @return ids of all relationships that have the given type
+     */
+    PrimitiveLongIterator relationshipsGetForType( int relationshipTypeId );
+
     /**
      * Queries the given index with the given index query.
      *
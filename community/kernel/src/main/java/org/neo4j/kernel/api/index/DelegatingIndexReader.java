@@ -22,8 +22,10 @@ package org.neo4j.kernel.api.index;
 import org.neo4j.collection.primitive.PrimitiveLongIterator;
 import org.neo4j.kernel.api.exceptions.index.IndexNotApplicableKernelException;
 import org.neo4j.kernel.api.schema.IndexQuery;
+import org.neo4j.storageengine.api.schema.IndexOrder;
 import org.neo4j.storageengine.api.schema.IndexReader;
 import org.neo4j.storageengine.api.schema.IndexSampler;
+import org.neo4j.storageengine.api.schema.NodeValueIterator;
 import org.neo4j.values.storable.Value;
 
 public class DelegatingIndexReader implements IndexReader
@@ -53,6 +55,19 @@ public class DelegatingIndexReader implements IndexReader
         return delegate.query( predicates );
     }
 
+    @Override
+    public boolean canQueryInOrder( IndexQuery... predicates )
+    {
+        return delegate.canQueryInOrder( predicates );
+    }
+
+    @Override
+    public NodeValueIterator query( IndexOrder order, IndexQuery... predicates )
+            throws IndexNotApplicableKernelException
+    {
+        return delegate.query( order, predicates );
+    }
+
     @Override
     public void close()
     {
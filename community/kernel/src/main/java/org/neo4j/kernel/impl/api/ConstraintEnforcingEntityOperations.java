@@ -356,6 +356,12 @@ public class ConstraintEnforcingEntityOperations implements EntityOperations, Sc
         return entityReadOperations.nodesGetForLabel( state, labelId );
     }
 
+    @Override
+    public PrimitiveLongIterator relationshipsGetForType( KernelStatement state, int relationshipTypeId )
+    {
+        return entityReadOperations.relationshipsGetForType( state, relationshipTypeId );
+    }
+
     @Override
     public PrimitiveLongIterator indexQuery( KernelStatement statement, IndexDescriptor index,
             IndexQuery[] predicates )
@@ -172,6 +172,13 @@ public class GuardingStatementOperations implements
         return entityReadDelegate.nodesGetForLabel( statement, labelId );
     }
 
+    @Override
+    public PrimitiveLongIterator relationshipsGetForType( KernelStatement statement, int relationshipTypeId )
+    {
+        guard.check( statement );
+        return entityReadDelegate.relationshipsGetForType( statement, relationshipTypeId );
+    }
+
     @Override
     public PrimitiveLongIterator indexQuery( KernelStatement statement, IndexDescriptor index,
             IndexQuery[] predicates )
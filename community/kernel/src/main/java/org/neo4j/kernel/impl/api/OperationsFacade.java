@@ -226,6 +226,17 @@ public class OperationsFacade
         return dataRead().nodesGetForLabel( statement, labelId );
     }
 
+    @Override
+    public PrimitiveLongIterator relationshipsGetForType( int relationshipTypeId )
+    {
+        statement.assertOpen();
+        if ( relationshipTypeId == StatementConstants.NO_SUCH_RELATIONSHIP_TYPE )
+        {
+            return PrimitiveLongCollections.emptyIterator();
+        }
+        return dataRead().relationshipsGetForType( statement, relationshipTypeId );
+    }
+
     @Override
     public PrimitiveLongIterator indexQuery( IndexDescriptor index, IndexQuery... predicates )
             throws IndexNotFoundKernelException, IndexNotApplicableKernelException
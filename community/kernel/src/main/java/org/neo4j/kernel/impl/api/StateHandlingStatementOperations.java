@@ -28,8 +28,10 @@ import org.neo4j.collection.primitive.PrimitiveIntCollection;
 import org.neo4j.collection.primitive.PrimitiveIntIterator;
 import org.neo4j.collection.primitive.PrimitiveIntSet;
 import org.neo4j.collection.primitive.PrimitiveIntStack;
+import org.neo4j.collection.primitive.PrimitiveLongCollections;
 import org.neo4j.collection.primitive.PrimitiveLongIterator;
 import org.neo4j.collection.primitive.PrimitiveLongResourceIterator;
+import org.neo4j.collection.primitive.PrimitiveLongSet;
 import org.neo4j.cursor.Cursor;
 import org.neo4j.graphdb.NotFoundException;
 import org.neo4j.kernel.api.DataWriteOperations;
@@ -101,6 +103,7 @@ import org.neo4j.storageengine.api.schema.IndexReader;
 import org.neo4j.storageengine.api.schema.PopulationProgress;
 import org.neo4j.storageengine.api.txstate.NodeState;
 import org.neo4j.storageengine.api.txstate.ReadableDiffSets;
+import org.neo4j.storageengine.api.txstate.ReadableRelationshipDiffSets;
 import org.neo4j.values.storable.Value;
 import org.neo4j.values.storable.ValueTuple;
 import org.neo4j.values.storable.Values;
@@ -551,6 +554,33 @@ public class StateHandlingStatementOperations implements
         return storeLayer.nodesGetForLabel( state.getStoreStatement(), labelId );
     }
 
+    @Override
+    public PrimitiveLongIterator relationshipsGetForType( KernelStatement state, int relationshipTypeId )
+    {
+        PrimitiveLongIterator committed =
+                storeLayer.relationshipsGetForType( state.getStoreStatement(), relationshipTypeId );
+        if ( state.hasTxStateWithChanges() )
+        {
+            TransactionState txState = state.txState();
+            ReadableRelationshipDiffSets<Long> changes = txState.addedAndRemovedRelationships();
+            PrimitiveLongSet addedOfType = Primitive.longSet();
+            for ( long relationshipId : changes.getAdded() )
+            {
+                txState.relationshipVisit( relationshipId, ( relId, type, startNode, endNode ) ->
+                {
+                    if ( type == relationshipTypeId )
+                    {
+                        addedOfType.add( relId );
+                    }
+                } );
+            }
+            return PrimitiveLongCollections.concat(
+                    PrimitiveLongCollections.filter( committed, relId -> !changes.isRemoved( relId ) ),
+                    addedOfType.iterator() );
+        }
+        return committed;
+    }
+
     @Override
     public long nodesGetCount( KernelStatement state )
     {
@@ -20,6 +20,7 @@
 package org.neo4j.kernel.impl.api.index;
 
 import java.io.IOException;
+import java.util.ArrayDeque;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
@@ -96,6 +97,10 @@ public class MultipleIndexPopulator implements IndexPopulator
     // Failed populations are removed from this list while iterating over it.
     private final List<IndexPopulation> populations = new CopyOnWriteArrayList<>();
 
+    // Updates which the store scan has held back for a later round, see MultipleIndexUpdater#defer.
+    // Only accessed by the thread populating from the queue.
+    private final Queue<IndexEntryUpdate> deferredUpdates = new ArrayDeque<>();
+
     private final IndexStoreView storeView;
     private final LogProvider logProvider;
     protected final Log log;
@@ -353,17 +358,21 @@ public class MultipleIndexPopulator implements IndexPopulator
 
     private void populateFromQueueIfAvailable( long currentlyIndexedNodeId )
     {
-        if ( !queue.isEmpty() )
+        if ( !queue.isEmpty() || !deferredUpdates.isEmpty() )
         {
             try ( MultipleIndexUpdater updater = newPopulatingUpdater( storeView ) )
             {
-                do
+                // previously deferred updates go first to keep updates of any given node in the order they came in
+                for ( int i = deferredUpdates.size(); i > 0; i-- )
+                {
+                    storeScan.acceptUpdate( updater, deferredUpdates.poll(), currentlyIndexedNodeId );
+                }
+                while ( !queue.isEmpty() )
                 {
                     // no need to check for null as nobody else is emptying this queue
                     IndexEntryUpdate update = queue.poll();
                     storeScan.acceptUpdate( updater, update, currentlyIndexedNodeId );
                 }
-                while ( !queue.isEmpty() );
             }
         }
     }
@@ -432,6 +441,17 @@ public class MultipleIndexPopulator implements IndexPopulator
             }
         }
 
+        /**
+         * Holds back the given update until the next time updates are populated from the queue. Used by store scans
+         * which have read the node of the update, but not yet passed it on to the populators.
+         *
+         * @param update {@link IndexEntryUpdate} to process in a later round.
+         */
+        public void defer( IndexEntryUpdate update )
+        {
+            multipleIndexPopulator.deferredUpdates.add( update );
+        }
+
         @Override
         public void close()
         {
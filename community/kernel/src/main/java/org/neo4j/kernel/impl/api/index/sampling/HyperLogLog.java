@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.api.index.sampling;
+
+import java.util.Arrays;
+
+/**
+ * Estimates the number of distinct items in a stream of 64-bit hashes, using a fixed amount of memory,
+ * {@code 2^precision} bytes, as described in "HyperLogLog: the analysis of a near-optimal cardinality estimation
+ * algorithm" by Flajolet et al. The standard error of the estimate is about {@code 1.04 / sqrt(2^precision)}.
+ * <p>
+ * Items can only be added, never removed. Not thread safe.
+ */
+public class HyperLogLog
+{
+    private final int precision;
+    private final byte[] registers;
+
+    public HyperLogLog( int precision )
+    {
+        if ( precision < 4 || precision > 18 )
+        {
+            throw new IllegalArgumentException( "Precision must be within [4,18], was " + precision );
+        }
+        this.precision = precision;
+        this.registers = new byte[1 << precision];
+    }
+
+    /**
+     * @param hash well distributed 64-bit hash of the item to add, see {@link #hash(long)}.
+     */
+    public void add( long hash )
+    {
+        int index = (int) (hash >>> (Long.SIZE - precision));
+        // position of the first 1-bit among the remaining bits, with a stop bit so that the rank is bounded
+        long remaining = (hash << precision) | (1L << (precision - 1));
+        byte rank = (byte) (Long.numberOfLeadingZeros( remaining ) + 1);
+        if ( rank > registers[index] )
+        {
+            registers[index] = rank;
+        }
+    }
+
+    /**
+     * Merges the items of another estimator, of the same precision, into this one.
+     */
+    public void addAll( HyperLogLog other )
+    {
+        if ( other.precision != precision )
+        {
+            throw new IllegalArgumentException( "Precision mismatch " + precision + " vs " + other.precision );
+        }
+        for ( int i = 0; i < registers.length; i++ )
+        {
+            if ( other.registers[i] > registers[i] )
+            {
+                registers[i] = other.registers[i];
+            }
+        }
+    }
+
+    public long estimate()
+    {
+        int m = registers.length;
+        double sum = 0;
+        int zeros = 0;
+        for ( byte register : registers )
+        {
+            sum += 1.0 / (1L << register);
+            if ( register == 0 )
+            {
+                zeros++;
+            }
+        }
+        double estimate = alpha( m ) * m * m / sum;
+        if ( estimate <= 2.5 * m && zeros > 0 )
+        {
+            // small range correction, linear counting is more accurate here
+            estimate = m * Math.log( (double) m / zeros );
+        }
+        return Math.round( estimate );
+    }
+
+    public void clear()
+    {
+        Arrays.fill( registers, (byte) 0 );
+    }
+
+    /**
+     * Spreads the bits of the given value over all 64 bits, like the finalizer of MurmurHash3 does.
+     */
+    public static long hash( long value )
+    {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+
+    private static double alpha( int m )
+    {
+        switch ( m )
+        {
+        case 16:
+            return 0.673;
+        case 32:
+            return 0.697;
+        case 64:
+            return 0.709;
+        default:
+            return 0.7213 / (1 + 1.079 / m);
+        }
+    }
+}
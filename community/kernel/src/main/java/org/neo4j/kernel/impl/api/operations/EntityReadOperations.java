@@ -47,6 +47,12 @@ public interface EntityReadOperations
      */
     PrimitiveLongIterator nodesGetForLabel( KernelStatement state, int labelId );
 
+    /**
+     * @param relationshipTypeId the id of the relationship type that returned relationships are guaranteed to have
+     * @return ids of all relationships that have the given type
+     */
+    PrimitiveLongIterator relationshipsGetForType( KernelStatement state, int relationshipTypeId );
+
     /**
      * Queries the given index with the given index query.
      *
@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.api.scan;
+
+import java.io.IOException;
+
+import org.neo4j.helpers.collection.Visitor;
+import org.neo4j.kernel.api.labelscan.LabelScanWriter;
+import org.neo4j.kernel.api.labelscan.NodeLabelUpdate;
+import org.neo4j.kernel.impl.index.labelscan.NativeRelationshipTypeScanStore;
+import org.neo4j.kernel.impl.store.RelationshipStore;
+import org.neo4j.kernel.impl.store.record.RelationshipRecord;
+
+import static org.neo4j.collection.primitive.PrimitiveLongCollections.EMPTY_LONG_ARRAY;
+
+/**
+ * {@link FullStoreChangeStream} for rebuilding a {@link NativeRelationshipTypeScanStore}, reading all relationships
+ * in use directly from the {@link RelationshipStore}.
+ */
+public class FullRelationshipTypeStream implements FullStoreChangeStream, Visitor<RelationshipRecord,IOException>
+{
+    private final RelationshipStore relationshipStore;
+    private LabelScanWriter writer;
+    private long count;
+
+    public FullRelationshipTypeStream( RelationshipStore relationshipStore )
+    {
+        this.relationshipStore = relationshipStore;
+    }
+
+    @Override
+    public long applyTo( LabelScanWriter writer ) throws IOException
+    {
+        // Keep the write for using it in visit
+        this.writer = writer;
+        relationshipStore.scanAllRecords( this );
+        return count;
+    }
+
+    @Override
+    public boolean visit( RelationshipRecord record ) throws IOException
+    {
+        writer.write( NodeLabelUpdate.labelChanges( record.getId(), EMPTY_LONG_ARRAY, new long[]{record.getType()} ) );
+        count++;
+        return false;
+    }
+}
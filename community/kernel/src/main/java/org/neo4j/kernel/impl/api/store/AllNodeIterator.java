@@ -20,14 +20,24 @@
 package org.neo4j.kernel.impl.api.store;
 
 import org.neo4j.kernel.impl.store.NodeStore;
+import org.neo4j.kernel.impl.store.RecordPageBatch;
+import org.neo4j.kernel.impl.store.record.NodeRecord;
 
+/**
+ * Iterates over ids of all nodes in use, reading the in-use status of a whole page of node records at a time.
+ */
 public class AllNodeIterator extends HighIdAwareIterator<NodeStore>
 {
+    private final RecordPageBatch<NodeRecord> batch;
+    private final int recordsPerPage;
     private long currentId;
+    private long batchHighId = -1;
 
     AllNodeIterator( NodeStore nodeStore )
     {
         super( nodeStore );
+        this.batch = new RecordPageBatch<>( nodeStore );
+        this.recordsPerPage = nodeStore.getRecordsPerPage();
     }
 
     @Override
@@ -37,7 +47,13 @@ public class AllNodeIterator extends HighIdAwareIterator<NodeStore>
         {
             try
             {
-                if ( store.isInUse( currentId ) )
+                // Records above the high id the page was read at could have been created since, so re-read
+                if ( !batch.contains( currentId ) || currentId > batchHighId )
+                {
+                    store.readPage( currentId / recordsPerPage, batch );
+                    batchHighId = highId;
+                }
+                if ( batch.contains( currentId ) && batch.inUse( (int) (currentId - batch.firstId()) ) )
                 {
                     return next( currentId );
                 }
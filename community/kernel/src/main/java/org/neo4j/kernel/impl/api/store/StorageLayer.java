@@ -180,6 +180,12 @@ public class StorageLayer implements StoreReadLayer
         return statement.getLabelScanReader().nodesWithLabel( labelId );
     }
 
+    @Override
+    public PrimitiveLongIterator relationshipsGetForType( StorageStatement statement, int relationshipTypeId )
+    {
+        return statement.getRelationshipTypeScanReader().relationshipsWithType( relationshipTypeId );
+    }
+
     @Override
     public IndexDescriptor indexGetForSchema( LabelSchemaDescriptor descriptor )
     {
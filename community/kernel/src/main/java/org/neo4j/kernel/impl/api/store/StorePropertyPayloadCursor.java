@@ -21,6 +21,7 @@ package org.neo4j.kernel.impl.api.store;
 
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.util.Arrays;
 
 import org.neo4j.kernel.impl.store.LongerShortString;
 import org.neo4j.kernel.impl.store.PropertyType;
@@ -31,6 +32,7 @@ import org.neo4j.kernel.impl.store.record.PropertyBlock;
 import org.neo4j.kernel.impl.store.record.Record;
 import org.neo4j.kernel.impl.util.Bits;
 import org.neo4j.string.UTF8;
+import org.neo4j.values.storable.TextValue;
 import org.neo4j.values.storable.Value;
 import org.neo4j.values.storable.Values;
 
@@ -194,6 +196,15 @@ class StorePropertyPayloadCursor
         return LongerShortString.decode( data, position, currentBlocksUsed() );
     }
 
+    /**
+     * @return the current short string as a value, which keeps UTF-8 encoded short strings in that form.
+     */
+    TextValue shortStringTextValue()
+    {
+        assertOfType( SHORT_STRING );
+        return LongerShortString.decodeValue( data, position, currentBlocksUsed() );
+    }
+
     String stringValue()
     {
         assertOfType( STRING );
@@ -202,6 +213,17 @@ class StorePropertyPayloadCursor
         return UTF8.decode( buffer.array(), 0, buffer.limit() );
     }
 
+    /**
+     * @return the UTF-8 encoded bytes of the current string, copied out of the reusable buffer but not decoded.
+     */
+    byte[] utf8StringValue()
+    {
+        assertOfType( STRING );
+        readFromStore( stringRecordCursor );
+        buffer.flip();
+        return Arrays.copyOf( buffer.array(), buffer.limit() );
+    }
+
     Object shortArrayValue()
     {
         assertOfType( SHORT_ARRAY );
@@ -238,9 +260,9 @@ class StorePropertyPayloadCursor
         case DOUBLE:
             return Values.doubleValue( doubleValue() );
         case SHORT_STRING:
-            return Values.stringValue( shortStringValue() );
+            return shortStringTextValue();
         case STRING:
-            return Values.stringValue( stringValue() );
+            return Values.utf8Value( utf8StringValue() );
         case SHORT_ARRAY:
             return Values.of( shortArrayValue() );
         case ARRAY:
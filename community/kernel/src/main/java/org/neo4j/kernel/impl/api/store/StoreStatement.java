@@ -43,6 +43,7 @@ import org.neo4j.storageengine.api.RelationshipItem;
 import org.neo4j.storageengine.api.StorageStatement;
 import org.neo4j.storageengine.api.schema.IndexReader;
 import org.neo4j.storageengine.api.schema.LabelScanReader;
+import org.neo4j.storageengine.api.schema.RelationshipTypeScanReader;
 
 /**
  * Statement for store layer. This allows for acquisition of cursors on the store data.
@@ -65,20 +66,24 @@ public class StoreStatement implements StorageStatement
     private final Supplier<IndexReaderFactory> indexReaderFactorySupplier;
     private final RecordCursors recordCursors;
     private final Supplier<LabelScanReader> labelScanStore;
+    private final Supplier<RelationshipTypeScanReader> relationshipTypeScanStore;
     private final RecordStore<RelationshipGroupRecord> relationshipGroupStore;
 
     private IndexReaderFactory indexReaderFactory;
     private LabelScanReader labelScanReader;
+    private RelationshipTypeScanReader relationshipTypeScanReader;
 
     private boolean acquired;
     private boolean closed;
 
     public StoreStatement( NeoStores neoStores, Supplier<IndexReaderFactory> indexReaderFactory,
-            Supplier<LabelScanReader> labelScanReaderSupplier, LockService lockService )
+            Supplier<LabelScanReader> labelScanReaderSupplier,
+            Supplier<RelationshipTypeScanReader> relationshipTypeScanReaderSupplier, LockService lockService )
     {
         this.neoStores = neoStores;
         this.indexReaderFactorySupplier = indexReaderFactory;
         this.labelScanStore = labelScanReaderSupplier;
+        this.relationshipTypeScanStore = relationshipTypeScanReaderSupplier;
         this.nodeStore = neoStores.getNodeStore();
         this.relationshipStore = neoStores.getRelationshipStore();
         this.relationshipGroupStore = neoStores.getRelationshipGroupStore();
@@ -218,6 +223,11 @@ public class StoreStatement implements StorageStatement
             labelScanReader.close();
             labelScanReader = null;
         }
+        if ( relationshipTypeScanReader != null )
+        {
+            relationshipTypeScanReader.close();
+            relationshipTypeScanReader = null;
+        }
     }
 
     @Override
@@ -227,6 +237,13 @@ public class StoreStatement implements StorageStatement
                 labelScanReader : (labelScanReader = labelScanStore.get());
     }
 
+    @Override
+    public RelationshipTypeScanReader getRelationshipTypeScanReader()
+    {
+        return relationshipTypeScanReader != null ?
+                relationshipTypeScanReader : (relationshipTypeScanReader = relationshipTypeScanStore.get());
+    }
+
     private IndexReaderFactory indexReaderFactory()
     {
         return indexReaderFactory != null ?
@@ -176,15 +176,26 @@ public class NativeLabelScanStore implements LabelScanStore
     NativeLabelScanStore( PageCache pageCache, File storeDir,
                 FullStoreChangeStream fullStoreChangeStream, boolean readOnly, Monitors monitors,
                 RecoveryCleanupWorkCollector recoveryCleanupWorkCollector, int pageSize )
+    {
+        this( pageCache, getLabelScanStoreFile( storeDir ), fullStoreChangeStream, readOnly, monitors,
+                monitors.newMonitor( Monitor.class ), recoveryCleanupWorkCollector, pageSize );
+    }
+
+    /*
+     * Used by other stores sharing the same token-->entities layout, e.g. {@link NativeRelationshipTypeScanStore}.
+     */
+    NativeLabelScanStore( PageCache pageCache, File storeFile,
+                FullStoreChangeStream fullStoreChangeStream, boolean readOnly, Monitors monitors, Monitor monitor,
+                RecoveryCleanupWorkCollector recoveryCleanupWorkCollector, int pageSize )
     {
         this.pageCache = pageCache;
         this.pageSize = pageSize;
         this.fullStoreChangeStream = fullStoreChangeStream;
-        this.storeFile = getLabelScanStoreFile( storeDir );
+        this.storeFile = storeFile;
         this.singleWriter = new NativeLabelScanWriter( 1_000 );
         this.readOnly = readOnly;
         this.monitors = monitors;
-        this.monitor = monitors.newMonitor( Monitor.class );
+        this.monitor = monitor;
         this.recoveryCleanupWorkCollector = recoveryCleanupWorkCollector;
     }
 
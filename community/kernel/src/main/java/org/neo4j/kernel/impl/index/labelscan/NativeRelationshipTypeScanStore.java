@@ -0,0 +1,188 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.labelscan;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.NoSuchFileException;
+
+import org.neo4j.collection.primitive.PrimitiveLongIterator;
+import org.neo4j.graphdb.ResourceIterator;
+import org.neo4j.index.internal.gbptree.GBPTree;
+import org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector;
+import org.neo4j.io.pagecache.IOLimiter;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.kernel.api.labelscan.LabelScanStore;
+import org.neo4j.kernel.api.labelscan.LabelScanWriter;
+import org.neo4j.kernel.api.labelscan.NodeLabelUpdate;
+import org.neo4j.kernel.impl.api.scan.FullStoreChangeStream;
+import org.neo4j.kernel.impl.index.GBPTreeUtil;
+import org.neo4j.kernel.impl.store.UnderlyingStorageException;
+import org.neo4j.kernel.lifecycle.Lifecycle;
+import org.neo4j.kernel.monitoring.Monitors;
+import org.neo4j.storageengine.api.schema.LabelScanReader;
+import org.neo4j.storageengine.api.schema.RelationshipTypeScanReader;
+
+import static org.neo4j.kernel.impl.store.MetaDataStore.DEFAULT_NAME;
+
+/**
+ * Stores relationship type-->relationships mappings, so that all relationships of a rare type can be found without
+ * scanning the whole relationship store.
+ * <p>
+ * Relationship types are tokens mapped to entity ids just like labels are, so this store is a
+ * {@link NativeLabelScanStore} over its own {@link GBPTree} file, where each key is a combination of
+ * {@code relationshipTypeId} and {@code relationshipIdRange} and each value a bit set of relationships
+ * in that range. Updates are fed as {@link NodeLabelUpdate} where the node id is the relationship id and
+ * the labels before/after are the relationship type before/after, i.e. empty for a relationship being created
+ * or deleted respectively.
+ * <p>
+ * This store is backed by a single store file "neostore.relationshiptypescanstore.db".
+ */
+public class NativeRelationshipTypeScanStore implements Lifecycle
+{
+    /**
+     * Name of the file used for the native relationship type scan store.
+     */
+    public static final String FILE_NAME = DEFAULT_NAME + ".relationshiptypescanstore.db";
+
+    private final NativeLabelScanStore store;
+
+    public NativeRelationshipTypeScanStore( PageCache pageCache, File storeDir,
+            FullStoreChangeStream fullStoreChangeStream, boolean readOnly, Monitors monitors,
+            RecoveryCleanupWorkCollector recoveryCleanupWorkCollector )
+    {
+        this.store = new NativeLabelScanStore( pageCache, getRelationshipTypeScanStoreFile( storeDir ),
+                fullStoreChangeStream, readOnly, monitors,
+                monitors.newMonitor( LabelScanStore.Monitor.class, NativeRelationshipTypeScanStore.class ),
+                recoveryCleanupWorkCollector, /*means no opinion about page size*/ 0 );
+    }
+
+    /**
+     * Returns the file backing the relationship type scan store.
+     *
+     * @param storeDir The store directory to use.
+     * @return the file backing the relationship type scan store
+     */
+    public static File getRelationshipTypeScanStoreFile( File storeDir )
+    {
+        return new File( storeDir, FILE_NAME );
+    }
+
+    /**
+     * Deletes the relationship type scan store in the given store directory, if there is one, so that it will be
+     * rebuilt on next startup. Used by tools which create relationships without going through transactions.
+     *
+     * @param pageCache {@link PageCache} managing the store file.
+     * @param storeDir The store directory to use.
+     * @throws IOException on I/O error deleting the store file.
+     */
+    public static void drop( PageCache pageCache, File storeDir ) throws IOException
+    {
+        try
+        {
+            GBPTreeUtil.delete( pageCache, getRelationshipTypeScanStoreFile( storeDir ) );
+        }
+        catch ( NoSuchFileException e )
+        {
+            // Even better, it didn't even exist
+        }
+    }
+
+    /**
+     * @return {@link RelationshipTypeScanReader} capable of finding relationship ids with given relationship
+     * type ids. Same visibility guarantees as for {@link NativeLabelScanStore#newReader()}.
+     */
+    public RelationshipTypeScanReader newReader()
+    {
+        LabelScanReader reader = store.newReader();
+        return new RelationshipTypeScanReader()
+        {
+            @Override
+            public PrimitiveLongIterator relationshipsWithType( int relationshipTypeId )
+            {
+                return reader.nodesWithLabel( relationshipTypeId );
+            }
+
+            @Override
+            public void close()
+            {
+                reader.close();
+            }
+        };
+    }
+
+    /**
+     * Only a single writer is allowed at any given point in time, see {@link NativeLabelScanStore#newWriter()}.
+     *
+     * @return {@link LabelScanWriter} accepting relationship type changes in the form described in the class doc.
+     */
+    public LabelScanWriter newWriter()
+    {
+        return store.newWriter();
+    }
+
+    /**
+     * Forces all changes to disk and creates a checkpoint, see {@link NativeLabelScanStore#force(IOLimiter)}.
+     *
+     * @param limiter {@link IOLimiter}.
+     * @throws UnderlyingStorageException on failure writing changes to {@link PageCache}.
+     */
+    public void force( IOLimiter limiter ) throws UnderlyingStorageException
+    {
+        store.force( limiter );
+    }
+
+    public ResourceIterator<File> snapshotStoreFiles() throws IOException
+    {
+        return store.snapshotStoreFiles();
+    }
+
+    /**
+     * @return the file where the relationship type scan store is persisted.
+     */
+    public File getRelationshipTypeScanStoreFile()
+    {
+        return store.getLabelScanStoreFile();
+    }
+
+    @Override
+    public void init() throws IOException
+    {
+        store.init();
+    }
+
+    @Override
+    public void start() throws IOException
+    {
+        store.start();
+    }
+
+    @Override
+    public void stop() throws IOException
+    {
+        store.stop();
+    }
+
+    @Override
+    public void shutdown() throws IOException
+    {
+        store.shutdown();
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import org.neo4j.index.internal.gbptree.Layout;
+import org.neo4j.io.pagecache.PageCursor;
+
+/**
+ * {@link Layout} for tuples of numbers and strings, see {@link CompositeSchemaKey}.
+ */
+abstract class CompositeLayout extends Layout.Adapter<CompositeSchemaKey,SchemaNumberValue>
+{
+    final int slots;
+
+    CompositeLayout( int slots )
+    {
+        if ( slots < 1 || slots > CompositeSchemaKey.MAX_SLOTS )
+        {
+            throw new IllegalArgumentException( "Composite layout supports 1-" + CompositeSchemaKey.MAX_SLOTS +
+                    " values, but got " + slots );
+        }
+        this.slots = slots;
+    }
+
+    @Override
+    public CompositeSchemaKey newKey()
+    {
+        return new CompositeSchemaKey( slots );
+    }
+
+    @Override
+    public CompositeSchemaKey copyKey( CompositeSchemaKey key, CompositeSchemaKey into )
+    {
+        for ( int slot = 0; slot < slots; slot++ )
+        {
+            into.types[slot] = key.types[slot];
+            into.rawValueBits[slot] = key.rawValueBits[slot];
+            into.stringLengths[slot] = key.stringLengths[slot];
+            System.arraycopy( key.stringBytes[slot], 0, into.stringBytes[slot], 0, key.stringLengths[slot] );
+        }
+        into.entityId = key.entityId;
+        into.entityIdIsSpecialTieBreaker = key.entityIdIsSpecialTieBreaker;
+        return into;
+    }
+
+    @Override
+    public SchemaNumberValue newValue()
+    {
+        // Same empty value as used for numbers, there's no need for a value in composite indexes either
+        return SchemaNumberValue.INSTANCE;
+    }
+
+    @Override
+    public int keySize()
+    {
+        return CompositeSchemaKey.size( slots );
+    }
+
+    @Override
+    public int valueSize()
+    {
+        return SchemaNumberValue.SIZE;
+    }
+
+    @Override
+    public void writeKey( PageCursor cursor, CompositeSchemaKey key )
+    {
+        for ( int slot = 0; slot < slots; slot++ )
+        {
+            byte type = key.types[slot];
+            cursor.putByte( type );
+            int written;
+            if ( type == CompositeSchemaKey.TYPE_STRING )
+            {
+                int length = key.stringLengths[slot];
+                cursor.putByte( (byte) length );
+                cursor.putBytes( key.stringBytes[slot], 0, length );
+                written = Byte.BYTES + length;
+            }
+            else if ( type == CompositeSchemaKey.TYPE_LOWEST || type == CompositeSchemaKey.TYPE_HIGHEST )
+            {
+                written = 0;
+            }
+            else
+            {
+                cursor.putLong( key.rawValueBits[slot] );
+                written = Long.BYTES;
+            }
+            for ( int i = written; i < CompositeSchemaKey.SLOT_SIZE - Byte.BYTES; i++ )
+            {
+                cursor.putByte( (byte) 0 );
+            }
+        }
+        cursor.putLong( key.entityId );
+    }
+
+    @Override
+    public void writeValue( PageCursor cursor, SchemaNumberValue value )
+    {
+    }
+
+    @Override
+    public void readKey( PageCursor cursor, CompositeSchemaKey into )
+    {
+        for ( int slot = 0; slot < slots; slot++ )
+        {
+            int slotEnd = cursor.getOffset() + CompositeSchemaKey.SLOT_SIZE;
+            byte type = cursor.getByte();
+            into.types[slot] = type;
+            if ( type == CompositeSchemaKey.TYPE_STRING )
+            {
+                // Reads may be inconsistent, in which case they will be retried, so only make sure the length is sane
+                int length = cursor.getByte() & 0xFF;
+                into.stringLengths[slot] = Math.min( length, CompositeSchemaKey.MAX_STRING_BYTES );
+                cursor.getBytes( into.stringBytes[slot], 0, CompositeSchemaKey.MAX_STRING_BYTES );
+            }
+            else if ( type != CompositeSchemaKey.TYPE_LOWEST && type != CompositeSchemaKey.TYPE_HIGHEST )
+            {
+                into.rawValueBits[slot] = cursor.getLong();
+            }
+            cursor.setOffset( slotEnd );
+        }
+        into.entityId = cursor.getLong();
+    }
+
+    @Override
+    public void readValue( PageCursor cursor, SchemaNumberValue into )
+    {
+    }
+
+    static long identifier( String name, int slots )
+    {
+        return Layout.namedIdentifier( name, CompositeSchemaKey.size( slots ) );
+    }
+}
@@ -0,0 +1,351 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import java.util.Arrays;
+import java.util.StringJoiner;
+
+import org.neo4j.values.storable.StringValue;
+import org.neo4j.values.storable.TextValue;
+import org.neo4j.values.storable.Value;
+import org.neo4j.values.storable.Values;
+
+import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Includes an ordered tuple of values, one per property of a composite index, and entity id
+ * (to be able to handle non-unique values). Each value is stored in a fixed size slot and can be either
+ * a number, stored like in {@link SchemaNumberKey}, or a string of at most {@link #MAX_STRING_BYTES} bytes
+ * when UTF-8 encoded, stored like in {@link StringSchemaKey}.
+ * <p>
+ * Tuples are ordered slot by slot, i.e. by the first value, then by the second value a.s.o. which means that
+ * a query with exact values for a leading prefix of the properties can be answered by a single range seek.
+ * Within a slot strings are ordered before numbers, like in {@link Values#COMPARATOR}.
+ */
+class CompositeSchemaKey extends NativeSchemaKey
+{
+    static final int MAX_SLOTS = 16;
+    static final int MAX_STRING_BYTES = 30;
+
+    static final int SLOT_SIZE =
+            Byte.BYTES +                     /* type of value */
+            Byte.BYTES + MAX_STRING_BYTES;   /* raw value bits, or length of string and encoded string, padded */
+
+    static final byte TYPE_LOWEST = -1;
+    static final byte TYPE_STRING = 6;
+    static final byte TYPE_HIGHEST = Byte.MAX_VALUE;
+
+    private static final byte HIGHEST_BYTE = (byte) 0xFF;
+
+    final byte[] types;
+    final long[] rawValueBits;
+    final byte[][] stringBytes;
+    final int[] stringLengths;
+
+    /**
+     * Slot which values written to this key, as a {@link org.neo4j.values.storable.ValueWriter}, end up in.
+     */
+    private int writeSlot;
+
+    CompositeSchemaKey( int slots )
+    {
+        types = new byte[slots];
+        rawValueBits = new long[slots];
+        stringBytes = new byte[slots][MAX_STRING_BYTES];
+        stringLengths = new int[slots];
+    }
+
+    /**
+     * @param slots number of values in keys.
+     * @return size in bytes of a key with the given number of values.
+     */
+    static int size( int slots )
+    {
+        return slots * SLOT_SIZE + Long.BYTES; /* entityId */
+    }
+
+    int slots()
+    {
+        return types.length;
+    }
+
+    @Override
+    void from( long entityId, Value... values )
+    {
+        assertValidValues( values );
+        for ( int slot = 0; slot < values.length; slot++ )
+        {
+            initSlotFrom( slot, values[slot] );
+        }
+        this.entityId = entityId;
+        entityIdIsSpecialTieBreaker = false;
+    }
+
+    private void assertValidValues( Value... values )
+    {
+        if ( values.length != slots() )
+        {
+            throw new IllegalArgumentException( "Tried to create key with " + values.length +
+                    " values in composite schema key layout with " + slots() + " values" );
+        }
+        for ( Value value : values )
+        {
+            if ( !canHold( value ) )
+            {
+                throw new IllegalArgumentException(
+                        "Key layout does only support numbers and strings of at most " + MAX_STRING_BYTES +
+                        " bytes, tried to create key from " + value );
+            }
+        }
+    }
+
+    /**
+     * @param value the value to check.
+     * @return whether or not the given value can be represented in a slot of this key.
+     */
+    static boolean canHold( Value value )
+    {
+        return Values.isNumberValue( value ) || (Values.isTextValue( value ) &&
+                StringSchemaKey.fitsInBytes( ((TextValue) value).stringValue(), MAX_STRING_BYTES ));
+    }
+
+    void initSlotFrom( int slot, Value value )
+    {
+        writeSlot = slot;
+        value.writeTo( this );
+    }
+
+    /**
+     * Initializes the given slot to the longest prefix of the given string which can be encoded in
+     * {@link #MAX_STRING_BYTES} bytes, see {@link StringSchemaKey#encodePrefix(String, byte[], int)}.
+     * A truncated string compares less than, or equal to, any indexed string which has the full string as prefix.
+     */
+    void initSlotFromStringTruncated( int slot, String string )
+    {
+        types[slot] = TYPE_STRING;
+        stringLengths[slot] = StringSchemaKey.encodePrefix( string, stringBytes[slot], MAX_STRING_BYTES );
+    }
+
+    /**
+     * Initializes the given slot to compare higher than any indexed string starting with the given prefix,
+     * or if the prefix can not be encoded in full, higher than any indexed string starting with the truncated prefix.
+     */
+    void initSlotAsStringHigh( int slot, String prefix )
+    {
+        initSlotFromStringTruncated( slot, prefix );
+        Arrays.fill( stringBytes[slot], stringLengths[slot], MAX_STRING_BYTES, HIGHEST_BYTE );
+        stringLengths[slot] = MAX_STRING_BYTES;
+    }
+
+    void initSlotAsLowest( int slot )
+    {
+        types[slot] = TYPE_LOWEST;
+    }
+
+    void initSlotAsHighest( int slot )
+    {
+        types[slot] = TYPE_HIGHEST;
+    }
+
+    @Override
+    void initAsLowest()
+    {
+        Arrays.fill( types, TYPE_LOWEST );
+        entityId = Long.MIN_VALUE;
+        entityIdIsSpecialTieBreaker = true;
+    }
+
+    @Override
+    void initAsHighest()
+    {
+        Arrays.fill( types, TYPE_HIGHEST );
+        entityId = Long.MAX_VALUE;
+        entityIdIsSpecialTieBreaker = true;
+    }
+
+    /**
+     * @param slot the slot to get the value of.
+     * @return the indexed value in the given slot.
+     */
+    Value slotValue( int slot )
+    {
+        byte type = types[slot];
+        if ( type == TYPE_STRING )
+        {
+            return Values.stringValue( new String( stringBytes[slot], 0, stringLengths[slot], UTF_8 ) );
+        }
+        if ( type == TYPE_LOWEST || type == TYPE_HIGHEST )
+        {
+            return Values.NO_VALUE;
+        }
+        return RawBits.asNumberValue( rawValueBits[slot], type );
+    }
+
+    /**
+     * There's no single value in a composite key, use {@link #slotValue(int)} instead.
+     */
+    @Override
+    Value asValue()
+    {
+        throw new UnsupportedOperationException( "Composite key has no single value" );
+    }
+
+    @Override
+    Value[] asValues()
+    {
+        Value[] values = new Value[slots()];
+        for ( int slot = 0; slot < values.length; slot++ )
+        {
+            values[slot] = slotValue( slot );
+        }
+        return values;
+    }
+
+    @Override
+    String propertiesAsString()
+    {
+        StringJoiner joiner = new StringJoiner( "," );
+        for ( int slot = 0; slot < slots(); slot++ )
+        {
+            joiner.add( slotValue( slot ).toString() );
+        }
+        return joiner.toString();
+    }
+
+    /**
+     * Compares the values of this key to those of another key, slot by slot.
+     * This method is expected to be called in scenarios where inconsistent reads may happen (and later retried).
+     *
+     * @param other the {@link CompositeSchemaKey} to compare to.
+     * @return comparison against the {@code other} {@link CompositeSchemaKey}.
+     */
+    int compareValueTo( CompositeSchemaKey other )
+    {
+        int slots = Math.min( slots(), other.slots() );
+        for ( int slot = 0; slot < slots; slot++ )
+        {
+            int comparison = compareSlot( slot, other );
+            if ( comparison != 0 )
+            {
+                return comparison;
+            }
+        }
+        return 0;
+    }
+
+    private int compareSlot( int slot, CompositeSchemaKey other )
+    {
+        byte type = types[slot];
+        byte otherType = other.types[slot];
+        int comparison = Integer.compare( category( type ), category( otherType ) );
+        if ( comparison != 0 )
+        {
+            return comparison;
+        }
+        if ( type == TYPE_STRING )
+        {
+            return StringValue.compareUTF8( stringBytes[slot], stringLengths[slot],
+                    other.stringBytes[slot], other.stringLengths[slot] );
+        }
+        if ( type == TYPE_LOWEST || type == TYPE_HIGHEST )
+        {
+            return 0;
+        }
+        return RawBits.compare( rawValueBits[slot], type, other.rawValueBits[slot], otherType );
+    }
+
+    private static int category( byte type )
+    {
+        switch ( type )
+        {
+        case TYPE_LOWEST:
+            return 0;
+        case TYPE_STRING:
+            return 1;
+        case TYPE_HIGHEST:
+            return 3;
+        default:
+            // One of the number types
+            return 2;
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        return format( "values=%s,entityId=%d", propertiesAsString(), entityId );
+    }
+
+    @Override
+    public void writeInteger( byte value )
+    {
+        writeNumber( RawBits.BYTE, value );
+    }
+
+    @Override
+    public void writeInteger( short value )
+    {
+        writeNumber( RawBits.SHORT, value );
+    }
+
+    @Override
+    public void writeInteger( int value )
+    {
+        writeNumber( RawBits.INT, value );
+    }
+
+    @Override
+    public void writeInteger( long value )
+    {
+        writeNumber( RawBits.LONG, value );
+    }
+
+    @Override
+    public void writeFloatingPoint( float value )
+    {
+        writeNumber( RawBits.FLOAT, Float.floatToIntBits( value ) );
+    }
+
+    @Override
+    public void writeFloatingPoint( double value )
+    {
+        writeNumber( RawBits.DOUBLE, Double.doubleToLongBits( value ) );
+    }
+
+    private void writeNumber( byte type, long rawBits )
+    {
+        types[writeSlot] = type;
+        rawValueBits[writeSlot] = rawBits;
+    }
+
+    @Override
+    public void writeString( String value )
+    {
+        types[writeSlot] = TYPE_STRING;
+        stringLengths[writeSlot] = StringSchemaKey.encodePrefix( value, stringBytes[writeSlot], MAX_STRING_BYTES );
+    }
+
+    @Override
+    public void writeString( char value )
+    {
+        writeString( String.valueOf( value ) );
+    }
+}
@@ -27,29 +27,39 @@ import org.neo4j.index.internal.gbptree.GBPTree;
 import org.neo4j.index.internal.gbptree.Hit;
 import org.neo4j.index.internal.gbptree.Layout;
 import org.neo4j.kernel.impl.api.index.sampling.DefaultNonUniqueIndexSampler;
+import org.neo4j.kernel.impl.api.index.sampling.HyperLogLog;
 import org.neo4j.kernel.impl.api.index.sampling.IndexSamplingConfig;
 import org.neo4j.kernel.impl.api.index.sampling.NonUniqueIndexSampler;
 import org.neo4j.storageengine.api.schema.IndexSample;
 
 /**
  * {@link NonUniqueIndexSampler} which performs a full scans of a {@link GBPTree} in {@link #result()}.
+ * If given an {@link IncrementalIndexSampler} the scan also seeds it.
  *
  * @param <KEY> type of keys in tree.
  * @param <VALUE> type of values in tree.
  */
-class FullScanNonUniqueIndexSampler<KEY extends SchemaNumberKey, VALUE extends SchemaNumberValue>
+class FullScanNonUniqueIndexSampler<KEY extends NativeSchemaKey, VALUE extends SchemaNumberValue>
         extends NonUniqueIndexSampler.Adapter
 {
     private final GBPTree<KEY,VALUE> gbpTree;
     private final Layout<KEY,VALUE> layout;
     private final IndexSamplingConfig samplingConfig;
+    private final IncrementalIndexSampler incrementalSampler;
 
     FullScanNonUniqueIndexSampler( GBPTree<KEY,VALUE> gbpTree, Layout<KEY,VALUE> layout,
             IndexSamplingConfig samplingConfig )
+    {
+        this( gbpTree, layout, samplingConfig, null );
+    }
+
+    FullScanNonUniqueIndexSampler( GBPTree<KEY,VALUE> gbpTree, Layout<KEY,VALUE> layout,
+            IndexSamplingConfig samplingConfig, IncrementalIndexSampler incrementalSampler )
     {
         this.gbpTree = gbpTree;
         this.layout = layout;
         this.samplingConfig = samplingConfig;
+        this.incrementalSampler = incrementalSampler;
     }
 
     @Override
@@ -59,13 +69,29 @@ class FullScanNonUniqueIndexSampler<KEY extends SchemaNumberKey, VALUE extends S
         lowest.initAsLowest();
         KEY highest = layout.newKey();
         highest.initAsHighest();
+        HyperLogLog sketch = null;
+        if ( incrementalSampler != null )
+        {
+            incrementalSampler.startSeeding();
+            sketch = incrementalSampler.newSketch();
+        }
         try ( RawCursor<Hit<KEY,VALUE>,IOException> seek = gbpTree.seek( lowest, highest ) )
         {
             NonUniqueIndexSampler sampler = new DefaultNonUniqueIndexSampler( samplingConfig.sampleSizeLimit() );
+            long entries = 0;
             while ( seek.next() )
             {
                 Hit<KEY,VALUE> hit = seek.get();
                 sampler.include( hit.key().propertiesAsString() );
+                if ( sketch != null )
+                {
+                    sketch.add( IncrementalIndexSampler.hash( hit.key().asValues() ) );
+                    entries++;
+                }
+            }
+            if ( sketch != null )
+            {
+                incrementalSampler.seed( sketch, entries );
             }
             return sampler.result();
         }
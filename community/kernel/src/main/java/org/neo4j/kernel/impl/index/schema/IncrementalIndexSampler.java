@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import org.neo4j.kernel.impl.api.index.sampling.HyperLogLog;
+import org.neo4j.storageengine.api.schema.IndexSample;
+import org.neo4j.unsafe.impl.internal.dragons.FeatureToggles;
+import org.neo4j.values.storable.Value;
+
+/**
+ * Sample of a native schema index which is kept up to date by the index updater, so that sampling an online index
+ * doesn't have to scan it. Distinct values are estimated by a {@link HyperLogLog} sketch and the number of entries
+ * is counted.
+ * <p>
+ * The sketch starts out empty and is seeded by the first full scan of the index. It can't forget values, so every
+ * removed or changed entry makes it drift a little from the index contents. When too many entries have been removed
+ * or changed since it was last seeded, {@link #result()} returns {@code null} to ask for a new full scan.
+ * <p>
+ * Updates arriving while a full scan is running are buffered and merged into the scanned sketch when seeding
+ * completes, see {@link #seed(HyperLogLog, long)}.
+ */
+class IncrementalIndexSampler
+{
+    private static final int PRECISION = 14;
+    private static final double MAX_DRIFT = FeatureToggles.getDouble( IncrementalIndexSampler.class, "max_drift", 0.1 );
+
+    private final HyperLogLog distinctValues = new HyperLogLog( PRECISION );
+    private long entries;
+    private long removedSinceSeeded;
+    private boolean seeded;
+
+    // Updates seen while a full scan is running, null when no scan is running
+    private HyperLogLog includedWhileSeeding;
+    private long includedCountWhileSeeding;
+    private long excludedCountWhileSeeding;
+
+    synchronized void include( Value[] values )
+    {
+        long hash = hash( values );
+        if ( includedWhileSeeding != null )
+        {
+            includedWhileSeeding.add( hash );
+            includedCountWhileSeeding++;
+        }
+        else
+        {
+            distinctValues.add( hash );
+            entries++;
+        }
+    }
+
+    /**
+     * Excludes an entry from the sample. Only the number of entries goes down: the sketch can't forget the value,
+     * so the distinct values estimate may stay higher than the index contents until the next full scan. Every call
+     * counts towards the drift which eventually triggers that scan.
+     */
+    synchronized void exclude()
+    {
+        if ( includedWhileSeeding != null )
+        {
+            excludedCountWhileSeeding++;
+            return;
+        }
+        if ( entries > 0 )
+        {
+            entries--;
+        }
+        removedSinceSeeded++;
+    }
+
+    /**
+     * @return sample of the index, or {@code null} if a full scan is needed to (re-)seed this sampler.
+     */
+    synchronized IndexSample result()
+    {
+        if ( !seeded || removedSinceSeeded > entries * MAX_DRIFT )
+        {
+            return null;
+        }
+        long uniqueValues = Math.min( distinctValues.estimate(), entries );
+        return new IndexSample( entries, uniqueValues, entries );
+    }
+
+    /**
+     * @return a new, empty, sketch for a full scan to fill in and pass to {@link #seed(HyperLogLog, long)}.
+     */
+    HyperLogLog newSketch()
+    {
+        return new HyperLogLog( PRECISION );
+    }
+
+    /**
+     * Starts seeding. From now on and until {@link #seed(HyperLogLog, long)} updates are buffered rather than
+     * applied, since the scan may or may not see them.
+     */
+    synchronized void startSeeding()
+    {
+        includedWhileSeeding = newSketch();
+        includedCountWhileSeeding = 0;
+        excludedCountWhileSeeding = 0;
+    }
+
+    /**
+     * Replaces the sample with what a full scan found, merged with the updates buffered since
+     * {@link #startSeeding()}. Values are merged into the sketch, which ignores those the scan saw as well. Entry
+     * counts can't tell whether the scan saw an update, so buffered updates are counted as if it didn't, and
+     * they all count towards the drift so that a scan racing with many updates is soon followed by another one.
+     *
+     * @param scanned sketch of the values found by the scan.
+     * @param scannedEntries number of entries found by the scan.
+     */
+    synchronized void seed( HyperLogLog scanned, long scannedEntries )
+    {
+        distinctValues.clear();
+        distinctValues.addAll( scanned );
+        entries = scannedEntries;
+        removedSinceSeeded = 0;
+        if ( includedWhileSeeding != null )
+        {
+            distinctValues.addAll( includedWhileSeeding );
+            entries = Math.max( 0, entries + includedCountWhileSeeding - excludedCountWhileSeeding );
+            removedSinceSeeded = includedCountWhileSeeding + excludedCountWhileSeeding;
+            includedWhileSeeding = null;
+        }
+        seeded = true;
+    }
+
+    static long hash( Value[] values )
+    {
+        long hash = 0;
+        for ( Value value : values )
+        {
+            hash = hash * 31 + value.hashCode();
+        }
+        return HyperLogLog.hash( hash );
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import org.neo4j.kernel.api.schema.IndexQuery;
+import org.neo4j.kernel.api.schema.IndexQuery.ExactPredicate;
+import org.neo4j.kernel.api.schema.IndexQuery.IndexQueryType;
+import org.neo4j.kernel.impl.index.schema.fusion.FusionSchemaIndexProvider;
+import org.neo4j.storageengine.api.schema.IndexReader;
+import org.neo4j.values.storable.Value;
+
+/**
+ * Selects the native composite index for tuples of multiple values which all fit in a {@link CompositeSchemaKey},
+ * and the fallback for everything else. It's meant to be used in a {@link FusionSchemaIndexProvider} which has the
+ * {@link NativeSchemaCompositeIndexProvider} as native provider and, as fallback, a {@link FusionSchemaIndexProvider}
+ * using the {@link NativeStringSelector}. Single property indexes are thus left untouched by this selector.
+ * <p>
+ * Exact queries go to the one index which would hold the queried tuple. Any other query is sent to both indexes
+ * and their results concatenated, since a tuple is in only one of them.
+ */
+public class NativeCompositeSelector implements FusionSchemaIndexProvider.Selector
+{
+    @Override
+    public <T> T select( T nativeInstance, T fallbackInstance, Value... values )
+    {
+        if ( values.length == 1 )
+        {
+            // Single values are handled by the fallback
+            return fallbackInstance;
+        }
+
+        for ( Value value : values )
+        {
+            if ( !CompositeSchemaKey.canHold( value ) )
+            {
+                return fallbackInstance;
+            }
+        }
+        // It's a tuple of values that fit, the native can handle this
+        return nativeInstance;
+    }
+
+    @Override
+    public IndexReader selectReader( IndexReader nativeReader, IndexReader fallbackReader, IndexQuery... predicates )
+    {
+        if ( predicates.length == 1 )
+        {
+            return fallbackReader;
+        }
+
+        if ( allOfType( IndexQueryType.exact, predicates ) )
+        {
+            Value[] values = new Value[predicates.length];
+            for ( int i = 0; i < predicates.length; i++ )
+            {
+                values[i] = ((ExactPredicate) predicates[i]).value();
+            }
+            return select( nativeReader, fallbackReader, values );
+        }
+        return null;
+    }
+
+    private static boolean allOfType( IndexQueryType type, IndexQuery... predicates )
+    {
+        for ( IndexQuery predicate : predicates )
+        {
+            if ( predicate.type() != type )
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+}
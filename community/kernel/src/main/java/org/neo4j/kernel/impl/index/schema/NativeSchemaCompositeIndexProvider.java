@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.neo4j.index.internal.gbptree.GBPTree;
+import org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.kernel.api.index.IndexAccessor;
+import org.neo4j.kernel.api.index.IndexPopulator;
+import org.neo4j.kernel.api.schema.index.IndexDescriptor;
+import org.neo4j.kernel.impl.api.index.sampling.IndexSamplingConfig;
+import org.neo4j.logging.LogProvider;
+
+/**
+ * Schema index provider for native composite indexes, i.e. indexes of multiple properties, backed by
+ * e.g. {@link GBPTree}. Keys are the ordered tuples of indexed values, which makes it possible to answer
+ * exact tuple seeks and range seeks on a leading prefix of the properties, as well as checking uniqueness
+ * of composite constraints, by seeking the tree. Only tuples of numbers and short strings can be indexed,
+ * see {@link CompositeSchemaKey}, and {@link NativeCompositeSelector} for how it's combined with other
+ * index providers.
+ */
+public class NativeSchemaCompositeIndexProvider extends NativeSchemaIndexProvider
+{
+    public static final String KEY = "native-composite";
+    private static final Descriptor NATIVE_COMPOSITE_PROVIDER_DESCRIPTOR = new Descriptor( KEY, "1.0" );
+
+    NativeSchemaCompositeIndexProvider( PageCache pageCache, File nativeSchemaIndexBaseDir, LogProvider logging,
+            RecoveryCleanupWorkCollector recoveryCleanupWorkCollector, boolean readOnly )
+    {
+        super( NATIVE_COMPOSITE_PROVIDER_DESCRIPTOR, pageCache, nativeSchemaIndexBaseDir, logging,
+                recoveryCleanupWorkCollector, readOnly );
+    }
+
+    @Override
+    IndexPopulator newPopulator( File storeFile, IndexDescriptor descriptor, IndexSamplingConfig samplingConfig )
+    {
+        int slots = descriptor.schema().getPropertyIds().length;
+        switch ( descriptor.type() )
+        {
+        case GENERAL:
+            return new NativeNonUniqueSchemaNumberIndexPopulator<>( pageCache, storeFile,
+                    new NonUniqueCompositeLayout( slots ), samplingConfig );
+        case UNIQUE:
+            return new NativeUniqueSchemaNumberIndexPopulator<>( pageCache, storeFile,
+                    new UniqueCompositeLayout( slots ) );
+        default:
+            throw new UnsupportedOperationException( "Can not create index populator of type " + descriptor.type() );
+        }
+    }
+
+    @Override
+    IndexAccessor newAccessor( File storeFile, IndexDescriptor descriptor ) throws IOException
+    {
+        int slots = descriptor.schema().getPropertyIds().length;
+        CompositeLayout layout;
+        switch ( descriptor.type() )
+        {
+        case GENERAL:
+            layout = new NonUniqueCompositeLayout( slots );
+            break;
+        case UNIQUE:
+            layout = new UniqueCompositeLayout( slots );
+            break;
+        default:
+            throw new UnsupportedOperationException( "Can not create index accessor of type " + descriptor.type() );
+        }
+        return new NativeSchemaCompositeIndexAccessor<>( pageCache, storeFile, layout, recoveryCleanupWorkCollector );
+    }
+
+    @Override
+    boolean compatibleLayout( long layoutIdentifier, int majorVersion, int minorVersion )
+    {
+        for ( int slots = 1; slots <= CompositeSchemaKey.MAX_SLOTS; slots++ )
+        {
+            if ( (layoutIdentifier == UniqueCompositeLayout.identifier( slots ) &&
+                  majorVersion == UniqueCompositeLayout.MAJOR_VERSION &&
+                  minorVersion == UniqueCompositeLayout.MINOR_VERSION) ||
+                 (layoutIdentifier == NonUniqueCompositeLayout.identifier( slots ) &&
+                  majorVersion == NonUniqueCompositeLayout.MAJOR_VERSION &&
+                  minorVersion == NonUniqueCompositeLayout.MINOR_VERSION) )
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+}
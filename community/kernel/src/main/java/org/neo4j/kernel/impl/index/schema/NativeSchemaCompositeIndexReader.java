@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import org.neo4j.index.internal.gbptree.GBPTree;
+import org.neo4j.index.internal.gbptree.Layout;
+import org.neo4j.kernel.api.schema.IndexQuery;
+import org.neo4j.kernel.api.schema.IndexQuery.ExactPredicate;
+import org.neo4j.kernel.api.schema.IndexQuery.IndexQueryType;
+import org.neo4j.kernel.api.schema.IndexQuery.NumberRangePredicate;
+import org.neo4j.kernel.api.schema.IndexQuery.StringPrefixPredicate;
+import org.neo4j.kernel.api.schema.IndexQuery.StringRangePredicate;
+import org.neo4j.values.storable.Value;
+import org.neo4j.values.storable.Values;
+
+/**
+ * Reader of composite indexes. Exact values for all properties are answered by an exact seek. Other queries are
+ * answered by a range seek which is narrowed by the exact predicates of a leading prefix of the properties, followed
+ * by a range, prefix or exists predicate on the next property, where hits are filtered by all predicates.
+ */
+class NativeSchemaCompositeIndexReader<KEY extends CompositeSchemaKey, VALUE extends SchemaNumberValue>
+        extends NativeSchemaIndexReader<KEY,VALUE>
+{
+    NativeSchemaCompositeIndexReader( GBPTree<KEY,VALUE> tree, Layout<KEY,VALUE> layout,
+            IncrementalIndexSampler incrementalSampler )
+    {
+        super( tree, layout, incrementalSampler );
+    }
+
+    @Override
+    boolean initializeRangeForQuery( KEY treeKeyFrom, KEY treeKeyTo, IndexQuery... predicates )
+    {
+        if ( predicates.length != treeKeyFrom.slots() )
+        {
+            throw new IllegalArgumentException( "Composite index of " + treeKeyFrom.slots() +
+                    " properties can not be queried with " + predicates.length + " predicates" );
+        }
+
+        if ( allOfType( IndexQueryType.exists, predicates ) )
+        {
+            treeKeyFrom.initAsLowest();
+            treeKeyTo.initAsHighest();
+            return false;
+        }
+        if ( allOfType( IndexQueryType.exact, predicates ) )
+        {
+            Value[] values = new Value[predicates.length];
+            for ( int slot = 0; slot < predicates.length; slot++ )
+            {
+                values[slot] = ((ExactPredicate) predicates[slot]).value();
+            }
+            treeKeyFrom.from( Long.MIN_VALUE, values );
+            treeKeyTo.from( Long.MAX_VALUE, values );
+            return false;
+        }
+
+        int slot = 0;
+        for ( ; slot < predicates.length && predicates[slot].type() == IndexQueryType.exact; slot++ )
+        {
+            Value value = ((ExactPredicate) predicates[slot]).value();
+            if ( !CompositeSchemaKey.canHold( value ) )
+            {
+                // No such tuple in this index, seek an empty range
+                treeKeyFrom.initAsLowest();
+                treeKeyTo.initAsLowest();
+                return false;
+            }
+            treeKeyFrom.initSlotFrom( slot, value );
+            treeKeyTo.initSlotFrom( slot, value );
+        }
+        initializeSlotRange( treeKeyFrom, treeKeyTo, slot, predicates[slot] );
+        for ( slot++; slot < predicates.length; slot++ )
+        {
+            treeKeyFrom.initSlotAsLowest( slot );
+            treeKeyTo.initSlotAsHighest( slot );
+        }
+        treeKeyFrom.entityId = Long.MIN_VALUE;
+        treeKeyFrom.entityIdIsSpecialTieBreaker = true;
+        treeKeyTo.entityId = Long.MAX_VALUE;
+        treeKeyTo.entityIdIsSpecialTieBreaker = true;
+        return true;
+    }
+
+    private static void initializeSlotRange( CompositeSchemaKey treeKeyFrom, CompositeSchemaKey treeKeyTo, int slot,
+            IndexQuery predicate )
+    {
+        switch ( predicate.type() )
+        {
+        case rangeNumeric:
+            NumberRangePredicate numberRange = (NumberRangePredicate) predicate;
+            treeKeyFrom.initSlotFrom( slot, numberRange.from() == null
+                                            ? Values.doubleValue( Double.NEGATIVE_INFINITY )
+                                            : Values.numberValue( numberRange.from() ) );
+            treeKeyTo.initSlotFrom( slot, numberRange.to() == null
+                                          ? Values.doubleValue( Double.POSITIVE_INFINITY )
+                                          : Values.numberValue( numberRange.to() ) );
+            break;
+        case rangeString:
+            StringRangePredicate stringRange = (StringRangePredicate) predicate;
+            treeKeyFrom.initSlotFromStringTruncated( slot, stringRange.from() == null ? "" : stringRange.from() );
+            treeKeyTo.initSlotAsStringHigh( slot, stringRange.to() == null ? "" : stringRange.to() );
+            break;
+        case stringPrefix:
+            String prefix = ((StringPrefixPredicate) predicate).prefix();
+            treeKeyFrom.initSlotFromStringTruncated( slot, prefix );
+            treeKeyTo.initSlotAsStringHigh( slot, prefix );
+            break;
+        default:
+            // Hits will be filtered by this predicate, the range can not be narrowed by it though
+            treeKeyFrom.initSlotAsLowest( slot );
+            treeKeyTo.initSlotAsHighest( slot );
+            break;
+        }
+    }
+
+    @Override
+    boolean acceptHit( KEY key, IndexQuery... predicates )
+    {
+        for ( int slot = 0; slot < predicates.length; slot++ )
+        {
+            if ( !predicates[slot].test( key.slotValue( slot ) ) )
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean allOfType( IndexQueryType type, IndexQuery... predicates )
+    {
+        for ( IndexQuery predicate : predicates )
+        {
+            if ( predicate.type() != type )
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean hasFullNumberPrecision()
+    {
+        return true;
+    }
+}
@@ -0,0 +1,221 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import org.neo4j.collection.primitive.PrimitiveLongIterator;
+import org.neo4j.cursor.RawCursor;
+import org.neo4j.index.internal.gbptree.GBPTree;
+import org.neo4j.index.internal.gbptree.Hit;
+import org.neo4j.index.internal.gbptree.Layout;
+import org.neo4j.io.IOUtils;
+import org.neo4j.kernel.api.exceptions.index.IndexNotApplicableKernelException;
+import org.neo4j.kernel.api.schema.IndexQuery;
+import org.neo4j.kernel.api.schema.IndexQuery.ExactPredicate;
+import org.neo4j.kernel.configuration.Config;
+import org.neo4j.kernel.impl.api.index.sampling.IndexSamplingConfig;
+import org.neo4j.storageengine.api.schema.IndexReader;
+import org.neo4j.storageengine.api.schema.IndexOrder;
+import org.neo4j.storageengine.api.schema.IndexSample;
+import org.neo4j.storageengine.api.schema.IndexSampler;
+import org.neo4j.storageengine.api.schema.NodeValueIterator;
+import org.neo4j.values.storable.Value;
+
+/**
+ * {@link IndexReader} of a native schema index, handling the queries which are common to all types of keys.
+ * Range queries are specific to the type of key and are initialized by subclasses.
+ *
+ * @param <KEY> type of {@link NativeSchemaKey}.
+ * @param <VALUE> type of {@link SchemaNumberValue}.
+ */
+abstract class NativeSchemaIndexReader<KEY extends NativeSchemaKey, VALUE extends SchemaNumberValue>
+        implements IndexReader
+{
+    private final GBPTree<KEY,VALUE> tree;
+    private final Layout<KEY,VALUE> layout;
+    private final IncrementalIndexSampler incrementalSampler;
+    private final KEY treeKeyFrom;
+    private final KEY treeKeyTo;
+    private Set<RawCursor<Hit<KEY,VALUE>,IOException>> openSeekers;
+
+    NativeSchemaIndexReader( GBPTree<KEY,VALUE> tree, Layout<KEY,VALUE> layout,
+            IncrementalIndexSampler incrementalSampler )
+    {
+        this.tree = tree;
+        this.layout = layout;
+        this.incrementalSampler = incrementalSampler;
+        this.treeKeyFrom = layout.newKey();
+        this.treeKeyTo = layout.newKey();
+        this.openSeekers = new HashSet<>();
+    }
+
+    @Override
+    public void close()
+    {
+        ensureOpenSeekersClosed();
+    }
+
+    @Override
+    public IndexSampler createSampler()
+    {
+        // For an unique index there's an optimization, knowing that all values in it are unique, to simply count
+        // the number of indexes values and create a sample for that count. The GBPTree doesn't have an O(1)
+        // count mechanism, it will have to manually count the indexed values in it to get it.
+        // For that reason this implementation opts for keeping complexity down by just using the existing
+        // non-unique sampler which scans the index and counts (potentially duplicates, of which there will
+        // be none in a unique index).
+        // The scan is only needed when the incremental sampler, kept up to date by the updater, has no sample
+        // to offer, i.e. before it has been seeded or after it has drifted too far from the index contents.
+
+        IndexSamplingConfig indexSamplingConfig = new IndexSamplingConfig( Config.defaults() );
+        FullScanNonUniqueIndexSampler<KEY,VALUE> sampler =
+                new FullScanNonUniqueIndexSampler<>( tree, layout, indexSamplingConfig, incrementalSampler );
+        return () ->
+        {
+            IndexSample sample = incrementalSampler.result();
+            return sample != null ? sample : sampler.result();
+        };
+    }
+
+    @Override
+    public long countIndexedNodes( long nodeId, Value... propertyValues )
+    {
+        treeKeyFrom.from( nodeId, propertyValues );
+        treeKeyTo.from( nodeId, propertyValues );
+        try ( RawCursor<Hit<KEY,VALUE>,IOException> seeker = tree.seek( treeKeyFrom, treeKeyTo ) )
+        {
+            long count = 0;
+            while ( seeker.next() )
+            {
+                if ( seeker.get().key().entityId == nodeId )
+                {
+                    count++;
+                }
+            }
+            return count;
+        }
+        catch ( IOException e )
+        {
+            throw new UncheckedIOException( e );
+        }
+    }
+
+    @Override
+    public PrimitiveLongIterator query( IndexQuery... predicates ) throws IndexNotApplicableKernelException
+    {
+        return query( IndexOrder.ASCENDING, predicates );
+    }
+
+    /**
+     * Hits are always returned in the order of the keys in the tree, so any supported query can be answered in order.
+     */
+    @Override
+    public boolean canQueryInOrder( IndexQuery... predicates )
+    {
+        return true;
+    }
+
+    @Override
+    public NodeValueIterator query( IndexOrder order, IndexQuery... predicates )
+            throws IndexNotApplicableKernelException
+    {
+        if ( predicates.length == 1 )
+        {
+            IndexQuery predicate = predicates[0];
+            switch ( predicate.type() )
+            {
+            case exists:
+                treeKeyFrom.initAsLowest();
+                treeKeyTo.initAsHighest();
+                return startSeekForInitializedRange( order, null );
+            case exact:
+                ExactPredicate exactPredicate = (ExactPredicate) predicate;
+                Value[] values = new Value[] {exactPredicate.value()};
+                treeKeyFrom.from( Long.MIN_VALUE, values );
+                treeKeyTo.from( Long.MAX_VALUE, values );
+                return startSeekForInitializedRange( order, null );
+            default:
+                break;
+            }
+        }
+
+        boolean needsFiltering = initializeRangeForQuery( treeKeyFrom, treeKeyTo, predicates );
+        return startSeekForInitializedRange( order, needsFiltering ? key -> acceptHit( key, predicates ) : null );
+    }
+
+    /**
+     * Initializes {@code treeKeyFrom} and {@code treeKeyTo} to the range of keys to seek for the given predicates.
+     *
+     * @param treeKeyFrom key to initialize as the (inclusive) start of the range.
+     * @param treeKeyTo key to initialize as the (exclusive) end of the range.
+     * @param predicates the query predicates, which are not a single exists or exact predicate.
+     * @return {@code true} if the initialized range may contain keys not matching the predicates, in which case
+     * hits will be filtered using {@link #acceptHit(NativeSchemaKey, IndexQuery...)}, otherwise {@code false}.
+     * @throws IllegalArgumentException if this type of index doesn't support the given predicates.
+     */
+    abstract boolean initializeRangeForQuery( KEY treeKeyFrom, KEY treeKeyTo, IndexQuery... predicates );
+
+    /**
+     * @param key key of a hit from a seek where the range was wider than the query.
+     * @param predicates the query predicates.
+     * @return whether or not the hit matches the query predicates.
+     */
+    boolean acceptHit( KEY key, IndexQuery... predicates )
+    {
+        return predicates[0].test( key.asValue() );
+    }
+
+    private NodeValueIterator startSeekForInitializedRange( IndexOrder order, Predicate<KEY> filter )
+    {
+        try
+        {
+            // Swapping the keys makes the tree seek backwards. Bounds of ranges are either exact seeks, which are
+            // symmetric, or keys with special tie breaker entity ids that never equals those of actual keys,
+            // which is why inclusiveness of the bounds doesn't change.
+            RawCursor<Hit<KEY,VALUE>,IOException> seeker = order == IndexOrder.DESCENDING
+                                                           ? tree.seek( treeKeyTo, treeKeyFrom )
+                                                           : tree.seek( treeKeyFrom, treeKeyTo );
+            openSeekers.add( seeker );
+            return new NumberHitIterator<>( seeker, openSeekers, filter );
+        }
+        catch ( IOException e )
+        {
+            throw new UncheckedIOException( e );
+        }
+    }
+
+    private void ensureOpenSeekersClosed()
+    {
+        try
+        {
+            IOUtils.closeAll( openSeekers );
+            openSeekers.clear();
+        }
+        catch ( IOException e )
+        {
+            throw new UncheckedIOException( e );
+        }
+    }
+}
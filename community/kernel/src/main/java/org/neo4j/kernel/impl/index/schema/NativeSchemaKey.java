@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import org.neo4j.index.internal.gbptree.GBPTree;
+import org.neo4j.values.storable.Value;
+import org.neo4j.values.storable.ValueWriter;
+
+/**
+ * Base class of keys in native schema indexes. Includes the indexed value, as defined by subclasses,
+ * and entity id (to be able to handle non-unique values). Subclasses typically extract the indexed value
+ * by having the {@link Value} write itself to the key.
+ */
+abstract class NativeSchemaKey extends ValueWriter.Adapter<RuntimeException>
+{
+    long entityId;
+
+    /**
+     * Marks that comparisons with this key requires also comparing entityId, this allows functionality
+     * of inclusive/exclusive bounds of range queries.
+     * This is because {@link GBPTree} only support from inclusive and to exclusive.
+     * <p>
+     * Note that {@code entityIdIsSpecialTieBreaker} is only an in memory state.
+     */
+    boolean entityIdIsSpecialTieBreaker;
+
+    /**
+     * Initializes this key from the given entity id and property values.
+     *
+     * @throws IllegalArgumentException if the values cannot be represented by this type of key.
+     */
+    abstract void from( long entityId, Value... values );
+
+    /**
+     * Initializes this key to be lower than, or equal to, any key in the index.
+     */
+    abstract void initAsLowest();
+
+    /**
+     * Initializes this key to be higher than, or equal to, any key in the index.
+     */
+    abstract void initAsHighest();
+
+    /**
+     * @return the indexed value of this key.
+     */
+    abstract Value asValue();
+
+    /**
+     * @return the indexed values of this key, one per property of the index.
+     */
+    Value[] asValues()
+    {
+        return new Value[] {asValue()};
+    }
+
+    String propertiesAsString()
+    {
+        return asValue().toString();
+    }
+}
@@ -33,7 +33,7 @@ import org.neo4j.io.pagecache.PageCursor;
 import static org.neo4j.index.internal.gbptree.GBPTree.NO_HEADER_READER;
 import static org.neo4j.index.internal.gbptree.GBPTree.NO_MONITOR;
 
-class NativeSchemaNumberIndex<KEY extends SchemaNumberKey, VALUE extends SchemaNumberValue>
+class NativeSchemaNumberIndex<KEY extends NativeSchemaKey, VALUE extends SchemaNumberValue>
 {
     final PageCache pageCache;
     final File storeFile;
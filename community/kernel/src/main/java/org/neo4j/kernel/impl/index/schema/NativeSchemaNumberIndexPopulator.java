@@ -42,10 +42,10 @@ import static org.neo4j.index.internal.gbptree.GBPTree.NO_HEADER_WRITER;
 /**
  * {@link IndexPopulator} backed by a {@link GBPTree}.
  *
- * @param <KEY> type of {@link SchemaNumberKey}.
+ * @param <KEY> type of {@link NativeSchemaKey}.
  * @param <VALUE> type of {@link SchemaNumberValue}.
  */
-public abstract class NativeSchemaNumberIndexPopulator<KEY extends SchemaNumberKey, VALUE extends SchemaNumberValue>
+public abstract class NativeSchemaNumberIndexPopulator<KEY extends NativeSchemaKey, VALUE extends SchemaNumberValue>
         extends NativeSchemaNumberIndex<KEY,VALUE> implements IndexPopulator
 {
     static final byte BYTE_FAILED = 0;
@@ -28,22 +28,32 @@ import org.neo4j.kernel.api.index.IndexEntryUpdate;
 import org.neo4j.kernel.api.index.IndexUpdater;
 import org.neo4j.values.storable.ValueTuple;
 
-class NativeSchemaNumberIndexUpdater<KEY extends SchemaNumberKey, VALUE extends SchemaNumberValue>
+class NativeSchemaNumberIndexUpdater<KEY extends NativeSchemaKey, VALUE extends SchemaNumberValue>
         implements IndexUpdater
 {
     private final KEY treeKey;
     private final VALUE treeValue;
     private final ConflictDetectingValueMerger<KEY,VALUE> conflictDetectingValueMerger;
+    private final IncrementalIndexSampler incrementalSampler;
     private Writer<KEY,VALUE> writer;
 
     private boolean closed = true;
     private boolean manageClosingOfWriter;
 
     NativeSchemaNumberIndexUpdater( KEY treeKey, VALUE treeValue )
+    {
+        this( treeKey, treeValue, null );
+    }
+
+    /**
+     * @param incrementalSampler sampler to keep up to date with the processed updates, or {@code null} for none.
+     */
+    NativeSchemaNumberIndexUpdater( KEY treeKey, VALUE treeValue, IncrementalIndexSampler incrementalSampler )
     {
         this.treeKey = treeKey;
         this.treeValue = treeValue;
         this.conflictDetectingValueMerger = new ConflictDetectingValueMerger<>();
+        this.incrementalSampler = incrementalSampler;
     }
 
     NativeSchemaNumberIndexUpdater<KEY,VALUE> initialize( Writer<KEY,VALUE> writer, boolean manageClosingOfWriter )
@@ -77,6 +87,29 @@ class NativeSchemaNumberIndexUpdater<KEY extends SchemaNumberKey, VALUE extends
         default:
             throw new IllegalArgumentException();
         }
+        if ( incrementalSampler != null )
+        {
+            sample( update );
+        }
+    }
+
+    private void sample( IndexEntryUpdate<?> update )
+    {
+        switch ( update.updateMode() )
+        {
+        case ADDED:
+            incrementalSampler.include( update.values() );
+            break;
+        case CHANGED:
+            incrementalSampler.exclude();
+            incrementalSampler.include( update.values() );
+            break;
+        case REMOVED:
+            incrementalSampler.exclude();
+            break;
+        default:
+            throw new IllegalArgumentException();
+        }
     }
 
     @Override
@@ -103,7 +136,7 @@ class NativeSchemaNumberIndexUpdater<KEY extends SchemaNumberKey, VALUE extends
         }
     }
 
-    private static <KEY extends SchemaNumberKey, VALUE extends SchemaNumberValue> void processRemove( KEY treeKey,
+    private static <KEY extends NativeSchemaKey, VALUE extends SchemaNumberValue> void processRemove( KEY treeKey,
             IndexEntryUpdate<?> update, Writer<KEY,VALUE> writer ) throws IOException
     {
         // todo Do we need to verify that we actually removed something at all?
@@ -112,7 +145,7 @@ class NativeSchemaNumberIndexUpdater<KEY extends SchemaNumberKey, VALUE extends
         writer.remove( treeKey );
     }
 
-    private static <KEY extends SchemaNumberKey, VALUE extends SchemaNumberValue> void processChange( KEY treeKey, VALUE treeValue,
+    private static <KEY extends NativeSchemaKey, VALUE extends SchemaNumberValue> void processChange( KEY treeKey, VALUE treeValue,
             IndexEntryUpdate<?> update, Writer<KEY,VALUE> writer,
             ConflictDetectingValueMerger<KEY,VALUE> conflictDetectingValueMerger )
             throws IOException, IndexEntryConflictException
@@ -127,7 +160,7 @@ class NativeSchemaNumberIndexUpdater<KEY extends SchemaNumberKey, VALUE extends
         assertNoConflict( update, conflictDetectingValueMerger );
     }
 
-    static <KEY extends SchemaNumberKey, VALUE extends SchemaNumberValue> void processAdd( KEY treeKey, VALUE treeValue,
+    static <KEY extends NativeSchemaKey, VALUE extends SchemaNumberValue> void processAdd( KEY treeKey, VALUE treeValue,
             IndexEntryUpdate<?> update, Writer<KEY,VALUE> writer,
             ConflictDetectingValueMerger<KEY,VALUE> conflictDetectingValueMerger )
             throws IOException, IndexEntryConflictException
@@ -138,7 +171,7 @@ class NativeSchemaNumberIndexUpdater<KEY extends SchemaNumberKey, VALUE extends
         assertNoConflict( update, conflictDetectingValueMerger );
     }
 
-    private static <KEY extends SchemaNumberKey, VALUE extends SchemaNumberValue> void assertNoConflict( IndexEntryUpdate<?> update,
+    private static <KEY extends NativeSchemaKey, VALUE extends SchemaNumberValue> void assertNoConflict( IndexEntryUpdate<?> update,
             ConflictDetectingValueMerger<KEY,VALUE> conflictDetectingValueMerger ) throws IndexEntryConflictException
     {
         if ( conflictDetectingValueMerger.wasConflict() )
@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.neo4j.index.internal.gbptree.GBPTree;
+import org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.kernel.api.index.IndexAccessor;
+import org.neo4j.kernel.api.index.IndexPopulator;
+import org.neo4j.kernel.api.schema.index.IndexDescriptor;
+import org.neo4j.kernel.impl.api.index.sampling.IndexSamplingConfig;
+import org.neo4j.logging.LogProvider;
+
+/**
+ * Schema index provider for native indexes of strings backed by e.g. {@link GBPTree}, supporting exact, prefix and
+ * range seeks. Only strings which fit in a {@link StringSchemaKey} can be indexed, see {@link NativeStringSelector}
+ * for how it's combined with other index providers.
+ */
+public class NativeSchemaStringIndexProvider extends NativeSchemaIndexProvider
+{
+    public static final String KEY = "native-string";
+    private static final Descriptor NATIVE_STRING_PROVIDER_DESCRIPTOR = new Descriptor( KEY, "1.0" );
+
+    NativeSchemaStringIndexProvider( PageCache pageCache, File nativeSchemaIndexBaseDir, LogProvider logging,
+            RecoveryCleanupWorkCollector recoveryCleanupWorkCollector, boolean readOnly )
+    {
+        super( NATIVE_STRING_PROVIDER_DESCRIPTOR, pageCache, nativeSchemaIndexBaseDir, logging,
+                recoveryCleanupWorkCollector, readOnly );
+    }
+
+    @Override
+    IndexPopulator newPopulator( File storeFile, IndexDescriptor descriptor, IndexSamplingConfig samplingConfig )
+    {
+        switch ( descriptor.type() )
+        {
+        case GENERAL:
+            return new NativeNonUniqueSchemaNumberIndexPopulator<>( pageCache, storeFile, new NonUniqueStringLayout(),
+                    samplingConfig );
+        case UNIQUE:
+            return new NativeUniqueSchemaNumberIndexPopulator<>( pageCache, storeFile, new UniqueStringLayout() );
+        default:
+            throw new UnsupportedOperationException( "Can not create index populator of type " + descriptor.type() );
+        }
+    }
+
+    @Override
+    IndexAccessor newAccessor( File storeFile, IndexDescriptor descriptor ) throws IOException
+    {
+        StringLayout layout;
+        switch ( descriptor.type() )
+        {
+        case GENERAL:
+            layout = new NonUniqueStringLayout();
+            break;
+        case UNIQUE:
+            layout = new UniqueStringLayout();
+            break;
+        default:
+            throw new UnsupportedOperationException( "Can not create index accessor of type " + descriptor.type() );
+        }
+        return new NativeSchemaStringIndexAccessor<>( pageCache, storeFile, layout, recoveryCleanupWorkCollector );
+    }
+
+    @Override
+    boolean compatibleLayout( long layoutIdentifier, int majorVersion, int minorVersion )
+    {
+        return (layoutIdentifier == UniqueStringLayout.IDENTIFIER &&
+                majorVersion == UniqueStringLayout.MAJOR_VERSION &&
+                minorVersion == UniqueStringLayout.MINOR_VERSION) ||
+                (layoutIdentifier == NonUniqueStringLayout.IDENTIFIER &&
+                        majorVersion == NonUniqueStringLayout.MAJOR_VERSION &&
+                        minorVersion == NonUniqueStringLayout.MINOR_VERSION);
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import org.neo4j.index.internal.gbptree.GBPTree;
+import org.neo4j.index.internal.gbptree.Layout;
+import org.neo4j.kernel.api.schema.IndexQuery;
+import org.neo4j.kernel.api.schema.IndexQuery.StringPrefixPredicate;
+import org.neo4j.kernel.api.schema.IndexQuery.StringRangePredicate;
+
+/**
+ * Reader of native string indexes, additionally supporting prefix and range seeks, as well as suffix and contains
+ * queries, which are answered by filtering a scan of the whole index.
+ * <p>
+ * Bounds of string prefix and range seeks may be longer than what fits in a {@link StringSchemaKey}, or have unpaired
+ * surrogates which cannot be encoded, so those seeks are made inclusive of (truncated) bounds and hits are then
+ * filtered by the predicate.
+ */
+class NativeSchemaStringIndexReader<KEY extends StringSchemaKey, VALUE extends SchemaNumberValue>
+        extends NativeSchemaIndexReader<KEY,VALUE>
+{
+    NativeSchemaStringIndexReader( GBPTree<KEY,VALUE> tree, Layout<KEY,VALUE> layout,
+            IncrementalIndexSampler incrementalSampler )
+    {
+        super( tree, layout, incrementalSampler );
+    }
+
+    @Override
+    boolean initializeRangeForQuery( KEY treeKeyFrom, KEY treeKeyTo, IndexQuery... predicates )
+    {
+        if ( predicates.length != 1 )
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        IndexQuery predicate = predicates[0];
+        switch ( predicate.type() )
+        {
+        case stringPrefix:
+            String prefix = ((StringPrefixPredicate) predicate).prefix();
+            treeKeyFrom.initFromStringTruncated( Long.MIN_VALUE, prefix );
+            treeKeyTo.initAsPrefixHigh( prefix );
+            // Only if the prefix could not be encoded in full will the seek find strings not starting with it
+            return !StringSchemaKey.fitsInBytes( prefix, StringSchemaKey.MAX_STRING_BYTES );
+        case rangeString:
+            StringRangePredicate rangePredicate = (StringRangePredicate) predicate;
+            if ( rangePredicate.from() == null )
+            {
+                treeKeyFrom.initAsLowest();
+            }
+            else
+            {
+                treeKeyFrom.initFromStringTruncated( Long.MIN_VALUE, rangePredicate.from() );
+            }
+            if ( rangePredicate.to() == null )
+            {
+                treeKeyTo.initAsHighest();
+            }
+            else if ( StringSchemaKey.fitsInBytes( rangePredicate.to(), StringSchemaKey.MAX_STRING_BYTES ) )
+            {
+                treeKeyTo.initFromStringTruncated( Long.MAX_VALUE, rangePredicate.to() );
+            }
+            else
+            {
+                // Indexed strings lower than the bound may be higher than the part of it that can be encoded
+                treeKeyTo.initAsPrefixHigh( rangePredicate.to() );
+            }
+            return true;
+        case stringSuffix:
+        case stringContains:
+            // No order to take advantage of, so scan all strings in the index and filter them by the predicate
+            treeKeyFrom.initAsLowest();
+            treeKeyTo.initAsHighest();
+            return true;
+        default:
+            throw new IllegalArgumentException( "IndexQuery of type " + predicate.type() + " is not supported." );
+        }
+    }
+
+    @Override
+    public boolean hasFullNumberPrecision()
+    {
+        // There are no numbers in this index
+        return false;
+    }
+}
@@ -19,7 +19,12 @@
  */
 package org.neo4j.kernel.impl.index.schema;
 
+import org.neo4j.kernel.api.schema.IndexQuery;
+import org.neo4j.kernel.api.schema.IndexQuery.ExactPredicate;
+import org.neo4j.kernel.api.schema.IndexQuery.ExistsPredicate;
+import org.neo4j.kernel.api.schema.IndexQuery.NumberRangePredicate;
 import org.neo4j.kernel.impl.index.schema.fusion.FusionSchemaIndexProvider;
+import org.neo4j.storageengine.api.schema.IndexReader;
 import org.neo4j.values.storable.Value;
 import org.neo4j.values.storable.ValueGroup;
 
@@ -42,4 +47,32 @@ public class NativeSelector implements FusionSchemaIndexProvider.Selector
         }
         return luceneInstance;
     }
+
+    @Override
+    public IndexReader selectReader( IndexReader nativeReader, IndexReader luceneReader, IndexQuery... predicates )
+    {
+        if ( predicates.length > 1 )
+        {
+            return luceneReader;
+        }
+
+        if ( predicates[0] instanceof ExactPredicate )
+        {
+            ExactPredicate exactPredicate = (ExactPredicate) predicates[0];
+            return select( nativeReader, luceneReader, exactPredicate.value() );
+        }
+
+        if ( predicates[0] instanceof NumberRangePredicate )
+        {
+            return nativeReader;
+        }
+
+        // todo: There will be no ordering of the node ids here. Is this a problem?
+        if ( predicates[0] instanceof ExistsPredicate )
+        {
+            return null;
+        }
+
+        return luceneReader;
+    }
 }
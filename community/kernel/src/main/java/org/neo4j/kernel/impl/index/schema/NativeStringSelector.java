@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import org.neo4j.kernel.api.schema.IndexQuery;
+import org.neo4j.kernel.api.schema.IndexQuery.ExactPredicate;
+import org.neo4j.kernel.impl.index.schema.fusion.FusionSchemaIndexProvider;
+import org.neo4j.storageengine.api.schema.IndexReader;
+import org.neo4j.values.storable.Value;
+
+/**
+ * Selects the native string index for strings which fit in a {@link StringSchemaKey}, and the fallback for
+ * everything else. It's meant to be used in a {@link FusionSchemaIndexProvider} which has the
+ * {@link NativeSchemaStringIndexProvider} as native provider and, as fallback, a {@link FusionSchemaIndexProvider}
+ * of the {@link NativeSchemaNumberIndexProvider} and the lucene provider using the {@link NativeSelector}.
+ * This way lucene will only hold strings too long for the native string index, and values of other types.
+ * <p>
+ * Since long strings are in the fallback, all queries for strings other than exact ones will have to query both
+ * indexes.
+ */
+public class NativeStringSelector implements FusionSchemaIndexProvider.Selector
+{
+    @Override
+    public <T> T select( T nativeInstance, T fallbackInstance, Value... values )
+    {
+        if ( values.length > 1 )
+        {
+            // Multiple values must be handled by the fallback
+            return fallbackInstance;
+        }
+
+        if ( StringSchemaKey.canHold( values[0] ) )
+        {
+            // It's a string that fits, the native can handle this
+            return nativeInstance;
+        }
+        return fallbackInstance;
+    }
+
+    @Override
+    public IndexReader selectReader( IndexReader nativeReader, IndexReader fallbackReader, IndexQuery... predicates )
+    {
+        if ( predicates.length > 1 )
+        {
+            return fallbackReader;
+        }
+
+        IndexQuery predicate = predicates[0];
+        switch ( predicate.type() )
+        {
+        case exact:
+            return select( nativeReader, fallbackReader, ((ExactPredicate) predicate).value() );
+        case exists:
+        case stringPrefix:
+        case stringSuffix:
+        case stringContains:
+        case rangeString:
+            return null;
+        default:
+            return fallbackReader;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import org.neo4j.index.internal.gbptree.Layout;
+
+/**
+ * {@link Layout} for tuples of numbers and strings where tuples don't need to be unique.
+ */
+class NonUniqueCompositeLayout extends CompositeLayout
+{
+    private static final String IDENTIFIER_NAME = "NCMP";
+    static final int MAJOR_VERSION = 0;
+    static final int MINOR_VERSION = 1;
+
+    private final long identifier;
+
+    NonUniqueCompositeLayout( int slots )
+    {
+        super( slots );
+        this.identifier = identifier( slots );
+    }
+
+    static long identifier( int slots )
+    {
+        return identifier( IDENTIFIER_NAME, slots );
+    }
+
+    @Override
+    public long identifier()
+    {
+        return identifier;
+    }
+
+    @Override
+    public int majorVersion()
+    {
+        return MAJOR_VERSION;
+    }
+
+    @Override
+    public int minorVersion()
+    {
+        return MINOR_VERSION;
+    }
+
+    @Override
+    public int compare( CompositeSchemaKey o1, CompositeSchemaKey o2 )
+    {
+        int comparison = o1.compareValueTo( o2 );
+        return comparison != 0 ? comparison : Long.compare( o1.entityId, o2.entityId );
+    }
+}
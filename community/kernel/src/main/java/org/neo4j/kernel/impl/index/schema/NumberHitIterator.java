@@ -22,32 +22,49 @@ package org.neo4j.kernel.impl.index.schema;
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.util.Collection;
+import java.util.function.Predicate;
 
 import org.neo4j.collection.primitive.PrimitiveLongCollections;
 import org.neo4j.collection.primitive.PrimitiveLongIterator;
 import org.neo4j.cursor.RawCursor;
 import org.neo4j.index.internal.gbptree.Hit;
+import org.neo4j.storageengine.api.schema.NodeValueIterator;
+import org.neo4j.values.storable.Value;
 
 /**
- * Wraps number key/value results in a {@link PrimitiveLongIterator}.
+ * Wraps key/value results of native schema indexes in a {@link PrimitiveLongIterator}.
  * The {@link RawCursor seeker} which gets passed in will have to be closed somewhere else because
  * the {@link PrimitiveLongIterator} is just a plain iterator, no resource.
+ * <p>
+ * Optionally a filter can be given, for seeks where the range of keys is wider than the query,
+ * in which case hits whose keys aren't accepted by the filter are skipped.
+ * <p>
+ * Hits are returned in the order of the seek, and the indexed values of the most recent hit are available
+ * from {@link #values()}.
  *
- * @param <KEY> type of {@link SchemaNumberKey}.
+ * @param <KEY> type of {@link NativeSchemaKey}.
  * @param <VALUE> type of {@link SchemaNumberValue}.
  */
-public class NumberHitIterator<KEY extends SchemaNumberKey, VALUE extends SchemaNumberValue>
-        extends PrimitiveLongCollections.PrimitiveLongBaseIterator
+public class NumberHitIterator<KEY extends NativeSchemaKey, VALUE extends SchemaNumberValue>
+        extends PrimitiveLongCollections.PrimitiveLongBaseIterator implements NodeValueIterator
 {
     private final RawCursor<Hit<KEY,VALUE>,IOException> seeker;
     private final Collection<RawCursor<Hit<KEY,VALUE>,IOException>> toRemoveFromWhenExhausted;
+    private final Predicate<KEY> filter;
     private boolean closed;
 
     NumberHitIterator( RawCursor<Hit<KEY,VALUE>,IOException> seeker,
             Collection<RawCursor<Hit<KEY,VALUE>,IOException>> toRemoveFromWhenExhausted )
+    {
+        this( seeker, toRemoveFromWhenExhausted, null );
+    }
+
+    NumberHitIterator( RawCursor<Hit<KEY,VALUE>,IOException> seeker,
+            Collection<RawCursor<Hit<KEY,VALUE>,IOException>> toRemoveFromWhenExhausted, Predicate<KEY> filter )
     {
         this.seeker = seeker;
         this.toRemoveFromWhenExhausted = toRemoveFromWhenExhausted;
+        this.filter = filter;
     }
 
     @Override
@@ -55,15 +72,16 @@ public class NumberHitIterator<KEY extends SchemaNumberKey, VALUE extends Schema
     {
         try
         {
-            if ( !closed && seeker.next() )
-            {
-                return next( seeker.get().key().entityId );
-            }
-            else
+            while ( !closed && seeker.next() )
             {
-                ensureCursorClosed();
-                return false;
+                KEY key = seeker.get().key();
+                if ( filter == null || filter.test( key ) )
+                {
+                    return next( key.entityId );
+                }
             }
+            ensureCursorClosed();
+            return false;
         }
         catch ( IOException e )
         {
@@ -71,6 +89,12 @@ public class NumberHitIterator<KEY extends SchemaNumberKey, VALUE extends Schema
         }
     }
 
+    @Override
+    public Value[] values()
+    {
+        return seeker.get().key().asValues();
+    }
+
     private void ensureCursorClosed() throws IOException
     {
         if ( !closed )
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import org.neo4j.index.internal.gbptree.Layout;
+import org.neo4j.io.pagecache.PageCursor;
+
+/**
+ * {@link Layout} for strings, see {@link StringSchemaKey}.
+ */
+abstract class StringLayout extends Layout.Adapter<StringSchemaKey,SchemaNumberValue>
+{
+    @Override
+    public StringSchemaKey newKey()
+    {
+        return new StringSchemaKey();
+    }
+
+    @Override
+    public StringSchemaKey copyKey( StringSchemaKey key, StringSchemaKey into )
+    {
+        System.arraycopy( key.bytes, 0, into.bytes, 0, key.bytesLength );
+        into.bytesLength = key.bytesLength;
+        into.entityId = key.entityId;
+        into.entityIdIsSpecialTieBreaker = key.entityIdIsSpecialTieBreaker;
+        return into;
+    }
+
+    @Override
+    public SchemaNumberValue newValue()
+    {
+        // Same empty value as used for numbers, there's no need for a value in string indexes either
+        return SchemaNumberValue.INSTANCE;
+    }
+
+    @Override
+    public int keySize()
+    {
+        return StringSchemaKey.SIZE;
+    }
+
+    @Override
+    public int valueSize()
+    {
+        return SchemaNumberValue.SIZE;
+    }
+
+    @Override
+    public void writeKey( PageCursor cursor, StringSchemaKey key )
+    {
+        cursor.putShort( (short) key.bytesLength );
+        cursor.putBytes( key.bytes, 0, key.bytesLength );
+        for ( int i = key.bytesLength; i < StringSchemaKey.MAX_STRING_BYTES; i++ )
+        {
+            cursor.putByte( (byte) 0 );
+        }
+        cursor.putLong( key.entityId );
+    }
+
+    @Override
+    public void writeValue( PageCursor cursor, SchemaNumberValue value )
+    {
+    }
+
+    @Override
+    public void readKey( PageCursor cursor, StringSchemaKey into )
+    {
+        // Reads may be inconsistent, in which case they will be retried, so only make sure the length is sane
+        int length = cursor.getShort();
+        into.bytesLength = Math.max( 0, Math.min( length, StringSchemaKey.MAX_STRING_BYTES ) );
+        cursor.getBytes( into.bytes, 0, StringSchemaKey.MAX_STRING_BYTES );
+        into.entityId = cursor.getLong();
+    }
+
+    @Override
+    public void readValue( PageCursor cursor, SchemaNumberValue into )
+    {
+    }
+}
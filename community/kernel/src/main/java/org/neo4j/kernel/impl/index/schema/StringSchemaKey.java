@@ -0,0 +1,273 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import java.util.Arrays;
+
+import org.neo4j.values.storable.StringValue;
+import org.neo4j.values.storable.TextValue;
+import org.neo4j.values.storable.Value;
+import org.neo4j.values.storable.Values;
+
+import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Includes value and entity id (to be able to handle non-unique values).
+ * A value is a string, stored as its UTF-8 encoded bytes. Keys in a {@link org.neo4j.index.internal.gbptree.GBPTree}
+ * are of fixed size and so only strings which are at most {@link #MAX_STRING_BYTES} bytes long, when encoded,
+ * can be represented by this key. Longer strings are expected to be indexed elsewhere.
+ * Strings with unpaired surrogates have no UTF-8 encoding and are expected to be indexed elsewhere as well.
+ * <p>
+ * Strings are ordered like {@link String#compareTo(String)} orders them, comparing their encoded bytes using
+ * {@link StringValue#compareUTF8(byte[], int, byte[], int)}.
+ */
+class StringSchemaKey extends NativeSchemaKey
+{
+    static final int MAX_STRING_BYTES = 118;
+
+    static final int SIZE =
+            Short.BYTES +      /* length of value in bytes */
+            MAX_STRING_BYTES + /* encoded value, padded */
+            Long.BYTES;        /* entityId */
+
+    /**
+     * Filled with this byte, which never occurs in UTF-8 encoded strings, a key compares higher than any indexed key
+     * with the same prefix.
+     */
+    private static final byte HIGHEST_BYTE = (byte) 0xFF;
+
+    final byte[] bytes = new byte[MAX_STRING_BYTES];
+    int bytesLength;
+
+    @Override
+    void from( long entityId, Value... values )
+    {
+        assertValidSingleString( values ).writeTo( this );
+        this.entityId = entityId;
+        entityIdIsSpecialTieBreaker = false;
+    }
+
+    private static Value assertValidSingleString( Value... values )
+    {
+        if ( values.length > 1 )
+        {
+            throw new IllegalArgumentException( "Tried to create composite key with non-composite schema key layout" );
+        }
+        if ( values.length < 1 )
+        {
+            throw new IllegalArgumentException( "Tried to create key without value" );
+        }
+        if ( !canHold( values[0] ) )
+        {
+            throw new IllegalArgumentException(
+                    "Key layout does only support strings of at most " + MAX_STRING_BYTES +
+                    " bytes, tried to create key from " + values[0] );
+        }
+        return values[0];
+    }
+
+    /**
+     * @param value the value to check.
+     * @return whether or not the given value is a string which can be represented by this key.
+     */
+    static boolean canHold( Value value )
+    {
+        return Values.isTextValue( value ) && fitsInBytes( ((TextValue) value).stringValue(), MAX_STRING_BYTES );
+    }
+
+    /**
+     * Initializes this key to the longest prefix of the given string which can be encoded, see
+     * {@link #encodePrefix(String, byte[], int)}. A truncated string compares less than, or equal to, any indexed
+     * string which has the full string as prefix, which makes truncated keys usable as lower bounds of range seeks
+     * where hits are filtered afterwards.
+     */
+    void initFromStringTruncated( long entityId, String string )
+    {
+        bytesLength = encodePrefix( string, bytes, MAX_STRING_BYTES );
+        this.entityId = entityId;
+        entityIdIsSpecialTieBreaker = true;
+    }
+
+    /**
+     * Initializes this key to compare higher than any indexed string starting with the given prefix,
+     * but lower than any other higher indexed string. If the prefix cannot be encoded in full, see
+     * {@link #encodePrefix(String, byte[], int)}, this key compares higher than any indexed string starting with
+     * the part that could, and hits are expected to be filtered afterwards.
+     */
+    void initAsPrefixHigh( String prefix )
+    {
+        int length = encodePrefix( prefix, bytes, MAX_STRING_BYTES );
+        Arrays.fill( bytes, length, MAX_STRING_BYTES, HIGHEST_BYTE );
+        bytesLength = MAX_STRING_BYTES;
+        entityId = Long.MAX_VALUE;
+        entityIdIsSpecialTieBreaker = true;
+    }
+
+    @Override
+    void initAsLowest()
+    {
+        bytesLength = 0;
+        entityId = Long.MIN_VALUE;
+        entityIdIsSpecialTieBreaker = true;
+    }
+
+    @Override
+    void initAsHighest()
+    {
+        Arrays.fill( bytes, HIGHEST_BYTE );
+        bytesLength = MAX_STRING_BYTES;
+        entityId = Long.MAX_VALUE;
+        entityIdIsSpecialTieBreaker = true;
+    }
+
+    @Override
+    TextValue asValue()
+    {
+        return Values.stringValue( new String( bytes, 0, bytesLength, UTF_8 ) );
+    }
+
+    /**
+     * Compares the value of this key to that of another key.
+     * This method is expected to be called in scenarios where inconsistent reads may happen (and later retried).
+     *
+     * @param other the {@link StringSchemaKey} to compare to.
+     * @return comparison against the {@code other} {@link StringSchemaKey}.
+     */
+    int compareValueTo( StringSchemaKey other )
+    {
+        return StringValue.compareUTF8( bytes, bytesLength, other.bytes, other.bytesLength );
+    }
+
+    @Override
+    public void writeString( String value )
+    {
+        bytesLength = encodePrefix( value, bytes, MAX_STRING_BYTES );
+    }
+
+    @Override
+    public void writeString( char value )
+    {
+        writeString( String.valueOf( value ) );
+    }
+
+    @Override
+    public String toString()
+    {
+        return format( "value=%s,entityId=%d", new String( bytes, 0, bytesLength, UTF_8 ), entityId );
+    }
+
+    /**
+     * @param string the string to check.
+     * @param maxBytes the maximum number of bytes the string may be encoded in.
+     * @return whether or not the given string can be UTF-8 encoded, i.e. has no unpaired surrogates, in at most
+     * {@code maxBytes} bytes.
+     */
+    static boolean fitsInBytes( String string, int maxBytes )
+    {
+        int length = 0;
+        for ( int i = 0; i < string.length(); i += charCount( string, i ) )
+        {
+            int charLength = utf8Length( string, i );
+            length += charLength;
+            if ( charLength == 0 || length > maxBytes )
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * UTF-8 encodes the longest prefix of the given string which ends before any unpaired surrogate and which fits
+     * in {@code maxBytes} bytes. Characters are never split, so the bytes are always a valid encoding and the
+     * whole string is encoded if it {@link #fitsInBytes(String, int) fits}.
+     *
+     * @return the number of bytes written to {@code target}.
+     */
+    static int encodePrefix( String string, byte[] target, int maxBytes )
+    {
+        int length = 0;
+        for ( int i = 0; i < string.length(); i += charCount( string, i ) )
+        {
+            int charLength = utf8Length( string, i );
+            if ( charLength == 0 || length + charLength > maxBytes )
+            {
+                break;
+            }
+            int codePoint = string.codePointAt( i );
+            switch ( charLength )
+            {
+            case 1:
+                target[length] = (byte) codePoint;
+                break;
+            case 2:
+                target[length] = (byte) (0xC0 | (codePoint >> 6));
+                target[length + 1] = (byte) (0x80 | (codePoint & 0x3F));
+                break;
+            case 3:
+                target[length] = (byte) (0xE0 | (codePoint >> 12));
+                target[length + 1] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                target[length + 2] = (byte) (0x80 | (codePoint & 0x3F));
+                break;
+            default:
+                target[length] = (byte) (0xF0 | (codePoint >> 18));
+                target[length + 1] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                target[length + 2] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                target[length + 3] = (byte) (0x80 | (codePoint & 0x3F));
+                break;
+            }
+            length += charLength;
+        }
+        return length;
+    }
+
+    /**
+     * @return number of bytes the UTF-8 encoding of the character at the given index takes,
+     * or {@code 0} if it is an unpaired surrogate, which has no encoding.
+     */
+    private static int utf8Length( String string, int index )
+    {
+        char c = string.charAt( index );
+        if ( c < 0x80 )
+        {
+            return 1;
+        }
+        if ( c < 0x800 )
+        {
+            return 2;
+        }
+        if ( !Character.isSurrogate( c ) )
+        {
+            return 3;
+        }
+        if ( Character.isHighSurrogate( c ) && index + 1 < string.length() &&
+                Character.isLowSurrogate( string.charAt( index + 1 ) ) )
+        {
+            return 4;
+        }
+        return 0;
+    }
+
+    private static int charCount( String string, int index )
+    {
+        return Character.charCount( string.codePointAt( index ) );
+    }
+}
@@ -19,16 +19,16 @@
  */
 package org.neo4j.kernel.impl.index.schema.fusion;
 
-import org.neo4j.collection.primitive.PrimitiveLongCollections;
+import java.util.Arrays;
+
 import org.neo4j.collection.primitive.PrimitiveLongIterator;
 import org.neo4j.kernel.api.exceptions.index.IndexNotApplicableKernelException;
 import org.neo4j.kernel.api.schema.IndexQuery;
-import org.neo4j.kernel.api.schema.IndexQuery.ExactPredicate;
-import org.neo4j.kernel.api.schema.IndexQuery.ExistsPredicate;
-import org.neo4j.kernel.api.schema.IndexQuery.NumberRangePredicate;
 import org.neo4j.kernel.impl.index.schema.fusion.FusionSchemaIndexProvider.Selector;
+import org.neo4j.storageengine.api.schema.IndexOrder;
 import org.neo4j.storageengine.api.schema.IndexReader;
 import org.neo4j.storageengine.api.schema.IndexSampler;
+import org.neo4j.storageengine.api.schema.NodeValueIterator;
 import org.neo4j.values.storable.Value;
 
 class FusionIndexReader implements IndexReader
@@ -72,31 +72,28 @@ class FusionIndexReader implements IndexReader
     @Override
     public PrimitiveLongIterator query( IndexQuery... predicates ) throws IndexNotApplicableKernelException
     {
-        if ( predicates.length > 1 )
-        {
-            return luceneReader.query( predicates );
-        }
-
-        if ( predicates[0] instanceof ExactPredicate )
-        {
-            ExactPredicate exactPredicate = (ExactPredicate) predicates[0];
-            return selector.select( nativeReader, luceneReader, exactPredicate.value() ).query( predicates );
-        }
+        return selector.select( nativeReader, luceneReader, predicates );
+    }
 
-        if ( predicates[0] instanceof NumberRangePredicate )
-        {
-            return nativeReader.query( predicates[0] );
-        }
+    @Override
+    public boolean canQueryInOrder( IndexQuery... predicates )
+    {
+        IndexReader reader = selector.selectReader( nativeReader, luceneReader, predicates );
+        return reader != null && reader.canQueryInOrder( predicates );
+    }
 
-        // todo: There will be no ordering of the node ids here. Is this a problem?
-        if ( predicates[0] instanceof ExistsPredicate )
+    @Override
+    public NodeValueIterator query( IndexOrder order, IndexQuery... predicates )
+            throws IndexNotApplicableKernelException
+    {
+        IndexReader reader = selector.selectReader( nativeReader, luceneReader, predicates );
+        if ( reader == null )
         {
-            PrimitiveLongIterator nativeResult = nativeReader.query( predicates[0] );
-            PrimitiveLongIterator luceneResult = luceneReader.query( predicates[0] );
-            return PrimitiveLongCollections.concat( nativeResult, luceneResult );
+            // Hits from both indexes can not be merged into one order
+            throw new UnsupportedOperationException( getClass().getSimpleName() + " can not query " +
+                    Arrays.toString( predicates ) + " in " + order + " order" );
         }
-
-        return luceneReader.query( predicates );
+        return reader.query( order, predicates );
     }
 
     @Override
@@ -21,15 +21,20 @@ package org.neo4j.kernel.impl.index.schema.fusion;
 
 import java.io.IOException;
 
+import org.neo4j.collection.primitive.PrimitiveLongCollections;
+import org.neo4j.collection.primitive.PrimitiveLongIterator;
 import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.io.pagecache.PageCache;
 import org.neo4j.kernel.api.index.IndexAccessor;
 import org.neo4j.kernel.api.index.IndexPopulator;
 import org.neo4j.kernel.api.index.InternalIndexState;
+import org.neo4j.kernel.api.exceptions.index.IndexNotApplicableKernelException;
 import org.neo4j.kernel.api.index.SchemaIndexProvider;
+import org.neo4j.kernel.api.schema.IndexQuery;
 import org.neo4j.kernel.api.schema.index.IndexDescriptor;
 import org.neo4j.kernel.impl.api.index.sampling.IndexSamplingConfig;
 import org.neo4j.kernel.impl.storemigration.StoreMigrationParticipant;
+import org.neo4j.storageengine.api.schema.IndexReader;
 import org.neo4j.storageengine.api.schema.IndexSample;
 import org.neo4j.values.storable.Value;
 import static java.lang.String.format;
@@ -44,6 +49,27 @@ public class FusionSchemaIndexProvider extends SchemaIndexProvider
     public interface Selector
     {
         <T> T select( T nativeInstance, T luceneInstance, Value... values );
+
+        /**
+         * @return the one reader whose index holds all entries matching the given predicates, or {@code null}
+         * if entries matching them may be in both indexes.
+         */
+        IndexReader selectReader( IndexReader nativeReader, IndexReader luceneReader, IndexQuery... predicates );
+
+        /**
+         * Queries the index, or indexes, which may hold entries matching the given predicates and combines
+         * the results if more than one index had to be queried.
+         */
+        default PrimitiveLongIterator select( IndexReader nativeReader, IndexReader luceneReader,
+                IndexQuery... predicates ) throws IndexNotApplicableKernelException
+        {
+            IndexReader reader = selectReader( nativeReader, luceneReader, predicates );
+            if ( reader != null )
+            {
+                return reader.query( predicates );
+            }
+            return PrimitiveLongCollections.concat( nativeReader.query( predicates ), luceneReader.query( predicates ) );
+        }
     }
 
     private final SchemaIndexProvider nativeProvider;
@@ -60,6 +60,7 @@ import org.neo4j.kernel.impl.api.index.IndexingServiceFactory;
 import org.neo4j.kernel.impl.api.index.IndexingUpdateService;
 import org.neo4j.kernel.impl.api.index.PropertyPhysicalToLogicalConverter;
 import org.neo4j.kernel.impl.api.scan.FullLabelStream;
+import org.neo4j.kernel.impl.api.scan.FullRelationshipTypeStream;
 import org.neo4j.kernel.impl.api.store.SchemaCache;
 import org.neo4j.kernel.impl.api.store.StorageLayer;
 import org.neo4j.kernel.impl.api.store.StoreStatement;
@@ -72,6 +73,7 @@ import org.neo4j.kernel.impl.core.RelationshipTypeTokenHolder;
 import org.neo4j.kernel.impl.factory.OperationalMode;
 import org.neo4j.kernel.impl.index.IndexConfigStore;
 import org.neo4j.kernel.impl.index.labelscan.NativeLabelScanStore;
+import org.neo4j.kernel.impl.index.labelscan.NativeRelationshipTypeScanStore;
 import org.neo4j.kernel.impl.locking.LockGroup;
 import org.neo4j.kernel.impl.locking.LockService;
 import org.neo4j.kernel.impl.storageengine.impl.recordstorage.id.IdController;
@@ -89,6 +91,7 @@ import org.neo4j.kernel.impl.transaction.command.IndexBatchTransactionApplier;
 import org.neo4j.kernel.impl.transaction.command.IndexUpdatesWork;
 import org.neo4j.kernel.impl.transaction.command.LabelUpdateWork;
 import org.neo4j.kernel.impl.transaction.command.NeoStoreBatchTransactionApplier;
+import org.neo4j.kernel.impl.transaction.command.RelationshipTypeScanBatchTransactionApplier;
 import org.neo4j.kernel.impl.transaction.state.DefaultSchemaIndexProviderMap;
 import org.neo4j.kernel.impl.transaction.state.IntegrityValidator;
 import org.neo4j.kernel.impl.transaction.state.Loaders;
@@ -144,6 +147,7 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
     private final IntegrityValidator integrityValidator;
     private final CacheAccessBackDoor cacheAccess;
     private final LabelScanStore labelScanStore;
+    private final NativeRelationshipTypeScanStore relationshipTypeScanStore;
     private final DefaultSchemaIndexProviderMap schemaIndexProviderMap;
     private final LegacyIndexApplierLookup legacyIndexApplierLookup;
     private final SchemaState schemaState;
@@ -152,6 +156,7 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
     private final IdOrderingQueue legacyIndexTransactionOrdering;
     private final LockService lockService;
     private final WorkSync<Supplier<LabelScanWriter>,LabelUpdateWork> labelScanStoreSync;
+    private final WorkSync<Supplier<LabelScanWriter>,LabelUpdateWork> relationshipTypeScanStoreSync;
     private final CommandReaderFactory commandReaderFactory;
     private final WorkSync<IndexingUpdateService,IndexUpdatesWork> indexUpdatesSync;
     private final IndexStoreView indexStoreView;
@@ -214,10 +219,14 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
             schemaCache = new SchemaCache( constraintSemantics, Collections.emptyList() );
             schemaStorage = new SchemaStorage( neoStores.getSchemaStore() );
 
-            NeoStoreIndexStoreView neoStoreIndexStoreView = new NeoStoreIndexStoreView( lockService, neoStores );
+            NeoStoreIndexStoreView neoStoreIndexStoreView =
+                    new NeoStoreIndexStoreView( lockService, neoStores, scheduler );
             Boolean readOnly = config.get( GraphDatabaseSettings.read_only ) && operationalMode == OperationalMode.single;
             labelScanStore = new NativeLabelScanStore( pageCache, storeDir, new FullLabelStream( neoStoreIndexStoreView ),
                     readOnly, monitors, recoveryCleanupWorkCollector );
+            relationshipTypeScanStore = new NativeRelationshipTypeScanStore( pageCache, storeDir,
+                    new FullRelationshipTypeStream( neoStores.getRelationshipStore() ), readOnly, monitors,
+                    recoveryCleanupWorkCollector );
 
             indexStoreView = new DynamicIndexStoreView( neoStoreIndexStoreView, labelScanStore, lockService, neoStores, logProvider );
             schemaIndexProviderMap = new DefaultSchemaIndexProviderMap( indexProvider );
@@ -239,6 +248,7 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
             legacyIndexApplierLookup = new LegacyIndexApplierLookup.Direct( legacyIndexProviderLookup );
 
             labelScanStoreSync = new WorkSync<>( labelScanStore::newWriter );
+            relationshipTypeScanStoreSync = new WorkSync<>( relationshipTypeScanStore::newWriter );
 
             commandReaderFactory = new RecordStorageCommandReaderFactory();
             indexUpdatesSync = new WorkSync<>( indexingService );
@@ -266,7 +276,8 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
         Supplier<IndexReaderFactory> indexReaderFactory = () -> new IndexReaderFactory.Caching( indexingService );
         LockService lockService = takePropertyReadLocks ? this.lockService : NO_LOCK_SERVICE;
 
-        return () -> new StoreStatement( neoStores, indexReaderFactory, labelScanStore::newReader, lockService );
+        return () -> new StoreStatement( neoStores, indexReaderFactory, labelScanStore::newReader,
+                relationshipTypeScanStore::newReader, lockService );
     }
 
     @Override
@@ -376,6 +387,9 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
                 neoStores.getNodeStore(),
                 indexUpdatesConverter, mode ) );
 
+        // Relationship type scan store application
+        appliers.add( new RelationshipTypeScanBatchTransactionApplier( relationshipTypeScanStoreSync ) );
+
         // Legacy index application
         appliers.add(
                 new LegacyBatchIndexApplier( indexConfigStore, legacyIndexApplierLookup, legacyIndexTransactionOrdering,
@@ -393,6 +407,7 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
         satisfier.satisfyDependency( schemaIndexProviderMap );
         satisfier.satisfyDependency( integrityValidator );
         satisfier.satisfyDependency( labelScanStore );
+        satisfier.satisfyDependency( relationshipTypeScanStore );
         satisfier.satisfyDependency( indexingService );
         // providing TransactionIdStore, LogVersionRepository
         satisfier.satisfyDependency( neoStores.getMetaDataStore() );
@@ -404,6 +419,7 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
     {
         indexingService.init();
         labelScanStore.init();
+        relationshipTypeScanStore.init();
     }
 
     @Override
@@ -422,6 +438,7 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
         loadSchemaCache();
         indexingService.start();
         labelScanStore.start();
+        relationshipTypeScanStore.start();
         idController.start();
     }
 
@@ -442,6 +459,7 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
     public void stop() throws Throwable
     {
         labelScanStore.stop();
+        relationshipTypeScanStore.stop();
         indexingService.stop();
         idController.stop();
     }
@@ -450,6 +468,7 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
     public void shutdown() throws Throwable
     {
         labelScanStore.shutdown();
+        relationshipTypeScanStore.shutdown();
         indexingService.shutdown();
         neoStores.close();
     }
@@ -459,6 +478,7 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
     {
         indexingService.forceAll();
         labelScanStore.force( limiter );
+        relationshipTypeScanStore.force( limiter );
         for ( IndexImplementation index : legacyIndexProviderLookup.all() )
         {
             index.force();
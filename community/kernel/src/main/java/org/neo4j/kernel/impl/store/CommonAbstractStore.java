@@ -1122,6 +1122,50 @@ public abstract class CommonAbstractStore<RECORD extends AbstractBaseRecord,HEAD
         }
     }
 
+    @Override
+    public boolean readPage( long pageId, RecordPageBatch<RECORD> batch )
+    {
+        int recordsPerPage = getRecordsPerPage();
+        long firstId = pageId * recordsPerPage;
+        int reserved = (int) Math.max( 0, Math.min( recordsPerPage, getNumberOfReservedLowIds() - firstId ) );
+        RECORD record = batch.record();
+        try ( PageCursor cursor = storeFile.io( pageId, PF_SHARED_READ_LOCK ) )
+        {
+            if ( !cursor.next() )
+            {
+                batch.reset( firstId, 0 );
+                return false;
+            }
+
+            do
+            {
+                batch.reset( firstId, recordsPerPage );
+                for ( int i = 0; i < recordsPerPage; i++ )
+                {
+                    record.setId( firstId + i );
+                    if ( i < reserved )
+                    {
+                        // Reserved records, like store headers, are never in use from the outside point of view
+                        record.clear();
+                    }
+                    else
+                    {
+                        prepareForReading( cursor, i * recordSize, record );
+                        recordFormat.read( record, cursor, CHECK, recordSize );
+                    }
+                    batch.put( i, record );
+                }
+            }
+            while ( cursor.shouldRetry() );
+            checkForDecodingErrors( cursor, firstId, CHECK );
+            return true;
+        }
+        catch ( IOException e )
+        {
+            throw new UnderlyingStorageException( e );
+        }
+    }
+
     @Override
     public Collection<RECORD> getRecords( long firstId, RecordLoad mode )
     {
@@ -26,6 +26,8 @@ import org.neo4j.kernel.impl.store.record.PropertyBlock;
 import org.neo4j.kernel.impl.util.Bits;
 import org.neo4j.string.UTF8;
 import org.neo4j.unsafe.impl.internal.dragons.UnsafeUtil;
+import org.neo4j.values.storable.TextValue;
+import org.neo4j.values.storable.Values;
 
 /**
  * Supports encoding alphanumerical and <code>SP . - + , ' : / _</code>
@@ -902,6 +904,30 @@ public enum LongerShortString
         return decode( block.getValueBlocks(), 0, block.getValueBlocks().length );
     }
 
+    /**
+     * Decode a short string represented as a long[] into a value. Strings that are stored UTF-8 encoded are kept
+     * in that form, see {@link Values#utf8Value(byte[])}.
+     *
+     * @param block the value to decode to a short string.
+     * @return the decoded short string value
+     */
+    public static TextValue decodeValue( PropertyBlock block )
+    {
+        return decodeValue( block.getValueBlocks(), 0, block.getValueBlocks().length );
+    }
+
+    public static TextValue decodeValue( long[] blocks, int offset, int length )
+    {
+        long firstLong = blocks[offset];
+        int encoding = (int) ((firstLong & 0x1F0000000L) >>> 28);
+        if ( (firstLong & 0xFFFFFF0FFFFFFFFFL) != 0 && encoding == LongerShortString.ENCODING_UTF8 )
+        {
+            int stringLength = (int) ((firstLong & 0x7E00000000L) >>> 33);
+            return Values.utf8Value( decodeUTF8Bytes( blocks, offset, stringLength ) );
+        }
+        return Values.stringValue( decode( blocks, offset, length ) );
+    }
+
     public static String decode( long[] blocks, int offset, int length )
     {
         long firstLong = blocks[offset];
@@ -1075,6 +1101,11 @@ public enum LongerShortString
     }
 
     private static String decodeUTF8( long[] blocks, int offset, int stringLength )
+    {
+        return UTF8.decode( decodeUTF8Bytes( blocks, offset, stringLength ) );
+    }
+
+    private static byte[] decodeUTF8Bytes( long[] blocks, int offset, int stringLength )
     {
         byte[] result = new byte[stringLength];
         int block = offset;
@@ -1090,7 +1121,7 @@ public enum LongerShortString
             }
             result[i] = codePoint;
         }
-        return UTF8.decode( result );
+        return result;
     }
 
     public static int calculateNumberOfBlocksUsed( long firstBlock )
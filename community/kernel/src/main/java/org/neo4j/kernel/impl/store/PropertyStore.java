@@ -348,6 +348,16 @@ public class PropertyStore extends CommonAbstractStore<PropertyRecord,NoStoreHea
         return decodeString( source.other() );
     }
 
+    /**
+     * @return the string stored in the given block in its UTF-8 encoded form, as stored.
+     */
+    public byte[] getUTF8For( PropertyBlock propertyBlock )
+    {
+        ensureHeavy( propertyBlock );
+        // A string doesn't have a header in the data array
+        return stringStore.readFullByteArray( propertyBlock.getValueRecords(), PropertyType.STRING ).other();
+    }
+
     public Object getArrayFor( PropertyBlock propertyBlock )
     {
         ensureHeavy( propertyBlock );
@@ -126,7 +126,7 @@ public enum PropertyType
         @Override
         public Value value( PropertyBlock block, PropertyStore store )
         {
-            return Values.stringValue( store.getStringFor( block ) );
+            return Values.utf8Value( store.getUTF8For( block ) );
         }
 
         @Override
@@ -168,7 +168,7 @@ public enum PropertyType
         @Override
         public Value value( PropertyBlock block, PropertyStore store )
         {
-            return Values.stringValue( LongerShortString.decode( block ) );
+            return LongerShortString.decodeValue( block );
         }
 
         @Override
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.store;
+
+import org.neo4j.kernel.impl.store.record.AbstractBaseRecord;
+
+/**
+ * Column oriented view of all records in one page of a {@link RecordStore}, filled in by
+ * {@link RecordStore#readPage(long, RecordPageBatch)}.
+ * <p>
+ * Reading a whole page at a time means that the page is pinned and checked for concurrent modification once,
+ * instead of once per record. This base class only keeps the in-use column, sub classes can keep additional
+ * columns of the fields they need by overriding {@link #put(int, AbstractBaseRecord)}.
+ * <p>
+ * Instances are reusable and not thread safe.
+ *
+ * @param <RECORD> type of records in the store the batch is read from.
+ */
+public class RecordPageBatch<RECORD extends AbstractBaseRecord>
+{
+    private final RECORD record;
+    protected final boolean[] inUse;
+    private long firstId = -1;
+    private int size;
+
+    public RecordPageBatch( RecordStore<RECORD> store )
+    {
+        this.record = store.newRecord();
+        this.inUse = new boolean[store.getRecordsPerPage()];
+    }
+
+    /**
+     * @return the id of the first record in this batch.
+     */
+    public long firstId()
+    {
+        return firstId;
+    }
+
+    /**
+     * @return number of records in this batch, which is zero if the page didn't exist.
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * @param id record id.
+     * @return whether or not the record with the given id is part of this batch.
+     */
+    public boolean contains( long id )
+    {
+        return id >= firstId && id < firstId + size;
+    }
+
+    /**
+     * @param index index of the record in this batch, i.e. its id minus {@link #firstId()}.
+     * @return whether or not the record at the given index was in use when the page was read.
+     */
+    public boolean inUse( int index )
+    {
+        return inUse[index];
+    }
+
+    /**
+     * @return a reusable record for the store to decode records into, before they are {@link #put(int,
+     * AbstractBaseRecord) put} into the columns of this batch.
+     */
+    RECORD record()
+    {
+        return record;
+    }
+
+    /**
+     * Called by the store before decoding the records of a page, which may happen several times for the same page
+     * should the read need to be retried.
+     */
+    void reset( long firstId, int size )
+    {
+        this.firstId = firstId;
+        this.size = size;
+    }
+
+    /**
+     * Stores the fields of a decoded record in the columns of this batch. Only the in-use flag is guaranteed
+     * to be loaded for records that aren't in use.
+     *
+     * @param index index of the record in this batch.
+     * @param record the decoded record.
+     */
+    protected void put( int index, RECORD record )
+    {
+        inUse[index] = record.inUse();
+    }
+}
@@ -239,6 +239,19 @@ public interface RecordStore<RECORD extends AbstractBaseRecord> extends IdSequen
      */
     <EXCEPTION extends Exception> void scanAllRecords( Visitor<RECORD,EXCEPTION> visitor ) throws EXCEPTION;
 
+    /**
+     * Decodes all records of the page with the given id into the columns of the given {@link RecordPageBatch}.
+     * The page is pinned once and checked for concurrent modification once for all its records, which makes this
+     * considerably cheaper than reading the records one by one when scanning the store.
+     * Records are read in {@link RecordLoad#CHECK} mode.
+     *
+     * @param pageId id of the page to read, where page {@code n} holds records with ids starting from
+     * {@code n * getRecordsPerPage()}.
+     * @param batch {@link RecordPageBatch} to decode records into.
+     * @return {@code true} if the page exists, otherwise {@code false}, in which case the batch will be empty.
+     */
+    boolean readPage( long pageId, RecordPageBatch<RECORD> batch );
+
     Predicate<AbstractBaseRecord> IN_USE = AbstractBaseRecord::inUse;
 
     class Delegator<R extends AbstractBaseRecord> implements RecordStore<R>
@@ -387,6 +400,12 @@ public interface RecordStore<RECORD extends AbstractBaseRecord> extends IdSequen
         {
             actual.scanAllRecords( visitor );
         }
+
+        @Override
+        public boolean readPage( long pageId, RecordPageBatch<R> batch )
+        {
+            return actual.readPage( pageId, batch );
+        }
     }
 
     @SuppressWarnings( "unchecked" )
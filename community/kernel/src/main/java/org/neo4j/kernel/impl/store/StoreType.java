@@ -25,6 +25,7 @@ import java.util.Optional;
 import org.neo4j.graphdb.factory.GraphDatabaseSettings;
 import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.kernel.impl.index.labelscan.NativeLabelScanStore;
+import org.neo4j.kernel.impl.index.labelscan.NativeRelationshipTypeScanStore;
 import org.neo4j.kernel.impl.store.counts.CountsTracker;
 import org.neo4j.kernel.impl.store.id.IdType;
 
@@ -256,7 +257,8 @@ public enum StoreType
      */
     public static boolean shouldBeManagedByPageCache( String storeFileName )
     {
-        boolean isLabelScanStore = NativeLabelScanStore.FILE_NAME.equals( storeFileName );
+        boolean isLabelScanStore = NativeLabelScanStore.FILE_NAME.equals( storeFileName ) ||
+                NativeRelationshipTypeScanStore.FILE_NAME.equals( storeFileName );
         return isLabelScanStore || StoreType.typeOf( storeFileName ).map( StoreType::isRecordStore ).orElse( false );
     }
 
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.command;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+
+import org.neo4j.concurrent.WorkSync;
+import org.neo4j.kernel.api.labelscan.LabelScanWriter;
+import org.neo4j.kernel.api.labelscan.NodeLabelUpdate;
+import org.neo4j.kernel.impl.api.BatchTransactionApplier;
+import org.neo4j.kernel.impl.api.TransactionApplier;
+import org.neo4j.kernel.impl.index.labelscan.NativeRelationshipTypeScanStore;
+import org.neo4j.kernel.impl.store.record.RelationshipRecord;
+import org.neo4j.storageengine.api.CommandsToApply;
+
+import static org.neo4j.collection.primitive.PrimitiveLongCollections.EMPTY_LONG_ARRAY;
+
+/**
+ * Gather created and deleted relationships, converting them into relationship type changes for the
+ * {@link NativeRelationshipTypeScanStore}. {@link #close()} will actually apply the changes.
+ * A relationship never changes type, so only created and deleted relationships are of interest.
+ */
+public class RelationshipTypeScanBatchTransactionApplier extends BatchTransactionApplier.Adapter
+{
+    private final WorkSync<Supplier<LabelScanWriter>,LabelUpdateWork> relationshipTypeScanStoreSync;
+    private final TransactionApplier transactionApplier = new SingleTransactionApplier();
+
+    private List<NodeLabelUpdate> typeUpdates;
+
+    public RelationshipTypeScanBatchTransactionApplier(
+            WorkSync<Supplier<LabelScanWriter>,LabelUpdateWork> relationshipTypeScanStoreSync )
+    {
+        this.relationshipTypeScanStoreSync = relationshipTypeScanStoreSync;
+    }
+
+    @Override
+    public TransactionApplier startTx( CommandsToApply transaction )
+    {
+        return transactionApplier;
+    }
+
+    @Override
+    public void close() throws Exception
+    {
+        if ( typeUpdates != null )
+        {
+            try
+            {
+                relationshipTypeScanStoreSync.apply( new LabelUpdateWork( typeUpdates ) );
+            }
+            catch ( ExecutionException e )
+            {
+                throw new IOException( "Failed to flush relationship type updates", e );
+            }
+            typeUpdates = null;
+        }
+    }
+
+    private class SingleTransactionApplier extends TransactionApplier.Adapter
+    {
+        @Override
+        public boolean visitRelationshipCommand( Command.RelationshipCommand command ) throws IOException
+        {
+            RelationshipRecord before = command.getBefore();
+            RelationshipRecord after = command.getAfter();
+            if ( before.inUse() != after.inUse() )
+            {
+                if ( typeUpdates == null )
+                {
+                    typeUpdates = new ArrayList<>();
+                }
+                long[] typesBefore = before.inUse() ? new long[]{before.getType()} : EMPTY_LONG_ARRAY;
+                long[] typesAfter = after.inUse() ? new long[]{after.getType()} : EMPTY_LONG_ARRAY;
+                typeUpdates.add( NodeLabelUpdate.labelChanges( command.getKey(), typesBefore, typesAfter ) );
+            }
+            return false;
+        }
+    }
+}
@@ -34,6 +34,7 @@ import org.neo4j.kernel.api.labelscan.LabelScanStore;
 import org.neo4j.kernel.impl.api.LegacyIndexProviderLookup;
 import org.neo4j.kernel.impl.api.index.IndexingService;
 import org.neo4j.kernel.impl.index.IndexConfigStore;
+import org.neo4j.kernel.impl.index.labelscan.NativeRelationshipTypeScanStore;
 import org.neo4j.kernel.impl.store.MetaDataStore;
 import org.neo4j.kernel.impl.store.StoreType;
 import org.neo4j.kernel.impl.store.format.RecordFormat;
@@ -107,7 +108,8 @@ public class NeoStoreFileListing
         }
         for ( File file : storeFiles )
         {
-            if ( file.getName().equals( IndexConfigStore.INDEX_DB_FILE_NAME ) )
+            if ( file.getName().equals( IndexConfigStore.INDEX_DB_FILE_NAME ) ||
+                    file.getName().equals( NativeRelationshipTypeScanStore.FILE_NAME ) )
             {
                 files.add( toNotAStoreTypeFile.apply( file ) );
             }
@@ -25,6 +25,7 @@ import java.util.function.IntPredicate;
 
 import org.neo4j.collection.primitive.PrimitiveIntSet;
 import org.neo4j.helpers.collection.Visitor;
+import org.neo4j.kernel.api.ReadOperations;
 import org.neo4j.kernel.api.exceptions.EntityNotFoundException;
 import org.neo4j.kernel.api.labelscan.LabelScanStore;
 import org.neo4j.kernel.api.labelscan.NodeLabelUpdate;
@@ -35,23 +36,34 @@ import org.neo4j.kernel.impl.locking.LockService;
 import org.neo4j.kernel.impl.store.NeoStores;
 import org.neo4j.kernel.impl.store.NodeStore;
 import org.neo4j.kernel.impl.store.PropertyStore;
+import org.neo4j.kernel.impl.store.counts.CountsTracker;
 import org.neo4j.logging.Log;
 import org.neo4j.logging.LogProvider;
 import org.neo4j.register.Register;
+import org.neo4j.register.Registers;
 import org.neo4j.unsafe.impl.internal.dragons.FeatureToggles;
 import org.neo4j.values.storable.Value;
 
 /**
  * Store view that will try to use label scan store {@link LabelScanStore} to produce the view unless label scan
- * store is empty or explicitly told to use store in which cases it will fallback to whole store scan.
+ * store is empty, the labels cover too large a part of all nodes, according to the counts store, or explicitly
+ * told to use store in which cases it will fallback to whole store scan.
  */
 public class DynamicIndexStoreView implements IndexStoreView
 {
     private static boolean USE_LABEL_INDEX_FOR_SCHEMA_INDEX_POPULATION = FeatureToggles.flag(
             DynamicIndexStoreView.class, "use.label.index", true );
+    /**
+     * Largest fraction of all nodes that the labels of a scan may cover for the label scan store to drive the scan.
+     * Nodes found through the label scan store are read in random order, while a store scan reads the node store
+     * sequentially, so for broad labels the latter is faster.
+     */
+    private static final double LABEL_INDEX_MAX_NODE_FRACTION = FeatureToggles.getDouble(
+            DynamicIndexStoreView.class, "label.index.max.node.fraction", 0.1 );
 
     private final NeoStoreIndexStoreView neoStoreIndexStoreView;
     private final LabelScanStore labelScanStore;
+    private final CountsTracker counts;
     protected final LockService locks;
     private final Log log;
     protected final NodeStore nodeStore;
@@ -65,6 +77,7 @@ public class DynamicIndexStoreView implements IndexStoreView
         this.neoStoreIndexStoreView = neoStoreIndexStoreView;
         this.locks = locks;
         this.labelScanStore = labelScanStore;
+        this.counts = neoStores.getCounts();
         this.log = logProvider.getLog( getClass() );
     }
 
@@ -117,7 +130,7 @@ public class DynamicIndexStoreView implements IndexStoreView
     {
         try
         {
-            return ArrayUtils.isEmpty( labelIds ) || isEmptyLabelScanStore();
+            return ArrayUtils.isEmpty( labelIds ) || isEmptyLabelScanStore() || !isSelective( labelIds );
         }
         catch ( Exception e )
         {
@@ -131,6 +144,22 @@ public class DynamicIndexStoreView implements IndexStoreView
         return labelScanStore.isEmpty();
     }
 
+    private boolean isSelective( int[] labelIds )
+    {
+        long labeledNodes = 0;
+        for ( int labelId : labelIds )
+        {
+            // nodes with several of the labels are counted more than once, which only errs towards a store scan
+            labeledNodes += nodeCount( labelId );
+        }
+        return labeledNodes <= nodeCount( ReadOperations.ANY_LABEL ) * LABEL_INDEX_MAX_NODE_FRACTION;
+    }
+
+    private long nodeCount( int labelId )
+    {
+        return counts.nodeCount( labelId, Registers.newDoubleLongRegister() ).readSecond();
+    }
+
     @Override
     public Value getPropertyValue( long nodeId, int propertyKeyId ) throws EntityNotFoundException
     {
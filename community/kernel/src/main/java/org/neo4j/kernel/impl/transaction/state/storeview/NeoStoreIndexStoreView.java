@@ -39,7 +39,9 @@ import org.neo4j.kernel.impl.store.record.PropertyBlock;
 import org.neo4j.kernel.impl.store.record.PropertyRecord;
 import org.neo4j.kernel.impl.store.record.Record;
 import org.neo4j.register.Register.DoubleLongRegister;
+import org.neo4j.scheduler.JobScheduler;
 import org.neo4j.storageengine.api.EntityType;
+import org.neo4j.unsafe.impl.internal.dragons.FeatureToggles;
 import org.neo4j.values.storable.Value;
 import org.neo4j.values.storable.Values;
 
@@ -51,14 +53,37 @@ import static org.neo4j.kernel.impl.store.record.RecordLoad.FORCE;
  */
 public class NeoStoreIndexStoreView implements IndexStoreView
 {
+    private static final int PARALLEL_SCAN_WORKERS = FeatureToggles.getInteger( NeoStoreIndexStoreView.class,
+            "parallel_scan_workers", Runtime.getRuntime().availableProcessors() );
+    private static final int PARALLEL_SCAN_MIN_PARTITION_SIZE = FeatureToggles.getInteger( NeoStoreIndexStoreView.class,
+            "parallel_scan_min_partition_size", 100_000 );
+    private static final int PARALLEL_SCAN_BATCH_SIZE = FeatureToggles.getInteger( NeoStoreIndexStoreView.class,
+            "parallel_scan_batch_size", 1_000 );
+    /**
+     * The store is split into more partitions than there are workers, so that a worker that is done with a sparse
+     * partition can pick up another one, instead of idling while the others scan dense ones.
+     */
+    private static final int PARALLEL_SCAN_PARTITIONS_PER_WORKER = 4;
+
     protected final PropertyStore propertyStore;
     protected final NodeStore nodeStore;
     protected final LockService locks;
     private final CountsTracker counts;
+    private final JobScheduler scheduler;
 
     public NeoStoreIndexStoreView( LockService locks, NeoStores neoStores )
+    {
+        this( locks, neoStores, null );
+    }
+
+    /**
+     * @param scheduler scheduler of the {@link JobScheduler.Groups#indexPopulation index population} jobs scanning
+     * the node store in parallel, or {@code null} to always scan the node store in a single thread.
+     */
+    public NeoStoreIndexStoreView( LockService locks, NeoStores neoStores, JobScheduler scheduler )
     {
         this.locks = locks;
+        this.scheduler = scheduler;
         this.propertyStore = neoStores.getPropertyStore();
         this.nodeStore = neoStores.getNodeStore();
         this.counts = neoStores.getCounts();
@@ -102,10 +127,27 @@ public class NeoStoreIndexStoreView implements IndexStoreView
             final Visitor<NodeLabelUpdate, FAILURE> labelUpdateVisitor,
             boolean forceStoreScan )
     {
+        if ( scheduler != null && propertyUpdatesVisitor != null && labelUpdateVisitor == null )
+        {
+            // label updates must arrive in node id order, property updates for index population need not
+            int partitions = numberOfScanPartitions();
+            if ( partitions > 1 && PARALLEL_SCAN_WORKERS > 1 )
+            {
+                return new ParallelNodeStoreScan<>( scheduler, nodeStore, locks, propertyStore, propertyUpdatesVisitor,
+                        labelIds, propertyKeyIdFilter, partitions, PARALLEL_SCAN_WORKERS, PARALLEL_SCAN_BATCH_SIZE );
+            }
+        }
         return new StoreViewNodeStoreScan<>( nodeStore, locks, propertyStore, labelUpdateVisitor,
                 propertyUpdatesVisitor, labelIds, propertyKeyIdFilter );
     }
 
+    private int numberOfScanPartitions()
+    {
+        long partitionsOfMinimumSize = nodeStore.getHighId() / Math.max( 1, PARALLEL_SCAN_MIN_PARTITION_SIZE );
+        return (int) Math.min( (long) PARALLEL_SCAN_WORKERS * PARALLEL_SCAN_PARTITIONS_PER_WORKER,
+                partitionsOfMinimumSize );
+    }
+
     @Override
     public NodeUpdates nodeAsUpdates( long nodeId )
     {
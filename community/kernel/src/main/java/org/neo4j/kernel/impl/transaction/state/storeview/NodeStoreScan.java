@@ -69,15 +69,31 @@ public abstract class NodeStoreScan<FAILURE extends Exception> implements StoreS
                 try ( Lock ignored = locks.acquireNodeLock( id, LockService.LockType.READ_LOCK ) )
                 {
                     count++;
+                    nodeLocked( id );
                     if ( nodeStore.getRecord( id, record, FORCE ).inUse() )
                     {
                         process( record );
                     }
                 }
+                nodeUnlocked( id );
             }
         }
     }
 
+    /**
+     * Called with the lock of the node with the given id held, before the node is read.
+     */
+    protected void nodeLocked( long id )
+    {
+    }
+
+    /**
+     * Called after the node with the given id has been processed, and its lock released.
+     */
+    protected void nodeUnlocked( long id ) throws FAILURE
+    {
+    }
+
     protected PrimitiveLongResourceIterator getNodeIdIterator()
     {
         return PrimitiveLongCollections.resourceIterator( new StoreIdIterator( nodeStore ), null );
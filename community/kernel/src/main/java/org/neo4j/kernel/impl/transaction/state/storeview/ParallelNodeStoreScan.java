@@ -0,0 +1,312 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.state.storeview;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntPredicate;
+
+import org.neo4j.collection.primitive.PrimitiveLongCollections;
+import org.neo4j.collection.primitive.PrimitiveLongIterator;
+import org.neo4j.collection.primitive.PrimitiveLongResourceIterator;
+import org.neo4j.helpers.collection.Visitor;
+import org.neo4j.kernel.api.index.IndexEntryUpdate;
+import org.neo4j.kernel.impl.api.index.MultipleIndexPopulator;
+import org.neo4j.kernel.impl.api.index.NodeUpdates;
+import org.neo4j.kernel.impl.api.index.StoreScan;
+import org.neo4j.kernel.impl.locking.LockService;
+import org.neo4j.kernel.impl.store.NodeStore;
+import org.neo4j.kernel.impl.store.PropertyStore;
+import org.neo4j.kernel.impl.store.StoreIdIterator;
+import org.neo4j.scheduler.JobScheduler;
+import org.neo4j.storageengine.api.schema.PopulationProgress;
+
+import static java.lang.Math.min;
+
+/**
+ * Node store scan that splits the node store into consecutive id ranges, one per partition, and scans the partitions
+ * concurrently. A fixed number of workers, each scheduled as an {@link JobScheduler.Groups#indexPopulation index
+ * population} job, take partitions one at a time until all have been scanned, so the number of threads scanning is
+ * bounded by the given parallelism however many partitions there are. A worker reads the nodes, labels and properties
+ * of its partition and collects the resulting {@link NodeUpdates} into a batch. Batches are handed over to the property
+ * updates visitor one at a time, so the visitor, and the populators behind it, never see concurrent calls. They are
+ * handed over between nodes, never while holding a node lock, so that transactions updating the node aren't blocked
+ * while waiting for other partitions to hand over their batches, or while the batch is being indexed.
+ * <p>
+ * Concurrent updates are reconciled per partition in {@link #acceptUpdate(MultipleIndexPopulator.MultipleIndexUpdater,
+ * IndexEntryUpdate, long)}: updates of nodes that have been handed over to the visitor are applied, updates of nodes
+ * that have not been read yet are dropped since the scan will see the updated node, and updates of nodes that have been
+ * read, but are still sitting in a batch, are {@link MultipleIndexPopulator.MultipleIndexUpdater#defer(IndexEntryUpdate)
+ * deferred} until a later round.
+ *
+ * @param <FAILURE> type of exception thrown on failure
+ */
+public class ParallelNodeStoreScan<FAILURE extends Exception> implements StoreScan<FAILURE>
+{
+    private final JobScheduler scheduler;
+    private final Visitor<NodeUpdates,FAILURE> propertyUpdatesVisitor;
+    private final int parallelism;
+    private final int batchSize;
+    private final long totalCount;
+    private final long partitionSize;
+    private final List<Partition> partitions;
+    private final AtomicInteger nextPartition = new AtomicInteger();
+    private final Object visitLock = new Object();
+    private volatile boolean stopped;
+
+    public ParallelNodeStoreScan( JobScheduler scheduler, NodeStore nodeStore, LockService locks,
+            PropertyStore propertyStore, Visitor<NodeUpdates,FAILURE> propertyUpdatesVisitor, int[] labelIds,
+            IntPredicate propertyKeyIdFilter, int numberOfPartitions, int parallelism, int batchSize )
+    {
+        this.scheduler = scheduler;
+        this.propertyUpdatesVisitor = propertyUpdatesVisitor;
+        this.parallelism = parallelism;
+        this.batchSize = batchSize;
+        this.totalCount = nodeStore.getHighId();
+        this.partitionSize = Math.max( 1, (totalCount + numberOfPartitions - 1) / numberOfPartitions );
+        this.partitions = new ArrayList<>( numberOfPartitions );
+        long lowId = nodeStore.getNumberOfReservedLowIds();
+        for ( int i = 0; i < numberOfPartitions; i++ )
+        {
+            long from = i == 0 ? lowId : i * partitionSize;
+            boolean last = i == numberOfPartitions - 1;
+            partitions.add( new Partition( new Batch(), nodeStore, locks, propertyStore, labelIds,
+                    propertyKeyIdFilter, from, last ? -1 : (i + 1) * partitionSize - 1 ) );
+        }
+    }
+
+    @Override
+    public void run() throws FAILURE
+    {
+        int workers = min( parallelism, partitions.size() );
+        List<JobScheduler.JobHandle> jobs = new ArrayList<>( workers );
+        for ( int i = 0; i < workers; i++ )
+        {
+            jobs.add( scheduler.schedule( JobScheduler.Groups.indexPopulation, this::runPartitions ) );
+        }
+        Throwable failure = null;
+        for ( JobScheduler.JobHandle job : jobs )
+        {
+            try
+            {
+                job.waitTermination();
+            }
+            catch ( ExecutionException e )
+            {
+                if ( failure == null )
+                {
+                    failure = e.getCause();
+                    stop();
+                }
+            }
+            catch ( InterruptedException e )
+            {
+                Thread.currentThread().interrupt();
+                stop();
+                throw new RuntimeException( "Interrupted while waiting for node store scan to complete", e );
+            }
+        }
+        if ( failure != null )
+        {
+            throw this.<RuntimeException>launder( failure );
+        }
+    }
+
+    private void runPartitions()
+    {
+        try
+        {
+            for ( int i = nextPartition.getAndIncrement(); i < partitions.size() && !stopped;
+                  i = nextPartition.getAndIncrement() )
+            {
+                partitions.get( i ).run();
+            }
+        }
+        catch ( Exception e )
+        {
+            throw this.<RuntimeException>launder( e );
+        }
+    }
+
+    /**
+     * Rethrows the failure of a partition as is, be it a {@code FAILURE} or an unchecked exception.
+     */
+    @SuppressWarnings( "unchecked" )
+    private <T extends Throwable> T launder( Throwable failure ) throws T
+    {
+        throw (T) failure;
+    }
+
+    @Override
+    public void stop()
+    {
+        stopped = true;
+        partitions.forEach( NodeStoreScan::stop );
+    }
+
+    @Override
+    public void acceptUpdate( MultipleIndexPopulator.MultipleIndexUpdater updater, IndexEntryUpdate update,
+            long currentlyIndexedNodeId )
+    {
+        long nodeId = update.getEntityId();
+        Partition partition = partitions.get( (int) min( nodeId / partitionSize, partitions.size() - 1 ) );
+        if ( nodeId <= partition.visited )
+        {
+            updater.process( update );
+        }
+        else if ( nodeId <= partition.reading )
+        {
+            updater.defer( update );
+        }
+        // else the partition is yet to read this node and will see it with this update applied
+    }
+
+    @Override
+    public PopulationProgress getProgress()
+    {
+        if ( totalCount > 0 )
+        {
+            long completed = 0;
+            for ( Partition partition : partitions )
+            {
+                completed += partition.getProgress().getCompleted();
+            }
+            return new PopulationProgress( min( completed, totalCount ), totalCount );
+        }
+
+        // nothing to do 100% completed
+        return PopulationProgress.DONE;
+    }
+
+    @Override
+    public void configure( Collection<MultipleIndexPopulator.IndexPopulation> populations )
+    {
+        populations.forEach( population -> population.populator.configureSampling( true ) );
+    }
+
+    /**
+     * Collects the updates of one partition until they are handed over to the real property updates visitor.
+     */
+    private class Batch implements Visitor<NodeUpdates,FAILURE>
+    {
+        private final List<NodeUpdates> updates = new ArrayList<>( batchSize );
+
+        @Override
+        public boolean visit( NodeUpdates element )
+        {
+            updates.add( element );
+            return false;
+        }
+    }
+
+    private class Partition extends StoreViewNodeStoreScan<FAILURE>
+    {
+        private final Batch batch;
+        private final long from;
+        private final long to;
+
+        /**
+         * Highest node id which this partition has started to read. Written while holding the lock of the node, so
+         * that nodes above it are guaranteed to be read after any update of them that has been committed so far.
+         */
+        private volatile long reading;
+        /**
+         * Highest node id up to which this partition has handed its updates over to the property updates visitor.
+         * Only written while holding the visit lock.
+         */
+        private volatile long visited;
+
+        Partition( Batch batch, NodeStore nodeStore, LockService locks, PropertyStore propertyStore, int[] labelIds,
+                IntPredicate propertyKeyIdFilter, long from, long to )
+        {
+            super( nodeStore, locks, propertyStore, null, batch, labelIds, propertyKeyIdFilter );
+            this.batch = batch;
+            this.from = from;
+            this.to = to;
+            this.reading = from - 1;
+            this.visited = from - 1;
+        }
+
+        @Override
+        public void run() throws FAILURE
+        {
+            super.run();
+            if ( !stopped )
+            {
+                flush( Long.MAX_VALUE );
+            }
+        }
+
+        @Override
+        protected void nodeLocked( long id )
+        {
+            reading = id;
+        }
+
+        @Override
+        protected void nodeUnlocked( long id ) throws FAILURE
+        {
+            if ( batch.updates.size() >= batchSize )
+            {
+                flush( id );
+            }
+        }
+
+        @Override
+        protected PrimitiveLongResourceIterator getNodeIdIterator()
+        {
+            // the last partition also picks up nodes created after the scan started, just like a single store scan
+            PrimitiveLongIterator ids = to == -1 ? new StoreIdIterator( nodeStore, true, from )
+                                                 : PrimitiveLongCollections.range( from, to );
+            return PrimitiveLongCollections.resourceIterator( new PrimitiveLongIterator()
+            {
+                @Override
+                public boolean hasNext()
+                {
+                    return !stopped && ids.hasNext();
+                }
+
+                @Override
+                public long next()
+                {
+                    return ids.next();
+                }
+            }, null );
+        }
+
+        private void flush( long visitedUpTo ) throws FAILURE
+        {
+            synchronized ( visitLock )
+            {
+                for ( NodeUpdates updates : batch.updates )
+                {
+                    // the visitor may pull in queued updates, which should include the node being visited
+                    visited = updates.getNodeId();
+                    propertyUpdatesVisitor.visit( updates );
+                }
+                visited = visitedUpTo;
+            }
+            batch.updates.clear();
+        }
+    }
+}
@@ -29,6 +29,7 @@ import org.neo4j.kernel.impl.locking.Lock;
 import org.neo4j.kernel.impl.store.RecordCursors;
 import org.neo4j.storageengine.api.schema.IndexReader;
 import org.neo4j.storageengine.api.schema.LabelScanReader;
+import org.neo4j.storageengine.api.schema.RelationshipTypeScanReader;
 
 /**
  * A statement for accessing data from a {@link StoreReadLayer}. Most data about the entities of a graph
@@ -123,6 +124,11 @@ public interface StorageStatement extends AutoCloseable
      */
     LabelScanReader getLabelScanReader();
 
+    /**
+     * @return {@link RelationshipTypeScanReader} capable of reading relationships for specific relationship type ids.
+     */
+    RelationshipTypeScanReader getRelationshipTypeScanReader();
+
     /**
      * Returns an {@link IndexReader} for searching entity ids given property values. One reader is allocated
      * and kept per index throughout the life of a statement, making the returned reader repeatable-read isolation.
@@ -130,6 +130,13 @@ public interface StoreReadLayer
 
     PrimitiveLongIterator nodesGetForLabel( StorageStatement statement, int labelId );
 
+    /**
+     * @param statement {@link StorageStatement} to use for reading.
+     * @param relationshipTypeId relationship type token id.
+     * @return ids of all stored relationships of the given type.
+     */
+    PrimitiveLongIterator relationshipsGetForType( StorageStatement statement, int relationshipTypeId );
+
     /**
      * Looks for a stored index by given {@code descriptor}
      *
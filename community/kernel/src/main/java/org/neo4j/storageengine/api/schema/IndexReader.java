@@ -59,6 +59,33 @@ public interface IndexReader extends Resource
      */
     boolean hasFullNumberPrecision();
 
+    /**
+     * @param predicates the predicates to query for.
+     * @return whether or not this reader can answer a query with the given predicates in order of the indexed values,
+     * using {@link #query(IndexOrder, IndexQuery...)}.
+     */
+    default boolean canQueryInOrder( IndexQuery... predicates )
+    {
+        return false;
+    }
+
+    /**
+     * Queries the index for the given {@link IndexQuery} predicates, returning the matching entity IDs in the given
+     * order along with their indexed values. Must only be called with {@link IndexOrder#ASCENDING} or
+     * {@link IndexOrder#DESCENDING} if {@link #canQueryInOrder(IndexQuery...)} returns {@code true} for the predicates.
+     *
+     * @param order the order to return the matching entity IDs in.
+     * @param predicates the predicates to query for.
+     * @return the matching entity IDs, with their indexed values.
+     * @throws UnsupportedOperationException if this reader can't answer the query in the given order, or
+     * doesn't expose indexed values.
+     */
+    default NodeValueIterator query( IndexOrder order, IndexQuery... predicates )
+            throws IndexNotApplicableKernelException
+    {
+        throw new UnsupportedOperationException( getClass().getSimpleName() + " can not query in " + order + " order" );
+    }
+
     IndexReader EMPTY = new IndexReader()
     {
         // Used for checking index correctness
@@ -0,0 +1,37 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.storageengine.api.schema;
+
+import org.neo4j.collection.primitive.PrimitiveLongIterator;
+import org.neo4j.values.storable.Value;
+
+/**
+ * Iterator over node ids of index hits, which also exposes the indexed values of the most recently returned hit.
+ */
+public interface NodeValueIterator extends PrimitiveLongIterator
+{
+    /**
+     * Returns the indexed values of the node most recently returned from {@link #next()}. Values are only
+     * guaranteed to be available until the next call to {@link #hasNext()}.
+     *
+     * @return the indexed values, one per property of the index, of the most recently returned node.
+     */
+    Value[] values();
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.api.index.sampling;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class HyperLogLogTest
+{
+    @Test
+    public void shouldEstimateNothing()
+    {
+        // given
+        HyperLogLog hyperLogLog = new HyperLogLog( 14 );
+
+        // when
+        // nothing has been added
+
+        // then
+        assertEquals( 0, hyperLogLog.estimate() );
+    }
+
+    @Test
+    public void shouldCountSmallCardinalitiesExactly()
+    {
+        // given
+        HyperLogLog hyperLogLog = new HyperLogLog( 14 );
+
+        // when
+        for ( int i = 0; i < 10; i++ )
+        {
+            hyperLogLog.add( HyperLogLog.hash( i ) );
+            hyperLogLog.add( HyperLogLog.hash( i ) );
+        }
+
+        // then
+        assertEquals( 10, hyperLogLog.estimate() );
+    }
+
+    @Test
+    public void shouldEstimateLargeCardinalitiesWithinErrorBounds()
+    {
+        // given
+        HyperLogLog hyperLogLog = new HyperLogLog( 14 );
+        int count = 1_000_000;
+
+        // when
+        for ( int i = 0; i < count; i++ )
+        {
+            hyperLogLog.add( HyperLogLog.hash( i ) );
+        }
+
+        // then standard error is ~0.8%, allow a few times that
+        long estimate = hyperLogLog.estimate();
+        assertTrue( "estimate " + estimate, Math.abs( estimate - count ) < count * 0.03 );
+    }
+
+    @Test
+    public void shouldMergeEstimators()
+    {
+        // given
+        HyperLogLog first = new HyperLogLog( 14 );
+        HyperLogLog second = new HyperLogLog( 14 );
+        for ( int i = 0; i < 100; i++ )
+        {
+            first.add( HyperLogLog.hash( i ) );
+            second.add( HyperLogLog.hash( i + 50 ) );
+        }
+
+        // when
+        first.addAll( second );
+
+        // then
+        assertEquals( 150, first.estimate(), 3 );
+    }
+
+    @Test
+    public void shouldForgetEverythingWhenCleared()
+    {
+        // given
+        HyperLogLog hyperLogLog = new HyperLogLog( 14 );
+        hyperLogLog.add( HyperLogLog.hash( 1 ) );
+
+        // when
+        hyperLogLog.clear();
+
+        // then
+        assertEquals( 0, hyperLogLog.estimate() );
+    }
+}
@@ -34,6 +34,8 @@ import org.neo4j.cursor.Cursor;
 import org.neo4j.graphdb.GraphDatabaseService;
 import org.neo4j.graphdb.Label;
 import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Relationship;
+import org.neo4j.graphdb.RelationshipType;
 import org.neo4j.graphdb.Transaction;
 import org.neo4j.graphdb.TransactionFailureException;
 import org.neo4j.graphdb.TransactionTerminatedException;
@@ -65,6 +67,7 @@ import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.junit.Assume.assumeThat;
 import static org.neo4j.graphdb.Label.label;
+import static org.neo4j.helpers.collection.Iterators.asSet;
 import static org.neo4j.kernel.api.schema.SchemaDescriptorFactory.forLabel;
 import static org.neo4j.kernel.api.security.SecurityContext.AUTH_DISABLED;
 
@@ -72,6 +75,9 @@ public class KernelIT extends KernelIntegrationTest
 {
     // TODO: Split this into area-specific tests, see PropertyIT.
 
+    private static final RelationshipType KNOWS = RelationshipType.withName( "KNOWS" );
+    private static final RelationshipType LIKES = RelationshipType.withName( "LIKES" );
+
     @Test
     public void mixingBeansApiWithKernelAPI() throws Exception
     {
@@ -468,6 +474,103 @@ public class KernelIT extends KernelIntegrationTest
         assertThat( nodeSet, equalTo( Collections.<Long>emptySet() ) );
     }
 
+    @Test
+    public void committedRelationshipsShouldBeFoundInRelationshipTypeScans() throws Exception
+    {
+        // GIVEN
+        Relationship knows;
+        Relationship likes;
+        try ( Transaction tx = db.beginTx() )
+        {
+            Node node = db.createNode();
+            knows = node.createRelationshipTo( db.createNode(), KNOWS );
+            likes = node.createRelationshipTo( db.createNode(), LIKES );
+            tx.success();
+        }
+
+        // WHEN
+        Set<Long> knowsSet;
+        Set<Long> likesSet;
+        try ( Transaction tx = db.beginTx() )
+        {
+            Statement statement = statementContextSupplier.get();
+            knowsSet = relationshipsOfType( statement, KNOWS );
+            likesSet = relationshipsOfType( statement, LIKES );
+            tx.success();
+        }
+
+        // THEN
+        assertEquals( Collections.singleton( knows.getId() ), knowsSet );
+        assertEquals( Collections.singleton( likes.getId() ), likesSet );
+    }
+
+    @Test
+    public void relationshipTypeScansShouldReflectChangesInTransaction() throws Exception
+    {
+        // GIVEN
+        Relationship deleted;
+        Relationship kept;
+        try ( Transaction tx = db.beginTx() )
+        {
+            Node node = db.createNode();
+            deleted = node.createRelationshipTo( db.createNode(), KNOWS );
+            kept = node.createRelationshipTo( db.createNode(), KNOWS );
+            tx.success();
+        }
+
+        // WHEN
+        Relationship created;
+        Set<Long> relationships;
+        try ( Transaction tx = db.beginTx() )
+        {
+            deleted.delete();
+            Node node = db.createNode();
+            created = node.createRelationshipTo( db.createNode(), KNOWS );
+            node.createRelationshipTo( db.createNode(), LIKES );
+            relationships = relationshipsOfType( statementContextSupplier.get(), KNOWS );
+            tx.success();
+        }
+
+        // THEN
+        assertEquals( asSet( kept.getId(), created.getId() ), relationships );
+    }
+
+    @Test
+    public void deletingRelationshipShouldHaveRemovalReflectedInRelationshipTypeScans() throws Exception
+    {
+        // GIVEN
+        Relationship relationship;
+        try ( Transaction tx = db.beginTx() )
+        {
+            relationship = db.createNode().createRelationshipTo( db.createNode(), KNOWS );
+            tx.success();
+        }
+
+        // AND GIVEN I DELETE IT
+        try ( Transaction tx = db.beginTx() )
+        {
+            relationship.delete();
+            tx.success();
+        }
+
+        // WHEN
+        Set<Long> relationships;
+        try ( Transaction tx = db.beginTx() )
+        {
+            relationships = relationshipsOfType( statementContextSupplier.get(), KNOWS );
+            tx.success();
+        }
+
+        // THEN
+        assertThat( relationships, equalTo( Collections.<Long>emptySet() ) );
+    }
+
+    private static Set<Long> relationshipsOfType( Statement statement, RelationshipType type )
+    {
+        int typeId = statement.readOperations().relationshipTypeGetForName( type.name() );
+        return PrimitiveLongCollections.toSet( statement.readOperations().relationshipsGetForType( typeId ) );
+    }
+
     @Test
     public void schemaStateShouldBeEvictedOnIndexComingOnline() throws Exception
     {
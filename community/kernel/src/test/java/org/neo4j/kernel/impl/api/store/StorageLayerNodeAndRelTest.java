@@ -21,6 +21,8 @@ package org.neo4j.kernel.impl.api.store;
 
 import org.junit.Test;
 
+import org.neo4j.collection.primitive.PrimitiveLongCollections;
+import org.neo4j.collection.primitive.PrimitiveLongIterator;
 import org.neo4j.cursor.Cursor;
 import org.neo4j.graphdb.Transaction;
 import org.neo4j.storageengine.api.NodeItem;
@@ -29,7 +31,9 @@ import org.neo4j.storageengine.api.StorageStatement;
 
 import static junit.framework.Assert.assertFalse;
 import static junit.framework.TestCase.assertTrue;
+import static org.junit.Assert.assertEquals;
 import static org.neo4j.graphdb.RelationshipType.withName;
+import static org.neo4j.helpers.collection.Iterators.asSet;
 import static org.neo4j.helpers.collection.MapUtil.map;
 
 /**
@@ -87,6 +91,32 @@ public class StorageLayerNodeAndRelTest extends StorageLayerTest
         assertFalse( relationshipExists( neverExisted ) );
     }
 
+    @Test
+    public void shouldReturnAllRelationshipsWithType() throws Exception
+    {
+        // Given
+        long rel1;
+        long rel2;
+        long rel3;
+        try ( Transaction tx = db.beginTx() )
+        {
+            rel1 = db.createNode().createRelationshipTo( db.createNode(), relType1 ).getId();
+            rel2 = db.createNode().createRelationshipTo( db.createNode(), relType2 ).getId();
+            rel3 = db.createNode().createRelationshipTo( db.createNode(), relType1 ).getId();
+            tx.success();
+        }
+        int relType1Id = relationshipTypeId( relType1 );
+        int relType2Id = relationshipTypeId( relType2 );
+
+        // When
+        PrimitiveLongIterator relsOfType1 = disk.relationshipsGetForType( state.getStoreStatement(), relType1Id );
+        PrimitiveLongIterator relsOfType2 = disk.relationshipsGetForType( state.getStoreStatement(), relType2Id );
+
+        // Then
+        assertEquals( asSet( rel1, rel3 ), PrimitiveLongCollections.toSet( relsOfType1 ) );
+        assertEquals( asSet( rel2 ), PrimitiveLongCollections.toSet( relsOfType2 ) );
+    }
+
     private boolean nodeExists( long id )
     {
         try ( StorageStatement statement = disk.newStatement() )
@@ -43,6 +43,8 @@ import org.neo4j.kernel.impl.store.StandaloneDynamicRecordAllocator;
 import org.neo4j.kernel.impl.store.record.DynamicRecord;
 import org.neo4j.kernel.impl.store.record.PropertyBlock;
 import org.neo4j.kernel.impl.store.record.RecordLoad;
+import org.neo4j.values.storable.Value;
+import org.neo4j.values.storable.ValueWriter;
 import org.neo4j.values.storable.Values;
 
 import static org.junit.Assert.assertEquals;
@@ -51,6 +53,7 @@ import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -187,6 +190,26 @@ public class StorePropertyPayloadCursorTest
             verify( dynamicArrayStore ).newRecordCursor( any( DynamicRecord.class ) );
         }
 
+        @Test
+        @SuppressWarnings( "unchecked" )
+        public void shouldKeepUTF8EncodedShortStringsEncoded()
+        {
+            // Given
+            String string = "\u20ac5";
+            StorePropertyPayloadCursor cursor = newCursor( string );
+            ValueWriter<RuntimeException> writer = mock( ValueWriter.class );
+
+            // When
+            assertTrue( cursor.next() );
+            Value value = cursor.value();
+            value.writeTo( writer );
+
+            // Then
+            assertEquals( PropertyType.SHORT_STRING, cursor.type() );
+            assertEquals( Values.stringValue( string ), value );
+            verify( writer ).writeUTF8( any( byte[].class ), eq( 0 ), eq( 4 ) );
+        }
+
         @Test
         public void nextMultipleInvocations()
         {
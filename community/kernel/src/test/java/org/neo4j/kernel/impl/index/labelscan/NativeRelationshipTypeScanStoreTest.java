@@ -0,0 +1,325 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.labelscan;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.RuleChain;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.neo4j.collection.primitive.PrimitiveLongCollections;
+import org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector;
+import org.neo4j.io.pagecache.IOLimiter;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.kernel.api.impl.labelscan.LabelScanStoreTest;
+import org.neo4j.kernel.api.impl.labelscan.LabelScanStoreTest.TrackingMonitor;
+import org.neo4j.kernel.api.labelscan.LabelScanWriter;
+import org.neo4j.kernel.api.labelscan.NodeLabelUpdate;
+import org.neo4j.kernel.lifecycle.LifeSupport;
+import org.neo4j.kernel.monitoring.Monitors;
+import org.neo4j.storageengine.api.schema.RelationshipTypeScanReader;
+import org.neo4j.test.rule.PageCacheRule;
+import org.neo4j.test.rule.RandomRule;
+import org.neo4j.test.rule.TestDirectory;
+import org.neo4j.test.rule.fs.DefaultFileSystemRule;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.neo4j.kernel.api.labelscan.NodeLabelUpdate.labelChanges;
+import static org.neo4j.kernel.impl.api.scan.FullStoreChangeStream.asStream;
+
+public class NativeRelationshipTypeScanStoreTest
+{
+    private final TestDirectory testDirectory = TestDirectory.testDirectory();
+    private final ExpectedException expectedException = ExpectedException.none();
+    private final DefaultFileSystemRule fileSystemRule = new DefaultFileSystemRule();
+    private final PageCacheRule pageCacheRule = new PageCacheRule();
+    private final RandomRule random = new RandomRule();
+
+    @Rule
+    public final RuleChain ruleChain = RuleChain.outerRule( random ).around( testDirectory ).around( expectedException )
+            .around( fileSystemRule ).around( pageCacheRule );
+
+    private static final long[] NO_TYPE = new long[0];
+
+    private LifeSupport life;
+    private TrackingMonitor monitor;
+    private NativeRelationshipTypeScanStore store;
+    private File dir;
+
+    @Before
+    public void clearDir()
+    {
+        dir = testDirectory.directory();
+    }
+
+    @After
+    public void shutdown()
+    {
+        if ( life != null )
+        {
+            life.shutdown();
+        }
+    }
+
+    @Test
+    public void shouldFindCreatedRelationship() throws Exception
+    {
+        // given
+        start();
+
+        // when
+        write( created( 10, 1 ) );
+
+        // then
+        assertRelationshipsWithType( 1, 10 );
+    }
+
+    @Test
+    public void shouldNotFindDeletedRelationship() throws Exception
+    {
+        // given
+        start();
+        write( created( 10, 1 ), created( 11, 1 ) );
+
+        // when
+        write( deleted( 10, 1 ) );
+
+        // then
+        assertRelationshipsWithType( 1, 11 );
+    }
+
+    @Test
+    public void shouldKeepRelationshipsOfDifferentTypesApart() throws Exception
+    {
+        // given
+        start();
+
+        // when
+        write( created( 10, 1 ), created( 11, 2 ), created( 1280, 1 ), created( 1281, 3 ) );
+
+        // then
+        assertRelationshipsWithType( 1, 10, 1280 );
+        assertRelationshipsWithType( 2, 11 );
+        assertRelationshipsWithType( 3, 1281 );
+        assertRelationshipsWithType( 4 );
+    }
+
+    @Test
+    public void shouldFindRelationshipsOfTypeOverManyRanges() throws Exception
+    {
+        // given
+        start();
+        int typeCount = 5;
+        List<Set<Long>> expected = new ArrayList<>();
+        for ( int type = 0; type < typeCount; type++ )
+        {
+            expected.add( new TreeSet<>() );
+        }
+        List<NodeLabelUpdate> updates = new ArrayList<>();
+        for ( long relationshipId = 0; relationshipId < 10_000; relationshipId++ )
+        {
+            if ( random.nextInt( 4 ) == 0 )
+            {
+                int type = random.nextInt( typeCount );
+                expected.get( type ).add( relationshipId );
+                updates.add( created( relationshipId, type ) );
+            }
+        }
+
+        // when
+        write( updates.toArray( new NodeLabelUpdate[updates.size()] ) );
+
+        // then
+        try ( RelationshipTypeScanReader reader = store.newReader() )
+        {
+            for ( int type = 0; type < typeCount; type++ )
+            {
+                assertEquals( expected.get( type ),
+                        new TreeSet<>( PrimitiveLongCollections.toSet( reader.relationshipsWithType( type ) ) ) );
+            }
+        }
+    }
+
+    @Test
+    public void shouldKeepRelationshipsOverRestart() throws Exception
+    {
+        // given
+        start();
+        write( created( 10, 1 ), created( 100, 2 ) );
+        store.force( IOLimiter.unlimited() );
+        life.shutdown();
+
+        // when
+        start();
+
+        // then
+        assertFalse( "Didn't expect a rebuild of an existing store", monitor.rebuildingCalled );
+        assertRelationshipsWithType( 1, 10 );
+        assertRelationshipsWithType( 2, 100 );
+    }
+
+    @Test
+    public void shouldRebuildFromScratchIfStoreMissing() throws Exception
+    {
+        // when
+        start( asList( created( 1, 1 ), created( 2, 2 ), created( 3, 1 ) ) );
+
+        // then
+        assertTrue( "Didn't rebuild the store on startup",
+                monitor.noIndexCalled & monitor.rebuildingCalled & monitor.rebuiltCalled );
+        assertRelationshipsWithType( 1, 1, 3 );
+        assertRelationshipsWithType( 2, 2 );
+    }
+
+    @Test
+    public void shouldRebuildCorruptedStoreOnStartup() throws Exception
+    {
+        // given
+        List<NodeLabelUpdate> data = asList( created( 1, 1 ), created( 2, 2 ) );
+        start( data );
+        life.shutdown();
+
+        // when
+        LabelScanStoreTest.scrambleFile( random.random(),
+                NativeRelationshipTypeScanStore.getRelationshipTypeScanStoreFile( dir ) );
+        start( data );
+
+        // then
+        assertTrue( "Store corruption should be detected", monitor.corruptedIndex );
+        assertTrue( "Store should be rebuilt", monitor.rebuildingCalled );
+        assertRelationshipsWithType( 1, 1 );
+        assertRelationshipsWithType( 2, 2 );
+    }
+
+    @Test
+    public void shouldRebuildDroppedStore() throws Exception
+    {
+        // given
+        start();
+        write( created( 1, 1 ) );
+        life.shutdown();
+
+        // when
+        NativeRelationshipTypeScanStore.drop( pageCacheRule.getPageCache( fileSystemRule.get() ), dir );
+        start( asList( created( 1, 1 ), created( 2, 1 ) ) );
+
+        // then
+        assertTrue( "Store should be rebuilt", monitor.rebuildingCalled );
+        assertRelationshipsWithType( 1, 1, 2 );
+    }
+
+    @Test
+    public void shouldUseItsOwnStoreFile() throws Exception
+    {
+        // when
+        start();
+        write( created( 1, 1 ) );
+        store.force( IOLimiter.unlimited() );
+
+        // then
+        assertEquals( NativeRelationshipTypeScanStore.getRelationshipTypeScanStoreFile( dir ),
+                store.getRelationshipTypeScanStoreFile() );
+        assertTrue( fileSystemRule.get().fileExists( store.getRelationshipTypeScanStoreFile() ) );
+        assertFalse( fileSystemRule.get().fileExists( NativeLabelScanStore.getLabelScanStoreFile( dir ) ) );
+    }
+
+    @Test
+    public void failToRetrieveWriterOnReadOnlyStore() throws Exception
+    {
+        // given
+        start();
+        life.shutdown();
+        start( Collections.emptyList(), true );
+
+        // then
+        expectedException.expect( UnsupportedOperationException.class );
+        store.newWriter();
+    }
+
+    private static NodeLabelUpdate created( long relationshipId, long typeId )
+    {
+        return labelChanges( relationshipId, NO_TYPE, new long[]{typeId} );
+    }
+
+    private static NodeLabelUpdate deleted( long relationshipId, long typeId )
+    {
+        return labelChanges( relationshipId, new long[]{typeId}, NO_TYPE );
+    }
+
+    private void write( NodeLabelUpdate... updates ) throws IOException
+    {
+        try ( LabelScanWriter writer = store.newWriter() )
+        {
+            for ( NodeLabelUpdate update : updates )
+            {
+                writer.write( update );
+            }
+        }
+    }
+
+    private void assertRelationshipsWithType( int typeId, long... expectedRelationshipIds )
+    {
+        Set<Long> expected = new TreeSet<>();
+        for ( long relationshipId : expectedRelationshipIds )
+        {
+            expected.add( relationshipId );
+        }
+        try ( RelationshipTypeScanReader reader = store.newReader() )
+        {
+            assertEquals( expected,
+                    new TreeSet<>( PrimitiveLongCollections.toSet( reader.relationshipsWithType( typeId ) ) ) );
+        }
+    }
+
+    private void start()
+    {
+        start( Collections.emptyList() );
+    }
+
+    private void start( List<NodeLabelUpdate> existingData )
+    {
+        start( existingData, false );
+    }
+
+    private void start( List<NodeLabelUpdate> existingData, boolean readOnly )
+    {
+        life = new LifeSupport();
+        monitor = new TrackingMonitor();
+        Monitors monitors = new Monitors();
+        monitors.addMonitorListener( monitor );
+        PageCache pageCache = pageCacheRule.getPageCache( fileSystemRule.get() );
+        store = life.add( new NativeRelationshipTypeScanStore( pageCache, dir, asStream( existingData ), readOnly,
+                monitors, RecoveryCleanupWorkCollector.IMMEDIATE ) );
+        life.start();
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import org.junit.Test;
+
+import org.neo4j.kernel.impl.api.index.sampling.HyperLogLog;
+import org.neo4j.storageengine.api.schema.IndexSample;
+import org.neo4j.values.storable.Value;
+import org.neo4j.values.storable.Values;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class IncrementalIndexSamplerTest
+{
+    private final IncrementalIndexSampler sampler = new IncrementalIndexSampler();
+
+    @Test
+    public void shouldNotHaveSampleBeforeSeeded()
+    {
+        // when
+        sampler.include( values( 1 ) );
+
+        // then
+        assertNull( sampler.result() );
+    }
+
+    @Test
+    public void shouldSampleSeedAndIncludedValues()
+    {
+        // given
+        seed( 100, 10 );
+
+        // when
+        for ( int i = 0; i < 20; i++ )
+        {
+            sampler.include( values( 100 + i ) );
+        }
+
+        // then
+        assertEquals( new IndexSample( 120, 30, 120 ), sampler.result() );
+    }
+
+    @Test
+    public void shouldAskForFullScanWhenTooManyEntriesRemoved()
+    {
+        // given
+        seed( 100, 100 );
+
+        // when
+        for ( int i = 0; i < 5; i++ )
+        {
+            sampler.exclude();
+        }
+        IndexSample sampleAfterFewRemovals = sampler.result();
+        for ( int i = 5; i < 15; i++ )
+        {
+            sampler.exclude();
+        }
+
+        // then
+        assertEquals( 95, sampleAfterFewRemovals.indexSize() );
+        assertNull( sampler.result() );
+    }
+
+    @Test
+    public void shouldMergeUpdatesMadeWhileSeeding()
+    {
+        // given
+        seed( 100, 10 );
+        sampler.startSeeding();
+        HyperLogLog sketch = sampler.newSketch();
+        for ( int i = 0; i < 100; i++ )
+        {
+            sketch.add( IncrementalIndexSampler.hash( values( i % 10 ) ) );
+        }
+
+        // when
+        for ( int i = 0; i < 5; i++ )
+        {
+            sampler.include( values( 10 + i ) );
+        }
+        sampler.include( values( 0 ) );
+        sampler.exclude();
+        sampler.seed( sketch, 100 );
+
+        // then
+        assertEquals( new IndexSample( 105, 15, 105 ), sampler.result() );
+    }
+
+    @Test
+    public void shouldCountUpdatesMadeWhileSeedingAsDrift()
+    {
+        // given
+        sampler.startSeeding();
+        HyperLogLog sketch = sampler.newSketch();
+        for ( int i = 0; i < 100; i++ )
+        {
+            sketch.add( IncrementalIndexSampler.hash( values( i ) ) );
+        }
+
+        // when
+        for ( int i = 0; i < 20; i++ )
+        {
+            sampler.exclude();
+        }
+        sampler.seed( sketch, 100 );
+
+        // then
+        assertNull( sampler.result() );
+    }
+
+    private void seed( int entries, int distinctValues )
+    {
+        sampler.startSeeding();
+        HyperLogLog sketch = sampler.newSketch();
+        for ( int i = 0; i < entries; i++ )
+        {
+            sketch.add( IncrementalIndexSampler.hash( values( i % distinctValues ) ) );
+        }
+        sampler.seed( sketch, entries );
+    }
+
+    private static Value[] values( int value )
+    {
+        return new Value[]{Values.of( value )};
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.neo4j.collection.primitive.PrimitiveLongCollections;
+import org.neo4j.kernel.api.schema.IndexQuery;
+import org.neo4j.storageengine.api.schema.IndexReader;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+public class NativeCompositeSelectorTest
+{
+    private IndexReader nativeReader;
+    private IndexReader fallbackReader;
+    private final NativeCompositeSelector selector = new NativeCompositeSelector();
+
+    @Before
+    public void setup()
+    {
+        nativeReader = mock( IndexReader.class );
+        fallbackReader = mock( IndexReader.class );
+    }
+
+    @Test
+    public void shouldSelectNativeForExactTupleOfValuesThatFit() throws Exception
+    {
+        // given
+        IndexQuery[] predicates = {IndexQuery.exact( 0, "a" ), IndexQuery.exact( 1, 1 )};
+        when( nativeReader.query( predicates ) ).thenReturn( PrimitiveLongCollections.iterator( 1 ) );
+
+        // when
+        long[] result = PrimitiveLongCollections.asArray( selector.select( nativeReader, fallbackReader, predicates ) );
+
+        // then
+        assertArrayEquals( new long[] {1}, result );
+        verifyNoMoreInteractions( fallbackReader );
+    }
+
+    @Test
+    public void shouldConcatenateResultsOfBothReadersForRangeQuery() throws Exception
+    {
+        // given
+        IndexQuery[] predicates = {IndexQuery.exact( 0, "a" ), IndexQuery.range( 1, 1, true, 3, false )};
+        when( nativeReader.query( predicates ) ).thenReturn( PrimitiveLongCollections.iterator( 1 ) );
+        when( fallbackReader.query( predicates ) ).thenReturn( PrimitiveLongCollections.iterator( 2 ) );
+
+        // when
+        long[] result = PrimitiveLongCollections.asArray( selector.select( nativeReader, fallbackReader, predicates ) );
+
+        // then
+        assertArrayEquals( new long[] {1, 2}, result );
+        verify( nativeReader ).query( predicates );
+        verify( fallbackReader ).query( predicates );
+        verifyNoMoreInteractions( nativeReader, fallbackReader );
+    }
+}
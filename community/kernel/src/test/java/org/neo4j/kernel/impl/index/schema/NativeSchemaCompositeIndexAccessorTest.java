@@ -0,0 +1,254 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.neo4j.collection.primitive.PrimitiveLongCollections;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.kernel.api.exceptions.index.IndexEntryConflictException;
+import org.neo4j.kernel.api.index.IndexEntryUpdate;
+import org.neo4j.kernel.api.index.IndexUpdater;
+import org.neo4j.kernel.api.schema.IndexQuery;
+import org.neo4j.kernel.api.schema.index.IndexDescriptor;
+import org.neo4j.kernel.api.schema.index.IndexDescriptorFactory;
+import org.neo4j.storageengine.api.schema.IndexReader;
+import org.neo4j.test.rule.PageCacheRule;
+import org.neo4j.test.rule.TestDirectory;
+import org.neo4j.test.rule.fs.DefaultFileSystemRule;
+import org.neo4j.test.rule.fs.FileSystemRule;
+import org.neo4j.values.storable.Values;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.junit.rules.RuleChain.outerRule;
+import static org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector.IMMEDIATE;
+import static org.neo4j.kernel.impl.api.index.IndexUpdateMode.ONLINE;
+import static org.neo4j.test.rule.PageCacheRule.config;
+
+/**
+ * Tests for
+ * <ul>
+ * <li>{@link NativeSchemaCompositeIndexAccessor}</li>
+ * <li>{@link NativeSchemaCompositeIndexReader}</li>
+ * <li>{@link CompositeSchemaKey}</li>
+ * </ul>
+ */
+public class NativeSchemaCompositeIndexAccessorTest
+{
+    private final FileSystemRule fs = new DefaultFileSystemRule();
+    private final TestDirectory directory = TestDirectory.testDirectory( getClass(), fs.get() );
+    private final PageCacheRule pageCacheRule = new PageCacheRule( config().withAccessChecks( true ) );
+    @Rule
+    public final RuleChain rules = outerRule( fs ).around( directory ).around( pageCacheRule );
+
+    private final IndexDescriptor indexDescriptor = IndexDescriptorFactory.forLabel( 42, 666, 667 );
+    private NativeSchemaCompositeIndexAccessor<CompositeSchemaKey,SchemaNumberValue> accessor;
+
+    @After
+    public void closeAccessor() throws IOException
+    {
+        accessor.close();
+    }
+
+    @Test
+    public void shouldReturnMatchingEntriesForExactQuery() throws Exception
+    {
+        // given
+        openAccessor( new NonUniqueCompositeLayout( 2 ) );
+        processAll(
+                new Object[] {"a", 1},
+                new Object[] {"a", 2},
+                new Object[] {"a", 1},
+                new Object[] {1, "a"} );
+
+        // when
+        try ( IndexReader reader = accessor.newReader() )
+        {
+            // then
+            assertArrayEquals( new long[] {0, 2},
+                    query( reader, IndexQuery.exact( 0, "a" ), IndexQuery.exact( 1, 1 ) ) );
+            assertArrayEquals( new long[] {1},
+                    query( reader, IndexQuery.exact( 0, "a" ), IndexQuery.exact( 1, 2.0 ) ) );
+            assertArrayEquals( new long[] {3},
+                    query( reader, IndexQuery.exact( 0, 1 ), IndexQuery.exact( 1, "a" ) ) );
+            assertArrayEquals( new long[0],
+                    query( reader, IndexQuery.exact( 0, "a" ), IndexQuery.exact( 1, 3 ) ) );
+            assertArrayEquals( new long[] {0, 1, 2, 3},
+                    query( reader, IndexQuery.exists( 0 ), IndexQuery.exists( 1 ) ) );
+        }
+    }
+
+    @Test
+    public void shouldReturnMatchingEntriesForRangeOnLeadingPrefix() throws Exception
+    {
+        // given
+        openAccessor( new NonUniqueCompositeLayout( 3 ) );
+        processAll(
+                new Object[] {"a", 1, "x"},
+                new Object[] {"a", 2, "y"},
+                new Object[] {"a", 3, "z"},
+                new Object[] {"b", 2, "x"},
+                new Object[] {"ab", "c", "x"} );
+
+        // when
+        try ( IndexReader reader = accessor.newReader() )
+        {
+            // then
+            assertArrayEquals( new long[] {1, 2}, query( reader, IndexQuery.exact( 0, "a" ),
+                    IndexQuery.range( 1, 2, true, null, false ), IndexQuery.exists( 2 ) ) );
+            assertArrayEquals( new long[] {0}, query( reader, IndexQuery.exact( 0, "a" ),
+                    IndexQuery.range( 1, 1, true, 3, false ), IndexQuery.exact( 2, "x" ) ) );
+            assertArrayEquals( new long[] {0, 1, 2, 4}, query( reader, IndexQuery.stringPrefix( 0, "a" ),
+                    IndexQuery.exists( 1 ), IndexQuery.exists( 2 ) ) );
+            assertArrayEquals( new long[] {3}, query( reader, IndexQuery.range( 0, "ab", false, null, false ),
+                    IndexQuery.exists( 1 ), IndexQuery.exists( 2 ) ) );
+            assertArrayEquals( new long[] {0, 3, 4}, query( reader, IndexQuery.exists( 0 ),
+                    IndexQuery.exists( 1 ), IndexQuery.exact( 2, "x" ) ) );
+        }
+    }
+
+    @Test
+    public void shouldOrderStringsLikeJavaStrings() throws Exception
+    {
+        // given
+        openAccessor( new NonUniqueCompositeLayout( 2 ) );
+        processAll(
+                new Object[] {"\uE000", 1},
+                new Object[] {"\uD83D\uDE00", 1},
+                new Object[] {"\uFFFF", 1} );
+
+        // when
+        try ( IndexReader reader = accessor.newReader() )
+        {
+            // then
+            assertArrayEquals( new long[] {0, 1}, query( reader,
+                    IndexQuery.range( 0, "\uD83D\uDE00", true, "\uE000", true ), IndexQuery.exists( 1 ) ) );
+            assertArrayEquals( new long[] {1}, query( reader,
+                    IndexQuery.stringPrefix( 0, "\uD83D" ), IndexQuery.exists( 1 ) ) );
+        }
+    }
+
+    @Test
+    public void shouldNotFindRemovedOrChangedEntries() throws Exception
+    {
+        // given
+        openAccessor( new NonUniqueCompositeLayout( 2 ) );
+        processAll(
+                new Object[] {"a", 1},
+                new Object[] {"b", 2} );
+
+        // when
+        try ( IndexUpdater updater = accessor.newUpdater( ONLINE ) )
+        {
+            updater.process( IndexEntryUpdate.remove( 0, indexDescriptor, Values.of( "a" ), Values.of( 1 ) ) );
+            updater.process( IndexEntryUpdate.change( 1, indexDescriptor, Values.values( "b", 2 ),
+                    Values.values( "b", 3 ) ) );
+        }
+
+        // then
+        try ( IndexReader reader = accessor.newReader() )
+        {
+            assertArrayEquals( new long[0], query( reader, IndexQuery.exact( 0, "a" ), IndexQuery.exact( 1, 1 ) ) );
+            assertArrayEquals( new long[0], query( reader, IndexQuery.exact( 0, "b" ), IndexQuery.exact( 1, 2 ) ) );
+            assertArrayEquals( new long[] {1}, query( reader, IndexQuery.exact( 0, "b" ), IndexQuery.exact( 1, 3 ) ) );
+        }
+    }
+
+    @Test
+    public void shouldDetectConflictingTuplesInUniqueIndex() throws Exception
+    {
+        // given
+        openAccessor( new UniqueCompositeLayout( 2 ) );
+        processAll(
+                new Object[] {"a", 1},
+                new Object[] {"a", 2} );
+
+        // when
+        try ( IndexUpdater updater = accessor.newUpdater( ONLINE ) )
+        {
+            updater.process( IndexEntryUpdate.add( 2, indexDescriptor, Values.of( "a" ), Values.of( 1.0 ) ) );
+            fail( "Should have failed" );
+        }
+        catch ( IndexEntryConflictException e )
+        {
+            // then good
+        }
+    }
+
+    @Test
+    public void shouldOnlyHoldNumbersAndShortStrings() throws Exception
+    {
+        // then
+        assertTrue( CompositeSchemaKey.canHold( Values.of( "short" ) ) );
+        assertTrue( CompositeSchemaKey.canHold( Values.of( 10.5 ) ) );
+        assertFalse( CompositeSchemaKey.canHold( Values.of( longString() ) ) );
+        assertFalse( CompositeSchemaKey.canHold( Values.of( "unpaired \uD83D" ) ) );
+        assertFalse( CompositeSchemaKey.canHold( Values.of( true ) ) );
+        try
+        {
+            new CompositeSchemaKey( 2 ).from( 0, Values.of( "a" ), Values.of( longString() ) );
+            fail( "Should have failed" );
+        }
+        catch ( IllegalArgumentException e )
+        {
+            // then good
+        }
+    }
+
+    private void openAccessor( CompositeLayout layout ) throws IOException
+    {
+        PageCache pageCache = pageCacheRule.getPageCache( fs );
+        accessor = new NativeSchemaCompositeIndexAccessor<>( pageCache, directory.file( "index" ), layout, IMMEDIATE );
+    }
+
+    private void processAll( Object[]... tuples ) throws Exception
+    {
+        try ( IndexUpdater updater = accessor.newUpdater( ONLINE ) )
+        {
+            for ( int i = 0; i < tuples.length; i++ )
+            {
+                updater.process( IndexEntryUpdate.add( i, indexDescriptor, Values.values( tuples[i] ) ) );
+            }
+        }
+    }
+
+    private static long[] query( IndexReader reader, IndexQuery... query ) throws Exception
+    {
+        long[] result = PrimitiveLongCollections.asArray( reader.query( query ) );
+        Arrays.sort( result );
+        return result;
+    }
+
+    private static String longString()
+    {
+        char[] chars = new char[CompositeSchemaKey.MAX_STRING_BYTES + 1];
+        Arrays.fill( chars, 'a' );
+        return new String( chars );
+    }
+}
@@ -44,9 +44,11 @@ import org.neo4j.kernel.api.index.IndexUpdater;
 import org.neo4j.kernel.api.schema.IndexQuery;
 import org.neo4j.kernel.api.schema.index.IndexDescriptor;
 import org.neo4j.kernel.impl.api.index.IndexUpdateMode;
+import org.neo4j.storageengine.api.schema.IndexOrder;
 import org.neo4j.storageengine.api.schema.IndexReader;
 import org.neo4j.storageengine.api.schema.IndexSample;
 import org.neo4j.storageengine.api.schema.IndexSampler;
+import org.neo4j.storageengine.api.schema.NodeValueIterator;
 import org.neo4j.values.storable.Value;
 import org.neo4j.values.storable.Values;
 
@@ -445,6 +447,38 @@ public abstract class NativeSchemaNumberIndexAccessorTest<KEY extends SchemaNumb
         assertEntityIdHits( EMPTY_LONG_ARRAY, result );
     }
 
+    @Test
+    public void shouldReturnEntriesWithValuesInAscendingOrder() throws Exception
+    {
+        // given
+        IndexEntryUpdate<IndexDescriptor>[] updates = layoutUtil.someUpdates();
+        processAll( updates );
+
+        // when
+        IndexReader reader = accessor.newReader();
+        assertTrue( reader.canQueryInOrder( IndexQuery.exists( 0 ) ) );
+        NodeValueIterator result = reader.query( IndexOrder.ASCENDING, IndexQuery.exists( 0 ) );
+
+        // then
+        assertOrderedEntityIdHits( updates, result, 1 );
+    }
+
+    @Test
+    public void shouldReturnEntriesWithValuesInDescendingOrder() throws Exception
+    {
+        // given
+        IndexEntryUpdate<IndexDescriptor>[] updates = layoutUtil.someUpdates();
+        processAll( updates );
+
+        // when
+        IndexReader reader = accessor.newReader();
+        NodeValueIterator result = reader.query( IndexOrder.DESCENDING,
+                IndexQuery.range( 0, Double.NEGATIVE_INFINITY, true, Double.POSITIVE_INFINITY, true ) );
+
+        // then
+        assertOrderedEntityIdHits( updates, result, -1 );
+    }
+
     @Test
     public void shouldHandleMultipleConsecutiveUpdaters() throws Exception
     {
@@ -559,6 +593,32 @@ public abstract class NativeSchemaNumberIndexAccessorTest<KEY extends SchemaNumb
         }
     }
 
+    @Test
+    public void shouldSampleIndexIncrementallyAfterFirstFullScan() throws Exception
+    {
+        // given
+        IndexEntryUpdate<IndexDescriptor>[] updates = layoutUtil.someUpdates();
+        int half = updates.length / 2;
+        processAll( Arrays.copyOfRange( updates, 0, half ) );
+        try ( IndexReader reader = accessor.newReader() )
+        {
+            reader.createSampler().sampleIndex();
+        }
+
+        // when
+        processAll( Arrays.copyOfRange( updates, half, updates.length ) );
+        IndexSample sample;
+        try ( IndexReader reader = accessor.newReader() )
+        {
+            sample = reader.createSampler().sampleIndex();
+        }
+
+        // then
+        assertEquals( updates.length, sample.indexSize() );
+        assertEquals( updates.length, sample.sampleSize() );
+        assertEquals( countUniqueValues( updates ), sample.uniqueValues(), 1 );
+    }
+
     @Test
     public void readingAfterDropShouldThrow() throws Exception
     {
@@ -677,6 +737,33 @@ public abstract class NativeSchemaNumberIndexAccessorTest<KEY extends SchemaNumb
         assertArrayEquals( expected, actual );
     }
 
+    private void assertOrderedEntityIdHits( IndexEntryUpdate<?>[] updates, NodeValueIterator result, int direction )
+    {
+        Value previous = null;
+        long[] actual = new long[updates.length];
+        int cursor = 0;
+        while ( result.hasNext() )
+        {
+            long entityId = result.next();
+            Value value = result.values()[0];
+            if ( previous != null )
+            {
+                assertTrue( COMPARATOR.compare( previous, value ) * direction <= 0 );
+            }
+            for ( IndexEntryUpdate<?> update : updates )
+            {
+                if ( update.getEntityId() == entityId )
+                {
+                    assertEquals( 0, COMPARATOR.compare( update.values()[0], value ) );
+                }
+            }
+            previous = value;
+            actual[cursor++] = entityId;
+        }
+        assertEntityIdHits( extractEntityIds( updates, alwaysTrue() ), PrimitiveLongCollections.iterator(
+                Arrays.copyOf( actual, cursor ) ) );
+    }
+
     private long[] extractEntityIds( IndexEntryUpdate<?>[] updates, Predicate<Value> valueFilter )
     {
         long[] entityIds = new long[updates.length];
@@ -0,0 +1,257 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.neo4j.collection.primitive.PrimitiveLongCollections;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.kernel.api.index.IndexEntryUpdate;
+import org.neo4j.kernel.api.index.IndexUpdater;
+import org.neo4j.kernel.api.schema.IndexQuery;
+import org.neo4j.kernel.api.schema.index.IndexDescriptor;
+import org.neo4j.kernel.api.schema.index.IndexDescriptorFactory;
+import org.neo4j.storageengine.api.schema.IndexReader;
+import org.neo4j.test.rule.PageCacheRule;
+import org.neo4j.test.rule.TestDirectory;
+import org.neo4j.test.rule.fs.DefaultFileSystemRule;
+import org.neo4j.test.rule.fs.FileSystemRule;
+import org.neo4j.values.storable.Value;
+import org.neo4j.values.storable.Values;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.junit.rules.RuleChain.outerRule;
+import static org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector.IMMEDIATE;
+import static org.neo4j.kernel.impl.api.index.IndexUpdateMode.ONLINE;
+import static org.neo4j.test.rule.PageCacheRule.config;
+
+/**
+ * Tests for
+ * <ul>
+ * <li>{@link NativeSchemaStringIndexAccessor}</li>
+ * <li>{@link NativeSchemaStringIndexReader}</li>
+ * <li>{@link StringSchemaKey}</li>
+ * </ul>
+ */
+public class NativeSchemaStringIndexAccessorTest
+{
+    private final FileSystemRule fs = new DefaultFileSystemRule();
+    private final TestDirectory directory = TestDirectory.testDirectory( getClass(), fs.get() );
+    private final PageCacheRule pageCacheRule = new PageCacheRule( config().withAccessChecks( true ) );
+    @Rule
+    public final RuleChain rules = outerRule( fs ).around( directory ).around( pageCacheRule );
+
+    private final IndexDescriptor indexDescriptor = IndexDescriptorFactory.forLabel( 42, 666 );
+    private NativeSchemaStringIndexAccessor<StringSchemaKey,SchemaNumberValue> accessor;
+
+    @Before
+    public void setupAccessor() throws IOException
+    {
+        PageCache pageCache = pageCacheRule.getPageCache( fs );
+        accessor = new NativeSchemaStringIndexAccessor<>( pageCache, directory.file( "index" ),
+                new NonUniqueStringLayout(), IMMEDIATE );
+    }
+
+    @After
+    public void closeAccessor() throws IOException
+    {
+        accessor.close();
+    }
+
+    @Test
+    public void shouldReturnMatchingEntriesForExactQuery() throws Exception
+    {
+        // given
+        processAll( "apple", "banana", "apple", "cherry" );
+
+        // when
+        try ( IndexReader reader = accessor.newReader() )
+        {
+            // then
+            assertArrayEquals( new long[] {0, 2}, query( reader, IndexQuery.exact( 0, "apple" ) ) );
+            assertArrayEquals( new long[] {3}, query( reader, IndexQuery.exact( 0, "cherry" ) ) );
+            assertArrayEquals( new long[0], query( reader, IndexQuery.exact( 0, "apples" ) ) );
+        }
+    }
+
+    @Test
+    public void shouldReturnMatchingEntriesForPrefixQuery() throws Exception
+    {
+        // given
+        processAll( "a", "ab", "abc", "abd", "b", "\u00e5ngstr\u00f6m", "abc\uD83D\uDE00" );
+
+        // when
+        try ( IndexReader reader = accessor.newReader() )
+        {
+            // then
+            assertArrayEquals( new long[] {1, 2, 3, 6}, query( reader, IndexQuery.stringPrefix( 0, "ab" ) ) );
+            assertArrayEquals( new long[] {2, 6}, query( reader, IndexQuery.stringPrefix( 0, "abc" ) ) );
+            assertArrayEquals( new long[] {5}, query( reader, IndexQuery.stringPrefix( 0, "\u00e5" ) ) );
+            assertArrayEquals( new long[] {0, 1, 2, 3, 4, 5, 6}, query( reader, IndexQuery.stringPrefix( 0, "" ) ) );
+            assertArrayEquals( new long[0], query( reader, IndexQuery.stringPrefix( 0, longString( 'a' ) ) ) );
+        }
+    }
+
+    @Test
+    public void shouldReturnMatchingEntriesForRangeQuery() throws Exception
+    {
+        // given
+        processAll( "a", "b", "c", "d", "e" );
+
+        // when
+        try ( IndexReader reader = accessor.newReader() )
+        {
+            // then
+            assertArrayEquals( new long[] {1, 2, 3}, query( reader, IndexQuery.range( 0, "b", true, "d", true ) ) );
+            assertArrayEquals( new long[] {2}, query( reader, IndexQuery.range( 0, "b", false, "d", false ) ) );
+            assertArrayEquals( new long[] {0, 1}, query( reader, IndexQuery.range( 0, null, false, "b", true ) ) );
+            assertArrayEquals( new long[] {3, 4}, query( reader, IndexQuery.range( 0, "c", false, null, false ) ) );
+            assertArrayEquals( new long[] {1, 2}, query( reader, IndexQuery.range( 0, longString( 'a' ), true,
+                    longString( 'c' ), false ) ) );
+        }
+    }
+
+    @Test
+    public void shouldReturnMatchingEntriesForSuffixAndContainsQuery() throws Exception
+    {
+        // given
+        processAll( "abc", "bc", "bcd", "xyz", "\u00e5bc" );
+
+        // when
+        try ( IndexReader reader = accessor.newReader() )
+        {
+            // then
+            assertArrayEquals( new long[] {0, 1, 4}, query( reader, IndexQuery.stringSuffix( 0, "bc" ) ) );
+            assertArrayEquals( new long[] {0, 1, 2, 4}, query( reader, IndexQuery.stringContains( 0, "b" ) ) );
+            assertArrayEquals( new long[] {3}, query( reader, IndexQuery.stringContains( 0, "y" ) ) );
+            assertArrayEquals( new long[0], query( reader, IndexQuery.stringContains( 0, "q" ) ) );
+        }
+    }
+
+    @Test
+    public void shouldOrderStringsLikeJavaStrings() throws Exception
+    {
+        // given
+        processAll( "\uE000", "\uD83D\uDE00", "\uFFFF" );
+
+        // when
+        try ( IndexReader reader = accessor.newReader() )
+        {
+            // then
+            assertArrayEquals( new long[] {0, 1},
+                    query( reader, IndexQuery.range( 0, "\uD83D\uDE00", true, "\uE000", true ) ) );
+            assertArrayEquals( new long[] {0, 2}, query( reader, IndexQuery.range( 0, "\uE000", true, null, false ) ) );
+        }
+    }
+
+    @Test
+    public void shouldFindStringsWithSurrogatePairsByPrefixWithUnpairedSurrogate() throws Exception
+    {
+        // given
+        processAll( "a\uD83D\uDE00", "a\uD83D\uDE01", "ab" );
+
+        // when
+        try ( IndexReader reader = accessor.newReader() )
+        {
+            // then
+            assertArrayEquals( new long[] {0, 1}, query( reader, IndexQuery.stringPrefix( 0, "a\uD83D" ) ) );
+            assertArrayEquals( new long[] {0, 1},
+                    query( reader, IndexQuery.range( 0, "a\uD83D", true, "a\uD83D\uDFFF", false ) ) );
+        }
+    }
+
+    @Test
+    public void shouldNotFindRemovedOrChangedEntries() throws Exception
+    {
+        // given
+        processAll( "a", "b" );
+
+        // when
+        try ( IndexUpdater updater = accessor.newUpdater( ONLINE ) )
+        {
+            updater.process( IndexEntryUpdate.remove( 0, indexDescriptor, Values.of( "a" ) ) );
+            updater.process( IndexEntryUpdate.change( 1, indexDescriptor, Values.of( "b" ), Values.of( "c" ) ) );
+        }
+
+        // then
+        try ( IndexReader reader = accessor.newReader() )
+        {
+            assertArrayEquals( new long[0], query( reader, IndexQuery.exact( 0, "a" ) ) );
+            assertArrayEquals( new long[0], query( reader, IndexQuery.exact( 0, "b" ) ) );
+            assertArrayEquals( new long[] {1}, query( reader, IndexQuery.exists( 0 ) ) );
+        }
+    }
+
+    @Test
+    public void shouldOnlyHoldStringsFittingInKey() throws Exception
+    {
+        // then
+        assertTrue( StringSchemaKey.canHold( Values.of( "short" ) ) );
+        assertTrue( StringSchemaKey.canHold( Values.of( 'c' ) ) );
+        assertFalse( StringSchemaKey.canHold( Values.of( longString( 'a' ) ) ) );
+        assertFalse( StringSchemaKey.canHold( Values.of( "unpaired \uD83D" ) ) );
+        assertFalse( StringSchemaKey.canHold( Values.of( 10 ) ) );
+        try
+        {
+            new StringSchemaKey().from( 0, Values.of( longString( 'a' ) ) );
+            fail( "Should have failed" );
+        }
+        catch ( IllegalArgumentException e )
+        {
+            // then good
+        }
+    }
+
+    private void processAll( String... strings ) throws Exception
+    {
+        try ( IndexUpdater updater = accessor.newUpdater( ONLINE ) )
+        {
+            for ( int i = 0; i < strings.length; i++ )
+            {
+                Value value = Values.of( strings[i] );
+                updater.process( IndexEntryUpdate.add( i, indexDescriptor, value ) );
+            }
+        }
+    }
+
+    private static long[] query( IndexReader reader, IndexQuery query ) throws Exception
+    {
+        long[] result = PrimitiveLongCollections.asArray( reader.query( query ) );
+        Arrays.sort( result );
+        return result;
+    }
+
+    private static String longString( char c )
+    {
+        char[] chars = new char[StringSchemaKey.MAX_STRING_BYTES + 1];
+        Arrays.fill( chars, c );
+        return new String( chars );
+    }
+}
@@ -34,10 +34,15 @@ import org.neo4j.kernel.api.schema.IndexQuery.StringPrefixPredicate;
 import org.neo4j.kernel.api.schema.IndexQuery.StringRangePredicate;
 import org.neo4j.kernel.api.schema.IndexQuery.StringSuffixPredicate;
 import org.neo4j.kernel.impl.index.schema.NativeSelector;
+import org.neo4j.storageengine.api.schema.IndexOrder;
 import org.neo4j.storageengine.api.schema.IndexReader;
+import org.neo4j.storageengine.api.schema.NodeValueIterator;
 import org.neo4j.values.storable.Value;
 
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
@@ -214,6 +219,67 @@ public class FusionIndexReaderTest
         }
     }
 
+    /* query in order */
+
+    @Test
+    public void mustQueryNativeInOrderForRangeNumericPredicate() throws Exception
+    {
+        // given
+        NumberRangePredicate numberRange = IndexQuery.range( PROP_KEY, 0, true, 1, false );
+        NodeValueIterator nativeResult = mock( NodeValueIterator.class );
+        when( nativeReader.canQueryInOrder( numberRange ) ).thenReturn( true );
+        when( nativeReader.query( IndexOrder.DESCENDING, numberRange ) ).thenReturn( nativeResult );
+
+        // when
+        boolean canQueryInOrder = fusionIndexReader.canQueryInOrder( numberRange );
+        NodeValueIterator result = fusionIndexReader.query( IndexOrder.DESCENDING, numberRange );
+
+        // then
+        assertTrue( canQueryInOrder );
+        assertSame( nativeResult, result );
+        verifyNoMoreInteractions( luceneReader );
+    }
+
+    @Test
+    public void mustAskLuceneWhetherItCanQueryStringsInOrder() throws Exception
+    {
+        // given
+        IndexQuery.ExactPredicate exact = IndexQuery.exact( PROP_KEY, "string" );
+
+        // when
+        boolean canQueryInOrder = fusionIndexReader.canQueryInOrder( exact );
+
+        // then
+        assertFalse( canQueryInOrder );
+        verify( luceneReader, times( 1 ) ).canQueryInOrder( exact );
+        verifyNoMoreInteractions( nativeReader );
+    }
+
+    @Test
+    public void mustNotQueryInOrderWhenBothReadersMayHoldHits() throws Exception
+    {
+        // given
+        IndexQuery.ExistsPredicate exists = IndexQuery.exists( PROP_KEY );
+        when( nativeReader.canQueryInOrder( exists ) ).thenReturn( true );
+        when( luceneReader.canQueryInOrder( exists ) ).thenReturn( true );
+
+        // when
+        boolean canQueryInOrder = fusionIndexReader.canQueryInOrder( exists );
+        try
+        {
+            fusionIndexReader.query( IndexOrder.ASCENDING, exists );
+            fail( "Should have failed" );
+        }
+        catch ( UnsupportedOperationException e )
+        {
+            // then good
+        }
+
+        // then
+        assertFalse( canQueryInOrder );
+        verifyNoMoreInteractions( nativeReader, luceneReader );
+    }
+
     private void verifyQueryWithCorrectReader( IndexReader expectedReader, IndexReader unexpectedReader, IndexQuery... indexQuery )
             throws IndexNotApplicableKernelException
     {
@@ -261,6 +261,70 @@ public class NodeStoreTest
         assertTrue( nextRelSet.isEmpty() );
     }
 
+    @Test
+    public void readingPagesShouldDecodeEachRecordIntoColumns() throws IOException
+    {
+        // GIVEN a NodeStore with data that spans several pages
+        EphemeralFileSystemAbstraction fs = efs.get();
+        nodeStore = newNodeStore( fs );
+
+        int recordsPerPage = nodeStore.getRecordsPerPage();
+        int nodeCount = recordsPerPage * 3 + recordsPerPage / 2;
+        for ( int i = 0; i < nodeCount; i++ )
+        {
+            long nodeId = nodeStore.nextId();
+            NodeRecord record = new NodeRecord( nodeId, i % 5 == 0, i, i + 1, i % 3 != 0 );
+            record.setLabelField( i, Collections.emptyList() );
+            nodeStore.updateRecord( record );
+        }
+
+        // WHEN reading each page into a batch
+        NextRelPageBatch batch = new NextRelPageBatch( nodeStore );
+        int seen = 0;
+        for ( long pageId = 0; nodeStore.readPage( pageId, batch ); pageId++ )
+        {
+            // THEN the columns should match the records
+            assertEquals( pageId * recordsPerPage, batch.firstId() );
+            for ( int index = 0; index < batch.size(); index++ )
+            {
+                long nodeId = batch.firstId() + index;
+                if ( nodeId >= nodeCount )
+                {
+                    assertFalse( batch.inUse( index ) );
+                    continue;
+                }
+                int i = (int) nodeId;
+                assertEquals( i % 3 != 0, batch.inUse( index ) );
+                if ( batch.inUse( index ) )
+                {
+                    assertEquals( i, batch.nextRel[index] );
+                }
+                seen++;
+            }
+        }
+
+        // AND every node should have been seen once
+        assertEquals( nodeCount, seen );
+    }
+
+    @Test
+    public void readingPageBeyondEndOfStoreShouldReturnEmptyBatch() throws IOException
+    {
+        // GIVEN
+        EphemeralFileSystemAbstraction fs = efs.get();
+        nodeStore = newNodeStore( fs );
+        nodeStore.updateRecord( new NodeRecord( nodeStore.nextId(), false, 10, 20, true ) );
+        RecordPageBatch<NodeRecord> batch = new RecordPageBatch<>( nodeStore );
+
+        // WHEN
+        boolean exists = nodeStore.readPage( 1_000, batch );
+
+        // THEN
+        assertFalse( exists );
+        assertEquals( 0, batch.size() );
+        assertFalse( batch.contains( 1_000L * nodeStore.getRecordsPerPage() ) );
+    }
+
     @Test
     public void shouldCloseStoreFileOnFailureToOpen() throws Exception
     {
@@ -385,4 +449,21 @@ public class NodeStoreTest
         nodeStore = neoStores.getNodeStore();
         return nodeStore;
     }
+
+    private static class NextRelPageBatch extends RecordPageBatch<NodeRecord>
+    {
+        private final long[] nextRel = new long[inUse.length];
+
+        NextRelPageBatch( RecordStore<NodeRecord> store )
+        {
+            super( store );
+        }
+
+        @Override
+        protected void put( int index, NodeRecord record )
+        {
+            super.put( index, record );
+            nextRel[index] = record.getNextRel();
+        }
+    }
 }
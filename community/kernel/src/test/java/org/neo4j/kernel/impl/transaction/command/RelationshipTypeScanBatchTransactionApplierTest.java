@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.command;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.neo4j.concurrent.WorkSync;
+import org.neo4j.kernel.api.labelscan.LabelScanWriter;
+import org.neo4j.kernel.api.labelscan.NodeLabelUpdate;
+import org.neo4j.kernel.impl.api.TransactionApplier;
+import org.neo4j.kernel.impl.api.TransactionToApply;
+import org.neo4j.kernel.impl.store.record.RelationshipRecord;
+import org.neo4j.kernel.impl.transaction.command.Command.RelationshipCommand;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.neo4j.collection.primitive.PrimitiveLongCollections.EMPTY_LONG_ARRAY;
+
+public class RelationshipTypeScanBatchTransactionApplierTest
+{
+    @Test
+    public void shouldProvideTypeChangesForCreatedAndDeletedRelationshipsOnly() throws Exception
+    {
+        // GIVEN
+        List<NodeLabelUpdate> updates = new ArrayList<>();
+        LabelScanWriter writer = new LabelScanWriter()
+        {
+            @Override
+            public void write( NodeLabelUpdate update ) throws IOException
+            {
+                updates.add( update );
+            }
+
+            @Override
+            public void close() throws IOException
+            {   // Nothing to close
+            }
+        };
+        WorkSync<Supplier<LabelScanWriter>,LabelUpdateWork> typeScanSync =
+                new WorkSync<>( () -> writer );
+        try ( RelationshipTypeScanBatchTransactionApplier applier =
+                new RelationshipTypeScanBatchTransactionApplier( typeScanSync ) )
+        {
+            try ( TransactionApplier txApplier = applier.startTx( mock( TransactionToApply.class ) ) )
+            {
+                // WHEN
+                txApplier.visitRelationshipCommand( relationship( 20, false, true, 3 ) );
+                txApplier.visitRelationshipCommand( relationship( 15, true, true, 4 ) );
+                txApplier.visitRelationshipCommand( relationship( 10, true, false, 5 ) );
+            }
+        }
+
+        // THEN
+        assertEquals( asList(
+                NodeLabelUpdate.labelChanges( 10, new long[]{5}, EMPTY_LONG_ARRAY ),
+                NodeLabelUpdate.labelChanges( 20, EMPTY_LONG_ARRAY, new long[]{3} ) ), updates );
+    }
+
+    private RelationshipCommand relationship( long id, boolean inUseBefore, boolean inUseAfter, int type )
+    {
+        RelationshipRecord before = new RelationshipRecord( id );
+        before.setInUse( inUseBefore );
+        before.setType( type );
+        RelationshipRecord after = new RelationshipRecord( id );
+        after.setInUse( inUseAfter );
+        after.setType( type );
+        return new RelationshipCommand( before, after );
+    }
+}
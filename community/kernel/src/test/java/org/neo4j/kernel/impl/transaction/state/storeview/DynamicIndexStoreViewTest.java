@@ -28,6 +28,7 @@ import java.util.function.IntPredicate;
 import org.neo4j.collection.primitive.PrimitiveLongCollections;
 import org.neo4j.collection.primitive.PrimitiveLongIterator;
 import org.neo4j.helpers.collection.Visitor;
+import org.neo4j.kernel.api.ReadOperations;
 import org.neo4j.kernel.api.labelscan.AllEntriesLabelScanReader;
 import org.neo4j.kernel.api.labelscan.LabelScanStore;
 import org.neo4j.kernel.api.labelscan.NodeLabelUpdate;
@@ -87,6 +88,7 @@ public class DynamicIndexStoreViewTest
 
         mockLabelNodeCount( countStore, 2 );
         mockLabelNodeCount( countStore, 6 );
+        mockNodeCount( countStore, ReadOperations.ANY_LABEL, 200 );
 
         DynamicIndexStoreView storeView = dynamicIndexStoreView();
 
@@ -121,6 +123,29 @@ public class DynamicIndexStoreViewTest
                 .getRecord( anyLong(), any( NodeRecord.class ), any( RecordLoad.class ) );
     }
 
+    @Test
+    public void shouldUseStoreScanWhenLabelsCoverLargePartOfNodes() throws Exception
+    {
+        when( labelScanStore.newReader() ).thenThrow( new RuntimeException( "Should not be used" ) );
+
+        when( nodeStore.getHighestPossibleIdInUse() ).thenReturn( 200L );
+        when( nodeStore.getHighId() ).thenReturn( 20L );
+
+        mockLabelNodeCount( countStore, 2 );
+        mockLabelNodeCount( countStore, 6 );
+        mockNodeCount( countStore, ReadOperations.ANY_LABEL, 20 );
+
+        DynamicIndexStoreView storeView = dynamicIndexStoreView();
+
+        StoreScan<Exception> storeScan = storeView
+                .visitNodes( new int[]{2, 6}, propertyKeyIdFilter, propertyUpdateVisitor, labelUpdateVisitor, false );
+
+        storeScan.run();
+
+        Mockito.verify( nodeStore, times( 20 ) )
+                .getRecord( anyLong(), any( NodeRecord.class ), any( RecordLoad.class ) );
+    }
+
     private DynamicIndexStoreView dynamicIndexStoreView()
     {
         LockService locks = LockService.NO_LOCK_SERVICE;
@@ -141,4 +166,10 @@ public class DynamicIndexStoreViewTest
         when( countStore.nodeCount( eq( labelId ), any( Register.DoubleLongRegister.class ) ) ).thenReturn( register );
     }
 
+    private void mockNodeCount( CountsTracker countStore, int labelId, long count )
+    {
+        Register.DoubleLongRegister register = Registers.newDoubleLongRegister( count, count );
+        when( countStore.nodeCount( eq( labelId ), any( Register.DoubleLongRegister.class ) ) ).thenReturn( register );
+    }
+
 }
@@ -0,0 +1,271 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.state.storeview;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.neo4j.graphdb.Label;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.helpers.collection.Visitor;
+import org.neo4j.kernel.api.index.IndexEntryUpdate;
+import org.neo4j.kernel.api.schema.LabelSchemaDescriptor;
+import org.neo4j.kernel.api.schema.SchemaDescriptorFactory;
+import org.neo4j.kernel.impl.api.index.MultipleIndexPopulator;
+import org.neo4j.kernel.impl.api.index.NodeUpdates;
+import org.neo4j.kernel.impl.locking.Lock;
+import org.neo4j.kernel.impl.locking.LockService;
+import org.neo4j.kernel.impl.storageengine.impl.recordstorage.RecordStorageEngine;
+import org.neo4j.kernel.impl.store.NeoStores;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+import org.neo4j.scheduler.JobScheduler;
+import org.neo4j.test.rule.EmbeddedDatabaseRule;
+import org.neo4j.values.storable.Values;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+
+public class ParallelNodeStoreScanTest
+{
+    private static final int NODE_COUNT = 100;
+
+    @Rule
+    public EmbeddedDatabaseRule dbRule = new EmbeddedDatabaseRule();
+
+    private final Label label = Label.label( "Person" );
+    private final LabelSchemaDescriptor schema = SchemaDescriptorFactory.forLabel( 0, 0 );
+    private final Set<Long> nodeIds = new HashSet<>();
+    private NeoStores neoStores;
+    private JobScheduler scheduler;
+
+    @Before
+    public void before()
+    {
+        GraphDatabaseAPI graphDb = dbRule.getGraphDatabaseAPI();
+        try ( Transaction tx = graphDb.beginTx() )
+        {
+            for ( int i = 0; i < NODE_COUNT; i++ )
+            {
+                Node node = graphDb.createNode( label );
+                node.setProperty( "name", "name" + i );
+                nodeIds.add( node.getId() );
+            }
+            tx.success();
+        }
+        neoStores = graphDb.getDependencyResolver().resolveDependency( RecordStorageEngine.class ).testAccessNeoStores();
+        scheduler = graphDb.getDependencyResolver().resolveDependency( JobScheduler.class );
+    }
+
+    @Test
+    public void shouldVisitAllNodesOneAtATime() throws Exception
+    {
+        // given
+        Set<Long> visited = new HashSet<>();
+        AtomicBoolean visiting = new AtomicBoolean();
+        AtomicBoolean concurrentVisit = new AtomicBoolean();
+        Visitor<NodeUpdates,Exception> visitor = updates ->
+        {
+            if ( !visiting.compareAndSet( false, true ) )
+            {
+                concurrentVisit.set( true );
+            }
+            visited.add( updates.getNodeId() );
+            visiting.set( false );
+            return false;
+        };
+        ParallelNodeStoreScan<Exception> scan = newScan( visitor, 4, 3 );
+
+        // when
+        scan.run();
+
+        // then
+        assertFalse( "visitor called concurrently", concurrentVisit.get() );
+        assertEquals( nodeIds, visited );
+        assertEquals( scan.getProgress().getTotal(), scan.getProgress().getCompleted() );
+    }
+
+    @Test
+    public void shouldNotVisitWhileHoldingNodeLock() throws Exception
+    {
+        // given
+        ThreadLocal<Integer> heldLocks = ThreadLocal.withInitial( () -> 0 );
+        AtomicBoolean visitedWhileLocked = new AtomicBoolean();
+        LockService locks = new LockService()
+        {
+            @Override
+            public Lock acquireNodeLock( long nodeId, LockType type )
+            {
+                heldLocks.set( heldLocks.get() + 1 );
+                return new Lock()
+                {
+                    @Override
+                    public void release()
+                    {
+                        heldLocks.set( heldLocks.get() - 1 );
+                    }
+                };
+            }
+
+            @Override
+            public Lock acquireRelationshipLock( long relationshipId, LockType type )
+            {
+                throw new UnsupportedOperationException();
+            }
+        };
+        Visitor<NodeUpdates,Exception> visitor = updates ->
+        {
+            if ( heldLocks.get() != 0 )
+            {
+                visitedWhileLocked.set( true );
+            }
+            return false;
+        };
+        ParallelNodeStoreScan<Exception> scan = new ParallelNodeStoreScan<>( scheduler, neoStores.getNodeStore(), locks,
+                neoStores.getPropertyStore(), visitor, new int[]{0}, id -> id == 0, 4, 2, 3 );
+
+        // when
+        scan.run();
+
+        // then
+        assertFalse( "visitor called while holding a node lock", visitedWhileLocked.get() );
+    }
+
+    @Test
+    public void shouldScanPartitionsOnNoMoreThreadsThanTheParallelism() throws Exception
+    {
+        // given
+        Set<Thread> scanningThreads = ConcurrentHashMap.newKeySet();
+        LockService locks = new LockService()
+        {
+            @Override
+            public Lock acquireNodeLock( long nodeId, LockType type )
+            {
+                scanningThreads.add( Thread.currentThread() );
+                return NO_LOCK;
+            }
+
+            @Override
+            public Lock acquireRelationshipLock( long relationshipId, LockType type )
+            {
+                throw new UnsupportedOperationException();
+            }
+        };
+        Set<Long> visited = new HashSet<>();
+        Visitor<NodeUpdates,Exception> visitor = updates ->
+        {
+            visited.add( updates.getNodeId() );
+            return false;
+        };
+        ParallelNodeStoreScan<Exception> scan = new ParallelNodeStoreScan<>( scheduler, neoStores.getNodeStore(), locks,
+                neoStores.getPropertyStore(), visitor, new int[]{0}, id -> id == 0, 10, 2, 3 );
+
+        // when
+        scan.run();
+
+        // then
+        assertEquals( nodeIds, visited );
+        assertTrue( "scanned on " + scanningThreads.size() + " threads", scanningThreads.size() <= 2 );
+    }
+
+    @Test
+    public void shouldDropUpdatesForNodesNotYetRead()
+    {
+        // given
+        ParallelNodeStoreScan<Exception> scan = newScan( updates -> false, 4, 3 );
+        MultipleIndexPopulator.MultipleIndexUpdater updater = mock( MultipleIndexPopulator.MultipleIndexUpdater.class );
+
+        // when
+        scan.acceptUpdate( updater, update( 1 ), 1 );
+        scan.acceptUpdate( updater, update( NODE_COUNT - 1 ), 1 );
+
+        // then
+        verifyZeroInteractions( updater );
+    }
+
+    @Test
+    public void shouldApplyUpdatesForVisitedNodes() throws Exception
+    {
+        // given
+        ParallelNodeStoreScan<Exception> scan = newScan( updates -> false, 4, 3 );
+        MultipleIndexPopulator.MultipleIndexUpdater updater = mock( MultipleIndexPopulator.MultipleIndexUpdater.class );
+        scan.run();
+
+        // when
+        IndexEntryUpdate<?> first = update( 1 );
+        IndexEntryUpdate<?> last = update( NODE_COUNT - 1 );
+        scan.acceptUpdate( updater, first, Long.MAX_VALUE );
+        scan.acceptUpdate( updater, last, Long.MAX_VALUE );
+
+        // then
+        verify( updater ).process( first );
+        verify( updater ).process( last );
+    }
+
+    @Test
+    public void shouldDeferUpdatesForNodesReadButNotYetVisited() throws Exception
+    {
+        // given
+        MultipleIndexPopulator.MultipleIndexUpdater updater = mock( MultipleIndexPopulator.MultipleIndexUpdater.class );
+        IndexEntryUpdate<?> visitedUpdate = update( 0 );
+        IndexEntryUpdate<?> readUpdate = update( NODE_COUNT - 1 );
+        AtomicReference<ParallelNodeStoreScan<Exception>> scan = new AtomicReference<>();
+        scan.set( newScan( updates ->
+        {
+            if ( updates.getNodeId() == 0 )
+            {
+                // the whole store fits in one batch, so all nodes have been read at this point
+                scan.get().acceptUpdate( updater, visitedUpdate, 0 );
+                scan.get().acceptUpdate( updater, readUpdate, 0 );
+            }
+            return false;
+        }, 1, NODE_COUNT * 2 ) );
+
+        // when
+        scan.get().run();
+
+        // then
+        verify( updater ).process( visitedUpdate );
+        verify( updater ).defer( readUpdate );
+    }
+
+    private ParallelNodeStoreScan<Exception> newScan( Visitor<NodeUpdates,Exception> visitor, int partitions,
+            int batchSize )
+    {
+        return new ParallelNodeStoreScan<>( scheduler, neoStores.getNodeStore(), LockService.NO_LOCK_SERVICE,
+                neoStores.getPropertyStore(), visitor, new int[]{0}, id -> id == 0, partitions, partitions, batchSize );
+    }
+
+    private IndexEntryUpdate<?> update( long nodeId )
+    {
+        return IndexEntryUpdate.add( nodeId, schema, Values.of( "name" ) );
+    }
+}
@@ -21,6 +21,8 @@ package org.neo4j.kernel.api.impl.schema;
 
 import java.io.File;
 import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.neo4j.collection.primitive.PrimitiveLongSet;
 import org.neo4j.graphdb.ResourceIterator;
@@ -37,16 +39,55 @@ import org.neo4j.kernel.impl.api.index.IndexUpdateMode;
 import org.neo4j.storageengine.api.schema.IndexReader;
 import org.neo4j.values.storable.Value;
 
+import static org.neo4j.kernel.api.schema.index.IndexDescriptor.Type.UNIQUE;
+
 public class LuceneIndexAccessor implements IndexAccessor
 {
+    /**
+     * Notified about every refresh of the searchers of an index, which is what makes committed changes visible
+     * to index reads.
+     */
+    public interface Monitor
+    {
+        void searchersRefreshed( long indexId, long refreshTimeNanos );
+    }
+
+    public static final Monitor NO_MONITOR = ( indexId, refreshTimeNanos ) ->
+    {
+    };
+
+    private static final long CLEAN = Long.MIN_VALUE;
+
     private final LuceneIndexWriter writer;
     private final SchemaIndex luceneIndex;
     private final IndexDescriptor descriptor;
+    private final long indexId;
+    private final long refreshStalenessNanos;
+    private final Monitor monitor;
+    // System#nanoTime of the first change not yet visible to readers, or CLEAN if there is none
+    private final AtomicLong changedSince = new AtomicLong( CLEAN );
+    // number of committed changes, and the number of them the searchers are known to reflect
+    private final AtomicLong changeGeneration = new AtomicLong();
+    private final AtomicLong searcherGeneration = new AtomicLong();
 
     public LuceneIndexAccessor( SchemaIndex luceneIndex, IndexDescriptor descriptor ) throws IOException
+    {
+        this( luceneIndex, descriptor, -1, Duration.ZERO, NO_MONITOR );
+    }
+
+    /**
+     * @param refreshStaleness how long committing to a non-unique index may leave the refresh of the searchers to
+     * later commits or to the next reader. {@link Duration#ZERO} refreshes when every updater is closed. Readers
+     * always see every committed change.
+     */
+    public LuceneIndexAccessor( SchemaIndex luceneIndex, IndexDescriptor descriptor, long indexId,
+            Duration refreshStaleness, Monitor monitor ) throws IOException
     {
         this.luceneIndex = luceneIndex;
         this.descriptor = descriptor;
+        this.indexId = indexId;
+        this.refreshStalenessNanos = descriptor.type() == UNIQUE ? 0 : refreshStaleness.toNanos();
+        this.monitor = monitor;
         this.writer = luceneIndex.isReadOnly() ? null : luceneIndex.getIndexWriter();
     }
 
@@ -80,7 +121,7 @@ public class LuceneIndexAccessor implements IndexAccessor
     public void force() throws IOException
     {
         luceneIndex.markAsOnline();
-        luceneIndex.maybeRefreshBlocking();
+        refresh();
     }
 
     @Override
@@ -94,6 +135,8 @@ public class LuceneIndexAccessor implements IndexAccessor
     {
         try
         {
+            // committed changes must be visible to every transaction that starts reading after the commit
+            refreshIfChanged();
             return luceneIndex.getIndexReader();
         }
         catch ( IOException e )
@@ -121,6 +164,54 @@ public class LuceneIndexAccessor implements IndexAccessor
         luceneIndex.verifyUniqueness( propertyAccessor, descriptor.schema().getPropertyIds() );
     }
 
+    /**
+     * Registers committed changes, refreshing the searchers right away unless refreshes may be batched and the
+     * staleness window, counted from the oldest change that isn't yet visible, hasn't passed yet. A change that
+     * is not refreshed here is refreshed by the next reader.
+     */
+    private void changed( boolean refreshNow ) throws IOException
+    {
+        changeGeneration.incrementAndGet();
+        if ( refreshNow || refreshStalenessNanos == 0 )
+        {
+            refresh();
+        }
+        else
+        {
+            changedSince.compareAndSet( CLEAN, System.nanoTime() );
+            refreshIfStale();
+        }
+    }
+
+    private void refreshIfStale() throws IOException
+    {
+        long since = changedSince.get();
+        if ( since != CLEAN && System.nanoTime() - since >= refreshStalenessNanos )
+        {
+            refresh();
+        }
+    }
+
+    private void refreshIfChanged() throws IOException
+    {
+        // also covers a refresh by another thread that has started, but not completed, after the last change
+        if ( searcherGeneration.get() < changeGeneration.get() )
+        {
+            refresh();
+        }
+    }
+
+    private void refresh() throws IOException
+    {
+        // changes made from here on may not be picked up by this refresh, so they must mark the index anew
+        long generation = changeGeneration.get();
+        changedSince.set( CLEAN );
+        long startTime = System.nanoTime();
+        luceneIndex.maybeRefreshBlocking();
+        monitor.searchersRefreshed( indexId, System.nanoTime() - startTime );
+        searcherGeneration.accumulateAndGet( generation, Math::max );
+    }
+
     private class LuceneIndexUpdater implements IndexUpdater
     {
         private final boolean isRecovery;
@@ -168,7 +259,8 @@ public class LuceneIndexAccessor implements IndexAccessor
         {
             if ( hasChanges )
             {
-                luceneIndex.maybeRefreshBlocking();
+                // recovered changes must be visible to the rest of recovery
+                changed( isRecovery );
             }
         }
 
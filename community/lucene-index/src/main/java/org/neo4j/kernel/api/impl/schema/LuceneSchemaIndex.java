@@ -26,6 +26,7 @@ import org.apache.lucene.store.Directory;
 import java.io.IOException;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 
 import org.neo4j.helpers.TaskCoordinator;
@@ -61,15 +62,17 @@ class LuceneSchemaIndex extends AbstractLuceneIndex
 
     private final IndexDescriptor descriptor;
     private final IndexSamplingConfig samplingConfig;
+    private final Executor queryExecutor;
 
     private final TaskCoordinator taskCoordinator = new TaskCoordinator( 10, TimeUnit.MILLISECONDS );
 
     LuceneSchemaIndex( PartitionedIndexStorage indexStorage, IndexDescriptor descriptor,
-            IndexSamplingConfig samplingConfig, IndexPartitionFactory partitionFactory )
+            IndexSamplingConfig samplingConfig, IndexPartitionFactory partitionFactory, Executor queryExecutor )
     {
         super( indexStorage, partitionFactory );
         this.descriptor = descriptor;
         this.samplingConfig = samplingConfig;
+        this.queryExecutor = queryExecutor;
     }
 
     public LuceneIndexWriter getIndexWriter( WritableDatabaseSchemaIndex writableLuceneSchemaIndex ) throws IOException
@@ -212,7 +215,7 @@ class LuceneSchemaIndex extends AbstractLuceneIndex
     private PartitionedIndexReader createPartitionedReader( List<AbstractIndexPartition> partitions ) throws IOException
     {
         List<PartitionSearcher> searchers = acquireSearchers( partitions );
-        return new PartitionedIndexReader( searchers, descriptor, samplingConfig, taskCoordinator );
+        return new PartitionedIndexReader( searchers, descriptor, samplingConfig, taskCoordinator, queryExecutor );
     }
 
     private UniquenessVerifier createPartitionedUniquenessVerifier( List<AbstractIndexPartition> partitions ) throws IOException
@@ -22,6 +22,8 @@ package org.neo4j.kernel.api.impl.schema;
 import org.apache.lucene.index.IndexWriter;
 import org.apache.lucene.index.IndexWriterConfig;
 
+import java.util.concurrent.Executor;
+
 import org.neo4j.function.Factory;
 import org.neo4j.graphdb.factory.GraphDatabaseSettings;
 import org.neo4j.kernel.api.impl.index.IndexWriterConfigs;
@@ -46,6 +48,7 @@ public class LuceneSchemaIndexBuilder extends AbstractLuceneIndexBuilder<LuceneS
     private final IndexDescriptor descriptor;
     private IndexSamplingConfig samplingConfig = new IndexSamplingConfig( Config.defaults() );
     private Factory<IndexWriterConfig> writerConfigFactory = IndexWriterConfigs::standard;
+    private Executor queryExecutor = Runnable::run;
 
     private LuceneSchemaIndexBuilder( IndexDescriptor descriptor )
     {
@@ -87,6 +90,19 @@ public class LuceneSchemaIndexBuilder extends AbstractLuceneIndexBuilder<LuceneS
         return this;
     }
 
+    /**
+     * Specify {@link Executor} to search the partitions of the index on. By default partitions are searched by the
+     * thread making the query.
+     *
+     * @param queryExecutor executor of partition searches
+     * @return index builder
+     */
+    public LuceneSchemaIndexBuilder withQueryExecutor( Executor queryExecutor )
+    {
+        this.queryExecutor = queryExecutor;
+        return this;
+    }
+
     /**
      * Build lucene schema index with specified configuration
      *
@@ -97,14 +113,14 @@ public class LuceneSchemaIndexBuilder extends AbstractLuceneIndexBuilder<LuceneS
         if ( isReadOnly() )
         {
             return new ReadOnlyDatabaseSchemaIndex( storageBuilder.build(), descriptor, samplingConfig,
-                    new ReadOnlyIndexPartitionFactory() );
+                    new ReadOnlyIndexPartitionFactory(), queryExecutor );
         }
         else
         {
             Boolean archiveFailed = getConfig( GraphDatabaseSettings.archive_failed_index );
             PartitionedIndexStorage storage = storageBuilder.archivingFailed( archiveFailed ).build();
             return new WritableDatabaseSchemaIndex( storage, descriptor, samplingConfig,
-                    new WritableIndexPartitionFactory( writerConfigFactory ) );
+                    new WritableIndexPartitionFactory( writerConfigFactory ), queryExecutor );
         }
     }
 
@@ -21,6 +21,8 @@ package org.neo4j.kernel.api.impl.schema;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
 
 import org.neo4j.graphdb.factory.GraphDatabaseSettings;
 import org.neo4j.io.fs.FileSystemAbstraction;
@@ -41,9 +43,12 @@ import org.neo4j.kernel.impl.api.index.sampling.IndexSamplingConfig;
 import org.neo4j.kernel.impl.factory.OperationalMode;
 import org.neo4j.kernel.impl.storemigration.StoreMigrationParticipant;
 import org.neo4j.kernel.impl.storemigration.participant.SchemaIndexMigrator;
+import org.neo4j.kernel.monitoring.Monitors;
 import org.neo4j.logging.Log;
 import org.neo4j.logging.LogProvider;
+import org.neo4j.scheduler.JobScheduler;
 
+import static java.util.concurrent.Executors.newFixedThreadPool;
 import static org.neo4j.kernel.api.schema.index.IndexDescriptor.Type.UNIQUE;
 
 public class LuceneSchemaIndexProvider extends SchemaIndexProvider
@@ -53,17 +58,44 @@ public class LuceneSchemaIndexProvider extends SchemaIndexProvider
     private Config config;
     private OperationalMode operationalMode;
     private FileSystemAbstraction fileSystem;
+    private final LuceneIndexAccessor.Monitor accessorMonitor;
+    private final ExecutorService queryPool;
+    private final Executor queryExecutor;
 
     public LuceneSchemaIndexProvider( FileSystemAbstraction fileSystem, DirectoryFactory directoryFactory,
                                       File storeDir, LogProvider logging, Config config,
                                       OperationalMode operationalMode )
+    {
+        this( fileSystem, directoryFactory, storeDir, logging, config, operationalMode, new Monitors() );
+    }
+
+    public LuceneSchemaIndexProvider( FileSystemAbstraction fileSystem, DirectoryFactory directoryFactory,
+                                      File storeDir, LogProvider logging, Config config,
+                                      OperationalMode operationalMode, Monitors monitors )
+    {
+        this( fileSystem, directoryFactory, storeDir, logging, config, operationalMode, monitors, null );
+    }
+
+    /**
+     * @param scheduler provides the threads of the pool, sized by
+     * {@link GraphDatabaseSettings#lucene_index_partition_query_threads}, that searches the partitions of partitioned
+     * indexes in parallel, or {@code null} to search them in the thread of the query.
+     */
+    public LuceneSchemaIndexProvider( FileSystemAbstraction fileSystem, DirectoryFactory directoryFactory,
+                                      File storeDir, LogProvider logging, Config config,
+                                      OperationalMode operationalMode, Monitors monitors, JobScheduler scheduler )
     {
         super( LuceneSchemaIndexProviderFactory.PROVIDER_DESCRIPTOR, 1 );
+        this.accessorMonitor = monitors.newMonitor( LuceneIndexAccessor.Monitor.class );
         File schemaIndexStoreFolder = getSchemaIndexStoreDirectory( storeDir );
         this.indexStorageFactory = buildIndexStorageFactory( fileSystem, directoryFactory, schemaIndexStoreFolder );
         this.fileSystem = fileSystem;
         this.config = config;
         this.operationalMode = operationalMode;
+        this.queryPool = scheduler == null ? null : newFixedThreadPool(
+                config.get( GraphDatabaseSettings.lucene_index_partition_query_threads ),
+                scheduler.threadFactory( JobScheduler.Groups.indexPartitionQuery ) );
+        this.queryExecutor = queryPool == null ? Runnable::run : queryPool;
         this.log = logging.getLog( getClass() );
     }
 
@@ -87,6 +119,7 @@ public class LuceneSchemaIndexProvider extends SchemaIndexProvider
                                         .withSamplingConfig( samplingConfig )
                                         .withIndexStorage( getIndexStorage( indexId ) )
                                         .withWriterConfig( IndexWriterConfigs::population )
+                                        .withQueryExecutor( queryExecutor )
                                         .build();
         if ( luceneIndex.isReadOnly() )
         {
@@ -111,14 +144,20 @@ public class LuceneSchemaIndexProvider extends SchemaIndexProvider
                                             .withOperationalMode( operationalMode )
                                             .withSamplingConfig( samplingConfig )
                                             .withIndexStorage( getIndexStorage( indexId ) )
+                                            .withQueryExecutor( queryExecutor )
                                             .build();
         luceneIndex.open();
-        return new LuceneIndexAccessor( luceneIndex, descriptor );
+        return new LuceneIndexAccessor( luceneIndex, descriptor, indexId,
+                config.get( GraphDatabaseSettings.lucene_index_refresh_staleness ), accessorMonitor );
     }
 
     @Override
     public void shutdown() throws Throwable
-    {   // Nothing to shut down
+    {
+        if ( queryPool != null )
+        {
+            queryPool.shutdown();
+        }
     }
 
     @Override
@@ -28,7 +28,9 @@ import org.neo4j.kernel.extension.KernelExtensionFactory;
 import org.neo4j.kernel.impl.factory.GraphDatabaseFacadeFactory;
 import org.neo4j.kernel.impl.logging.LogService;
 import org.neo4j.kernel.impl.spi.KernelContext;
+import org.neo4j.kernel.monitoring.Monitors;
 import org.neo4j.logging.LogProvider;
+import org.neo4j.scheduler.JobScheduler;
 
 import static org.neo4j.kernel.api.impl.index.LuceneKernelExtensions.directoryFactory;
 
@@ -48,6 +50,10 @@ public class LuceneSchemaIndexProviderFactory extends
         LogService getLogging();
 
         FileSystemAbstraction fileSystem();
+
+        Monitors monitors();
+
+        JobScheduler scheduler();
     }
 
     public LuceneSchemaIndexProviderFactory()
@@ -66,6 +72,7 @@ public class LuceneSchemaIndexProviderFactory extends
         DirectoryFactory directoryFactory = directoryFactory( ephemeral, fileSystem );
 
         return new LuceneSchemaIndexProvider( fileSystem, directoryFactory, context.storeDir(), logging, config,
-                context.databaseInfo().operationalMode );
+                context.databaseInfo().operationalMode, dependencies.monitors(),
+                dependencies.scheduler() );
     }
 }
@@ -21,6 +21,7 @@ package org.neo4j.kernel.api.impl.schema;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.Executor;
 
 import org.neo4j.kernel.api.exceptions.index.IndexEntryConflictException;
 import org.neo4j.kernel.api.impl.index.WritableAbstractDatabaseIndex;
@@ -41,9 +42,11 @@ public class WritableDatabaseSchemaIndex extends WritableAbstractDatabaseIndex<L
 {
 
     public WritableDatabaseSchemaIndex( PartitionedIndexStorage storage, IndexDescriptor descriptor,
-            IndexSamplingConfig samplingConfig, WritableIndexPartitionFactory writableIndexPartitionFactory )
+            IndexSamplingConfig samplingConfig, WritableIndexPartitionFactory writableIndexPartitionFactory,
+            Executor queryExecutor )
     {
-        super( new LuceneSchemaIndex( storage, descriptor, samplingConfig, writableIndexPartitionFactory ) );
+        super( new LuceneSchemaIndex( storage, descriptor, samplingConfig, writableIndexPartitionFactory,
+                queryExecutor ) );
     }
 
     @Override
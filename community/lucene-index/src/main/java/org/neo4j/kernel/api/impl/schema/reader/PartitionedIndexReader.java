@@ -20,7 +20,15 @@
 package org.neo4j.kernel.api.impl.schema.reader;
 
 import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -36,33 +44,48 @@ import org.neo4j.kernel.api.schema.index.IndexDescriptor;
 import org.neo4j.kernel.impl.api.index.sampling.IndexSamplingConfig;
 import org.neo4j.storageengine.api.schema.IndexReader;
 import org.neo4j.storageengine.api.schema.IndexSampler;
+import org.neo4j.unsafe.impl.internal.dragons.FeatureToggles;
 import org.neo4j.values.storable.Value;
 
 /**
  * Index reader that is able to read/sample multiple partitions of a partitioned Lucene index.
  * Internally uses multiple {@link SimpleIndexReader}s for individual partitions.
+ * <p>
+ * Queries search partitions in parallel on the given query executor, typically the fixed size pool of
+ * {@link org.neo4j.scheduler.JobScheduler.Groups#indexPartitionQuery index partition query} threads shared by all
+ * Lucene schema indexes, with at most {@code query_parallelism} partitions of a single query being searched at any
+ * time. Results are merged lazily, in partition order, so the first results are available as soon as the first
+ * partition has been searched. Counting and creating samplers go through the same executor.
  *
  * @see SimpleIndexReader
  */
 public class PartitionedIndexReader implements IndexReader
 {
+    private static final int QUERY_PARALLELISM = FeatureToggles.getInteger( PartitionedIndexReader.class,
+            "query_parallelism", 4 );
 
     private final List<SimpleIndexReader> indexReaders;
+    private final Executor queryExecutor;
+    private final int queryParallelism;
+    private final Queue<PartitionQuery<?>> runningQueries = new ArrayDeque<>();
 
     public PartitionedIndexReader( List<PartitionSearcher> partitionSearchers,
             IndexDescriptor descriptor,
             IndexSamplingConfig samplingConfig,
-            TaskCoordinator taskCoordinator )
+            TaskCoordinator taskCoordinator,
+            Executor queryExecutor )
     {
         this( partitionSearchers.stream()
                 .map( partitionSearcher -> new SimpleIndexReader( partitionSearcher, descriptor,
                         samplingConfig, taskCoordinator ) )
-                .collect( Collectors.toList() ) );
+                .collect( Collectors.toList() ), queryExecutor, QUERY_PARALLELISM );
     }
 
-    PartitionedIndexReader( List<SimpleIndexReader> readers )
+    PartitionedIndexReader( List<SimpleIndexReader> readers, Executor queryExecutor, int queryParallelism )
     {
         this.indexReaders = readers;
+        this.queryExecutor = queryExecutor;
+        this.queryParallelism = Math.max( 1, queryParallelism );
     }
 
     @Override
@@ -113,23 +136,24 @@ public class PartitionedIndexReader implements IndexReader
     @Override
     public long countIndexedNodes( long nodeId, Value... propertyValues )
     {
-        return indexReaders.parallelStream()
-                .mapToLong( reader -> reader.countIndexedNodes( nodeId, propertyValues ) )
-                .sum();
+        long count = 0;
+        for ( long partitionCount : onEachPartition( reader -> reader.countIndexedNodes( nodeId, propertyValues ) ) )
+        {
+            count += partitionCount;
+        }
+        return count;
     }
 
     @Override
     public IndexSampler createSampler()
     {
-        List<IndexSampler> indexSamplers = indexReaders.parallelStream()
-                .map( SimpleIndexReader::createSampler )
-                .collect( Collectors.toList() );
-        return new AggregatingIndexSampler( indexSamplers );
+        return new AggregatingIndexSampler( onEachPartition( SimpleIndexReader::createSampler ) );
     }
 
     @Override
     public void close()
     {
+        awaitRunningQueries();
         try
         {
             IOUtils.closeAll( indexReaders );
@@ -140,11 +164,216 @@ public class PartitionedIndexReader implements IndexReader
         }
     }
 
+    /**
+     * Applies the given function to every partition on the query executor, within the same parallelism limit as
+     * queries, and returns the results in partition order.
+     */
+    private <T> List<T> onEachPartition( Function<SimpleIndexReader,T> readerFunction )
+    {
+        List<T> results = new ArrayList<>( indexReaders.size() );
+        if ( indexReaders.size() == 1 )
+        {
+            results.add( readerFunction.apply( indexReaders.get( 0 ) ) );
+            return results;
+        }
+        Queue<PartitionQuery<T>> pending = new ArrayDeque<>();
+        int nextPartition = 0;
+        while ( nextPartition < indexReaders.size() || !pending.isEmpty() )
+        {
+            while ( pending.size() < queryParallelism && nextPartition < indexReaders.size() )
+            {
+                pending.add( submitQuery( indexReaders.get( nextPartition++ ), readerFunction ) );
+            }
+            results.add( awaitResult( pending.poll() ) );
+        }
+        return results;
+    }
+
     private PrimitiveLongIterator partitionedOperation(
             Function<SimpleIndexReader,PrimitiveLongIterator> readerFunction )
     {
-        return PrimitiveLongCollections.concat( indexReaders.parallelStream()
-                .map( readerFunction::apply )
-                .collect( Collectors.toList() ) );
+        if ( indexReaders.size() == 1 )
+        {
+            return readerFunction.apply( indexReaders.get( 0 ) );
+        }
+        PartitionedQueryIterator iterator = new PartitionedQueryIterator( readerFunction );
+        // search the first partition up front so that failures, e.g. a not applicable query, surface from query()
+        iterator.awaitNextPartition();
+        return iterator;
+    }
+
+    /**
+     * Partition searches may still be running on the query executor when this reader is closed, e.g. when the
+     * result of a query is not fully consumed. Those that have not started are abandoned and the others awaited
+     * until they have finished, even if interrupted, since the searchers they use are about to be released.
+     */
+    private void awaitRunningQueries()
+    {
+        boolean interrupted = false;
+        PartitionQuery<?> query;
+        while ( (query = pollRunningQuery()) != null )
+        {
+            if ( query.abandon() )
+            {
+                continue;
+            }
+            while ( true )
+            {
+                try
+                {
+                    query.get();
+                    break;
+                }
+                catch ( InterruptedException e )
+                {
+                    interrupted = true;
+                }
+                catch ( ExecutionException | CancellationException e )
+                {
+                    // the result is of no interest anymore
+                    break;
+                }
+            }
+        }
+        if ( interrupted )
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private synchronized PartitionQuery<?> pollRunningQuery()
+    {
+        return runningQueries.poll();
+    }
+
+    private <T> PartitionQuery<T> submitQuery( SimpleIndexReader reader, Function<SimpleIndexReader,T> readerFunction )
+    {
+        PartitionQuery<T> query = new PartitionQuery<>( reader, readerFunction );
+        synchronized ( this )
+        {
+            runningQueries.removeIf( FutureTask::isDone );
+            runningQueries.add( query );
+        }
+        queryExecutor.execute( query );
+        return query;
+    }
+
+    private static <T> T awaitResult( FutureTask<T> query )
+    {
+        try
+        {
+            return query.get();
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException( "Interrupted while waiting for index partition query", e );
+        }
+        catch ( ExecutionException e )
+        {
+            Throwable cause = e.getCause();
+            if ( cause instanceof RuntimeException )
+            {
+                throw (RuntimeException) cause;
+            }
+            if ( cause instanceof Error )
+            {
+                throw (Error) cause;
+            }
+            throw new RuntimeException( cause );
+        }
+    }
+
+    /**
+     * Search of a single partition. It is started either by the query executor or, if it has not been started by then,
+     * {@link #abandon() abandoned} when the reader is closed, but never both.
+     */
+    private static class PartitionQuery<T> extends FutureTask<T>
+    {
+        private final AtomicBoolean claimed = new AtomicBoolean();
+
+        PartitionQuery( SimpleIndexReader reader, Function<SimpleIndexReader,T> readerFunction )
+        {
+            super( () -> readerFunction.apply( reader ) );
+        }
+
+        @Override
+        public void run()
+        {
+            if ( claimed.compareAndSet( false, true ) )
+            {
+                super.run();
+            }
+        }
+
+        /**
+         * @return {@code true} if this search will never run, otherwise {@code false} if it has already been started
+         * and needs to be awaited.
+         */
+        boolean abandon()
+        {
+            if ( claimed.compareAndSet( false, true ) )
+            {
+                cancel( false );
+                return true;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Concatenates the results of all partitions in partition order, keeping at most {@link #queryParallelism}
+     * partition searches in flight and starting the next one whenever the result of an earlier one is taken.
+     */
+    private class PartitionedQueryIterator extends PrimitiveLongCollections.PrimitiveLongBaseIterator
+    {
+        private final Function<SimpleIndexReader,PrimitiveLongIterator> readerFunction;
+        private final Queue<PartitionQuery<PrimitiveLongIterator>> pending = new ArrayDeque<>();
+        private int nextPartition;
+        private PrimitiveLongIterator current = PrimitiveLongCollections.emptyIterator();
+
+        PartitionedQueryIterator( Function<SimpleIndexReader,PrimitiveLongIterator> readerFunction )
+        {
+            this.readerFunction = readerFunction;
+            while ( pending.size() < queryParallelism && submitNextPartition() )
+            {
+                // fill up the window
+            }
+        }
+
+        @Override
+        protected boolean fetchNext()
+        {
+            while ( !current.hasNext() )
+            {
+                if ( !awaitNextPartition() )
+                {
+                    return false;
+                }
+            }
+            return next( current.next() );
+        }
+
+        boolean awaitNextPartition()
+        {
+            PartitionQuery<PrimitiveLongIterator> query = pending.poll();
+            if ( query == null )
+            {
+                return false;
+            }
+            current = awaitResult( query );
+            submitNextPartition();
+            return true;
+        }
+
+        private boolean submitNextPartition()
+        {
+            if ( nextPartition >= indexReaders.size() )
+            {
+                return false;
+            }
+            pending.add( submitQuery( indexReaders.get( nextPartition++ ), readerFunction ) );
+            return true;
+        }
     }
 }
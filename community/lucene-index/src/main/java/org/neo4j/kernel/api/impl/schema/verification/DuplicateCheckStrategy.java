@@ -23,9 +23,12 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 
+import org.neo4j.collection.primitive.Primitive;
+import org.neo4j.collection.primitive.PrimitiveLongLongMap;
 import org.neo4j.kernel.api.StatementConstants;
 import org.neo4j.kernel.api.exceptions.index.IndexEntryConflictException;
 import org.neo4j.values.storable.Value;
+import org.neo4j.values.storable.ValueKeys;
 import org.neo4j.values.storable.ValueTuple;
 
 import static java.lang.Math.max;
@@ -36,10 +39,21 @@ import static java.lang.Math.min;
  * constraint creation.
  *
  * Each particular strategy determines how uniqueness check is done and how to accumulate and store those values for
- * to make check time and resource consumption optimal.
+ * to make check time and resource consumption optimal. Values and tuples that can be encoded as long keys, see
+ * {@link ValueKeys}, are checked in a primitive map by all strategies, the strategies only store the other values.
  */
 abstract class DuplicateCheckStrategy
 {
+    // the null key of primitive maps, values with this key are checked by the strategy like values that have no key
+    private static final long NULL_KEY = -1;
+
+    private final PrimitiveLongLongMap keyNodeIdMap;
+
+    DuplicateCheckStrategy( PrimitiveLongLongMap keyNodeIdMap )
+    {
+        this.keyNodeIdMap = keyNodeIdMap;
+    }
+
     /**
      * Check uniqueness of multiple properties that belong to a node with provided node id
      * @param values property values
@@ -57,6 +71,40 @@ abstract class DuplicateCheckStrategy
      */
     abstract void checkForDuplicate( Value value, long nodeId ) throws IndexEntryConflictException;
 
+    /**
+     * Check uniqueness of multiple properties by their long key, if they can be encoded as one.
+     * @return {@code true} if the properties have been checked, otherwise the strategy needs to check them
+     * @throws IndexEntryConflictException
+     */
+    boolean checkForDuplicateKey( Value[] values, long nodeId ) throws IndexEntryConflictException
+    {
+        return ValueKeys.isLongKey( values ) && checkForDuplicateKey( ValueKeys.longKey( values ), nodeId, values );
+    }
+
+    /**
+     * Check uniqueness of single property by its long key, if it can be encoded as one.
+     * @return {@code true} if the property has been checked, otherwise the strategy needs to check it
+     * @throws IndexEntryConflictException
+     */
+    boolean checkForDuplicateKey( Value value, long nodeId ) throws IndexEntryConflictException
+    {
+        return ValueKeys.isLongKey( value ) && checkForDuplicateKey( ValueKeys.longKey( value ), nodeId, value );
+    }
+
+    private boolean checkForDuplicateKey( long key, long nodeId, Value... values ) throws IndexEntryConflictException
+    {
+        if ( key == NULL_KEY )
+        {
+            return false;
+        }
+        if ( keyNodeIdMap.containsKey( key ) )
+        {
+            throw new IndexEntryConflictException( keyNodeIdMap.get( key ), nodeId, ValueTuple.of( values ) );
+        }
+        keyNodeIdMap.put( key, nodeId );
+        return true;
+    }
+
     private static boolean propertyValuesEqual( Value[] properties, Value[] values )
     {
         if ( properties.length != values.length )
@@ -82,6 +130,7 @@ abstract class DuplicateCheckStrategy
 
         MapDuplicateCheckStrategy( int expectedNumberOfEntries )
         {
+            super( Primitive.longLongMap( expectedNumberOfEntries ) );
             this.valueNodeIdMap = new HashMap<>( expectedNumberOfEntries );
         }
 
@@ -89,6 +138,10 @@ abstract class DuplicateCheckStrategy
         public void checkForDuplicate( Value[] values, long nodeId )
                 throws IndexEntryConflictException
         {
+            if ( checkForDuplicateKey( values, nodeId ) )
+            {
+                return;
+            }
             Long previousNodeId = valueNodeIdMap.put( ValueTuple.of( values ), nodeId );
             if ( previousNodeId != null )
             {
@@ -99,13 +152,16 @@ abstract class DuplicateCheckStrategy
         @Override
         void checkForDuplicate( Value value, long nodeId ) throws IndexEntryConflictException
         {
+            if ( checkForDuplicateKey( value, nodeId ) )
+            {
+                return;
+            }
             Long previousNodeId = valueNodeIdMap.put( value, nodeId );
             if ( previousNodeId != null )
             {
                 throw new IndexEntryConflictException( previousNodeId, nodeId, value );
             }
         }
-
     }
 
     /**
@@ -130,6 +186,8 @@ abstract class DuplicateCheckStrategy
 
         BucketsDuplicateCheckStrategy( int expectedNumberOfEntries )
         {
+            // sized on demand, since it is not known how many of the expected entries are numbers
+            super( Primitive.longLongMap() );
             numberOfBuckets = min( MAX_NUMBER_OF_BUCKETS, (expectedNumberOfEntries / BASE_ENTRY_SIZE) + 1 );
             buckets = new BucketEntry[numberOfBuckets];
             bucketSetSize = max( 100, BUCKET_STRATEGY_ENTRIES_THRESHOLD / numberOfBuckets );
@@ -139,6 +197,10 @@ abstract class DuplicateCheckStrategy
         public void checkForDuplicate( Value[] values, long nodeId )
                 throws IndexEntryConflictException
         {
+            if ( checkForDuplicateKey( values, nodeId ) )
+            {
+                return;
+            }
             BucketEntry current = bucketEntrySet( Arrays.hashCode( values ), bucketSetSize );
 
             // We either have to find the first conflicting entry set element,
@@ -173,6 +235,10 @@ abstract class DuplicateCheckStrategy
         @Override
         void checkForDuplicate( Value propertyValue, long nodeId ) throws IndexEntryConflictException
         {
+            if ( checkForDuplicateKey( propertyValue, nodeId ) )
+            {
+                return;
+            }
             BucketEntry current = bucketEntrySet( propertyValue.hashCode(), bucketSetSize );
 
             // We either have to find the first conflicting entry set element,
@@ -0,0 +1,209 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.api.impl.schema;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.neo4j.collection.primitive.PrimitiveLongCollections;
+import org.neo4j.kernel.api.exceptions.index.IndexEntryConflictException;
+import org.neo4j.kernel.api.impl.index.storage.DirectoryFactory;
+import org.neo4j.kernel.api.index.IndexQueryHelper;
+import org.neo4j.kernel.api.index.IndexUpdater;
+import org.neo4j.kernel.api.schema.index.IndexDescriptor;
+import org.neo4j.kernel.api.schema.index.IndexDescriptorFactory;
+import org.neo4j.kernel.impl.api.index.IndexUpdateMode;
+import org.neo4j.storageengine.api.schema.IndexReader;
+import org.neo4j.test.rule.fs.EphemeralFileSystemRule;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.neo4j.helpers.collection.Iterators.asSet;
+import static org.neo4j.kernel.api.schema.IndexQuery.exact;
+
+public class LuceneIndexAccessorTest
+{
+    private static final int PROP_ID = 1;
+    private static final long INDEX_ID = 42;
+    private static final IndexDescriptor GENERAL_INDEX = IndexDescriptorFactory.forLabel( 0, PROP_ID );
+    private static final IndexDescriptor UNIQUE_INDEX = IndexDescriptorFactory.uniqueForLabel( 1, PROP_ID );
+
+    @Rule
+    public final EphemeralFileSystemRule fileSystemRule = new EphemeralFileSystemRule();
+
+    private final DirectoryFactory.InMemoryDirectoryFactory dirFactory = new DirectoryFactory.InMemoryDirectoryFactory();
+    private final List<Long> refreshes = new ArrayList<>();
+    private LuceneIndexAccessor accessor;
+
+    @After
+    public void after() throws IOException
+    {
+        accessor.close();
+        dirFactory.close();
+    }
+
+    @Test
+    public void shouldRefreshOnEveryCommitByDefault() throws Exception
+    {
+        // given
+        accessor = newAccessor( GENERAL_INDEX, Duration.ZERO );
+
+        // when
+        addAndCommit( GENERAL_INDEX, 1, "value" );
+
+        // then
+        assertEquals( asSet( 1L ), query( "value" ) );
+        assertEquals( 1, refreshes.size() );
+    }
+
+    @Test
+    public void shouldNotRefreshOnCommitWithinStalenessWindow() throws Exception
+    {
+        // given
+        accessor = newAccessor( GENERAL_INDEX, Duration.ofHours( 1 ) );
+
+        // when
+        addAndCommit( GENERAL_INDEX, 1, "value" );
+        addAndCommit( GENERAL_INDEX, 2, "value" );
+
+        // then
+        assertTrue( refreshes.isEmpty() );
+    }
+
+    @Test
+    public void shouldMakeCommittedChangesVisibleToNextReaderWithinStalenessWindow() throws Exception
+    {
+        // given
+        accessor = newAccessor( GENERAL_INDEX, Duration.ofHours( 1 ) );
+        addAndCommit( GENERAL_INDEX, 1, "value" );
+        addAndCommit( GENERAL_INDEX, 2, "value" );
+
+        // when
+        Set<Long> result = query( "value" );
+
+        // then
+        assertEquals( asSet( 1L, 2L ), result );
+        assertEquals( 1, refreshes.size() );
+    }
+
+    @Test
+    public void shouldNotRefreshForReaderWhenIndexHasNotChanged() throws Exception
+    {
+        // given
+        accessor = newAccessor( GENERAL_INDEX, Duration.ofHours( 1 ) );
+        addAndCommit( GENERAL_INDEX, 1, "value" );
+        query( "value" );
+
+        // when
+        Set<Long> result = query( "value" );
+
+        // then
+        assertEquals( asSet( 1L ), result );
+        assertEquals( 1, refreshes.size() );
+    }
+
+    @Test
+    public void shouldRefreshOnCommitOnceStalenessWindowHasPassed() throws Exception
+    {
+        // given
+        accessor = newAccessor( GENERAL_INDEX, Duration.ofMillis( 10 ) );
+        addAndCommit( GENERAL_INDEX, 1, "value" );
+        assertTrue( refreshes.isEmpty() );
+
+        // when
+        Thread.sleep( 50 );
+        addAndCommit( GENERAL_INDEX, 2, "value" );
+
+        // then
+        assertEquals( 1, refreshes.size() );
+        assertEquals( asSet( 1L, 2L ), query( "value" ) );
+        assertEquals( 1, refreshes.size() );
+    }
+
+    @Test
+    public void shouldMakeChangesVisibleWhenForced() throws Exception
+    {
+        // given
+        accessor = newAccessor( GENERAL_INDEX, Duration.ofHours( 1 ) );
+        addAndCommit( GENERAL_INDEX, 1, "value" );
+
+        // when
+        accessor.force();
+
+        // then
+        assertEquals( asSet( 1L ), query( "value" ) );
+    }
+
+    @Test
+    public void shouldAlwaysRefreshUniqueIndexOnCommit() throws Exception
+    {
+        // given
+        accessor = newAccessor( UNIQUE_INDEX, Duration.ofHours( 1 ) );
+
+        // when
+        addAndCommit( UNIQUE_INDEX, 1, "value" );
+
+        // then
+        assertEquals( asSet( 1L ), query( "value" ) );
+        assertEquals( 1, refreshes.size() );
+    }
+
+    private LuceneIndexAccessor newAccessor( IndexDescriptor descriptor, Duration refreshStaleness ) throws IOException
+    {
+        SchemaIndex index = LuceneSchemaIndexBuilder.create( descriptor )
+                .withFileSystem( fileSystemRule.get() )
+                .withDirectoryFactory( dirFactory )
+                .withIndexRootFolder( new File( "dir" ) )
+                .withIndexIdentifier( "1" )
+                .build();
+        index.create();
+        index.open();
+        return new LuceneIndexAccessor( index, descriptor, INDEX_ID, refreshStaleness, ( indexId, refreshTimeNanos ) ->
+        {
+            assertEquals( INDEX_ID, indexId );
+            refreshes.add( refreshTimeNanos );
+        } );
+    }
+
+    private void addAndCommit( IndexDescriptor descriptor, long nodeId, Object value )
+            throws IOException, IndexEntryConflictException
+    {
+        try ( IndexUpdater updater = accessor.newUpdater( IndexUpdateMode.ONLINE ) )
+        {
+            updater.process( IndexQueryHelper.add( nodeId, descriptor.schema(), value ) );
+        }
+    }
+
+    private Set<Long> query( Object value ) throws Exception
+    {
+        try ( IndexReader reader = accessor.newReader() )
+        {
+            return PrimitiveLongCollections.toSet( reader.query( exact( PROP_ID, value ) ) );
+        }
+    }
+}
@@ -59,7 +59,7 @@ public class ReadOnlyLuceneSchemaIndexTest
         Config config = Config.defaults();
         IndexSamplingConfig samplingConfig = new IndexSamplingConfig( config );
         luceneSchemaIndex = new ReadOnlyDatabaseSchemaIndex( indexStorage, IndexDescriptorFactory.forLabel( 0, 0 ),
-                samplingConfig, new ReadOnlyIndexPartitionFactory() );
+                samplingConfig, new ReadOnlyIndexPartitionFactory(), Runnable::run );
     }
 
     @After
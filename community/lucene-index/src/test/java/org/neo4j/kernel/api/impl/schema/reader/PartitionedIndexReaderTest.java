@@ -27,10 +27,18 @@ import org.mockito.runners.MockitoJUnitRunner;
 import java.io.IOException;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.neo4j.collection.primitive.PrimitiveLongCollections;
+import org.neo4j.collection.primitive.PrimitiveLongIterator;
 import org.neo4j.collection.primitive.PrimitiveLongSet;
 import org.neo4j.helpers.TaskCoordinator;
+import org.neo4j.kernel.api.exceptions.index.IndexNotApplicableKernelException;
 import org.neo4j.kernel.api.exceptions.index.IndexNotFoundKernelException;
 import org.neo4j.kernel.api.impl.index.partition.PartitionSearcher;
 import org.neo4j.kernel.api.schema.IndexQuery;
@@ -43,6 +51,8 @@ import org.neo4j.values.storable.Values;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -150,6 +160,108 @@ public class PartitionedIndexReaderTest
         verifyResult( results );
     }
 
+    @Test
+    public void searchPartitionsLazilyWithinParallelismLimit() throws Exception
+    {
+        // given
+        ExecutorService executor = Executors.newFixedThreadPool( 2 );
+        try
+        {
+            PartitionedIndexReader indexReader = new PartitionedIndexReader( getPartitionReaders(), executor, 1 );
+            IndexQuery.StringPrefixPredicate query = IndexQuery.stringPrefix( 1, "prefix" );
+            when( indexReader1.query( query ) ).thenReturn( PrimitiveLongCollections.iterator( 1 ) );
+            when( indexReader2.query( query ) ).thenReturn( PrimitiveLongCollections.iterator( 2 ) );
+            when( indexReader3.query( query ) ).thenReturn( PrimitiveLongCollections.iterator( 3 ) );
+
+            // when
+            PrimitiveLongIterator result = indexReader.query( query );
+
+            // then
+            verify( indexReader3, never() ).query( query );
+            verifyResult( PrimitiveLongCollections.asSet( result ) );
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void closeAwaitsRunningPartitionSearchesEvenWhenInterrupted() throws Exception
+    {
+        // given
+        ExecutorService executor = Executors.newFixedThreadPool( 2 );
+        try
+        {
+            PartitionedIndexReader indexReader = new PartitionedIndexReader( getPartitionReaders(), executor, 2 );
+            IndexQuery.StringPrefixPredicate query = IndexQuery.stringPrefix( 1, "prefix" );
+            CountDownLatch searchStarted = new CountDownLatch( 1 );
+            CountDownLatch releaseSearch = new CountDownLatch( 1 );
+            AtomicBoolean searchFinished = new AtomicBoolean();
+            when( indexReader1.query( query ) ).thenReturn( PrimitiveLongCollections.iterator( 1 ) );
+            when( indexReader2.query( query ) ).thenAnswer( invocation ->
+            {
+                searchStarted.countDown();
+                releaseSearch.await();
+                searchFinished.set( true );
+                return PrimitiveLongCollections.iterator( 2 );
+            } );
+            when( indexReader3.query( query ) ).thenReturn( PrimitiveLongCollections.iterator( 3 ) );
+            indexReader.query( query );
+            searchStarted.await();
+
+            // when
+            Thread releaser = new Thread( () ->
+            {
+                try
+                {
+                    Thread.sleep( 100 );
+                }
+                catch ( InterruptedException e )
+                {
+                    Thread.currentThread().interrupt();
+                }
+                releaseSearch.countDown();
+            } );
+            releaser.start();
+            Thread.currentThread().interrupt();
+            indexReader.close();
+
+            // then
+            assertTrue( Thread.interrupted() );
+            assertTrue( searchFinished.get() );
+            releaser.join();
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void propagateNotApplicableQueryFromPartitions() throws Exception
+    {
+        // given
+        PartitionedIndexReader indexReader = createPartitionedReaderFromReaders();
+        IndexQuery.ExistsPredicate query = IndexQuery.exists( 1 );
+        IndexNotApplicableKernelException failure = new IndexNotApplicableKernelException( "not applicable" );
+        when( indexReader1.query( query ) ).thenThrow( failure );
+        when( indexReader2.query( query ) ).thenThrow( failure );
+        when( indexReader3.query( query ) ).thenThrow( failure );
+
+        try
+        {
+            // when
+            indexReader.query( query );
+            fail( "Expected query to fail" );
+        }
+        catch ( IndexNotApplicableKernelException e )
+        {
+            // then
+            assertEquals( failure, e );
+        }
+    }
+
     @Test
     public void countNodesOverPartitions()
     {
@@ -173,6 +285,53 @@ public class PartitionedIndexReaderTest
         assertEquals( new IndexSample( 6, 6, 6 ), sampler.sampleIndex() );
     }
 
+    @Test
+    public void countNodesOfPartitionsOnQueryExecutor()
+    {
+        // given
+        AtomicInteger executed = new AtomicInteger();
+        PartitionedIndexReader indexReader =
+                new PartitionedIndexReader( getPartitionReaders(), countingExecutor( executed ), 2 );
+        when( indexReader1.countIndexedNodes( 1, Values.of( "a" ) ) ).thenReturn( 1L );
+        when( indexReader2.countIndexedNodes( 1, Values.of( "a" ) ) ).thenReturn( 2L );
+        when( indexReader3.countIndexedNodes( 1, Values.of( "a" ) ) ).thenReturn( 3L );
+
+        // when
+        long count = indexReader.countIndexedNodes( 1, Values.of( "a" ) );
+
+        // then
+        assertEquals( 6, count );
+        assertEquals( 3, executed.get() );
+    }
+
+    @Test
+    public void createSamplersOfPartitionsOnQueryExecutor() throws IndexNotFoundKernelException
+    {
+        // given
+        AtomicInteger executed = new AtomicInteger();
+        PartitionedIndexReader indexReader =
+                new PartitionedIndexReader( getPartitionReaders(), countingExecutor( executed ), 2 );
+        when( indexReader1.createSampler() ).thenReturn( new SimpleSampler( 1 ) );
+        when( indexReader2.createSampler() ).thenReturn( new SimpleSampler( 2 ) );
+        when( indexReader3.createSampler() ).thenReturn( new SimpleSampler( 3 ) );
+
+        // when
+        IndexSampler sampler = indexReader.createSampler();
+
+        // then
+        assertEquals( new IndexSample( 6, 6, 6 ), sampler.sampleIndex() );
+        assertEquals( 3, executed.get() );
+    }
+
+    private static Executor countingExecutor( AtomicInteger executed )
+    {
+        return job ->
+        {
+            executed.incrementAndGet();
+            job.run();
+        };
+    }
+
     private void verifyResult( PrimitiveLongSet results )
     {
         assertEquals(3, results.size());
@@ -183,7 +342,7 @@ public class PartitionedIndexReaderTest
 
     private PartitionedIndexReader createPartitionedReaderFromReaders()
     {
-        return new PartitionedIndexReader( getPartitionReaders() );
+        return new PartitionedIndexReader( getPartitionReaders(), Runnable::run, 4 );
     }
 
     private List<SimpleIndexReader> getPartitionReaders()
@@ -193,7 +352,8 @@ public class PartitionedIndexReaderTest
 
     private PartitionedIndexReader createPartitionedReader()
     {
-        return new PartitionedIndexReader( getPartitionSearchers(), indexDescriptor, samplingConfig, taskCoordinator );
+        return new PartitionedIndexReader( getPartitionSearchers(), indexDescriptor, samplingConfig, taskCoordinator,
+                Runnable::run );
     }
 
     private List<PartitionSearcher> getPartitionSearchers()
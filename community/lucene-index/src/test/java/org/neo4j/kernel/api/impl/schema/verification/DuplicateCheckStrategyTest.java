@@ -269,6 +269,37 @@ public class DuplicateCheckStrategyTest
         }
     }
 
+    @Test
+    public void checkNumericSinglePropertyDuplicatesOfDifferentNumberTypes() throws Exception
+    {
+        Value property = Values.longValue( -1 );
+        Value equalProperty = Values.doubleValue( -1.0 );
+
+        expectedException.expect( IndexEntryConflictException.class );
+        expectedException.expectMessage( "Both node 3 and node 4 share the property value" );
+
+        checkStrategy.checkForDuplicate( Values.intValue( 1 ), 1 );
+        checkStrategy.checkForDuplicate( Values.doubleValue( 1.5 ), 2 );
+        checkStrategy.checkForDuplicate( property, 3 );
+        checkStrategy.checkForDuplicate( equalProperty, 4 );
+    }
+
+    @Test
+    public void checkNumericMultiplePropertiesDuplicatesOfDifferentNumberTypes() throws Exception
+    {
+        Value[] properties = new Value[]{Values.intValue( Integer.MIN_VALUE ), Values.longValue( -1 )};
+        Value[] equalProperties = new Value[]{Values.doubleValue( Integer.MIN_VALUE ), Values.shortValue( (short) -1 )};
+
+        expectedException.expect( IndexEntryConflictException.class );
+        expectedException.expectMessage( "Both node 3 and node 4 share the property value" );
+
+        checkStrategy.checkForDuplicate( new Value[]{Values.intValue( -1 ), Values.intValue( Integer.MIN_VALUE )}, 1 );
+        checkStrategy.checkForDuplicate(
+                new Value[]{Values.longValue( Integer.MIN_VALUE ), Values.longValue( 1L << 32 )}, 2 );
+        checkStrategy.checkForDuplicate( properties, 3 );
+        checkStrategy.checkForDuplicate( equalProperties, 4 );
+    }
+
     private static int randomNumberOfEntries()
     {
         return ThreadLocalRandom.current().nextInt( BUCKET_STRATEGY_ENTRIES_THRESHOLD, BUCKET_STRATEGY_ENTRIES_THRESHOLD << 1 );
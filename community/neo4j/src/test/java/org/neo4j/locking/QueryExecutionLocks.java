@@ -452,6 +452,12 @@ public class QueryExecutionLocks
             return readOperations.nodesGetForLabel( labelId );
         }
 
+        @Override
+        public PrimitiveLongIterator relationshipsGetForType( int relationshipTypeId )
+        {
+            return readOperations.relationshipsGetForType( relationshipTypeId );
+        }
+
         @Override
         public PrimitiveLongIterator indexQuery( IndexDescriptor index, IndexQuery... predicates )
                 throws IndexNotFoundKernelException, IndexNotApplicableKernelException
@@ -301,6 +301,13 @@ public class PrimitiveCollectionEqualityTest
     @DataPoint
     public static Factory<PrimitiveLongIntMap> longIntMapWithCapacity = () -> Primitive.longIntMap( randomCapacity() );
 
+    @DataPoint
+    public static Factory<PrimitiveLongLongMap> longLongMap = Primitive::longLongMap;
+
+    @DataPoint
+    public static Factory<PrimitiveLongLongMap> longLongMapWithCapacity =
+            () -> Primitive.longLongMap( randomCapacity() );
+
     @DataPoint
     public static Factory<PrimitiveLongLongMap> offheapLongLongMap = Primitive::offHeapLongLongMap;
 
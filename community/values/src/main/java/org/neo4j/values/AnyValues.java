@@ -49,7 +49,7 @@ import org.neo4j.values.virtual.VirtualValueGroup;
 import org.neo4j.values.virtual.VirtualValues;
 
 import static java.util.stream.StreamSupport.stream;
-import static org.neo4j.values.virtual.VirtualValues.list;
+import static org.neo4j.values.virtual.VirtualValues.compactList;
 import static org.neo4j.values.virtual.VirtualValues.map;
 
 @SuppressWarnings( "WeakerAccess" )
@@ -161,7 +161,7 @@ public final class AnyValues
     {
         AnyValue[] anyValues =
                 Iterables.stream( collection ).map( AnyValues::of ).toArray( AnyValue[]::new );
-        return list( anyValues );
+        return compactList( anyValues );
     }
 
     public static NodeValue asNodeValue( Node node )
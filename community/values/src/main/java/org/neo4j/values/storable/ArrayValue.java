@@ -28,6 +28,12 @@ public abstract class ArrayValue extends Value implements SequenceValue
 {
     public abstract int length();
 
+    /**
+     * Writes the element at the given offset the way {@code value( offset ).writeTo( writer )} would, but without
+     * creating a value for it.
+     */
+    public abstract <E extends Exception> void writeValueTo( int offset, ValueWriter<E> writer ) throws E;
+
     @Override
     public boolean equals( boolean x )
     {
@@ -170,6 +170,12 @@ abstract class BooleanArray extends ArrayValue
         return Values.booleanValue( booleanValue( position ) );
     }
 
+    @Override
+    public <E extends Exception> void writeValueTo( int position, ValueWriter<E> writer ) throws E
+    {
+        writer.writeBoolean( booleanValue( position ) );
+    }
+
     static final class Direct extends BooleanArray
     {
         private final boolean[] value;
@@ -136,6 +136,12 @@ abstract class ByteArray extends IntegralArray
         return Values.byteValue( value()[offset] );
     }
 
+    @Override
+    public <E extends Exception> void writeValueTo( int offset, ValueWriter<E> writer ) throws E
+    {
+        writer.writeInteger( value()[offset] );
+    }
+
     static final class Direct extends ByteArray
     {
         final byte[] value;
@@ -119,6 +119,12 @@ abstract class CharArray extends TextArray
         return Values.charValue( value()[position] );
     }
 
+    @Override
+    public <E extends Exception> void writeValueTo( int position, ValueWriter<E> writer ) throws E
+    {
+        writer.writeString( value()[position] );
+    }
+
     static final class Direct extends CharArray
     {
         final char[] value;
@@ -136,6 +136,12 @@ abstract class DoubleArray extends FloatingPointArray
         return Values.doubleValue( doubleValue( position ) );
     }
 
+    @Override
+    public <E extends Exception> void writeValueTo( int position, ValueWriter<E> writer ) throws E
+    {
+        writer.writeFloatingPoint( value()[position] );
+    }
+
     static final class Direct extends DoubleArray
     {
         final double[] value;
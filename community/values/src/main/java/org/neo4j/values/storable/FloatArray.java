@@ -136,6 +136,12 @@ abstract class FloatArray extends FloatingPointArray
         return Values.floatValue( value()[offset] );
     }
 
+    @Override
+    public <E extends Exception> void writeValueTo( int offset, ValueWriter<E> writer ) throws E
+    {
+        writer.writeFloatingPoint( value()[offset] );
+    }
+
     static final class Direct extends FloatArray
     {
         final float[] value;
@@ -136,6 +136,12 @@ abstract class IntArray extends IntegralArray
         return Values.intValue( value()[offset] );
     }
 
+    @Override
+    public <E extends Exception> void writeValueTo( int offset, ValueWriter<E> writer ) throws E
+    {
+        writer.writeInteger( value()[offset] );
+    }
+
     static final class Direct extends IntArray
     {
         final int[] value;
@@ -136,6 +136,12 @@ abstract class LongArray extends IntegralArray
         return Values.longValue( longValue( offset ) );
     }
 
+    @Override
+    public <E extends Exception> void writeValueTo( int offset, ValueWriter<E> writer ) throws E
+    {
+        writer.writeInteger( value()[offset] );
+    }
+
     static final class Direct extends LongArray
     {
         final long[] value;
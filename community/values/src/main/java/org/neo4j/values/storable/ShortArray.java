@@ -136,6 +136,12 @@ abstract class ShortArray extends IntegralArray
         return Values.shortValue( value()[offset] );
     }
 
+    @Override
+    public <E extends Exception> void writeValueTo( int offset, ValueWriter<E> writer ) throws E
+    {
+        writer.writeInteger( value()[offset] );
+    }
+
     static final class Direct extends ShortArray
     {
         final short[] value;
@@ -117,6 +117,12 @@ public abstract class StringArray extends TextArray
         return Values.stringValue( stringValue( offset ) );
     }
 
+    @Override
+    public <E extends Exception> void writeValueTo( int offset, ValueWriter<E> writer ) throws E
+    {
+        writer.writeString( value()[offset] );
+    }
+
     static final class Direct extends StringArray
     {
         final String[] value;
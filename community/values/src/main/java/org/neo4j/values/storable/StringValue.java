@@ -19,6 +19,9 @@
  */
 package org.neo4j.values.storable;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
 import static java.lang.String.format;
 
 public abstract class StringValue extends TextValue
@@ -85,12 +88,120 @@ public abstract class StringValue extends TextValue
         return value();
     }
 
+    /**
+     * Compares two UTF-8 encoded strings in the order of {@link String#compareTo(String)}, i.e. by their UTF-16
+     * code units. Up to the first differing byte both strings hold the same characters, so that byte is either
+     * a continuation byte of the same kind of character or the lead byte of two different characters. Byte
+     * order is then code point order, which is UTF-16 order except between characters in U+E000..U+FFFF (lead
+     * byte 0xEE or 0xEF) and supplementary characters (lead byte 0xF0..0xF4), whose surrogates sort first.
+     * Bytes 0xF5..0xFF never occur in UTF-8 and compare higher than any character, which makes them usable
+     * as padding of upper bounds.
+     *
+     * @param a bytes of the first string.
+     * @param aLength number of bytes of the first string, starting at index 0 of {@code a}.
+     * @param b bytes of the second string.
+     * @param bLength number of bytes of the second string, starting at index 0 of {@code b}.
+     * @return comparison of the two strings.
+     */
+    public static int compareUTF8( byte[] a, int aLength, byte[] b, int bLength )
+    {
+        int length = Math.min( aLength, bLength );
+        for ( int i = 0; i < length; i++ )
+        {
+            int x = a[i] & 0xFF;
+            int y = b[i] & 0xFF;
+            if ( x != y )
+            {
+                if ( isHighBMPLead( x ) && isSupplementaryLead( y ) )
+                {
+                    return 1;
+                }
+                if ( isSupplementaryLead( x ) && isHighBMPLead( y ) )
+                {
+                    return -1;
+                }
+                return x - y;
+            }
+        }
+        return aLength - bLength;
+    }
+
+    private static boolean isHighBMPLead( int b )
+    {
+        return b == 0xEE || b == 0xEF;
+    }
+
+    private static boolean isSupplementaryLead( int b )
+    {
+        return b >= 0xF0 && b <= 0xF4;
+    }
+
     @Override
     public String prettyPrint()
     {
         return format( "'%s'", value() );
     }
 
+    /**
+     * A string kept in its UTF-8 encoded form, which is decoded once when the string itself is needed. Two such
+     * strings are compared for equality and order on their encoded bytes, without decoding either of them.
+     */
+    static final class UTF8 extends StringValue
+    {
+        private final byte[] bytes;
+        private volatile String value;
+
+        UTF8( byte[] bytes )
+        {
+            assert bytes != null;
+            this.bytes = bytes;
+        }
+
+        @Override
+        String value()
+        {
+            String s = value;
+            if ( s == null )
+            {
+                value = s = new String( bytes, StandardCharsets.UTF_8 );
+            }
+            return s;
+        }
+
+        @Override
+        public int length()
+        {
+            return value().length();
+        }
+
+        @Override
+        public boolean equals( Value value )
+        {
+            if ( value instanceof UTF8 )
+            {
+                return Arrays.equals( bytes, ((UTF8) value).bytes );
+            }
+            return super.equals( value );
+        }
+
+        @Override
+        public int compareTo( TextValue other )
+        {
+            if ( other instanceof UTF8 )
+            {
+                byte[] otherBytes = ((UTF8) other).bytes;
+                return compareUTF8( bytes, bytes.length, otherBytes, otherBytes.length );
+            }
+            return super.compareTo( other );
+        }
+
+        @Override
+        public <E extends Exception> void writeTo( ValueWriter<E> writer ) throws E
+        {
+            writer.writeUTF8( bytes, 0, bytes.length );
+        }
+    }
+
     static final class Direct extends StringValue
     {
         final String value;
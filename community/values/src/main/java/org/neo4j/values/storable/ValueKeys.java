@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.values.storable;
+
+/**
+ * Static methods for encoding values, and tuples of values, as {@code long} keys, so that they can be hashed and
+ * compared in primitive collections instead of as objects.
+ *
+ * Only numbers that are exact integers are encodable, and two encodable values or tuples have the same key if and
+ * only if they are equal. A number equal to an encodable number is itself encodable, so keeping the encodable values
+ * in a primitive collection and all other values in a regular one never splits equal values between the two.
+ */
+public final class ValueKeys
+{
+    private ValueKeys()
+    {
+    }
+
+    private static final double MIN_LONG_DOUBLE = -0x1p63;
+    private static final double MAX_LONG_DOUBLE = 0x1p63; // exclusive
+
+    public static boolean isLongKey( Value value )
+    {
+        if ( value instanceof IntegralValue )
+        {
+            return true;
+        }
+        if ( value instanceof FloatingPointValue )
+        {
+            double number = ((FloatingPointValue) value).doubleValue();
+            // also false for NaN and infinities
+            return number >= MIN_LONG_DOUBLE && number < MAX_LONG_DOUBLE && number == Math.floor( number );
+        }
+        return false;
+    }
+
+    /**
+     * @param value a value for which {@link #isLongKey(Value)} holds
+     * @return the key of the value, which is its number
+     */
+    public static long longKey( Value value )
+    {
+        assert isLongKey( value ) : value + " is not encodable as a long key";
+        return ((NumberValue) value).longValue();
+    }
+
+    /**
+     * Tuples of a single value are encodable if the value is, tuples of two values if both values are encodable and
+     * fit in an int. Larger tuples are not encodable.
+     */
+    public static boolean isLongKey( Value[] values )
+    {
+        switch ( values.length )
+        {
+        case 1:
+            return isLongKey( values[0] );
+        case 2:
+            return isIntKey( values[0] ) && isIntKey( values[1] );
+        default:
+            return false;
+        }
+    }
+
+    /**
+     * @param values values for which {@link #isLongKey(Value[])} holds
+     * @return the key of the tuple, with the key of the first value in the high and of the second in the low 32 bits
+     */
+    public static long longKey( Value[] values )
+    {
+        assert isLongKey( values ) : ValueTuple.of( values ) + " is not encodable as a long key";
+        if ( values.length == 1 )
+        {
+            return longKey( values[0] );
+        }
+        return (longKey( values[0] ) << 32) | (longKey( values[1] ) & 0xFFFFFFFFL);
+    }
+
+    private static boolean isIntKey( Value value )
+    {
+        if ( !isLongKey( value ) )
+        {
+            return false;
+        }
+        long key = longKey( value );
+        return key >= Integer.MIN_VALUE && key <= Integer.MAX_VALUE;
+    }
+}
@@ -46,6 +46,7 @@ public class ValueTuple
     }
 
     private final Value[] values;
+    private int hash;
 
     private ValueTuple( Value[] values )
     {
@@ -76,7 +77,7 @@ public class ValueTuple
 
         ValueTuple that = (ValueTuple) o;
 
-        if ( that.values.length != values.length )
+        if ( that.values.length != values.length || that.hashCode() != hashCode() )
         {
             return false;
         }
@@ -94,12 +95,17 @@ public class ValueTuple
     @Override
     public int hashCode()
     {
-        int result = 1;
-        for ( Object value : values )
+        // tuples are used as keys of hash maps, where the hash is asked for repeatedly, so it is computed once
+        if ( hash == 0 )
         {
-            result = 31 * result + value.hashCode();
+            int result = 1;
+            for ( Object value : values )
+            {
+                result = 31 * result + value.hashCode();
+            }
+            hash = result;
         }
-        return result;
+        return hash;
     }
 
     public Value getOnlyValue()
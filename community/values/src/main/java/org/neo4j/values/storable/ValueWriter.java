@@ -19,6 +19,8 @@
  */
 package org.neo4j.values.storable;
 
+import java.nio.charset.StandardCharsets;
+
 /**
  * Writer of values.
  * <p>
@@ -74,6 +76,15 @@ public interface ValueWriter<E extends Exception>
 
     void endUTF8() throws E;
 
+    /**
+     * Writes a string given in its UTF-8 encoded form. Writers that can make use of the encoded form directly should
+     * override this, the default implementation decodes the string.
+     */
+    default void writeUTF8( byte[] bytes, int offset, int length ) throws E
+    {
+        writeString( new String( bytes, offset, length, StandardCharsets.UTF_8 ) );
+    }
+
     void beginArray( int size, ArrayType arrayType ) throws E;
 
     void endArray() throws E;
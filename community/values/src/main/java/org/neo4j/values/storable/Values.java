@@ -104,6 +104,17 @@ public final class Values
         return new StringValue.Direct( value );
     }
 
+    /**
+     * Creates a string value from its UTF-8 encoded form, e.g. as read from the store, which is only decoded when
+     * the string itself is asked for. Writers that accept UTF-8 can be handed the encoded form as is.
+     *
+     * @param bytes the UTF-8 encoded string, which must not be modified after being handed over.
+     */
+    public static TextValue utf8Value( byte[] bytes )
+    {
+        return new StringValue.UTF8( bytes );
+    }
+
     public static Value stringOrNoValue( String value )
     {
         if ( value == null )
@@ -31,6 +31,7 @@ import org.neo4j.values.AnyValueWriter;
 import org.neo4j.values.SequenceValue;
 import org.neo4j.values.VirtualValue;
 import org.neo4j.values.storable.ArrayValue;
+import org.neo4j.values.storable.ValueGroup;
 import org.neo4j.values.storable.Values;
 
 import static org.neo4j.values.virtual.ArrayHelpers.containsNull;
@@ -158,11 +159,28 @@ public abstract class ListValue extends VirtualValue implements SequenceValue, I
             writer.beginList( length );
             for ( int i = 0; i < length; i++ )
             {
-                array.value( i ).writeTo( writer );
+                array.writeValueTo( i, writer );
             }
             writer.endList();
         }
 
+        @Override
+        public int compareTo( VirtualValue other, Comparator<AnyValue> comparator )
+        {
+            if ( other instanceof ArrayValueListValue )
+            {
+                // number arrays are ordered like lists of numbers, by length first and then element by element,
+                // and comparing them directly saves creating a value for every element
+                ArrayValue otherArray = ((ArrayValueListValue) other).array;
+                if ( array.valueGroup() == ValueGroup.NUMBER_ARRAY &&
+                     otherArray.valueGroup() == ValueGroup.NUMBER_ARRAY )
+                {
+                    return Values.COMPARATOR.compare( array, otherArray );
+                }
+            }
+            return super.compareTo( other, comparator );
+        }
+
         @Override
         public boolean storable()
         {
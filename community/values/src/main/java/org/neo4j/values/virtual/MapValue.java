@@ -19,9 +19,13 @@
  */
 package org.neo4j.values.virtual;
 
+import java.util.AbstractMap;
+import java.util.AbstractSet;
 import java.util.Arrays;
 import java.util.Comparator;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
 import java.util.function.BiConsumer;
 
@@ -60,10 +64,17 @@ public final class MapValue extends VirtualValue
     public <E extends Exception> void writeTo( AnyValueWriter<E> writer ) throws E
     {
         writer.beginMap( map.size() );
-        for ( Map.Entry<String,AnyValue> entry : map.entrySet() )
+        if ( map instanceof CompactMap )
+        {
+            ((CompactMap) map).writeEntriesTo( writer );
+        }
+        else
         {
-            writer.writeString( entry.getKey() );
-            entry.getValue().writeTo( writer );
+            for ( Map.Entry<String,AnyValue> entry : map.entrySet() )
+            {
+                writer.writeString( entry.getKey() );
+                entry.getValue().writeTo( writer );
+            }
         }
         writer.endMap();
     }
@@ -160,4 +171,133 @@ public final class MapValue extends VirtualValue
     {
         return map.size();
     }
+
+    /**
+     * Read-only map of a few entries kept in a pair of arrays, which is both smaller and, for so few keys, faster
+     * to look up in than a hash map.
+     */
+    static final class CompactMap extends AbstractMap<String,AnyValue>
+    {
+        static final int MAX_SIZE = 8;
+
+        private final String[] keys;
+        private final AnyValue[] values;
+
+        CompactMap( String[] keys, AnyValue[] values )
+        {
+            assert keys.length == values.length && distinct( keys );
+            this.keys = keys;
+            this.values = values;
+        }
+
+        static boolean distinct( String[] keys )
+        {
+            for ( int i = 0; i < keys.length; i++ )
+            {
+                for ( int j = i + 1; j < keys.length; j++ )
+                {
+                    if ( keys[i].equals( keys[j] ) )
+                    {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public int size()
+        {
+            return keys.length;
+        }
+
+        @Override
+        public boolean containsKey( Object key )
+        {
+            return indexOf( key ) >= 0;
+        }
+
+        @Override
+        public AnyValue get( Object key )
+        {
+            int index = indexOf( key );
+            return index >= 0 ? values[index] : null;
+        }
+
+        @Override
+        public AnyValue getOrDefault( Object key, AnyValue defaultValue )
+        {
+            int index = indexOf( key );
+            return index >= 0 ? values[index] : defaultValue;
+        }
+
+        @Override
+        public void forEach( BiConsumer<? super String,? super AnyValue> action )
+        {
+            for ( int i = 0; i < keys.length; i++ )
+            {
+                action.accept( keys[i], values[i] );
+            }
+        }
+
+        @Override
+        public Set<Entry<String,AnyValue>> entrySet()
+        {
+            return new AbstractSet<Entry<String,AnyValue>>()
+            {
+                @Override
+                public Iterator<Entry<String,AnyValue>> iterator()
+                {
+                    return new Iterator<Entry<String,AnyValue>>()
+                    {
+                        private int index;
+
+                        @Override
+                        public boolean hasNext()
+                        {
+                            return index < keys.length;
+                        }
+
+                        @Override
+                        public Entry<String,AnyValue> next()
+                        {
+                            if ( !hasNext() )
+                            {
+                                throw new NoSuchElementException();
+                            }
+                            int current = index++;
+                            return new SimpleImmutableEntry<>( keys[current], values[current] );
+                        }
+                    };
+                }
+
+                @Override
+                public int size()
+                {
+                    return keys.length;
+                }
+            };
+        }
+
+        <E extends Exception> void writeEntriesTo( AnyValueWriter<E> writer ) throws E
+        {
+            for ( int i = 0; i < keys.length; i++ )
+            {
+                writer.writeString( keys[i] );
+                values[i].writeTo( writer );
+            }
+        }
+
+        private int indexOf( Object key )
+        {
+            for ( int i = 0; i < keys.length; i++ )
+            {
+                if ( keys[i].equals( key ) )
+                {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
 }
@@ -29,8 +29,11 @@ import org.neo4j.graphdb.Node;
 import org.neo4j.graphdb.Relationship;
 import org.neo4j.values.AnyValue;
 import org.neo4j.values.storable.ArrayValue;
+import org.neo4j.values.storable.DoubleValue;
+import org.neo4j.values.storable.LongValue;
 import org.neo4j.values.storable.TextArray;
 import org.neo4j.values.storable.TextValue;
+import org.neo4j.values.storable.Values;
 
 /**
  * Entry point to the virtual values library.
@@ -67,6 +70,46 @@ public final class VirtualValues
         return new ListValue.ArrayValueListValue( arrayValue );
     }
 
+    /**
+     * Creates a list of the given values which, if they are all longs or all doubles, keeps them in a primitive
+     * array and only creates the value of an element when that element is asked for. This is worthwhile for large
+     * lists that are kept around, e.g. the result of a collect() or a list parameter.
+     */
+    public static ListValue compactList( AnyValue... values )
+    {
+        if ( values.length > 0 && allOfType( values, LongValue.class ) )
+        {
+            long[] longs = new long[values.length];
+            for ( int i = 0; i < values.length; i++ )
+            {
+                longs[i] = ((LongValue) values[i]).longValue();
+            }
+            return fromArray( Values.longArray( longs ) );
+        }
+        if ( values.length > 0 && allOfType( values, DoubleValue.class ) )
+        {
+            double[] doubles = new double[values.length];
+            for ( int i = 0; i < values.length; i++ )
+            {
+                doubles[i] = ((DoubleValue) values[i]).doubleValue();
+            }
+            return fromArray( Values.doubleArray( doubles ) );
+        }
+        return list( values );
+    }
+
+    private static boolean allOfType( AnyValue[] values, Class<? extends AnyValue> type )
+    {
+        for ( AnyValue value : values )
+        {
+            if ( value.getClass() != type )
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
     public static ListValue filter( ListValue list, Function<AnyValue,Boolean> filter )
     {
         return new ListValue.FilteredListValue( list, filter );
@@ -134,9 +177,18 @@ public final class VirtualValues
         return EMPTY_MAP;
     }
 
+    /**
+     * Creates a map of the given keys and values. Small maps without duplicate keys are kept in the given arrays,
+     * which must not be modified afterwards, and the keys array can then be shared between all maps with the same
+     * keys, e.g. those created for every row by a map literal.
+     */
     public static MapValue map( String[] keys, AnyValue[] values )
     {
         assert keys.length == values.length;
+        if ( keys.length <= MapValue.CompactMap.MAX_SIZE && MapValue.CompactMap.distinct( keys ) )
+        {
+            return new MapValue( new MapValue.CompactMap( keys, values ) );
+        }
         HashMap<String,AnyValue> map = new HashMap<>( keys.length );
         for ( int i = 0; i < keys.length; i++ )
         {
@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.values.storable;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import static org.neo4j.values.storable.Values.booleanValue;
+import static org.neo4j.values.storable.Values.byteValue;
+import static org.neo4j.values.storable.Values.doubleValue;
+import static org.neo4j.values.storable.Values.floatValue;
+import static org.neo4j.values.storable.Values.intArray;
+import static org.neo4j.values.storable.Values.intValue;
+import static org.neo4j.values.storable.Values.longValue;
+import static org.neo4j.values.storable.Values.shortValue;
+import static org.neo4j.values.storable.Values.stringValue;
+
+public class ValueKeysTest
+{
+    @Test
+    public void shouldEncodeEqualNumbersAsEqualKeys()
+    {
+        assertSameKey( intValue( 1 ), doubleValue( 1.0 ) );
+        assertSameKey( byteValue( (byte) -7 ), floatValue( -7f ) );
+        assertSameKey( shortValue( (short) 0 ), doubleValue( -0.0 ) );
+        assertSameKey( longValue( Long.MIN_VALUE ), doubleValue( -0x1p63 ) );
+        assertSameKey( longValue( 1L << 62 ), doubleValue( 0x1p62 ) );
+    }
+
+    @Test
+    public void shouldEncodeDifferentNumbersAsDifferentKeys()
+    {
+        assertNotEquals( ValueKeys.longKey( intValue( 1 ) ), ValueKeys.longKey( intValue( 2 ) ) );
+        assertNotEquals( ValueKeys.longKey( longValue( Long.MAX_VALUE ) ),
+                ValueKeys.longKey( longValue( Long.MIN_VALUE ) ) );
+    }
+
+    @Test
+    public void shouldNotEncodeValuesThatAreNotIntegers()
+    {
+        assertFalse( ValueKeys.isLongKey( doubleValue( 1.5 ) ) );
+        assertFalse( ValueKeys.isLongKey( doubleValue( Double.NaN ) ) );
+        assertFalse( ValueKeys.isLongKey( doubleValue( Double.POSITIVE_INFINITY ) ) );
+        assertFalse( ValueKeys.isLongKey( doubleValue( 0x1p63 ) ) );
+        assertFalse( ValueKeys.isLongKey( stringValue( "1" ) ) );
+        assertFalse( ValueKeys.isLongKey( booleanValue( true ) ) );
+        assertFalse( ValueKeys.isLongKey( intArray( new int[]{1} ) ) );
+        assertFalse( ValueKeys.isLongKey( Values.NO_VALUE ) );
+    }
+
+    @Test
+    public void shouldEncodeTuplesOfTwoIntegersInIntRange()
+    {
+        // given
+        Value[] tuple = {intValue( Integer.MIN_VALUE ), longValue( -1 )};
+        Value[] equalTuple = {doubleValue( Integer.MIN_VALUE ), shortValue( (short) -1 )};
+        Value[] swappedTuple = {longValue( -1 ), intValue( Integer.MIN_VALUE )};
+
+        // then
+        assertTrue( ValueKeys.isLongKey( tuple ) );
+        assertEquals( ValueKeys.longKey( tuple ), ValueKeys.longKey( equalTuple ) );
+        assertNotEquals( ValueKeys.longKey( tuple ), ValueKeys.longKey( swappedTuple ) );
+        assertFalse( ValueKeys.isLongKey( new Value[]{intValue( 1 ), longValue( 1L << 31 )} ) );
+        assertFalse( ValueKeys.isLongKey( new Value[]{intValue( 1 ), stringValue( "1" )} ) );
+        assertFalse( ValueKeys.isLongKey( new Value[]{intValue( 1 ), intValue( 2 ), intValue( 3 )} ) );
+    }
+
+    private void assertSameKey( Value a, Value b )
+    {
+        assertTrue( ValueKeys.isLongKey( a ) );
+        assertTrue( ValueKeys.isLongKey( b ) );
+        assertEquals( ValueKeys.longKey( a ), ValueKeys.longKey( b ) );
+    }
+}
@@ -21,7 +21,10 @@ package org.neo4j.values.storable;
 
 import org.junit.Test;
 
+import java.nio.charset.StandardCharsets;
+
 import static junit.framework.TestCase.assertFalse;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static org.neo4j.values.storable.Values.booleanArray;
 import static org.neo4j.values.storable.Values.booleanValue;
@@ -41,6 +44,7 @@ import static org.neo4j.values.storable.Values.shortArray;
 import static org.neo4j.values.storable.Values.shortValue;
 import static org.neo4j.values.storable.Values.stringArray;
 import static org.neo4j.values.storable.Values.stringValue;
+import static org.neo4j.values.storable.Values.utf8Value;
 
 public class ValuesTest
 {
@@ -87,6 +91,47 @@ public class ValuesTest
         assertEqual( stringArray( new String[]{"hi"} ), stringArray( new String[]{"hi"} ) );
     }
 
+    @Test
+    public void shouldTreatUTF8EncodedStringsAsStrings()
+    {
+        String string = "smörgåsbord \u2603";
+        TextValue utf8 = utf8Value( string.getBytes( StandardCharsets.UTF_8 ) );
+
+        assertEqual( utf8, stringValue( string ) );
+        assertEqual( utf8Value( new byte[0] ), stringValue( "" ) );
+        assertFalse( utf8.equals( stringValue( "smörgåsbord" ) ) );
+        assertEquals( string, utf8.stringValue() );
+        assertEquals( string.length(), utf8.length() );
+        assertEquals( 0, Values.COMPARATOR.compare( utf8, stringValue( string ) ) );
+
+        BufferValueWriter writer = new BufferValueWriter();
+        utf8.writeTo( writer );
+        writer.assertBuffer( string );
+    }
+
+    @Test
+    public void shouldCompareUTF8EncodedStringsWithoutDecodingThemInStringOrder()
+    {
+        String[] strings = {"", "a", "ab", "b", "smörgåsbord", "\u2603", "\ud7ff", "\ue000", "\uffff",
+                "\ud83d\ude00", "\ud83d\ude00a", "\udbff\udfff"};
+        for ( String a : strings )
+        {
+            for ( String b : strings )
+            {
+                // given
+                TextValue utf8A = utf8Value( a.getBytes( StandardCharsets.UTF_8 ) );
+                TextValue utf8B = utf8Value( b.getBytes( StandardCharsets.UTF_8 ) );
+
+                // when
+                int comparison = Values.COMPARATOR.compare( utf8A, utf8B );
+
+                // then
+                assertEquals( a + " vs " + b, Integer.signum( a.compareTo( b ) ), Integer.signum( comparison ) );
+                assertEquals( a + " vs " + b, a.equals( b ), utf8A.equals( utf8B ) );
+            }
+        }
+    }
+
     private void assertEqual( Value a, Value b )
     {
         assertTrue( "should be equal", a.equals( b ) );
@@ -23,11 +23,13 @@ import org.junit.Test;
 
 import java.util.Arrays;
 
+import org.neo4j.values.AnyValues;
 import org.neo4j.values.storable.LongValue;
 import org.neo4j.values.storable.Values;
 
 import static java.lang.String.format;
 import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.neo4j.values.storable.Values.booleanArray;
 import static org.neo4j.values.storable.Values.byteArray;
@@ -222,7 +224,8 @@ public class ListTest
                     VirtualValues.transform( list( 0L, 3L, 6L ),
                             anyValue -> Values.longValue( ((LongValue) anyValue).longValue() + 1L ) ),
                     VirtualValues.reverse( list( 7L, 4L, 1L ) ),
-                    VirtualValues.concat( list( 1L, 4L ), list( 7L ) )
+                    VirtualValues.concat( list( 1L, 4L ), list( 7L ) ),
+                    VirtualValues.compactList( Values.longValue( 1L ), Values.longValue( 4L ), Values.longValue( 7L ) )
             };
 
     private ListValue[] nonEquivalentLists =
@@ -241,7 +244,9 @@ public class ListTest
                     VirtualValues.transform( list( 0L, 3L, 6L ),
                             anyValue -> Values.longValue( ((LongValue) anyValue).longValue() + 8L ) ),
                     VirtualValues.reverse( list( 15L, 12L, 9L ) ),
-                    VirtualValues.concat( list( 10L, 13L ), list( 16L ) )
+                    VirtualValues.concat( list( 10L, 13L ), list( 16L ) ),
+                    VirtualValues.compactList( Values.longValue( 11L ), Values.longValue( 14L ),
+                            Values.longValue( 17L ) )
             };
 
     @Test
@@ -279,4 +284,48 @@ public class ListTest
             }
         }
     }
+
+    @Test
+    public void shouldKeepCompactListsOfLongsOrDoublesInPrimitiveArrays()
+    {
+        // when
+        ListValue longs = VirtualValues.compactList( Values.longValue( 1L ), Values.longValue( -2L ) );
+        ListValue doubles = VirtualValues.compactList( Values.doubleValue( 1.5 ), Values.doubleValue( -2.0 ) );
+        ListValue mixed = VirtualValues.compactList( Values.longValue( 1L ), Values.doubleValue( -2.0 ) );
+
+        // then
+        assertEquals( longArray( new long[]{1L, -2L} ), longs.toStorableArray() );
+        assertEquals( doubleArray( new double[]{1.5, -2.0} ), doubles.toStorableArray() );
+        assertFalse( mixed.storable() );
+        assertEqual( longs, list( 1L, -2L ) );
+        assertEqual( doubles, list( 1.5, -2.0 ) );
+        assertEqual( mixed, list( 1L, -2.0 ) );
+    }
+
+    @Test
+    public void shouldCompareCompactListsLikeListsOfTheirValues()
+    {
+        ListValue[] lists = {
+                VirtualValues.compactList( Values.longValue( 1L ) ),
+                VirtualValues.compactList( Values.longValue( 1L ), Values.longValue( 2L ) ),
+                VirtualValues.compactList( Values.longValue( 2L ), Values.longValue( 1L ) ),
+                VirtualValues.compactList( Values.doubleValue( 1.5 ), Values.doubleValue( 1.0 ) ),
+                VirtualValues.compactList( Values.doubleValue( Double.NaN ), Values.doubleValue( 1.0 ) ),
+                VirtualValues.compactList( Values.longValue( Long.MAX_VALUE ), Values.longValue( 1L ) ),
+                VirtualValues.compactList( Values.stringValue( "a" ), Values.stringValue( "b" ) )};
+
+        for ( ListValue a : lists )
+        {
+            for ( ListValue b : lists )
+            {
+                // when
+                int compact = AnyValues.COMPARATOR.compare( a, b );
+                int boxed = AnyValues.COMPARATOR.compare( VirtualValues.list( a.asArray() ),
+                        VirtualValues.list( b.asArray() ) );
+
+                // then
+                assertEquals( format( "%s vs %s", a, b ), Integer.signum( boxed ), Integer.signum( compact ) );
+            }
+        }
+    }
 }
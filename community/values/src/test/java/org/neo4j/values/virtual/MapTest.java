@@ -21,6 +21,16 @@ package org.neo4j.values.virtual;
 
 import org.junit.Test;
 
+import java.util.HashMap;
+import java.util.Map;
+
+import org.neo4j.values.AnyValue;
+import org.neo4j.values.AnyValues;
+import org.neo4j.values.storable.Values;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.neo4j.values.virtual.VirtualValueTestUtil.assertEqual;
 import static org.neo4j.values.virtual.VirtualValueTestUtil.map;
 
@@ -73,4 +83,38 @@ public class MapTest
                 map( "1", map( "2", map( "3", 1.0 ) ) ),
                 map( "1", map( "2", map( "3", 1 ) ) ) );
     }
+
+    @Test
+    public void shouldTreatCompactMapsLikeHashMaps()
+    {
+        // given
+        Map<String,AnyValue> hashMap = new HashMap<>();
+        hashMap.put( "1", Values.longValue( 101L ) );
+        hashMap.put( "20", Values.stringValue( "yo" ) );
+
+        // when
+        MapValue compact = VirtualValues.map( new String[]{"20", "1"},
+                new AnyValue[]{Values.stringValue( "yo" ), Values.longValue( 101L )} );
+
+        // then
+        assertEqual( compact, VirtualValues.map( hashMap ) );
+        assertEquals( 2, compact.size() );
+        assertEquals( Values.longValue( 101L ), compact.get( "1" ) );
+        assertEquals( Values.NO_VALUE, compact.get( "300" ) );
+        assertTrue( compact.containsKey( "20" ) );
+        assertFalse( compact.containsKey( "300" ) );
+        assertEquals( 0, AnyValues.COMPARATOR.compare( compact, VirtualValues.map( hashMap ) ) );
+    }
+
+    @Test
+    public void shouldLetLaterValuesWinForDuplicateKeys()
+    {
+        // when
+        MapValue map = VirtualValues.map( new String[]{"1", "1"},
+                new AnyValue[]{Values.longValue( 1L ), Values.longValue( 2L )} );
+
+        // then
+        assertEquals( 1, map.size() );
+        assertEquals( Values.longValue( 2L ), map.get( "1" ) );
+    }
 }
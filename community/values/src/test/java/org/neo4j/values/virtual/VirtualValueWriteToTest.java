@@ -33,6 +33,7 @@ import static org.neo4j.values.storable.Values.booleanValue;
 import static org.neo4j.values.storable.Values.byteArray;
 import static org.neo4j.values.storable.Values.charValue;
 import static org.neo4j.values.storable.Values.intValue;
+import static org.neo4j.values.storable.Values.longValue;
 import static org.neo4j.values.storable.Values.stringArray;
 import static org.neo4j.values.storable.Values.stringValue;
 import static org.neo4j.values.BufferAnyValueWriter.Specials.beginList;
@@ -78,10 +79,17 @@ public class VirtualValueWriteToTest
                                 new AnyValue[]{intValue( 100 ), charValue( 'c' )}
                         ),
                         beginMap( 2 ),
-                        "bar", 'c',
                         "foo", 100,
+                        "bar", 'c',
                         endMap()
                 ),
+                shouldWrite(
+                        VirtualValues.compactList( longValue( 1L ), longValue( -2L ) ),
+                        beginList( 2 ),
+                        1L,
+                        -2L,
+                        endList()
+                ),
                 shouldWrite(
                         VirtualValues.node( 1L ),
                         writeNodeReference( 1L )
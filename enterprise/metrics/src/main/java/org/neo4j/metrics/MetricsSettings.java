@@ -85,6 +85,11 @@ public class MetricsSettings implements LoadableConfig
     public static Setting<Boolean> neoCheckPointingEnabled = buildSetting(
             "metrics.neo4j.checkpointing.enabled", BOOLEAN ).inherits( neoEnabled ).build();
 
+    @Description( "Enable reporting metrics about Lucene schema indexes; how much time it takes to refresh their " +
+                  "searchers." )
+    public static Setting<Boolean> neoLuceneIndexEnabled = buildSetting(
+            "metrics.neo4j.lucene_index.enabled", BOOLEAN ).inherits( neoEnabled ).build();
+
     @Description( "Enable reporting metrics about the Neo4j log rotation; when it occurs and how much time it takes to "
                   + "complete." )
     public static Setting<Boolean> neoLogRotationEnabled = buildSetting(
@@ -49,6 +49,7 @@ import org.neo4j.metrics.source.db.CheckPointingMetrics;
 import org.neo4j.metrics.source.db.CypherMetrics;
 import org.neo4j.metrics.source.db.EntityCountMetrics;
 import org.neo4j.metrics.source.db.LogRotationMetrics;
+import org.neo4j.metrics.source.db.LuceneIndexMetrics;
 import org.neo4j.metrics.source.db.PageCacheMetrics;
 import org.neo4j.metrics.source.db.TransactionMetrics;
 import org.neo4j.metrics.source.jvm.GCMetrics;
@@ -123,6 +124,12 @@ public class Neo4jMetricsBuilder
             result = true;
         }
 
+        if ( config.get( MetricsSettings.neoLuceneIndexEnabled ) )
+        {
+            life.add( new LuceneIndexMetrics( registry, dependencies.monitors() ) );
+            result = true;
+        }
+
         if ( config.get( MetricsSettings.neoLogRotationEnabled ) )
         {
             life.add( new LogRotationMetrics( reporter, registry, dependencies.monitors(),
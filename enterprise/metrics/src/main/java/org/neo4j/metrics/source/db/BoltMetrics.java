@@ -25,6 +25,7 @@ import com.codahale.metrics.MetricRegistry;
 import java.util.concurrent.atomic.AtomicLong;
 
 import org.neo4j.bolt.v1.runtime.MonitoredWorkerFactory;
+import org.neo4j.bolt.v1.runtime.concurrent.PooledWorkerFactory;
 import org.neo4j.kernel.impl.annotations.Documented;
 import org.neo4j.kernel.lifecycle.LifecycleAdapter;
 import org.neo4j.kernel.monitoring.Monitors;
@@ -54,6 +55,18 @@ public class BoltMetrics extends LifecycleAdapter
     @Documented( "The accumulated time worker threads have spent processing messages." )
     public static final String TOTAL_PROCESSING_TIME = name( NAME_PREFIX, "accumulated_processing_time" );
 
+    @Documented( "The number of Bolt sessions currently bound to a thread of the Bolt thread pool. Only " +
+                 "reported when `bolt.thread_pool_max_size` is set." )
+    public static final String SESSIONS_BOUND = name( NAME_PREFIX, "sessions_bound" );
+    @Documented( "The accumulated time Bolt sessions with queued messages have spent waiting for a thread of the " +
+                 "Bolt thread pool. Only reported when `bolt.thread_pool_max_size` is set." )
+    public static final String TOTAL_THREAD_WAIT_TIME = name( NAME_PREFIX, "accumulated_thread_wait_time" );
+    @Documented( "The accumulated time Bolt sessions have been bound to a thread of the Bolt thread pool. This " +
+                 "includes the time spent processing messages, and the time spent holding on to the thread while " +
+                 "waiting for the next message of an open transaction. Only reported when " +
+                 "`bolt.thread_pool_max_size` is set." )
+    public static final String TOTAL_THREAD_BOUND_TIME = name( NAME_PREFIX, "accumulated_thread_bound_time" );
+
     private final MetricRegistry registry;
     private final Monitors monitors;
     private final BoltMetricsMonitor boltMonitor = new BoltMetricsMonitor();
@@ -74,6 +87,9 @@ public class BoltMetrics extends LifecycleAdapter
         registry.register( MESSAGES_DONE, (Gauge<Long>) boltMonitor.messagesDone::get );
         registry.register( TOTAL_QUEUE_TIME, (Gauge<Long>) boltMonitor.queueTime::get );
         registry.register( TOTAL_PROCESSING_TIME, (Gauge<Long>) boltMonitor.processingTime::get );
+        registry.register( SESSIONS_BOUND, (Gauge<Long>) boltMonitor.sessionsBound::get );
+        registry.register( TOTAL_THREAD_WAIT_TIME, (Gauge<Long>) boltMonitor.threadWaitTime::get );
+        registry.register( TOTAL_THREAD_BOUND_TIME, (Gauge<Long>) boltMonitor.threadBoundTime::get );
     }
 
     @Override
@@ -84,10 +100,13 @@ public class BoltMetrics extends LifecycleAdapter
         registry.remove( MESSAGES_DONE );
         registry.remove( TOTAL_QUEUE_TIME );
         registry.remove( TOTAL_PROCESSING_TIME );
+        registry.remove( SESSIONS_BOUND );
+        registry.remove( TOTAL_THREAD_WAIT_TIME );
+        registry.remove( TOTAL_THREAD_BOUND_TIME );
         monitors.removeMonitorListener( boltMonitor );
     }
 
-    private class BoltMetricsMonitor implements MonitoredWorkerFactory.SessionMonitor
+    private class BoltMetricsMonitor implements MonitoredWorkerFactory.SessionMonitor, PooledWorkerFactory.Monitor
     {
         final AtomicLong sessionsStarted = new AtomicLong();
 
@@ -101,6 +120,10 @@ public class BoltMetrics extends LifecycleAdapter
         final AtomicLong queueTime = new AtomicLong();
         final AtomicLong processingTime = new AtomicLong();
 
+        final AtomicLong sessionsBound = new AtomicLong();
+        final AtomicLong threadWaitTime = new AtomicLong();
+        final AtomicLong threadBoundTime = new AtomicLong();
+
         @Override
         public void sessionStarted()
         {
@@ -126,5 +149,19 @@ public class BoltMetrics extends LifecycleAdapter
             this.processingTime.addAndGet( processingTime );
             messagesDone.incrementAndGet();
         }
+
+        @Override
+        public void sessionBound( long waitTime )
+        {
+            this.threadWaitTime.addAndGet( waitTime );
+            sessionsBound.incrementAndGet();
+        }
+
+        @Override
+        public void sessionReleased( long boundTime )
+        {
+            this.threadBoundTime.addAndGet( boundTime );
+            sessionsBound.decrementAndGet();
+        }
     }
 }
@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.metrics.source.db;
+
+import com.codahale.metrics.MetricRegistry;
+
+import java.util.concurrent.TimeUnit;
+
+import org.neo4j.kernel.api.impl.schema.LuceneIndexAccessor;
+import org.neo4j.kernel.impl.annotations.Documented;
+import org.neo4j.kernel.lifecycle.LifecycleAdapter;
+import org.neo4j.kernel.monitoring.Monitors;
+
+import static com.codahale.metrics.MetricRegistry.name;
+
+@Documented( ".Lucene Schema Index Metrics" )
+public class LuceneIndexMetrics extends LifecycleAdapter
+{
+    private static final String NAME_PREFIX = "neo4j.lucene_index";
+
+    @Documented( "The time it takes to refresh the searchers of a Lucene schema index, which makes committed " +
+                 "changes visible to index reads. Reported per index, as neo4j.lucene_index.<index id>.refresh_time" )
+    public static final String REFRESH_TIME = "refresh_time";
+
+    private final MetricRegistry registry;
+    private final Monitors monitors;
+    private final LuceneIndexAccessor.Monitor refreshMonitor;
+
+    public LuceneIndexMetrics( MetricRegistry registry, Monitors monitors )
+    {
+        this.registry = registry;
+        this.monitors = monitors;
+        this.refreshMonitor = ( indexId, refreshTimeNanos ) ->
+                registry.timer( refreshTimeName( indexId ) ).update( refreshTimeNanos, TimeUnit.NANOSECONDS );
+    }
+
+    public static String refreshTimeName( long indexId )
+    {
+        return name( NAME_PREFIX, String.valueOf( indexId ), REFRESH_TIME );
+    }
+
+    @Override
+    public void start()
+    {
+        monitors.addMonitorListener( refreshMonitor );
+    }
+
+    @Override
+    public void stop()
+    {
+        monitors.removeMonitorListener( refreshMonitor );
+        registry.removeMatching( ( name, metric ) -> name.startsWith( NAME_PREFIX + "." ) );
+    }
+}
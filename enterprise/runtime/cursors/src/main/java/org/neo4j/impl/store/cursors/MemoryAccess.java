@@ -56,14 +56,9 @@ abstract class MemoryAccess
     {
         if ( this.pageMan != null )
         {
-            if ( this.pageMan != pageMan || this.pageId != pageId )
-            {
-                closeAccess();
-            }
-            else
-            {
-                lockRelease();
-            }
+            // the page manager has handed out the page anew, so the previous hand out is released even if it was the
+            // same page, to keep page managers that count the cursors on their pages balanced
+            closeAccess();
         }
         this.virtualAddress = virtualAddress;
         this.pageMan = pageMan;
@@ -78,7 +78,7 @@ public class ReadStore extends MemoryManager implements Read
     @Override
     public void allNodesScan( org.neo4j.impl.kernel.api.NodeCursor cursor )
     {
-        ((NodeCursor) cursor).init( nodes, 0, nodes.maxReference );
+        ((NodeCursor) cursor).init( nodes, 0, nodes.maxReference() );
     }
 
     @Override
@@ -102,7 +102,7 @@ public class ReadStore extends MemoryManager implements Read
     @Override
     public void allEdgesScan( org.neo4j.impl.kernel.api.EdgeScanCursor cursor )
     {
-        ((EdgeScanCursor) cursor).init( edges, 0, edges.maxReference );
+        ((EdgeScanCursor) cursor).init( edges, 0, edges.maxReference() );
     }
 
     @Override
@@ -190,10 +190,23 @@ public class ReadStore extends MemoryManager implements Read
         throw new UnsupportedOperationException( "not implemented" );
     }
 
+    /**
+     * Make records that have been written to the store files since this store was opened, or last refreshed,
+     * visible to cursors initialized after this call. The store files are mapped directly, so the writer must have
+     * flushed its changes to the files before calling this, e.g. after applying a batch of transactions.
+     */
+    public void refresh() throws IOException
+    {
+        for ( StoreFile file : new StoreFile[] {nodes, edges, edgeGroups, properties} )
+        {
+            file.refresh();
+        }
+    }
+
     public void shutdown()
     {
         IllegalStateException failure = null;
-        for ( StoreFile file : new StoreFile[] {nodes} )
+        for ( StoreFile file : new StoreFile[] {nodes, edges, edgeGroups, properties} )
         {
             try
             {
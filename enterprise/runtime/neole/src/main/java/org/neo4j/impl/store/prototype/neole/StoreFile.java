@@ -30,6 +30,10 @@ import java.nio.Buffer;
 import java.nio.ByteBuffer;
 import java.nio.MappedByteBuffer;
 import java.nio.channels.FileChannel;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import org.neo4j.impl.store.cursors.PageManager;
 import org.neo4j.impl.store.cursors.ReadCursor;
@@ -73,75 +77,283 @@ abstract class StoreFile extends PageManager implements Closeable
         };
     }
 
+    /**
+     * Store files are mapped in segments of this many bytes (rounded down to whole pages), rather than page by page,
+     * to keep the number of mappings, and thereby the number of kernel memory map entries, low for large stores.
+     */
+    static final long SEGMENT_SIZE = 64 * 1024 * 1024;
+
     private final FileChannel channel;
-    final long maxReference;
     private final int pageSize;
-    private long[] addresses;
-    private volatile MappedByteBuffer[] buffers;
+    private final int pagesPerSegment;
+    private volatile long fileSize;
+    private volatile long maxReference;
+    private volatile AtomicReferenceArray<Mapping> segments = new AtomicReferenceArray<>( 16 );
+    /**
+     * Copy of the page that the end of the file falls in. Only whole pages are mapped, so that mappings never reach
+     * past the end of the file, and the rest of the last page reads as zeros, like the pages beyond the end of the
+     * file do. The copy is taken again after each {@link #refresh()}, since the records in it may have been updated.
+     */
+    private volatile Mapping lastPage;
+    private final Mapping emptyPage;
+    /**
+     * Mappings and page copies that have been replaced, but that cursors still hold addresses into. They must stay
+     * reachable, and thereby mapped, until the last cursor on them has moved on.
+     */
+    private final Set<Mapping> retired = new HashSet<>();
 
     private StoreFile( File file ) throws IOException
     {
-        // even though we only use read access we need to request write access
-        // in order to be able to let memory mapping extend the file
-        this.channel = new RandomAccessFile( file, "rw" ).getChannel();
-        maxReference = channel.size() / recordSize();
+        // mapped read only, and never beyond the end of the file, so that reading doesn't extend the file
+        this.channel = new RandomAccessFile( file, "r" ).getChannel();
         pageSize = lcm( recordSize(), 4096 );
+        pagesPerSegment = (int) max( 1, SEGMENT_SIZE / pageSize );
+        emptyPage = new Mapping( -1, ByteBuffer.allocateDirect( pageSize ), 0 );
+        refresh();
     }
 
     abstract int recordSize();
 
-    private long pageBase( int pageId )
+    /**
+     * @return one past the highest record reference that was in the file when it was last {@link #refresh()
+     * refreshed}.
+     */
+    long maxReference()
+    {
+        return maxReference;
+    }
+
+    /**
+     * Make records that have been appended to the file since it was opened, or last refreshed, and records that have
+     * been updated in place, visible to new cursors.
+     * <p>
+     * This is intended to be called at the boundaries of batches of applied transactions, after the writer has flushed
+     * the store files, e.g. on read replicas where transactions pulled from the core members are applied. Updates to
+     * whole pages are visible through the mappings as soon as they are flushed, but the last page of the file is a copy,
+     * which is dropped here and taken again the next time it is accessed. Segments that only partially covered the
+     * file are remapped lazily, the first time a page beyond their end is accessed.
+     */
+    void refresh() throws IOException
+    {
+        long size = channel.size();
+        synchronized ( this )
+        {
+            fileSize = size;
+            maxReference = size / recordSize();
+            Mapping page = lastPage;
+            lastPage = null;
+            retire( page );
+        }
+    }
+
+    /**
+     * Finds the mapping of the given page, and registers a cursor on it, so that it isn't released while the cursor
+     * reads from it. The cursor unregisters with {@link #release(long, long)} when it moves to another page.
+     */
+    private Mapping acquire( int pageId )
+    {
+        while ( true )
+        {
+            Mapping mapping = mapping( pageId );
+            if ( mapping == emptyPage || mapping.tryAcquire() )
+            {
+                return mapping;
+            }
+            // the mapping was replaced, and released, since we looked it up, so look up the one that replaced it
+        }
+    }
+
+    private void release( long pageId, long base )
+    {
+        if ( base == emptyPage.address )
+        {
+            return;
+        }
+        Mapping mapping = mappingAt( pageId, base );
+        if ( mapping != null && mapping.releaseAndCheckIfUnused() )
+        {
+            synchronized ( this )
+            {
+                retired.remove( mapping );
+            }
+        }
+    }
+
+    /**
+     * @return the current or retired mapping that the given base address of the given page points into.
+     */
+    private Mapping mappingAt( long pageId, long base )
     {
-        MappedByteBuffer[] buffers = this.buffers;
-        if ( buffers == null )
+        long pageStart = pageId * pageSize;
+        Mapping page = lastPage;
+        if ( page != null && page.holds( pageStart, base ) )
+        {
+            return page;
+        }
+        long segment = pageId / pagesPerSegment;
+        AtomicReferenceArray<Mapping> segments = this.segments;
+        Mapping mapping = segment < segments.length() ? segments.get( (int) segment ) : null;
+        if ( mapping != null && mapping.holds( pageStart, base ) )
+        {
+            return mapping;
+        }
+        synchronized ( this )
+        {
+            for ( Mapping retiredMapping : retired )
+            {
+                if ( retiredMapping.holds( pageStart, base ) )
+                {
+                    return retiredMapping;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the number of replaced mappings that are kept, because cursors may still be reading from them.
+     */
+    synchronized int retiredMappings()
+    {
+        return retired.size();
+    }
+
+    private long pageBase( Mapping mapping, int pageId )
+    {
+        return mapping == emptyPage ? emptyPage.address : mapping.address + (pageId * (long) pageSize - mapping.start);
+    }
+
+    private Mapping mapping( int pageId )
+    {
+        long fileSize = this.fileSize;
+        long pageStart = pageId * (long) pageSize;
+        if ( pageStart >= fileSize )
+        {
+            return emptyPage;
+        }
+        if ( pageStart + pageSize > fileSize )
+        {
+            return lastPage( pageStart, fileSize );
+        }
+
+        int segment = pageId / pagesPerSegment;
+        long requiredSize = (pageId % (long) pagesPerSegment) * pageSize + pageSize;
+        AtomicReferenceArray<Mapping> segments = segments( segment );
+        Mapping mapping = segments.get( segment );
+        if ( mapping == null || mapping.size < requiredSize )
         {
             synchronized ( this )
             {
-                if ( (buffers = this.buffers) == null )
+                segments = this.segments;
+                mapping = segments.get( segment );
+                if ( mapping == null || mapping.size < requiredSize )
                 {
-                    this.buffers = buffers = new MappedByteBuffer[max( nextPowerOfTwo( pageId + 1 ), 16 )];
-                    this.addresses = new long[buffers.length];
+                    long segmentStart = segment * (long) pagesPerSegment * pageSize;
+                    long size = mappingSize( segmentStart, fileSize );
+                    Mapping newMapping = new Mapping( segmentStart, map( segmentStart, size ), size );
+                    segments.set( segment, newMapping );
+                    retire( mapping );
+                    mapping = newMapping;
                 }
             }
         }
-        if ( buffers.length <= pageId )
+        return mapping;
+    }
+
+    private AtomicReferenceArray<Mapping> segments( int segment )
+    {
+        AtomicReferenceArray<Mapping> segments = this.segments;
+        if ( segments.length() <= segment )
         {
             synchronized ( this )
             {
-                buffers = this.buffers;
-                if ( buffers.length <= pageId )
+                segments = this.segments;
+                if ( segments.length() <= segment )
                 {
-                    MappedByteBuffer[] newBuffers = new MappedByteBuffer[nextPowerOfTwo( pageId + 1 )];
-                    long[] newAddresses = new long[newBuffers.length];
-                    System.arraycopy( buffers, 0, newBuffers, 0, buffers.length );
-                    System.arraycopy( addresses, 0, newAddresses, 0, addresses.length );
-                    addresses = newAddresses;
-                    this.buffers = buffers = newBuffers;
+                    AtomicReferenceArray<Mapping> newSegments =
+                            new AtomicReferenceArray<>( nextPowerOfTwo( segment + 1 ) );
+                    for ( int i = 0; i < segments.length(); i++ )
+                    {
+                        newSegments.set( i, segments.get( i ) );
+                    }
+                    this.segments = segments = newSegments;
                 }
             }
         }
-        if ( buffers[pageId] == null )
+        return segments;
+    }
+
+    /**
+     * Size of the mapping of the segment starting at the given position: the whole pages of the file in the segment.
+     * Mapping all of them up front means that a growing file is only remapped once per segment, rather than once per
+     * page, while never mapping past the end of the file.
+     */
+    private long mappingSize( long segmentStart, long fileSize )
+    {
+        long segmentBytes = pagesPerSegment * (long) pageSize;
+        long wholePagesInFile = ((fileSize - segmentStart) / pageSize) * pageSize;
+        return Math.min( segmentBytes, wholePagesInFile );
+    }
+
+    private Mapping lastPage( long pageStart, long fileSize )
+    {
+        long bytesInFile = fileSize - pageStart;
+        Mapping page = lastPage;
+        if ( page == null || page.start != pageStart || page.size < bytesInFile )
         {
             synchronized ( this )
             {
-                buffers = this.buffers;
-                if ( buffers[pageId] == null )
+                page = lastPage;
+                if ( page == null || page.start != pageStart || page.size < bytesInFile )
                 {
-                    MappedByteBuffer buffer = map( pageId );
-                    addresses[pageId] = addressOf( buffer );
-                    buffers[pageId] = buffer;
+                    ByteBuffer buffer = ByteBuffer.allocateDirect( pageSize );
+                    buffer.limit( (int) bytesInFile );
+                    try
+                    {
+                        while ( buffer.hasRemaining() )
+                        {
+                            if ( channel.read( buffer, pageStart + buffer.position() ) < 0 )
+                            {
+                                throw new IllegalStateException( "File truncated while reading page at " + pageStart );
+                            }
+                        }
+                    }
+                    catch ( IOException e )
+                    {
+                        throw new IllegalStateException( e );
+                    }
+                    buffer.clear();
+                    Mapping previous = page;
+                    lastPage = page = new Mapping( pageStart, buffer, bytesInFile );
+                    retire( previous );
                 }
             }
         }
-        return addresses[pageId];
+        return page;
     }
 
-    private MappedByteBuffer map( int pageId )
+    /**
+     * Keeps a replaced mapping reachable until no cursor reads from it anymore. Must be called after the mapping has
+     * been replaced, so that cursors that fail to {@link Mapping#tryAcquire() acquire} it find its replacement.
+     */
+    private synchronized void retire( Mapping mapping )
+    {
+        if ( mapping != null )
+        {
+            mapping.retired = true;
+            retired.add( mapping );
+            if ( mapping.tryRelease() )
+            {
+                retired.remove( mapping );
+            }
+        }
+    }
+
+    private MappedByteBuffer map( long position, long size )
     {
-        int pageSize = this.pageSize;
         try
         {
-            return channel.map( READ_ONLY, pageId * (long) pageSize, pageSize );
+            return channel.map( READ_ONLY, position, size );
         }
         catch ( IOException e )
         {
@@ -149,6 +361,62 @@ abstract class StoreFile extends PageManager implements Closeable
         }
     }
 
+    /**
+     * A buffer over part of the file, with its address and the number of bytes of the file it holds. Mappings are
+     * immutable and published as a whole, so a reader never sees the size of one mapping with the address of another.
+     * They count the cursors that are on their pages, so that they can be released once they have been replaced, and
+     * the last of those cursors has moved on.
+     */
+    private static final class Mapping
+    {
+        private static final int RELEASED = -1;
+
+        final long start;
+        final ByteBuffer buffer;
+        final long address;
+        final long size;
+        private final AtomicInteger users = new AtomicInteger();
+        volatile boolean retired;
+
+        Mapping( long start, ByteBuffer buffer, long size )
+        {
+            this.start = start;
+            this.buffer = buffer;
+            this.address = addressOf( buffer );
+            this.size = size;
+        }
+
+        boolean holds( long pageStart, long base )
+        {
+            return pageStart >= start && pageStart < start + size && base == address + (pageStart - start);
+        }
+
+        boolean tryAcquire()
+        {
+            for ( int count = users.get(); count != RELEASED; count = users.get() )
+            {
+                if ( users.compareAndSet( count, count + 1 ) )
+                {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * @return {@code true} if this was the last user of a retired mapping, which is now released.
+         */
+        boolean releaseAndCheckIfUnused()
+        {
+            return users.decrementAndGet() == 0 && retired && tryRelease();
+        }
+
+        boolean tryRelease()
+        {
+            return users.compareAndSet( 0, RELEASED );
+        }
+    }
+
     private static final MethodHandle BUFFER_ADDRESS;
 
     static
@@ -167,7 +435,7 @@ abstract class StoreFile extends PageManager implements Closeable
         BUFFER_ADDRESS = handle;
     }
 
-    private static long addressOf( MappedByteBuffer buffer )
+    private static long addressOf( ByteBuffer buffer )
     {
         try
         {
@@ -183,6 +451,10 @@ abstract class StoreFile extends PageManager implements Closeable
     public void close() throws IOException
     {
         channel.close();
+        synchronized ( this )
+        {
+            retired.clear();
+        }
     }
 
     @Override
@@ -195,7 +467,7 @@ abstract class StoreFile extends PageManager implements Closeable
         long address = virtualAddress * recordSize();
         int pageId = (int) (address / pageSize);
         int offset = (int) (address % pageSize);
-        long base = pageBase( pageId );
+        long base = pageBase( acquire( pageId ), pageId );
         assertValidOffset( pageId, base, offset, recordSize() );
         initialize( cursor, virtualAddress, this, pageId, base, offset );
         return true;
@@ -224,9 +496,10 @@ abstract class StoreFile extends PageManager implements Closeable
         }
         else
         {
-            long newBase = pageBase( newPageId );
+            long newBase = pageBase( acquire( newPageId ), newPageId );
             assertValidOffset( newPageId, newBase, newOffset, recordSize() );
             read( cursor, virtualAddress, newPageId, newBase, newOffset );
+            release( pageId, base );
         }
         return true;
     }
@@ -234,6 +507,7 @@ abstract class StoreFile extends PageManager implements Closeable
     @Override
     protected void releasePage( long pageId, long base, int offset, long lockToken )
     {
+        release( pageId, base );
     }
 
     @Override
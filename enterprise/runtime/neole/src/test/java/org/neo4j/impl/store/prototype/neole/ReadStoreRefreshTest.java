@@ -0,0 +1,216 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.impl.store.prototype.neole;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.graphdb.factory.GraphDatabaseFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ReadStoreRefreshTest
+{
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void shouldSeeRecordsAppendedToStoreFilesAfterRefresh() throws Exception
+    {
+        // given
+        createNodes( 10 );
+        ReadStore store = new ReadStore( folder.getRoot() );
+        try
+        {
+            assertEquals( 10, countNodes( store ) );
+
+            // when, enough nodes to span several pages
+            createNodes( 5_000 );
+            store.refresh();
+
+            // then
+            assertEquals( 5_010, countNodes( store ) );
+        }
+        finally
+        {
+            store.shutdown();
+        }
+    }
+
+    @Test
+    public void shouldSeeRecordsUpdatedInPlaceInLastPageAfterRefresh() throws Exception
+    {
+        // given
+        createNodes( 10 );
+        ReadStore store = new ReadStore( folder.getRoot() );
+        try
+        {
+            assertEquals( 10, countNodes( store ) );
+
+            // when, the whole store fits in the last, partially filled, page
+            deleteNodes( 0, 5 );
+            store.refresh();
+
+            // then
+            assertEquals( 5, countNodes( store ) );
+        }
+        finally
+        {
+            store.shutdown();
+        }
+    }
+
+    @Test
+    public void shouldSeeRecordsUpdatedInPlaceInWholePagesAfterRefresh() throws Exception
+    {
+        // given
+        createNodes( 5_000 );
+        ReadStore store = new ReadStore( folder.getRoot() );
+        try
+        {
+            assertEquals( 5_000, countNodes( store ) );
+
+            // when, both in the first page and in the last
+            deleteNodes( 0, 5 );
+            deleteNodes( 4_990, 5_000 );
+            store.refresh();
+
+            // then
+            assertEquals( 4_985, countNodes( store ) );
+        }
+        finally
+        {
+            store.shutdown();
+        }
+    }
+
+    @Test
+    public void shouldReleaseReplacedMappingsOnceNoCursorReadsFromThem() throws Exception
+    {
+        // given
+        createNodes( 10 );
+        try ( StoreFile nodes = StoreFile.fixedSizeRecordFile(
+                new File( folder.getRoot(), "neostore.nodestore.db" ), NodeCursor.RECORD_SIZE ) )
+        {
+            NodeCursor cursor = new NodeCursor( null );
+            cursor.init( nodes, 0, nodes.maxReference() );
+            assertTrue( cursor.next() );
+
+            // when
+            createNodes( 10 );
+            nodes.refresh();
+
+            // then
+            assertEquals( 1, nodes.retiredMappings() );
+            cursor.close();
+            assertEquals( 0, nodes.retiredMappings() );
+
+            // and when
+            nodes.refresh();
+
+            // then
+            assertEquals( 0, nodes.retiredMappings() );
+        }
+    }
+
+    @Test
+    public void shouldNotExtendStoreFilesWhenReading() throws Exception
+    {
+        // given
+        createNodes( 10 );
+        File nodeStore = new File( folder.getRoot(), "neostore.nodestore.db" );
+        long sizeBefore = nodeStore.length();
+
+        // when
+        ReadStore store = new ReadStore( folder.getRoot() );
+        try
+        {
+            assertEquals( 10, countNodes( store ) );
+        }
+        finally
+        {
+            store.shutdown();
+        }
+
+        // then
+        assertEquals( sizeBefore, nodeStore.length() );
+    }
+
+    private void createNodes( int count )
+    {
+        GraphDatabaseService graphDb = new GraphDatabaseFactory().newEmbeddedDatabase( folder.getRoot() );
+        try
+        {
+            try ( Transaction tx = graphDb.beginTx() )
+            {
+                for ( int i = 0; i < count; i++ )
+                {
+                    graphDb.createNode();
+                }
+                tx.success();
+            }
+        }
+        finally
+        {
+            // shutting down flushes the store files, like a read replica would at the end of an applied batch
+            graphDb.shutdown();
+        }
+    }
+
+    private void deleteNodes( long fromId, long toId )
+    {
+        GraphDatabaseService graphDb = new GraphDatabaseFactory().newEmbeddedDatabase( folder.getRoot() );
+        try
+        {
+            try ( Transaction tx = graphDb.beginTx() )
+            {
+                for ( long id = fromId; id < toId; id++ )
+                {
+                    graphDb.getNodeById( id ).delete();
+                }
+                tx.success();
+            }
+        }
+        finally
+        {
+            graphDb.shutdown();
+        }
+    }
+
+    private static int countNodes( ReadStore store )
+    {
+        int count = 0;
+        try ( NodeCursor nodes = store.cursorFactory().allocateNodeCursor() )
+        {
+            store.allNodesScan( nodes );
+            while ( nodes.next() )
+            {
+                count++;
+            }
+        }
+        return count;
+    }
+}